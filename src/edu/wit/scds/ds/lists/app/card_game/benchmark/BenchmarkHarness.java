@@ -0,0 +1,583 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.benchmark ;
+
+import java.lang.management.ManagementFactory ;
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.regex.Pattern ;
+
+
+/**
+ * Measures the cost of small operations, in the spirit of JMH
+ * <p>
+ * each benchmark runs for a number of timed warmup iterations, so the JIT
+ * compiler has a chance to optimize it, then for a number of measured
+ * iterations. Every iteration repeatedly invokes the benchmark's (untimed)
+ * setup then its (timed) operation, until the iteration's time is up. The
+ * operation reports how many operations it performed, so a single invocation
+ * may, for example, add every card in a pile - the reported costs are per
+ * operation.
+ * <p>
+ * Allocation is measured by the JVM's per-thread allocated byte counter, so
+ * benchmarks must run on the calling thread.
+ * <p>
+ * Settings may be given on the command line, as {@code name=value}:
+ * <ul>
+ * <li>{@code warmup} - warmup iterations (default 3)
+ * <li>{@code iterations} - measured iterations (default 5)
+ * <li>{@code time} - milliseconds per iteration (default 100)
+ * <li>{@code filter} - a regular expression; only benchmarks whose name and
+ * parameters contain a match are run
+ * </ul>
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class BenchmarkHarness
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** default number of warmup iterations */
+    public final static int DEFAULT_WARMUP_ITERATIONS = 3 ;
+
+    /** default number of measured iterations */
+    public final static int DEFAULT_MEASURED_ITERATIONS = 5 ;
+
+    /** default duration of each iteration in milliseconds */
+    public final static long DEFAULT_ITERATION_MILLISECONDS = 100 ;
+
+    /** column layout for the report */
+    private final static String REPORT_FORMAT = "%-28s %-36s %12s %10s %12s%n" ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the number of untimed iterations before measuring */
+    private final int warmupIterations ;
+
+    /** the number of measured iterations */
+    private final int measuredIterations ;
+
+    /** the duration of each iteration in nanoseconds */
+    private final long iterationNanoseconds ;
+
+    /** selects the benchmarks to run or {@code null} to run them all */
+    private final Pattern filter ;
+
+    /** the JVM's allocation counter, {@code null} if unsupported */
+    private final com.sun.management.ThreadMXBean allocationCounter ;
+
+    /** consumes every benchmark's results */
+    private final Blackhole blackhole ;
+
+    /** the measurements taken so far */
+    private final List<Result> results ;
+
+    /** set once the report's column headings have been displayed */
+    private boolean headingsDisplayed ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * set up a harness with the default settings which runs every benchmark
+     */
+    public BenchmarkHarness()
+        {
+
+        this( DEFAULT_WARMUP_ITERATIONS,
+              DEFAULT_MEASURED_ITERATIONS,
+              DEFAULT_ITERATION_MILLISECONDS,
+              null ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * set up a harness
+     *
+     * @param warmups
+     *     the number of untimed iterations before measuring
+     * @param iterations
+     *     the number of measured iterations
+     * @param iterationMilliseconds
+     *     the duration of each iteration
+     * @param benchmarkFilter
+     *     a regular expression selecting the benchmarks to run or {@code null}
+     *     to run them all
+     *
+     * @throws IllegalArgumentException
+     *     if the warmups is negative or the iterations or duration isn't
+     *     positive
+     */
+    public BenchmarkHarness( final int warmups,
+                             final int iterations,
+                             final long iterationMilliseconds,
+                             final String benchmarkFilter )
+        {
+
+        if ( ( warmups < 0 ) || ( iterations < 1 ) || ( iterationMilliseconds < 1 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't run %,d warmup and %,d measured iteration(s) of %,d ms",
+                                                               warmups,
+                                                               iterations,
+                                                               iterationMilliseconds ) ) ;
+            }
+
+        this.warmupIterations = warmups ;
+        this.measuredIterations = iterations ;
+        this.iterationNanoseconds = iterationMilliseconds * 1_000_000 ;
+        this.filter = benchmarkFilter == null
+            ? null
+            : Pattern.compile( benchmarkFilter ) ;
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean() ;
+
+        if ( threads.isThreadAllocatedMemorySupported() )
+            {
+            threads.setThreadAllocatedMemoryEnabled( true ) ;
+            this.allocationCounter = threads ;
+            }
+        else
+            {
+            this.allocationCounter = null ;
+            }
+
+        this.blackhole = new Blackhole() ;
+        this.results = new ArrayList<>() ;
+
+        }   // end 4-arg constructor
+
+
+    /**
+     * set up a harness from command line settings
+     *
+     * @param args
+     *     settings in the form {@code name=value} - see the class description
+     *
+     * @return the harness
+     *
+     * @throws IllegalArgumentException
+     *     if a setting is unrecognized or malformed
+     */
+    public static BenchmarkHarness fromArguments( final String[] args )
+        {
+
+        int warmups = DEFAULT_WARMUP_ITERATIONS ;
+        int iterations = DEFAULT_MEASURED_ITERATIONS ;
+        long iterationMilliseconds = DEFAULT_ITERATION_MILLISECONDS ;
+        String benchmarkFilter = null ;
+
+        for ( final String argument : args )
+            {
+            final int separatorPosition = argument.indexOf( '=' ) ;
+
+            if ( separatorPosition < 0 )
+                {
+                throw new IllegalArgumentException( String.format( "expected name=value, found '%s'", argument ) ) ;
+                }
+
+            final String value = argument.substring( separatorPosition + 1 ) ;
+
+            try
+                {
+
+                switch ( argument.substring( 0, separatorPosition ) )
+                    {
+                    case "warmup" -> warmups = Integer.parseInt( value ) ;
+                    case "iterations" -> iterations = Integer.parseInt( value ) ;
+                    case "time" -> iterationMilliseconds = Long.parseLong( value ) ;
+                    case "filter" -> benchmarkFilter = value ;
+                    default -> throw new IllegalArgumentException( String.format( "unrecognized setting '%s'",
+                                                                                  argument ) ) ;
+                    }
+
+                }
+            catch ( final NumberFormatException e )
+                {
+                throw new IllegalArgumentException( String.format( "'%s' is not a valid number", argument ), e ) ;
+                }
+            }
+
+        return new BenchmarkHarness( warmups, iterations, iterationMilliseconds, benchmarkFilter ) ;
+
+        }   // end fromArguments()
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * retrieve the measurements taken so far
+     *
+     * @return the measurements, in the order taken
+     */
+    public List<Result> getResults()
+        {
+
+        return Collections.unmodifiableList( this.results ) ;
+
+        }   // end getResults()
+
+
+    /**
+     * run a benchmark which needs no setup and display its measurement
+     *
+     * @param name
+     *     identifies the benchmark
+     * @param parameters
+     *     describes the benchmark's configuration
+     * @param operation
+     *     the code to measure
+     *
+     * @return the measurement or {@code null} if the filter excluded the
+     *     benchmark
+     */
+    public Result run( final String name,
+                       final String parameters,
+                       final Operation operation )
+        {
+
+        return run( name, parameters, null, operation ) ;
+
+        }   // end 3-arg run()
+
+
+    /**
+     * run a benchmark and display its measurement
+     *
+     * @param name
+     *     identifies the benchmark
+     * @param parameters
+     *     describes the benchmark's configuration
+     * @param setup
+     *     prepares for each invocation of {@code operation} - not timed - or
+     *     {@code null} if no preparation is needed
+     * @param operation
+     *     the code to measure
+     *
+     * @return the measurement or {@code null} if the filter excluded the
+     *     benchmark
+     */
+    public Result run( final String name,
+                       final String parameters,
+                       final Runnable setup,
+                       final Operation operation )
+        {
+
+        Objects.requireNonNull( name, "name" ) ;
+        Objects.requireNonNull( parameters, "parameters" ) ;
+        Objects.requireNonNull( operation, "operation" ) ;
+
+        if ( ( this.filter != null ) && !this.filter.matcher( name + " " + parameters ).find() )
+            {
+            return null ;
+            }
+
+        for ( int i = 0 ; i < this.warmupIterations ; i++ )
+            {
+            runIteration( setup, operation ) ;
+            }
+
+        final double[] nanosecondsPerOperation = new double[ this.measuredIterations ] ;
+        long totalOperations = 0 ;
+        long totalBytes = 0 ;
+
+        for ( int i = 0 ; i < this.measuredIterations ; i++ )
+            {
+            final Iteration measured = runIteration( setup, operation ) ;
+
+            nanosecondsPerOperation[ i ] = (double) measured.nanoseconds / measured.operations ;
+            totalOperations += measured.operations ;
+            totalBytes += measured.bytes ;
+            }
+
+        // mean and standard deviation across the measured iterations
+        double sum = 0 ;
+
+        for ( final double score : nanosecondsPerOperation )
+            {
+            sum += score ;
+            }
+
+        final double mean = sum / this.measuredIterations ;
+        double squaredDeviations = 0 ;
+
+        for ( final double score : nanosecondsPerOperation )
+            {
+            squaredDeviations += ( score - mean ) * ( score - mean ) ;
+            }
+
+        final Result result = new Result( name,
+                                          parameters,
+                                          mean,
+                                          Math.sqrt( squaredDeviations / this.measuredIterations ),
+                                          this.allocationCounter == null
+                                              ? Double.NaN
+                                              : (double) totalBytes / totalOperations,
+                                          totalOperations ) ;
+
+        this.results.add( result ) ;
+
+        if ( !this.headingsDisplayed )
+            {
+            System.out.printf( REPORT_FORMAT, "Benchmark", "Parameters", "ns/op", "error", "B/op" ) ;
+            this.headingsDisplayed = true ;
+            }
+
+        System.out.print( result ) ;
+
+        return result ;
+
+        }   // end 4-arg run()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * retrieve the number of bytes allocated by the current thread
+     *
+     * @return the number of bytes, 0 if allocation isn't measured
+     */
+    private long allocatedBytes()
+        {
+
+        return this.allocationCounter == null
+            ? 0
+            : this.allocationCounter.getCurrentThreadAllocatedBytes() ;
+
+        }   // end allocatedBytes()
+
+
+    /**
+     * invoke the operation until the iteration time is up
+     *
+     * @param setup
+     *     prepares for each invocation or {@code null}
+     * @param operation
+     *     the code to measure
+     *
+     * @return the totals for the iteration
+     *
+     * @throws IllegalStateException
+     *     if the operation reports performing no operations
+     */
+    private Iteration runIteration( final Runnable setup,
+                                    final Operation operation )
+        {
+
+        final Iteration totals = new Iteration() ;
+        final long deadline = System.nanoTime() + this.iterationNanoseconds ;
+
+        do
+            {
+
+            if ( setup != null )
+                {
+                setup.run() ;
+                }
+
+            final long startBytes = allocatedBytes() ;
+            final long startTime = System.nanoTime() ;
+
+            final long operations = operation.run( this.blackhole ) ;
+
+            final long endTime = System.nanoTime() ;
+            final long endBytes = allocatedBytes() ;
+
+            if ( operations < 1 )
+                {
+                throw new IllegalStateException( "an operation must report at least one operation performed" ) ;
+                }
+
+            totals.nanoseconds += endTime - startTime ;
+            totals.bytes += endBytes - startBytes ;
+            totals.operations += operations ;
+            }
+        while ( System.nanoTime() < deadline ) ;
+
+        return totals ;
+
+        }   // end runIteration()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * the code being measured
+     */
+    @FunctionalInterface
+    public interface Operation
+        {
+
+        /**
+         * perform the operation(s) being measured
+         *
+         * @param blackhole
+         *     consumes results which would otherwise be unused
+         *
+         * @return the number of operations performed - at least 1
+         */
+        long run( Blackhole blackhole ) ;
+
+        }   // end interface Operation
+
+
+    /**
+     * the measurement of one benchmark
+     *
+     * @param name
+     *     identifies the benchmark
+     * @param parameters
+     *     describes the benchmark's configuration
+     * @param nanosecondsPerOperation
+     *     the average time per operation
+     * @param error
+     *     the standard deviation of the per-iteration averages
+     * @param bytesPerOperation
+     *     the average number of bytes allocated per operation, {@code NaN} if
+     *     allocation couldn't be measured
+     * @param operations
+     *     the number of operations measured
+     */
+    public record Result( String name,
+                          String parameters,
+                          double nanosecondsPerOperation,
+                          double error,
+                          double bytesPerOperation,
+                          long operations )
+        {
+
+        @Override
+        public String toString()
+            {
+
+            return String.format( REPORT_FORMAT,
+                                  this.name,
+                                  this.parameters,
+                                  String.format( "%,.2f", this.nanosecondsPerOperation ),
+                                  String.format( "%,.2f", this.error ),
+                                  String.format( "%,.1f", this.bytesPerOperation ) ) ;
+
+            }   // end toString()
+
+        }   // end record Result
+
+
+    /**
+     * running totals for one iteration
+     */
+    private static final class Iteration
+        {
+
+        /** time spent in the operation */
+        long nanoseconds ;
+
+        /** bytes allocated by the operation */
+        long bytes ;
+
+        /** operations performed */
+        long operations ;
+
+        }   // end class Iteration
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - measures operations with known costs: one with no
+     * allocation and one which allocates a 16-element {@code long} array (144
+     * bytes, including the header, on a typical 64-bit JVM)
+     *
+     * @param args
+     *     harness settings - see the class description
+     */
+    public static void main( final String[] args )
+        {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromArguments( args ) ;
+
+        harness.run( "sum",
+                     "1,000 ints",
+                     blackhole ->
+                         {
+                         int sum = 0 ;
+
+                         for ( int i = 0 ; i < 1_000 ; i++ )
+                             {
+                             sum += i ;
+                             }
+
+                         blackhole.consume( sum ) ;
+
+                         return 1_000 ;
+                         } ) ;
+
+        harness.run( "allocate",
+                     "long[16]",
+                     blackhole ->
+                         {
+                         blackhole.consume( new long[ 16 ] ) ;
+
+                         return 1 ;
+                         } ) ;
+
+        System.out.printf( "%n%,d benchmarks measured%n", harness.getResults().size() ) ;
+
+        }   // end main()
+
+    }   // end class BenchmarkHarness
@@ -0,0 +1,158 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.benchmark ;
+
+import java.util.concurrent.ThreadLocalRandom ;
+
+
+/**
+ * Consumes the results of benchmarked code so the JIT compiler can't discard
+ * the computation that produced them
+ * <p>
+ * each primitive value is compared with a volatile 'trap' the compiler can't
+ * predict; the comparison practically never succeeds but must be performed,
+ * so the value must be computed. Each object is, very occasionally, stored in
+ * a field - since it might escape, it must really be allocated.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class Blackhole
+    {
+
+    /*
+     * data fields
+     */
+
+
+    /** a value no benchmark is likely to produce */
+    private volatile long valueTrap = ThreadLocalRandom.current().nextLong() ;
+
+    /** a pseudo-random sequence deciding when to keep a consumed object */
+    private int keepSequence = (int) System.nanoTime() ;
+
+    /** the bits of {@code keepSequence} which must be 0 to keep an object */
+    private int keepMask = 1 ;
+
+    /** the most recently kept object */
+    private Object kept ;
+
+    /** the number of times a trap was sprung */
+    private int sprung ;
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * consume a {@code boolean}
+     *
+     * @param value
+     *     the result to consume
+     */
+    public void consume( final boolean value )
+        {
+
+        consume( value
+            ? 1L
+            : 0L ) ;
+
+        }   // end consume() for boolean
+
+
+    /**
+     * consume an {@code int}
+     *
+     * @param value
+     *     the result to consume
+     */
+    public void consume( final int value )
+        {
+
+        consume( (long) value ) ;
+
+        }   // end consume() for int
+
+
+    /**
+     * consume a {@code long}
+     *
+     * @param value
+     *     the result to consume
+     */
+    public void consume( final long value )
+        {
+
+        if ( value == this.valueTrap )
+            {
+            this.sprung++ ;
+            }
+
+        }   // end consume() for long
+
+
+    /**
+     * consume an object reference
+     *
+     * @param value
+     *     the result to consume
+     */
+    public void consume( final Object value )
+        {
+
+        // linear congruential generator - keeps exponentially fewer objects over time
+        this.keepSequence = ( this.keepSequence * 1_664_525 ) + 1_013_904_223 ;
+
+        if ( ( this.keepSequence & this.keepMask ) == 0 )
+            {
+            this.kept = value ;
+            this.keepMask = ( this.keepMask << 1 ) | 1 ;
+            }
+
+        }   // end consume() for Object
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "Blackhole (sprung %,d times, kept %s)",
+                              this.sprung,
+                              this.kept == null
+                                  ? "nothing"
+                                  : this.kept.getClass().getSimpleName() ) ;
+
+        }   // end toString()
+
+    }   // end class Blackhole
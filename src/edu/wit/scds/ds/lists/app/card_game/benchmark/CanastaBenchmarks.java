@@ -0,0 +1,412 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.benchmark ;
+
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.MeldGenerator ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.Player ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.ArrayDeque ;
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.EnumMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.SplittableRandom ;
+
+
+/**
+ * Benchmarks for the Canasta scoring and meld checks which run at the end of
+ * every turn or hand in a simulation
+ * <p>
+ * each benchmark runs against generated players whose hands and melds range
+ * from a typical mid-game position to extremes far beyond normal play, so
+ * costs which grow with the size of the hand or melds stand out. Scoring,
+ * including batch scoring, is reported per player scored, {@code canFormMeldWith()} and meld
+ * generation per top card checked, and the meld checks per meld.
+ * <p>
+ * run with {@link BenchmarkHarness} settings as arguments, e.g.
+ * {@code filter=evaluate time=200}
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add batch scoring
+ * @version 1.2 2026-10-18 add {@code Meld.canExtendWith()}
+ * @version 1.3 2026-10-18 add {@code MeldGenerator.generate()}
+ */
+public final class CanastaBenchmarks
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the natural ranks a meld may be built from */
+    private final static Rank[] MELD_RANKS = { Rank.THREE,
+                                               Rank.FOUR,
+                                               Rank.FIVE,
+                                               Rank.SIX,
+                                               Rank.SEVEN,
+                                               Rank.EIGHT,
+                                               Rank.NINE,
+                                               Rank.TEN,
+                                               Rank.JACK,
+                                               Rank.QUEEN,
+                                               Rank.KING,
+                                               Rank.ACE } ;
+
+    /** the number of players scored by each batch scoring call */
+    private final static int BATCH_SIZE = 16 ;
+
+    /** the most wild cards allowed in a meld */
+    private final static int MAXIMUM_WILD_CARDS = 3 ;
+
+    /** seeds the card selection so every run measures the same positions */
+    private final static long SEED = 20261018L ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * prevent instantiation
+     */
+    private CanastaBenchmarks()
+        {
+
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * run the benchmarks for one generated position
+     *
+     * @param harness
+     *     runs and reports each benchmark
+     * @param decks
+     *     the number of decks the cards are drawn from
+     * @param handSize
+     *     the number of cards in the player's hand
+     * @param meldCount
+     *     the number of melds the player has laid down
+     * @param meldSize
+     *     the number of cards in each meld - every other meld includes wild
+     *     cards
+     */
+    public static void benchmark( final BenchmarkHarness harness,
+                                  final int decks,
+                                  final int handSize,
+                                  final int meldCount,
+                                  final int meldSize )
+        {
+
+        final String parameters = String.format( "%,d card hand, %,d x %,d card melds", handSize, meldCount, meldSize ) ;
+
+        final Player player = generatePlayer( decks, handSize, meldCount, meldSize ) ;
+        final List<Meld> melds = player.getMelds() ;
+
+        // one candidate top card of each natural rank
+        final List<Card> topCards = new ArrayList<>( MELD_RANKS.length ) ;
+
+        for ( final Rank aRank : MELD_RANKS )
+            {
+            topCards.add( new Card( aRank,
+                                    ( aRank.ordinal() % 2 ) == 0
+                                        ? Suit.SPADES
+                                        : Suit.HEARTS ) ) ;
+            }
+
+        harness.run( "evaluatePerRound",
+                     parameters,
+                     blackhole ->
+                         {
+                         player.evaluatePerRound() ;
+                         blackhole.consume( player.getScore() ) ;
+
+                         return 1 ;
+                         } ) ;
+
+        final List<Player> batch = Collections.nCopies( BATCH_SIZE, player ) ;
+        final int[] batchScores = new int[ BATCH_SIZE ] ;
+
+        harness.run( "evaluatePerRound (batch)",
+                     parameters,
+                     blackhole ->
+                         {
+                         blackhole.consume( Player.evaluatePerRound( batch, batchScores )[ 0 ] ) ;
+
+                         return BATCH_SIZE ;
+                         } ) ;
+
+        harness.run( "evaluateAtEnd",
+                     parameters,
+                     blackhole ->
+                         {
+                         player.evaluateAtEnd() ;
+                         blackhole.consume( player.getScore() ) ;
+
+                         return 1 ;
+                         } ) ;
+
+        harness.run( "tallyRoundPoints",
+                     parameters,
+                     blackhole ->
+                         {
+                         player.tallyRoundPoints() ;
+
+                         return 1 ;
+                         } ) ;
+
+        harness.run( "canFormMeldWith",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : topCards )
+                             {
+                             blackhole.consume( player.canFormMeldWith( aCard ) ) ;
+                             }
+
+                         return topCards.size() ;
+                         } ) ;
+
+        final MeldGenerator generator = new MeldGenerator() ;
+
+        harness.run( "MeldGenerator.generate",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : topCards )
+                             {
+                             blackhole.consume( generator.generate( player, aCard ) ) ;
+                             }
+
+                         return topCards.size() ;
+                         } ) ;
+
+        harness.run( "Meld.validateMeld",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Meld aMeld : melds )
+                             {
+                             blackhole.consume( aMeld.validateMeld() ) ;
+                             }
+
+                         return melds.size() ;
+                         } ) ;
+
+        harness.run( "Meld.countWildCards",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Meld aMeld : melds )
+                             {
+                             blackhole.consume( aMeld.countWildCards() ) ;
+                             }
+
+                         return melds.size() ;
+                         } ) ;
+
+        harness.run( "Meld.canExtendWith",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Meld aMeld : melds )
+                             {
+                             blackhole.consume( aMeld.canExtendWith( topCards.getFirst() ) ) ;
+                             }
+
+                         return melds.size() ;
+                         } ) ;
+
+        harness.run( "Meld.isCanasta",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Meld aMeld : melds )
+                             {
+                             blackhole.consume( aMeld.isCanasta() ) ;
+                             }
+
+                         return melds.size() ;
+                         } ) ;
+
+        }   // end benchmark()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * create a player holding a hand and melds drawn from shuffled decks
+     *
+     * @param decks
+     *     the number of decks the cards are drawn from
+     * @param handSize
+     *     the number of cards in the player's hand
+     * @param meldCount
+     *     the number of melds the player has laid down
+     * @param meldSize
+     *     the number of cards in each meld
+     *
+     * @return the player
+     *
+     * @throws IllegalArgumentException
+     *     if the decks don't hold enough cards of the required ranks
+     */
+    private static Player generatePlayer( final int decks,
+                                          final int handSize,
+                                          final int meldCount,
+                                          final int meldSize )
+        {
+
+        final SplittableRandom random = new SplittableRandom( SEED ) ;
+
+        // shuffle the cards then sort them by rank, keeping the shuffled order within each rank
+        final List<Card> cards = new ArrayList<>() ;
+
+        for ( int i = 0 ; i < decks ; i++ )
+            {
+
+            for ( final CardBase aCard : new Deck().removeAllCards() )
+                {
+                cards.add( (Card) aCard ) ;
+                }
+
+            }
+
+        Collections.shuffle( cards, random ) ;
+
+        final Map<Rank, ArrayDeque<Card>> cardsByRank = new EnumMap<>( Rank.class ) ;
+
+        for ( final Card aCard : cards )
+            {
+            cardsByRank.computeIfAbsent( aCard.rank, rank -> new ArrayDeque<>() ).add( aCard ) ;
+            }
+
+        final ArrayDeque<Card> wildCards = new ArrayDeque<>( cardsByRank.get( Rank.TWO ) ) ;
+        wildCards.addAll( cardsByRank.get( Rank.JOKER ) ) ;
+
+        final Player player = new Player( "Benchmark" ) ;
+
+        // melds cycle through the ranks; every other meld is dirty
+        for ( int i = 0 ; i < meldCount ; i++ )
+            {
+            final ArrayDeque<Card> naturals = cardsByRank.get( MELD_RANKS[ i % MELD_RANKS.length ] ) ;
+            final int wilds = ( i % 2 ) == 0
+                ? 0
+                : Math.min( MAXIMUM_WILD_CARDS, meldSize / 3 ) ;
+
+            if ( ( naturals.size() < ( meldSize - wilds ) ) || ( wildCards.size() < wilds ) )
+                {
+                throw new IllegalArgumentException( String.format( "%,d deck(s) can't supply %,d melds of %,d cards",
+                                                                   decks,
+                                                                   meldCount,
+                                                                   meldSize ) ) ;
+                }
+
+            final Meld aMeld = new Meld() ;
+
+            for ( int j = 0 ; j < wilds ; j++ )
+                {
+                aMeld.addToBottom( wildCards.removeFirst() ) ;
+                }
+
+            while ( aMeld.cardCount() < meldSize )
+                {
+                aMeld.addToBottom( naturals.removeFirst() ) ;
+                }
+
+            player.addMeld( aMeld ) ;
+            }
+
+        // deal the hand from whatever remains, still shuffled
+        final List<Card> remaining = new ArrayList<>() ;
+        cardsByRank.values().forEach( remaining::addAll ) ;
+        Collections.shuffle( remaining, random ) ;
+
+        if ( remaining.size() < handSize )
+            {
+            throw new IllegalArgumentException( String.format( "%,d deck(s) can't supply a %,d card hand",
+                                                               decks,
+                                                               handSize ) ) ;
+            }
+
+        for ( int i = 0 ; i < handSize ; i++ )
+            {
+            player.dealtACard( remaining.get( i ) ) ;
+            }
+
+        return player ;
+
+        }   // end generatePlayer()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * run every position: typical, canasta-heavy, and extreme
+     *
+     * @param args
+     *     harness settings - see {@link BenchmarkHarness}
+     */
+    public static void main( final String[] args )
+        {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromArguments( args ) ;
+
+        benchmark( harness, 2, 11, 3, 4 ) ;      // mid-game
+        benchmark( harness, 2, 3, 4, 7 ) ;       // about to go out
+        benchmark( harness, 20, 200, 12, 40 ) ;  // far beyond normal play
+
+        }   // end main()
+
+    }   // end class CanastaBenchmarks
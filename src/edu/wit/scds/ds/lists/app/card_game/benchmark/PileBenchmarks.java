@@ -0,0 +1,424 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.benchmark ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.pile.PileVersion ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.PileStorage ;
+
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.LinkedHashMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.SplittableRandom ;
+
+
+/**
+ * Benchmarks for the pile operations used most heavily during play, so
+ * changes to the pile storage engines can be measured rather than guessed
+ * <p>
+ * each benchmark is run for every combination of pile size (1 to 50 decks),
+ * card ordering and storage engine. Bulk operations (adding or removing every
+ * card, moving, shuffling, sorting, iterating) are reported per card;
+ * lookups, targeted removals and branches are reported per lookup/removal/
+ * branch.
+ * <p>
+ * run with {@link BenchmarkHarness} settings as arguments, e.g.
+ * {@code filter=sort time=200}
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add branching (save a version, remove a card,
+ *     restore the version) for persistent storage
+ */
+public final class PileBenchmarks
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** pile sizes, in decks */
+    private final static int[] DECK_COUNTS = { 1, 10, 50 } ;
+
+    /** the card orderings measured, by name */
+    private final static Map<String, CardOrdering> ORDERINGS = new LinkedHashMap<>() ;
+
+    static
+        {
+
+        ORDERINGS.put( "suit and rank", CardOrdering.STANDARD ) ;
+        ORDERINGS.put( "rank only", CardOrdering.of( CompareOn.COMPARE_RANK_ONLY, false, false ) ) ;
+        ORDERINGS.put( "suit only", CardOrdering.of( CompareOn.COMPARE_SUIT_ONLY, true, false ) ) ;
+
+        }   // end static initializer
+
+    /** the number of lookups or removals in each invocation */
+    private final static int LOOKUPS = 64 ;
+
+    /** seeds the shuffles so every run measures the same arrangements */
+    private final static long SEED = 20261018L ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * prevent instantiation
+     */
+    private PileBenchmarks()
+        {
+
+        // nothing to do
+
+        }   // end no-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * run the benchmarks for one configuration
+     *
+     * @param harness
+     *     runs and reports each benchmark
+     * @param decks
+     *     the number of decks in the pile
+     * @param orderingName
+     *     describes {@code ordering}
+     * @param ordering
+     *     the pile's card ordering
+     * @param storage
+     *     the pile's storage engine
+     */
+    public static void benchmark( final BenchmarkHarness harness,
+                                  final int decks,
+                                  final String orderingName,
+                                  final CardOrdering ordering,
+                                  final PileStorage storage )
+        {
+
+        final String parameters = String.format( "%2d decks, %s, %s", decks, orderingName, storage ) ;
+        final SplittableRandom random = new SplittableRandom( SEED ) ;
+
+        final List<Card> cards = openDecks( decks ) ;
+        Collections.shuffle( cards, random ) ;
+        final int size = cards.size() ;
+
+        final Pile pile = newPile( ordering, storage ) ;
+        final Pile otherPile = newPile( ordering, storage ) ;
+
+        // the cards to remove: actual cards, spread throughout the pile
+        final List<Card> removals = cards.subList( 0, Math.min( LOOKUPS, size ) ) ;
+
+        // the cards to look up: throw-away copies of cards from another deck
+        final List<Card> lookups = new ArrayList<>( LOOKUPS ) ;
+        final List<Card> lookupSource = openDecks( 1 ) ;
+
+        for ( int i = 0 ; i < LOOKUPS ; i++ )
+            {
+            lookups.add( new Card( lookupSource.get( random.nextInt( lookupSource.size() ) ) ) ) ;
+            }
+
+        harness.run( "addToTop",
+                     parameters,
+                     pile::clear,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : cards )
+                             {
+                             pile.addToTop( aCard ) ;
+                             }
+
+                         return size ;
+                         } ) ;
+
+        harness.run( "addToBottom",
+                     parameters,
+                     pile::clear,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : cards )
+                             {
+                             pile.addToBottom( aCard ) ;
+                             }
+
+                         return size ;
+                         } ) ;
+
+        harness.run( "removeTopCard",
+                     parameters,
+                     () -> fill( pile, cards ),
+                     blackhole ->
+                         {
+                         while ( !pile.isEmpty() )
+                             {
+                             blackhole.consume( pile.removeTopCard() ) ;
+                             }
+
+                         return size ;
+                         } ) ;
+
+        harness.run( "removeCard",
+                     parameters,
+                     () -> fill( pile, cards ),
+                     blackhole ->
+                         {
+                         for ( final Card aCard : removals )
+                             {
+                             blackhole.consume( pile.removeCard( aCard ) ) ;
+                             }
+
+                         return removals.size() ;
+                         } ) ;
+
+        harness.run( "moveCardsToBottom",
+                     parameters,
+                     () ->
+                         {
+                         pile.clear() ;
+                         fill( otherPile, cards ) ;
+                         },
+                     blackhole ->
+                         {
+                         pile.moveCardsToBottom( otherPile ) ;
+
+                         return size ;
+                         } ) ;
+
+        // the remaining benchmarks work with a full pile
+        fill( pile, cards ) ;
+
+        harness.run( "getCardLike",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : lookups )
+                             {
+                             blackhole.consume( pile.getCardLike( aCard ) ) ;
+                             }
+
+                         return LOOKUPS ;
+                         } ) ;
+
+        harness.run( "matchCount",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final Card aCard : lookups )
+                             {
+                             blackhole.consume( pile.matchCount( aCard ) ) ;
+                             }
+
+                         return LOOKUPS ;
+                         } ) ;
+
+        harness.run( "iterate",
+                     parameters,
+                     blackhole ->
+                         {
+                         for ( final CardBase aCard : pile )
+                             {
+                             blackhole.consume( aCard ) ;
+                             }
+
+                         return size ;
+                         } ) ;
+
+        harness.run( "shuffle",
+                     parameters,
+                     blackhole ->
+                         {
+                         pile.shuffle( random ) ;
+
+                         return size ;
+                         } ) ;
+
+        harness.run( "sort",
+                     parameters,
+                     () -> pile.shuffle( random ),
+                     blackhole ->
+                         {
+                         pile.sort() ;
+
+                         return size ;
+                         } ) ;
+
+        if ( storage == PileStorage.PERSISTENT )
+            {
+            harness.run( "branch",
+                         parameters,
+                         blackhole ->
+                             {
+                             for ( int i = 0 ; i < LOOKUPS ; i++ )
+                                 {
+                                 final PileVersion version = pile.saveVersion() ;
+
+                                 blackhole.consume( pile.removeCardAt( ( i * size ) / LOOKUPS ) ) ;
+
+                                 pile.restoreVersion( version ) ;
+                                 }
+
+                             return LOOKUPS ;
+                             } ) ;
+            }
+
+        }   // end benchmark()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * replace the contents of a pile
+     *
+     * @param pile
+     *     the pile to fill
+     * @param cards
+     *     the cards to put in it, top to bottom
+     */
+    private static void fill( final Pile pile,
+                              final List<Card> cards )
+        {
+
+        pile.clear() ;
+
+        for ( final Card aCard : cards )
+            {
+            pile.addToBottom( aCard ) ;
+            }
+
+        }   // end fill()
+
+
+    /**
+     * create an empty pile
+     *
+     * @param ordering
+     *     the pile's card ordering
+     * @param storage
+     *     the pile's storage engine
+     *
+     * @return the pile
+     */
+    private static Pile newPile( final CardOrdering ordering,
+                                 final PileStorage storage )
+        {
+
+        final Pile pile = new Pile()
+            {
+            // no specialization
+            } ;
+
+        pile.setOrdering( ordering ) ;
+        pile.setStorage( storage ) ;
+
+        return pile ;
+
+        }   // end newPile()
+
+
+    /**
+     * take the cards, including the jokers, out of new decks
+     *
+     * @param decks
+     *     the number of decks
+     *
+     * @return the cards
+     */
+    private static List<Card> openDecks( final int decks )
+        {
+
+        final List<Card> cards = new ArrayList<>() ;
+
+        for ( int i = 0 ; i < decks ; i++ )
+            {
+
+            for ( final CardBase aCard : new Deck().removeAllCards() )
+                {
+                cards.add( (Card) aCard ) ;
+                }
+
+            }
+
+        return cards ;
+
+        }   // end openDecks()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * run every configuration
+     *
+     * @param args
+     *     harness settings - see {@link BenchmarkHarness}
+     */
+    public static void main( final String[] args )
+        {
+
+        final BenchmarkHarness harness = BenchmarkHarness.fromArguments( args ) ;
+
+        for ( final int decks : DECK_COUNTS )
+            {
+
+            for ( final Map.Entry<String, CardOrdering> anOrdering : ORDERINGS.entrySet() )
+                {
+
+                for ( final PileStorage aStorage : PileStorage.values() )
+                    {
+                    benchmark( harness, decks, anOrdering.getKey(), anOrdering.getValue(), aStorage ) ;
+                    }
+
+                }
+
+            }
+
+        }   // end main()
+
+    }   // end class PileBenchmarks
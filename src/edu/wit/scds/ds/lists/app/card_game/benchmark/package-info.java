@@ -0,0 +1,10 @@
+/**
+ * A small benchmark harness and the benchmarks which measure the card game
+ * hot paths
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+
+package edu.wit.scds.ds.lists.app.card_game.benchmark ;
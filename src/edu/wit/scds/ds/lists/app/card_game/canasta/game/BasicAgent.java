@@ -0,0 +1,280 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.ALL_RANKS ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+
+import java.util.ArrayList ;
+import java.util.List ;
+
+
+/**
+ * A simple, fast, rule-of-thumb Canasta player
+ * <p>
+ * <ul>
+ * <li>takes the discard pile when the rules allow and it holds two naturals
+ * matching the top card, so it can meld the top card right away
+ * <li>melds the rank it holds the most of once it has at least three
+ * naturals, adding wild cards only when they complete a canasta
+ * <li>discards a natural card of the rank it holds the fewest of, keeping
+ * wild cards as long as possible
+ * </ul>
+ * <p>
+ * The agent keeps no state so one instance can play for any number of
+ * players, in any number of games.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 decide whether to take the discard pile from the
+ *     hand's rank counts rather than a copy of the hand
+ * @version 1.2 2026-10-18 use {@code Rank.ALL_RANKS} rather than a private
+ *     copy of the ranks
+ */
+public final class BasicAgent implements PlayerAgent
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the number of cards in a canasta */
+    private final static int CANASTA_SIZE = 7 ;
+
+    /** the most wild cards allowed in a meld */
+    private final static int MAXIMUM_WILD_CARDS = 3 ;
+
+
+    /*
+     * PlayerAgent methods
+     */
+
+
+    @Override
+    public DrawSource chooseDrawSource( final CanastaEngine game,
+                                        final Player player )
+        {
+
+        if ( !game.canTakeDiscardPile( player ) )
+            {
+            return DrawSource.STOCK ;
+            }
+
+        // only take the pile if we'll meld its top card - otherwise players
+        // can pass the pile back and forth indefinitely
+        final Rank topRank = game.peekDiscardPile().rank ;
+
+        if ( isWild( topRank ) )
+            {
+            return DrawSource.STOCK ;
+            }
+
+        return player.countInHand( topRank ) >= ( CanastaEngine.MINIMUM_MELD_SIZE - 1 )
+            ? DrawSource.DISCARD_PILE
+            : DrawSource.STOCK ;
+
+        }   // end chooseDrawSource()
+
+
+    @Override
+    public List<Card> chooseMeld( final CanastaEngine game,
+                                  final Player player )
+        {
+
+        final List<Card> hand = player.getHandCards() ;
+        final int[] rankCounts = countRanks( hand ) ;
+
+        // find the natural rank we hold the most of
+        Rank meldRank = null ;
+
+        for ( final Rank aRank : ALL_RANKS )
+            {
+
+            if ( !isWild( aRank ) &&
+                 ( rankCounts[ aRank.ordinal() ] >= CanastaEngine.MINIMUM_MELD_SIZE ) &&
+                 ( ( meldRank == null ) ||
+                   ( rankCounts[ aRank.ordinal() ] > rankCounts[ meldRank.ordinal() ] ) ) )
+                {
+                meldRank = aRank ;
+                }
+
+            }
+
+        if ( meldRank == null )
+            {
+            return List.of() ;  // nothing to meld
+            }
+
+        // use wild cards only if they complete a canasta
+        final int naturals = rankCounts[ meldRank.ordinal() ] ;
+        final int wildCards = rankCounts[ Rank.TWO.ordinal() ] + rankCounts[ Rank.JOKER.ordinal() ] ;
+
+        int wildCardsToUse = 0 ;
+
+        if ( ( naturals < CANASTA_SIZE ) &&
+             ( ( CANASTA_SIZE - naturals ) <= Math.min( wildCards, MAXIMUM_WILD_CARDS ) ) )
+            {
+            wildCardsToUse = CANASTA_SIZE - naturals ;
+            }
+
+        final List<Card> meldCards = new ArrayList<>( naturals + wildCardsToUse ) ;
+
+        for ( final Card aCard : hand )
+            {
+
+            if ( aCard.rank == meldRank )
+                {
+                meldCards.add( aCard ) ;
+                }
+            else if ( ( wildCardsToUse > 0 ) && isWild( aCard.rank ) )
+                {
+                meldCards.add( aCard ) ;
+                wildCardsToUse-- ;
+                }
+
+            }
+
+        return meldCards ;
+
+        }   // end chooseMeld()
+
+
+    @Override
+    public Card chooseDiscard( final CanastaEngine game,
+                               final Player player )
+        {
+
+        final List<Card> hand = player.getHandCards() ;
+        final int[] rankCounts = countRanks( hand ) ;
+
+        Card discard = null ;
+
+        for ( final Card aCard : hand )
+            {
+
+            if ( ( discard == null ) || isBetterDiscard( aCard, discard, rankCounts ) )
+                {
+                discard = aCard ;
+                }
+
+            }
+
+        return discard ;
+
+        }   // end chooseDiscard()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * tally the cards of each rank
+     *
+     * @param cards
+     *     the cards to tally
+     *
+     * @return the number of cards of each rank, indexed by ordinal
+     */
+    private static int[] countRanks( final List<Card> cards )
+        {
+
+        final int[] rankCounts = new int[ ALL_RANKS.size() ] ;
+
+        for ( final Card aCard : cards )
+            {
+            rankCounts[ aCard.rank.ordinal() ]++ ;
+            }
+
+        return rankCounts ;
+
+        }   // end countRanks()
+
+
+    /**
+     * would we rather discard {@code candidate} than {@code current}?
+     *
+     * @param candidate
+     *     the card being considered
+     * @param current
+     *     the best discard so far
+     * @param rankCounts
+     *     the number of cards of each rank in the hand
+     *
+     * @return true if {@code candidate} is the better discard
+     */
+    private static boolean isBetterDiscard( final Card candidate,
+                                            final Card current,
+                                            final int[] rankCounts )
+        {
+
+        // keep wild cards
+        if ( isWild( candidate.rank ) != isWild( current.rank ) )
+            {
+            return isWild( current.rank ) ;
+            }
+
+        // break up the smallest group
+        final int candidateCount = rankCounts[ candidate.rank.ordinal() ] ;
+        final int currentCount = rankCounts[ current.rank.ordinal() ] ;
+
+        if ( candidateCount != currentCount )
+            {
+            return candidateCount < currentCount ;
+            }
+
+        // give away the lowest rank
+        return candidate.rank.getRegularOrder() < current.rank.getRegularOrder() ;
+
+        }   // end isBetterDiscard()
+
+
+    /**
+     * is this a wild card rank?
+     *
+     * @param rank
+     *     the rank to check
+     *
+     * @return true for twos and jokers, false otherwise
+     */
+    private static boolean isWild( final Rank rank )
+        {
+
+        return ( rank == Rank.TWO ) || ( rank == Rank.JOKER ) ;
+
+        }   // end isWild()
+
+    }   // end class BasicAgent
@@ -28,15 +28,13 @@
  */
 package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
 
-import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.JOKER ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
-import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
-import edu.wit.scds.ds.lists.app.card_game.canasta.pile.DiscardPile ;
-import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld ;
-import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Stock ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.PlayerAgent.DrawSource ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
 
 import java.util.ArrayList ;
 import java.util.LinkedList ;
@@ -96,6 +94,17 @@ import java.util.Scanner ;
  * @author Jasmine Bonilla
  * 
  * @version 3.0 2025-11-03 modifications for your implementation
+ * @version 3.1 2026-10-18 compare cards using this game's
+ *     {@code CardOrdering} rather than the global comparison settings
+ * @version 3.2 2026-10-18 validate all the decks concurrently at the end of
+ *     the game
+ * @version 3.3 2026-10-18 shuffle and play from a seeded {@code GameRandom} so
+ *     a game can be replayed
+ * @version 4.0 2026-10-18 move the rules into {@code CanastaEngine}; this class
+ *     is now the console user interface, making each player's decisions
+ *     through a {@code PlayerAgent}
+ * @version 4.1 2026-10-18 mark the console agent interactive so the user
+ *     is asked again after a mistake
  */
 public final class Canasta
     {
@@ -111,7 +120,6 @@ public final class Canasta
     /*
      * data fields
      */
-    private final List<Player> players ;
     private int numberOfPlayers ;
 
     private int numberOfCardsPerHand ;
@@ -122,12 +130,14 @@ public final class Canasta
 
     private final Scanner scanner ;
 
-    private final List<Deck> decks ;
-    private final Stock stock ;
-    private final DiscardPile discardPile ;
-
     private boolean running = false ;
 
+    /** the rules of the game - owns the cards and the players */
+    private final CanastaEngine engine ;
+
+    /** makes every player's decisions by prompting at the console */
+    private final ConsoleAgent consoleAgent ;
+
 
     /*
      * constructors
@@ -137,13 +147,39 @@ public final class Canasta
      *
      * @param input
      *     used for player interactions
+     * @param gameRandom
+     *     the seeded source of randomness for this game
      */
-    private Canasta( final Scanner input )
+    private Canasta( final Scanner input,
+                     final GameRandom gameRandom )
+        {
+
+        this( input, CardOrdering.STANDARD, gameRandom ) ;
+
+        }   // end 2-arg constructor
+
+
+    /**
+     * set up the game instance
+     *
+     * @param input
+     *     used for player interactions
+     * @param cardOrdering
+     *     the rules for comparing cards in this game
+     * @param gameRandom
+     *     the seeded source of randomness for this game
+     */
+    private Canasta( final Scanner input,
+                     final CardOrdering cardOrdering,
+                     final GameRandom gameRandom )
         {
 
         this.running = false ;
 
-        this.players = new ArrayList<>() ;  // indexing is O(1)
+        this.engine = new CanastaEngine( cardOrdering, gameRandom )
+                              .setNarrator( text -> System.out.print( text ) ) ;
+        this.consoleAgent = new ConsoleAgent() ;
+
         this.numberOfPlayers = -1 ;
 
         this.numberOfCardsPerHand = -1 ;
@@ -153,16 +189,9 @@ public final class Canasta
 
         this.scanner = input ;
 
-        this.stock = new Stock() ;
-
-        this.discardPile = new DiscardPile() ;
-
-
         this.numberOfDecks = -1 ;
 
-        this.decks = new ArrayList<>() ;   // indexing is O(1)
-
-        }   // end constructor
+        }   // end 3-arg constructor
 
 
     /*
@@ -174,17 +203,22 @@ public final class Canasta
      * This is the top-level driver for the game of Top This.
      *
      * @param args
-     *     -unused-
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}, to
+     *     replay a previous game
      */
     public static void main( final String[] args )
         {
 
         try ( final Scanner input = new Scanner( System.in ) ; )
             {
-            final Canasta canasta = new Canasta( input ) ;
+            final Canasta canasta = new Canasta( input,
+                                                 GameRandom.fromArguments( args ) ) ;
             
             welcome() ;
 
+            System.out.printf( "%nTo replay this game, run it with the argument: %s%n",
+                               canasta.engine.getRandom().toSpec() ) ;
+
             displayDivider() ;
             
             canasta.setup() ;
@@ -258,11 +292,8 @@ public final class Canasta
         while ( this.numberOfDecks < MINIMUM_NUMBER_OF_DECKS ) ;
 
         
-        // open the appropriate number of decks (no jokers) and put the cards into the stock
-        getCardsFromDecks() ;
-        
-        // shuffle the cards
-        this.stock.shuffle() ;
+        // open the appropriate number of decks (no jokers) and shuffle the cards into the stock
+        this.engine.openDecks( this.numberOfDecks ) ;
 
         }   // end configureCards()
     
@@ -277,7 +308,7 @@ public final class Canasta
 
         // get the number of cards per hand
 
-        final int maximumCardsPerHand = this.stock.cardCount() /
+        final int maximumCardsPerHand = this.engine.getStockSize() /
                                         this.numberOfPlayers ;
 
         do
@@ -362,35 +393,12 @@ private void configureStoppingPoint()
                 return ;
                 }
 
-            this.players.add( new Player( playerName ) ) ;
+            this.engine.addPlayer( playerName, this.consoleAgent ) ;
             }
         
         }   // end configurePlayers()
     
     
-    /**
-     * deal hands to all players
-     * 
-     * @since 2.0
-     */
-    private void dealHands()
-        {
-
-        // deal one card to each player in turn
-        for ( int i = 1 ; i <= this.numberOfCardsPerHand ; i++ )
-            {
-
-            for ( final Player aPlayer : this.players )
-                {
-                final Card dealt = this.stock.drawTopCard().hide() ;
-                aPlayer.dealtACard( dealt ) ;
-                }
-
-            }
-
-        }   // end dealHands()
-    
-    
     /**
      * display a visual separator between sections of output
      *
@@ -415,7 +423,7 @@ private void configureStoppingPoint()
 
         System.out.printf( "%nCurrent standings:%n" ) ;
 
-        for ( final Player aPlayer : this.players )
+        for ( final Player aPlayer : this.engine.getPlayers() )
             {
             System.out.printf( "\t%s: %,d points, %,d meld%s%n",
                                aPlayer.name,
@@ -429,67 +437,52 @@ private void configureStoppingPoint()
         }   // end displayStandings()
 
 
-
     /**
-     * populate stock from all playing cards (excludes jokers) from one or more decks
+     * display all players' hands and melds plus the top of the discard pile
      */
-    private void getCardsFromDecks()
+    private void displayTableState()
         {
 
-        // populate the stock from the requisite number of decks
-
-        // NOTE we're determining the maximum # of cards per player based on the # of cards in all
-        // the decks
-        // NOTE alternative: determine minimum # of decks based upon the # of hands and # of
-        // cards/hand
-
-        final Card joker = new Card( JOKER ) ;    // for lookup
+        System.out.printf( "%nTable state:%n" ) ;
 
-        for ( int i = 1 ; i <= this.numberOfDecks ; i++ )
+        for ( final Player aPlayer : this.engine.getPlayers() )
             {
-            // 'open' a 'box' of cards
-            final Deck newDeck = new Deck() ;
-
-            // take the cards out of the box
-            Pile newCards = newDeck.removeAllCards() ;
+            System.out.printf( "\t%s's hand: %s%n",
+                               aPlayer.name,
+                               aPlayer.revealHand() ) ;
+            System.out.printf( "\t%s's melds: %s%n%n",
+                               aPlayer.name,
+                               aPlayer.revealMelds() ) ;
+            }
 
-            // pull out the jokers, turn them face up and put them back in the 'box'
-            newDeck.moveCardsToBottom( newCards.removeAllMatchingCards( joker ).revealAll() ) ;
-            
-            // add this set of cards to the stock
-            this.stock.moveCardsToBottom( newCards ) ;
+        final Card topDiscard = this.engine.peekDiscardPile() ;
 
-            // save the 'box'
-            this.decks.add( newDeck ) ;
+        if ( topDiscard == null )
+            {
+            System.out.printf( "Discard pile is empty.%n" ) ;
+            }
+        else
+            {
+            System.out.printf( "Top of discard pile: %s%n", topDiscard ) ;
             }
 
-        // assertion: each deck in this.decks have all cards that won't be used during game play
-
-        // assertion: this.stock contains all cards to be used during game play
+        System.out.printf( "%n" ) ;
 
-        }   // end getCardsFromDecks()
+        }   // end displayTableState()
 
 
     /**
      * prepare the game to run again
      */
     private void reset()
-
         {
 
-        this.stock.moveCardsToBottom( this.discardPile ) ;
-
-        for ( final Player aPlayer : this.players )
-            {
-            this.stock.moveCardsToBottom( aPlayer.turnInAllCards() ) ;
-            }
-
-        this.stock.shuffle() ;
+        this.engine.collectCards() ;
 
         }   // end reset()
 
 
-        /**
+    /**
      * primary driver for a single hand of Canasta
      */
     private void run()
@@ -511,385 +504,25 @@ private void configureStoppingPoint()
                            Have fun!
                            %n""" ) ;
 
-        // deal initial hands for this hand
-        dealHands() ;
-
-        // flip one card from stock to the discard pile if possible
-        if ( !this.stock.isEmpty() )
-            {
-            final Card firstDiscard = this.stock.drawTopCard().reveal() ;
-            this.discardPile.addCard( firstDiscard ) ;
-            }
-
-        boolean roundActive = true ;
-        int currentPlayerIndex = 0 ;
-
         this.roundNumber = 1 ;   // single hand for now
 
-        while ( roundActive && this.running )
-            {
-
-            displayDivider() ;
-
-            final Player currentPlayer = this.players.get( currentPlayerIndex ) ;
-
-            System.out.printf( "%nIt's %s's turn%n", currentPlayer.name ) ;
-
-            displayTableState() ;
-
-            // 1. Draw step
-            performDrawStep( currentPlayer ) ;
-
-            if ( !this.running )
-                {
-                return ;
-                }
-
-            // 2. Meld phase (optional/repeatable)
-            performMeldPhase( currentPlayer ) ;
-
-            if ( !this.running )
-                {
-                return ;
-                }
-
-            // 3. Discard step (mandatory)
-            performDiscardPhase( currentPlayer ) ;
-
-            if ( !this.running )
-                {
-                return ;
-                }
-
-            // 4. Check for going out
-            if ( playerHasGoneOut( currentPlayer ) )
-                {
-                System.out.printf( "%n%s has gone out!%n", currentPlayer.name ) ;
-                roundActive = false ;
-                }
-            else
-                {
-                // advance turn – circularly
-                currentPlayerIndex = ( currentPlayerIndex + 1 ) %
-                                     this.numberOfPlayers ;
-                }
+        // the engine enforces the rules and asks our console agent for each decision
+        this.engine.startHand( this.numberOfCardsPerHand ) ;
+        this.engine.playHand() ;
 
-            }   // end while(roundActive && running)
-
-        // End-of-hand scoring
-        scoreRound() ;
-
-        displayStandings() ;
-
-        }   // end run()
-
-    /**
-     * display all players' hands and melds plus the top of the discard pile
-     */
-    private void displayTableState()
-        {
-
-        System.out.printf( "%nTable state:%n" ) ;
-
-        for ( final Player aPlayer : this.players )
-            {
-            System.out.printf( "\t%s's hand: %s%n",
-                               aPlayer.name,
-                               aPlayer.revealHand() ) ;
-            System.out.printf( "\t%s's melds: %s%n%n",
-                               aPlayer.name,
-                               aPlayer.revealMelds() ) ;
-            }
-
-        if ( this.discardPile.isEmpty() )
-            {
-            System.out.printf( "Discard pile is empty.%n" ) ;
-            }
-        else
+        if ( this.engine.isAbandoned() )
             {
-            System.out.printf( "Top of discard pile: %s%n",
-                               this.discardPile.lookAtTopCard() ) ;
-            }
-
-        System.out.printf( "%n" ) ;
-
-        }   // end displayTableState()
+            this.running = false ;
 
-    /**
-     * perform the draw step for the current player:
-     * attempt to draw from discard pile (if legal) or from stock
-     *
-     * @param currentPlayer
-     *     player taking the turn
-     */
-    private void performDrawStep( final Player currentPlayer )
-        {
-
-        // If discard pile is empty, must draw from stock
-        if ( this.discardPile.isEmpty() )
-            {
-            final Card drawn = this.stock.drawTopCard().reveal() ;
-            currentPlayer.dealtACard( drawn ) ;
-            System.out.printf( "%s drew from stock: %s%n",
-                               currentPlayer.name,
-                               drawn ) ;
-            return ;
-            }
-
-        // Discard pile not empty – ask player which source to use
-        final String response = promptForLine(
-                "%nDraw from stock or discard pile? (S/D): " ) ;
-
-        if ( !this.running || ( response == null ) )
-            {
             return ;
             }
 
-        final char choice = Character.toLowerCase( response.trim().charAt( 0 ) ) ;
-
-        if ( choice == 'd' )
-            {
-            final Card topCard = this.discardPile.lookAtTopCard() ;
-
-            if ( currentPlayer.canFormMeldWith( topCard ) )
-                {
-                // allowed to take the entire discard pile
-                System.out.printf( "%s takes the discard pile starting with %s%n",
-                                   currentPlayer.name,
-                                   topCard ) ;
-
-                final Pile taken = this.discardPile.takeDiscardStack() ;
-                currentPlayer.receiveCards( taken ) ;
-                }
-            else
-                {
-                System.out.printf( "%nYou cannot take the discard pile – top card %s%n" +
-                                   "cannot form a valid meld with your hand. Drawing from stock instead.%n",
-                                   topCard ) ;
-
-                final Card drawn = this.stock.drawTopCard().reveal() ;
-                currentPlayer.dealtACard( drawn ) ;
-                System.out.printf( "%s drew from stock: %s%n",
-                                   currentPlayer.name,
-                                   drawn ) ;
-                }
-            }
-        else
-            {
-            // default to stock draw
-            final Card drawn = this.stock.drawTopCard().reveal() ;
-            currentPlayer.dealtACard( drawn ) ;
-            System.out.printf( "%s drew from stock: %s%n",
-                               currentPlayer.name,
-                               drawn ) ;
-            }
-
-        }   // end performDrawStep()
-    
-    /**
-     * interactively create a new meld for the player (if valid)
-     *
-     * @param currentPlayer
-     *     the player creating the meld
-     */
-    private void createNewMeldForPlayer( final Player currentPlayer )
-        {
-
-        // local temporary pile just to collect the "pattern" cards
-        class SamplePile extends Pile
-            { /* temporary collection */ }
-
-        final SamplePile samplePile = new SamplePile() ;
-
-        boolean selecting = true ;
-
-        while ( selecting && this.running )
-            {
-            final Card sampleCard = promptForCard(
-                    "%nChoose a card to include in the new meld from %s: ",
-                    currentPlayer.revealHand() ) ;
-
-            if ( !this.running || ( sampleCard == null ) )
-                {
-                return ;
-                }
-
-            samplePile.addToBottom( sampleCard ) ;
-
-            final String more = promptForLine(
-                    "Add another card to this meld? (y/n): " ) ;
-
-            if ( !this.running || ( more == null ) )
-                {
-                return ;
-                }
-
-            if ( Character.toLowerCase( more.trim().charAt( 0 ) ) != 'y' )
-                {
-                selecting = false ;
-                }
-            }
-
-        if ( samplePile.cardCount() < 3 )
-            {
-            System.out.printf( "%nA meld must contain at least 3 cards.%n" ) ;
-            return ;
-            }
-
-        // Use a temporary Meld to validate the rank/wild pattern
-        final Meld testMeld = new Meld( samplePile ) ;
-
-        if ( testMeld.cardCount() == 0 )
-            {
-            // validateMeld() failed inside Meld(Pile) constructor
-            System.out.printf( "%nThat set of cards does not form a valid Canasta meld.%n" ) ;
-            return ;
-            }
-
-        // Now actually remove matching cards from the player's hand and build the real meld
-        final Meld realMeld = new Meld() ;
-
-        for ( final Card patternCard : testMeld.getAllCards() )
-            {
-            final Card removed = currentPlayer.playACard( patternCard ) ;
-
-            if ( removed == null )
-                {
-                System.out.printf(
-                        "%nYou don't actually have %s in your hand. Aborting meld creation.%n",
-                        patternCard ) ;
-
-                // return any already-removed cards back to the player's hand
-                currentPlayer.receiveCards( realMeld ) ;
-                return ;
-                }
-
-            realMeld.addToBottom( removed.reveal() ) ;
-            }
-
-        currentPlayer.addMeld( realMeld ) ;
-
-        System.out.printf( "%nMeld created for %s: %s%n",
-                           currentPlayer.name,
-                           realMeld.revealAll().toString() ) ;
-
-        }   // end createNewMeldForPlayer()
-
-    /**
-     * allow the current player to create one or more new melds
-     *
-     * @param currentPlayer
-     *     player taking the turn
-     */
-    private void performMeldPhase( final Player currentPlayer )
-        {
-
-        boolean continueMelding = true ;
-
-        while ( continueMelding && this.running )
-            {
-            final String choice = promptForLine(
-                    "%nWould you like to create a new meld? (y/n): " ) ;
-
-            if ( !this.running || ( choice == null ) )
-                {
-                return ;
-                }
-
-            final char c = Character.toLowerCase( choice.trim().charAt( 0 ) ) ;
-
-            if ( c == 'y' )
-                {
-                createNewMeldForPlayer( currentPlayer ) ;
-                }
-            else
-                {
-                continueMelding = false ;
-                }
-            }
-
-        }   // end performMeldPhase()
-
-    /**
-     * require the current player to discard exactly one card
-     *
-     * @param currentPlayer
-     *     player taking the turn
-     */
-    private void performDiscardPhase( final Player currentPlayer )
-        {
-
-        Card cardToDiscard = null ;
-
-        while ( ( cardToDiscard == null ) && this.running )
-            {
-            cardToDiscard = promptForCard(
-                    "%nChoose a card to discard from %s: ",
-                    currentPlayer.revealHand() ) ;
-
-            if ( !this.running || ( cardToDiscard == null ) )
-                {
-                return ;
-                }
-
-            final Card removed = currentPlayer.playACard( cardToDiscard ) ;
-
-            if ( removed == null )
-                {
-                System.out.printf(
-                        "%nYou don't have that card in your hand. Please try again.%n" ) ;
-                cardToDiscard = null ;
-                }
-            else
-                {
-                this.discardPile.addCard( removed.reveal() ) ;
-                System.out.printf( "%s discarded %s%n",
-                                   currentPlayer.name,
-                                   removed ) ;
-                }
-            }
-
-        }   // end performDiscardPhase()
-    
-    /**
-     * has this player gone out?
-     * <p>
-     * Going out requires:
-     * <ul>
-     * <li>no cards left in hand</li>
-     * <li>at least one Canasta meld</li>
-     * </ul>
-     *
-     * @param currentPlayer
-     *     player to check
-     *
-     * @return true if player has gone out
-     */
-    private boolean playerHasGoneOut( final Player currentPlayer )
-        {
-
-        return currentPlayer.handIsEmpty() && currentPlayer.hasAtLeastOneCanasta() ;
-
-        }   // end playerHasGoneOut()
-
-    /**
-     * compute and display scoring for this hand
-     */
-    private void scoreRound()
-        {
-
-        System.out.printf( "%nScoring this hand...%n" ) ;
-
-        for ( final Player aPlayer : this.players )
-            {
-            aPlayer.scoreRoundEnd() ;
+        // End-of-hand scoring
+        this.engine.scoreHand() ;
 
-            System.out.printf( "\t%s: %,d points total%n",
-                               aPlayer.name,
-                               aPlayer.getScore() ) ;
-            }
+        displayStandings() ;
 
-        }   // end scoreRound()
+        }   // end run()
 
 
     /**
@@ -941,7 +574,7 @@ private void configureStoppingPoint()
         int highestMeldCount = 0 ;
         final List<Player> winners = new LinkedList<>() ;
 
-        for ( final Player aPlayer : this.players )
+        for ( final Player aPlayer : this.engine.getPlayers() )
             {
             System.out.printf( "%s%n", aPlayer ) ;
 
@@ -1024,10 +657,10 @@ private void configureStoppingPoint()
         displayDivider() ;
 
         System.out.printf( "For visual confirmation, the cards in the discard pile are:%n\t%s%n",
-                           this.discardPile.revealAll().toString() ) ;
+                           this.engine.revealDiscardPile() ) ;
 
         System.out.printf( "%nand the cards left in the stock are:%n\t%s%n",
-                           this.stock.revealAll().toString() ) ;
+                           this.engine.revealStock() ) ;
 
         }   // end summary()
 
@@ -1040,49 +673,24 @@ private void configureStoppingPoint()
 
         displayDivider() ;
 
-        // release most resources
-        reset() ;
-
-        this.players.clear() ;
-
-        // return the cards to the decks (put them back in their boxes)
-        this.stock.sort() ; // the cards are all in the stock
-
-        // assertion: 'same' cards are grouped next to each other
-
-        // whether we have the right number of cards or not, re-box them
-        int deckIndex = 0 ;
-
-        while ( !this.stock.isEmpty() )
-            {
-            // remove the top card from the stock, turn it face up (so we'll be able to display
-            // them), add it to the 'next' deck
-
-            this.decks.get( deckIndex )
-                      .addToBottom( this.stock.removeTopCard() ) ;
-
-            // move to the 'next' deck
-            deckIndex = ( deckIndex + 1 ) % this.decks.size() ;
-            }
+        // release the players and return the cards to the decks (put them back in their boxes)
+        final List<Deck> decks = this.engine.closeDecks() ;
 
         // visually confirm all decks are intact
         System.out.printf( "%nFor visual confirmation, the re-constituted %s:%n",
-                           this.decks.size() == 1
+                           decks.size() == 1
                                    ? "deck is"
                                    : "decks are" ) ;
 
-        // validate the decks
-        for ( final Deck deck : this.decks )
+        for ( final Deck deck : decks )
             {
             System.out.printf( "\t%s%n", deck.revealAll().toString() ) ;
 
             deck.hideAll() ;
-            
-            deck.validateDeck() ;
             }
 
-        // free up the decks
-        this.decks.clear() ;
+        // validate the decks - concurrently
+        Deck.validateDecks( decks ) ;
 
         System.out.printf( "%n%nThank you for playing Top This!%n%n" ) ;
 
@@ -1367,4 +975,142 @@ private void configureStoppingPoint()
 
         }   // end promptForLine()
 
+
+
+    /*
+     * inner classes
+     */
+
+
+    /**
+     * the console user interface: displays the table and prompts the current
+     * player for each decision
+     *
+     * @since 4.0
+     */
+    private final class ConsoleAgent implements PlayerAgent
+        {
+
+        @Override
+        public boolean isInteractive()
+            {
+
+            return true ;   // the user may correct a mistake
+
+            }   // end isInteractive()
+
+
+        @Override
+        public void turnStarted( final CanastaEngine game,
+                                 final Player player )
+            {
+
+            displayDivider() ;
+
+            System.out.printf( "%nIt's %s's turn%n", player.name ) ;
+
+            displayTableState() ;
+
+            }   // end turnStarted()
+
+
+        @Override
+        public DrawSource chooseDrawSource( final CanastaEngine game,
+                                            final Player player )
+            {
+
+            final String response = promptForLine( "%nDraw from stock or discard pile? (S/D): " ) ;
+
+            if ( !quitRequested() && ( Character.toLowerCase( response.charAt( 0 ) ) == 'd' ) )
+                {
+                return DrawSource.DISCARD_PILE ;
+                }
+
+            // default to stock draw
+            return DrawSource.STOCK ;
+
+            }   // end chooseDrawSource()
+
+
+        @Override
+        public List<Card> chooseMeld( final CanastaEngine game,
+                                      final Player player )
+            {
+
+            final String choice = promptForLine( "%nWould you like to create a new meld? (y/n): " ) ;
+
+            if ( quitRequested() || ( Character.toLowerCase( choice.charAt( 0 ) ) != 'y' ) )
+                {
+                return null ;   // finished melding
+                }
+
+            // collect the "pattern" cards
+            final List<Card> meldCards = new ArrayList<>() ;
+
+            do
+                {
+                final Card sampleCard = promptForCard( "%nChoose a card to include in the new meld from %s: ",
+                                                       player.revealHand() ) ;
+
+                if ( quitRequested() )
+                    {
+                    return null ;
+                    }
+
+                meldCards.add( sampleCard ) ;
+
+                final String more = promptForLine( "Add another card to this meld? (y/n): " ) ;
+
+                if ( quitRequested() )
+                    {
+                    return null ;
+                    }
+
+                if ( Character.toLowerCase( more.charAt( 0 ) ) != 'y' )
+                    {
+                    break ;
+                    }
+
+                }
+            while ( true ) ;
+
+            return meldCards ;
+
+            }   // end chooseMeld()
+
+
+        @Override
+        public Card chooseDiscard( final CanastaEngine game,
+                                   final Player player )
+            {
+
+            final Card cardToDiscard = promptForCard( "%nChoose a card to discard from %s: ",
+                                                      player.revealHand() ) ;
+
+            quitRequested() ;
+
+            return cardToDiscard ;
+
+            }   // end chooseDiscard()
+
+
+        /**
+         * if the user asked to quit (or ran out of input), end the game
+         *
+         * @return true if the game is ending, false otherwise
+         */
+        private boolean quitRequested()
+            {
+
+            if ( !Canasta.this.running )
+                {
+                Canasta.this.engine.abandon() ;
+                }
+
+            return !Canasta.this.running ;
+
+            }   // end quitRequested()
+
+        }   // end inner class ConsoleAgent
+
     }   // end class Canasta
\ No newline at end of file
@@ -0,0 +1,1742 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.JOKER ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardSet ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.PlayerAgent.DrawSource ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.DiscardPile ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Stock ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.Collections ;
+import java.util.IdentityHashMap ;
+import java.util.List ;
+import java.util.Map ;
+import java.util.Objects ;
+import java.util.function.Consumer ;
+
+
+/**
+ * The rules of Canasta with no user interface
+ * <p>
+ * The engine owns the cards (decks, stock, discard pile) and the players, and
+ * moves each turn through an explicit sequence of phases:
+ *
+ * <pre>
+ * DRAW -> MELD (repeats until the player is finished) -> DISCARD -> DRAW (next player)
+ *                                                               -> HAND_OVER
+ * </pre>
+ *
+ * Every decision is delegated to the {@link PlayerAgent} for the current
+ * player, so the same engine runs a console game, a scripted test, or
+ * bot-against-bot simulations. Anything worth telling a person is passed, as
+ * formatted text, to an optional narrator; with no narrator nothing is
+ * formatted or displayed.
+ * <p>
+ * A hand ends when a player goes out (empty hand and at least one canasta) or
+ * when a player must draw from an empty stock.
+ * <p>
+ * An engine isn't thread-safe - each concurrent game needs its own instance.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation - rules extracted from
+ *     {@code Canasta}
+ * @version 1.1 2026-10-18 expose the number of decks and the discard pile's
+ *     cards so search-based agents can work out which cards they haven't seen
+ * @version 1.2 2026-10-18 add {@code snapshot()} and {@code restore()} to save
+ *     and return to a point in the game cheaply, e.g. for search or undo
+ * @version 1.3 2026-10-18
+ *     <ul>
+ *     <li>reject a meld containing a card no deck contains rather than
+ *     failing with an exception
+ *     <li>only ask an interactive agent again after an unusable meld or
+ *     discard - other agents stop melding or fail, rather than looping
+ *     </ul>
+ * @version 1.4 2026-10-18 track the cards each player was seen to take with
+ *     the discard pile so search-based agents can sample hidden hands
+ *     consistently with them
+ */
+public final class CanastaEngine
+    {
+
+    /*
+     * utility constants
+     */
+
+
+    /** the steps of a turn */
+    public enum TurnPhase
+        {
+
+        // @formatter:off
+
+        /** the current player draws from the stock or takes the discard pile */
+        DRAW
+
+        , /** the current player lays down zero or more new melds */
+        MELD
+
+        , /** the current player discards one card */
+        DISCARD
+
+        , /** no hand is in progress */
+        HAND_OVER ;
+
+        // @formatter:on
+
+        }   // end enum TurnPhase
+
+
+    /*
+     * constants
+     */
+
+
+    /** a meld must contain at least this many cards */
+    public final static int MINIMUM_MELD_SIZE = 3 ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the rules for comparing cards in this game */
+    private final CardOrdering ordering ;
+
+    /** the seeded source of randomness for shuffling and automated play */
+    private final GameRandom random ;
+
+    /** the players in turn order */
+    private final List<Player> players ;
+
+    /** the decision maker for each player - parallels {@code players} */
+    private final List<PlayerAgent> agents ;
+
+    /**
+     * for each player, the number of cards of each rank, by ordinal, everyone
+     * saw them take with the discard pile and hasn't seen leave their hand
+     * since - parallels {@code players}
+     */
+    private final List<int[]> knownInHand ;
+
+    /** the 'boxes' the cards came from */
+    private final List<Deck> decks ;
+
+    private final Stock stock ;
+    private final DiscardPile discardPile ;
+
+    /** receives text describing the play or {@code null} for none */
+    private Consumer<String> narrator ;
+
+    /** the step the current player is on */
+    private TurnPhase phase ;
+
+    /** index of the current player in {@code players} */
+    private int currentPlayerIndex ;
+
+    /** turns started in the current hand */
+    private int turnNumber ;
+
+    /** the player who went out to end the hand, if any */
+    private Player playerWhoWentOut ;
+
+    /** set when an agent ends the game early */
+    private boolean abandoned ;
+
+    /** every card opened for play, identifying it in snapshots - replaced, not changed, when decks are opened */
+    private List<Card> cardsInPlay ;
+
+    /** each card's position in {@code cardsInPlay} - by identity since decks contain 'equal' cards */
+    private final Map<Card, Integer> cardIndexes ;
+
+    /** the most recent snapshot taken or restored - unchanged piles share its arrays */
+    private CanastaSnapshot latestSnapshot ;
+
+    /** scratch space for encoding a pile */
+    private int[] encodedPile ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * set up a game using the standard card ordering and an unseeded source of
+     * randomness
+     */
+    public CanastaEngine()
+        {
+
+        this( CardOrdering.STANDARD, new GameRandom() ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * set up a game
+     *
+     * @param cardOrdering
+     *     the rules for comparing cards in this game
+     * @param gameRandom
+     *     the seeded source of randomness for this game
+     */
+    public CanastaEngine( final CardOrdering cardOrdering,
+                          final GameRandom gameRandom )
+        {
+
+        this.ordering = Objects.requireNonNull( cardOrdering, "cardOrdering" ) ;
+        this.random = Objects.requireNonNull( gameRandom, "gameRandom" ) ;
+
+        this.players = new ArrayList<>() ;  // indexing is O(1)
+        this.agents = new ArrayList<>() ;
+        this.knownInHand = new ArrayList<>() ;
+        this.decks = new ArrayList<>() ;
+
+        this.stock = new Stock() ;
+        this.stock.setOrdering( cardOrdering ) ;
+
+        this.discardPile = new DiscardPile() ;
+        this.discardPile.setOrdering( cardOrdering ) ;
+
+        this.narrator = null ;
+
+        this.phase = TurnPhase.HAND_OVER ;
+        this.currentPlayerIndex = 0 ;
+        this.turnNumber = 0 ;
+        this.playerWhoWentOut = null ;
+        this.abandoned = false ;
+
+        this.cardsInPlay = List.of() ;
+        this.cardIndexes = new IdentityHashMap<>() ;
+        this.latestSnapshot = null ;
+        this.encodedPile = new int[ 0 ] ;
+
+        }   // end 2-arg constructor
+
+
+    /*
+     * game configuration
+     */
+
+
+    /**
+     * add a player to the game
+     *
+     * @param playerName
+     *     the player's name
+     * @param agent
+     *     makes the player's decisions
+     *
+     * @return the new player
+     *
+     * @throws IllegalStateException
+     *     if a hand is in progress
+     */
+    public Player addPlayer( final String playerName,
+                             final PlayerAgent agent )
+        {
+
+        Objects.requireNonNull( agent, "agent" ) ;
+
+        ensureNoHandInProgress( "add a player" ) ;
+
+        final Player newPlayer = new Player( playerName,
+                                             this.ordering,
+                                             this.random.getGenerator() ) ;
+
+        this.players.add( newPlayer ) ;
+        this.agents.add( agent ) ;
+        this.knownInHand.add( new int[ Rank.ALL_RANKS.size() ] ) ;
+
+        return newPlayer ;
+
+        }   // end addPlayer()
+
+
+    /**
+     * open the specified number of decks, set aside the jokers, and shuffle
+     * the rest of the cards into the stock
+     *
+     * @param numberOfDecks
+     *     the number of decks to play with
+     *
+     * @throws IllegalArgumentException
+     *     if {@code numberOfDecks} isn't positive
+     * @throws IllegalStateException
+     *     if a hand is in progress
+     */
+    public void openDecks( final int numberOfDecks )
+        {
+
+        if ( numberOfDecks < 1 )
+            {
+            throw new IllegalArgumentException( String.format( "number of decks must be positive, was %,d",
+                                                               numberOfDecks ) ) ;
+            }
+
+        ensureNoHandInProgress( "open decks" ) ;
+
+        final Card joker = new Card( JOKER ) ;    // for lookup
+
+        for ( int i = 1 ; i <= numberOfDecks ; i++ )
+            {
+            // 'open' a 'box' of cards
+            final Deck newDeck = new Deck() ;
+
+            // take the cards out of the box
+            final Pile newCards = newDeck.removeAllCards() ;
+
+            // pull out the jokers, turn them face up and put them back in the 'box'
+            newDeck.moveCardsToBottom( newCards.removeAllMatchingCards( joker ).revealAll() ) ;
+
+            // add this set of cards to the stock
+            this.stock.moveCardsToBottom( newCards ) ;
+
+            // save the 'box'
+            this.decks.add( newDeck ) ;
+            }
+
+        // assertion: each deck in this.decks has all cards that won't be used during game play
+
+        // assertion: this.stock contains all cards to be used during game play
+
+        registerCardsInPlay() ;
+
+        this.stock.shuffle( this.random.getGenerator() ) ;
+
+        }   // end openDecks()
+
+
+    /**
+     * set the narrator
+     *
+     * @param newNarrator
+     *     receives text describing the play or {@code null} to play silently
+     *
+     * @return this engine
+     */
+    public CanastaEngine setNarrator( final Consumer<String> newNarrator )
+        {
+
+        this.narrator = newNarrator ;
+
+        return this ;
+
+        }   // end setNarrator()
+
+
+    /*
+     * game play
+     */
+
+
+    /**
+     * end the game early - typically called by an agent whose user quit
+     */
+    public void abandon()
+        {
+
+        this.abandoned = true ;
+
+        }   // end abandon()
+
+
+    /**
+     * play steps until the hand is over or the game is abandoned
+     */
+    public void playHand()
+        {
+
+        while ( step() )
+            {
+            // keep going
+            }
+
+        }   // end playHand()
+
+
+    /**
+     * return all the cards in play to the stock and shuffle it, ready for
+     * another hand
+     *
+     * @throws IllegalStateException
+     *     if a hand is in progress
+     */
+    public void collectCards()
+        {
+
+        ensureNoHandInProgress( "collect the cards" ) ;
+
+        this.stock.moveCardsToBottom( this.discardPile ) ;
+
+        for ( final Player aPlayer : this.players )
+            {
+            this.stock.moveCardsToBottom( aPlayer.turnInAllCards() ) ;
+            }
+
+        this.stock.shuffle( this.random.getGenerator() ) ;
+
+        }   // end collectCards()
+
+
+    /**
+     * finish the game: collect all the cards, remove the players, and put the
+     * cards back in their 'boxes'
+     *
+     * @return the re-constituted decks - ready for display and validation
+     *
+     * @throws IllegalStateException
+     *     if a hand is in progress
+     */
+    public List<Deck> closeDecks()
+        {
+
+        collectCards() ;
+
+        this.players.clear() ;
+        this.agents.clear() ;
+        this.knownInHand.clear() ;
+
+        // return the cards to the decks (put them back in their boxes)
+        this.stock.sort() ; // the cards are all in the stock
+
+        // assertion: 'same' cards are grouped next to each other
+
+        // whether we have the right number of cards or not, re-box them
+        int deckIndex = 0 ;
+
+        while ( !this.stock.isEmpty() )
+            {
+            this.decks.get( deckIndex )
+                      .addToBottom( this.stock.removeTopCard() ) ;
+
+            // move to the 'next' deck
+            deckIndex = ( deckIndex + 1 ) % this.decks.size() ;
+            }
+
+        final List<Deck> closedDecks = new ArrayList<>( this.decks ) ;
+
+        this.decks.clear() ;
+
+        this.cardsInPlay = List.of() ;
+        this.cardIndexes.clear() ;
+        this.latestSnapshot = null ;
+
+        return closedDecks ;
+
+        }   // end closeDecks()
+
+
+    /**
+     * score the hand just played and add it to each player's score
+     */
+    public void scoreHand()
+        {
+
+        narrate( "%nScoring this hand...%n" ) ;
+
+        for ( final Player aPlayer : this.players )
+            {
+            aPlayer.scoreRoundEnd() ;
+
+            narrate( "\t%s: %,d points total%n", aPlayer.name, aPlayer.getScore() ) ;
+            }
+
+        }   // end scoreHand()
+
+
+    /**
+     * deal a new hand and flip the first discard - the first player is about
+     * to draw
+     *
+     * @param cardsPerHand
+     *     the number of cards dealt to each player
+     *
+     * @throws IllegalArgumentException
+     *     if the stock doesn't have enough cards for every player
+     * @throws IllegalStateException
+     *     if there are no players or a hand is already in progress
+     */
+    public void startHand( final int cardsPerHand )
+        {
+
+        ensureNoHandInProgress( "start a hand" ) ;
+
+        if ( this.players.isEmpty() )
+            {
+            throw new IllegalStateException( "can't start a hand without players" ) ;
+            }
+
+        if ( ( cardsPerHand < 1 ) ||
+             ( ( (long) cardsPerHand * this.players.size() ) > this.stock.cardCount() ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't deal %,d cards to each of %,d players from %,d cards",
+                                                               cardsPerHand,
+                                                               this.players.size(),
+                                                               this.stock.cardCount() ) ) ;
+            }
+
+        // deal one card to each player in turn
+        for ( int i = 1 ; i <= cardsPerHand ; i++ )
+            {
+
+            for ( final Player aPlayer : this.players )
+                {
+                aPlayer.dealtACard( this.stock.drawTopCard().hide() ) ;
+                }
+
+            }
+
+        // flip one card from stock to the discard pile if possible
+        if ( !this.stock.isEmpty() )
+            {
+            this.discardPile.addCard( this.stock.drawTopCard().reveal() ) ;
+            }
+
+        this.currentPlayerIndex = 0 ;
+        this.turnNumber = 0 ;
+        this.playerWhoWentOut = null ;
+
+        for ( final int[] known : this.knownInHand )
+            {
+            Arrays.fill( known, 0 ) ;
+            }
+
+        this.phase = TurnPhase.DRAW ;
+
+        }   // end startHand()
+
+
+    /**
+     * perform the current phase of the current player's turn
+     *
+     * @return true if there's more to play in this hand, false if the hand is
+     *     over or the game was abandoned
+     */
+    public boolean step()
+        {
+
+        if ( !isHandInProgress() )
+            {
+            return false ;
+            }
+
+        final Player currentPlayer = this.players.get( this.currentPlayerIndex ) ;
+        final PlayerAgent currentAgent = this.agents.get( this.currentPlayerIndex ) ;
+
+        switch ( this.phase )
+            {
+            case DRAW ->
+                {
+                this.turnNumber++ ;
+
+                currentAgent.turnStarted( this, currentPlayer ) ;
+
+                if ( !this.abandoned )
+                    {
+                    performDrawStep( currentPlayer, currentAgent ) ;
+                    }
+                }
+
+            case MELD -> performMeldStep( currentPlayer, currentAgent ) ;
+
+            case DISCARD -> performDiscardStep( currentPlayer, currentAgent ) ;
+
+            default -> throw new IllegalStateException( String.format( "unexpected phase: %s",
+                                                                       this.phase ) ) ;
+            }
+
+        return isHandInProgress() ;
+
+        }   // end step()
+
+
+    /*
+     * game state
+     */
+
+
+    /**
+     * can this player take the discard pile? the pile must not be empty or
+     * capped and its top card must form a meld with cards in the player's hand
+     *
+     * @param player
+     *     the player who would take the discard pile
+     *
+     * @return true if the discard pile can be taken, false otherwise
+     */
+    public boolean canTakeDiscardPile( final Player player )
+        {
+
+        return !this.discardPile.isEmpty() &&
+               !this.discardPile.isCapped() &&
+               player.canFormMeldWith( this.discardPile.getTopCard() ) ;
+
+        }   // end canTakeDiscardPile()
+
+
+    /**
+     * count the cards of a rank which every player saw go into a player's hand
+     * when they took the discard pile, less any of that rank they've melded or
+     * discarded since - the player may hold more of the rank, but not fewer
+     *
+     * @param player
+     *     the player
+     * @param rank
+     *     the rank to count
+     *
+     * @return the number of cards known to be in the player's hand
+     *
+     * @throws IllegalArgumentException
+     *     if {@code player} isn't playing
+     *
+     * @since 1.4
+     */
+    public int countKnownInHand( final Player player,
+                                 final Rank rank )
+        {
+
+        final int playerIndex = this.players.indexOf( player ) ;
+
+        if ( playerIndex < 0 )
+            {
+            throw new IllegalArgumentException( String.format( "%s isn't playing", player ) ) ;
+            }
+
+        return this.knownInHand.get( playerIndex )[ rank.ordinal() ] ;
+
+        }   // end countKnownInHand()
+
+
+    /**
+     * retrieve the player whose turn it is
+     *
+     * @return the current player or {@code null} if there are no players
+     */
+    public Player getCurrentPlayer()
+        {
+
+        return this.players.isEmpty()
+            ? null
+            : this.players.get( this.currentPlayerIndex ) ;
+
+        }   // end getCurrentPlayer()
+
+
+    /**
+     * retrieve the number of decks opened for this game
+     *
+     * @return the number of decks
+     *
+     * @since 1.1
+     */
+    public int getDeckCount()
+        {
+
+        return this.decks.size() ;
+
+        }   // end getDeckCount()
+
+
+    /**
+     * list the cards in the discard pile - they are face up so every player
+     * may see them
+     *
+     * @return a copy of the cards, from the top of the pile down
+     *
+     * @since 1.1
+     */
+    public List<Card> getDiscardPileCards()
+        {
+
+        final List<Card> discards = new ArrayList<>( this.discardPile.cardCount() ) ;
+
+        for ( final CardBase aCard : this.discardPile )
+            {
+            discards.add( (Card) aCard ) ;
+            }
+
+        return discards ;
+
+        }   // end getDiscardPileCards()
+
+
+    /**
+     * retrieve the number of cards in the discard pile
+     *
+     * @return the number of cards in the discard pile
+     */
+    public int getDiscardPileSize()
+        {
+
+        return this.discardPile.cardCount() ;
+
+        }   // end getDiscardPileSize()
+
+
+    /**
+     * retrieve the rules for comparing cards in this game
+     *
+     * @return the card ordering
+     */
+    public CardOrdering getOrdering()
+        {
+
+        return this.ordering ;
+
+        }   // end getOrdering()
+
+
+    /**
+     * retrieve the step the current player is on
+     *
+     * @return the current phase
+     */
+    public TurnPhase getPhase()
+        {
+
+        return this.phase ;
+
+        }   // end getPhase()
+
+
+    /**
+     * retrieve the player who went out to end the last hand
+     *
+     * @return the player who went out or {@code null} if no one has
+     */
+    public Player getPlayerWhoWentOut()
+        {
+
+        return this.playerWhoWentOut ;
+
+        }   // end getPlayerWhoWentOut()
+
+
+    /**
+     * retrieve the players in turn order
+     *
+     * @return a read-only view of the players
+     */
+    public List<Player> getPlayers()
+        {
+
+        return Collections.unmodifiableList( this.players ) ;
+
+        }   // end getPlayers()
+
+
+    /**
+     * retrieve this game's source of randomness
+     *
+     * @return the game's seeded source of randomness
+     */
+    public GameRandom getRandom()
+        {
+
+        return this.random ;
+
+        }   // end getRandom()
+
+
+    /**
+     * retrieve the number of cards in the stock
+     *
+     * @return the number of cards in the stock
+     */
+    public int getStockSize()
+        {
+
+        return this.stock.cardCount() ;
+
+        }   // end getStockSize()
+
+
+    /**
+     * retrieve the number of turns started in the current (or last) hand
+     *
+     * @return the number of turns
+     */
+    public int getTurnNumber()
+        {
+
+        return this.turnNumber ;
+
+        }   // end getTurnNumber()
+
+
+    /**
+     * determine whether an agent ended the game early
+     *
+     * @return true if the game was abandoned
+     */
+    public boolean isAbandoned()
+        {
+
+        return this.abandoned ;
+
+        }   // end isAbandoned()
+
+
+    /**
+     * determine whether a hand is being played
+     *
+     * @return true if a hand is in progress and the game hasn't been abandoned
+     */
+    public boolean isHandInProgress()
+        {
+
+        return !this.abandoned && ( this.phase != TurnPhase.HAND_OVER ) ;
+
+        }   // end isHandInProgress()
+
+
+    /**
+     * look at the top of the discard pile
+     *
+     * @return the top card of the discard pile, face up, or {@code null} if
+     *     the discard pile is empty
+     */
+    public Card peekDiscardPile()
+        {
+
+        return this.discardPile.isEmpty()
+            ? null
+            : this.discardPile.lookAtTopCard() ;
+
+        }   // end peekDiscardPile()
+
+
+    /**
+     * turn the cards in the discard pile face up and describe them
+     *
+     * @return the cards in the discard pile
+     */
+    public String revealDiscardPile()
+        {
+
+        return this.discardPile.revealAll().toString() ;
+
+        }   // end revealDiscardPile()
+
+
+    /**
+     * turn the cards in the stock face up and describe them
+     *
+     * @return the cards in the stock
+     */
+    public String revealStock()
+        {
+
+        return this.stock.revealAll().toString() ;
+
+        }   // end revealStock()
+
+
+    /*
+     * snapshots
+     */
+
+
+    /**
+     * put the game back as it was when a snapshot was taken - every card
+     * returns to its recorded pile, position and orientation, and the scores,
+     * current player, turn and phase are restored
+     * <p>
+     * the source of randomness and any state kept by the agents aren't part of
+     * the snapshot - they carry on from where they are
+     *
+     * @param snapshot
+     *     a snapshot taken by this engine since its decks were last opened
+     *
+     * @throws IllegalArgumentException
+     *     if the snapshot was taken by another engine, with other decks, or
+     *     with a different number of players
+     *
+     * @since 1.2
+     */
+    public void restore( final CanastaSnapshot snapshot )
+        {
+
+        Objects.requireNonNull( snapshot, "snapshot" ) ;
+
+        if ( snapshot.cardsInPlay != this.cardsInPlay )
+            {
+            throw new IllegalArgumentException( "the snapshot wasn't taken of the cards in this game" ) ;
+            }
+
+        if ( snapshot.getPlayerCount() != this.players.size() )
+            {
+            throw new IllegalArgumentException( String.format( "the snapshot has %,d players, the game has %,d",
+                                                               snapshot.getPlayerCount(),
+                                                               this.players.size() ) ) ;
+            }
+
+        // pick up every card - each one is put back below
+        this.stock.clear() ;
+        this.discardPile.clear() ;
+
+        for ( final Player aPlayer : this.players )
+            {
+            aPlayer.turnInAllCards() ;
+            }
+
+        // lay them out as recorded
+        decode( snapshot.stock, this.stock ) ;
+        decode( snapshot.discardPile, this.discardPile ) ;
+
+        // local temporary class (pile) to hold a player's hand
+        class HandCards extends Pile
+            { /* temporary collection */ }
+
+        for ( int i = 0 ; i < this.players.size() ; i++ )
+            {
+            final HandCards handCards = new HandCards() ;
+            decode( snapshot.hands[ i ], handCards ) ;
+
+            final List<Meld> melds = new ArrayList<>( snapshot.melds[ i ].length ) ;
+
+            for ( final int[] encodedMeld : snapshot.melds[ i ] )
+                {
+                melds.add( (Meld) decode( encodedMeld, new Meld() ) ) ;
+                }
+
+            System.arraycopy( snapshot.knownInHand[ i ], 0, this.knownInHand.get( i ), 0, snapshot.knownInHand[ i ].length ) ;
+
+            this.players.get( i )
+                        .restore( handCards,
+                                  melds,
+                                  snapshot.cumulativeScores[ i ],
+                                  snapshot.scores[ i ] ) ;
+            }
+
+        this.phase = snapshot.phase ;
+        this.currentPlayerIndex = snapshot.currentPlayerIndex ;
+        this.turnNumber = snapshot.turnNumber ;
+        this.playerWhoWentOut = snapshot.playerWhoWentOutIndex < 0
+                ? null
+                : this.players.get( snapshot.playerWhoWentOutIndex ) ;
+        this.abandoned = snapshot.abandoned ;
+
+        this.latestSnapshot = snapshot ;
+
+        }   // end restore()
+
+
+    /**
+     * record the state of the game so it can be restored later - takes O(number
+     * of cards) and shares any pile which hasn't changed since the previous
+     * snapshot was taken or restored
+     *
+     * @return the snapshot
+     *
+     * @since 1.2
+     */
+    public CanastaSnapshot snapshot()
+        {
+
+        final int playerCount = this.players.size() ;
+
+        final CanastaSnapshot previous = ( this.latestSnapshot != null ) &&
+                                         ( this.latestSnapshot.cardsInPlay == this.cardsInPlay ) &&
+                                         ( this.latestSnapshot.getPlayerCount() == playerCount )
+                ? this.latestSnapshot
+                : null ;
+
+        final int[][] hands = new int[ playerCount ][] ;
+        final int[][][] melds = new int[ playerCount ][][] ;
+        final int[] cumulativeScores = new int[ playerCount ] ;
+        final int[] scores = new int[ playerCount ] ;
+        final int[][] knownCounts = new int[ playerCount ][] ;
+
+        for ( int i = 0 ; i < playerCount ; i++ )
+            {
+            final Player aPlayer = this.players.get( i ) ;
+
+            hands[ i ] = encode( aPlayer.getHand(), previous == null ? null : previous.hands[ i ] ) ;
+            melds[ i ] = encode( aPlayer.getMelds(), previous == null ? null : previous.melds[ i ] ) ;
+
+            cumulativeScores[ i ] = aPlayer.getCumulativeScore() ;
+            scores[ i ] = aPlayer.getScore() ;
+
+            final int[] known = this.knownInHand.get( i ) ;
+
+            knownCounts[ i ] = ( previous != null ) && Arrays.equals( known, previous.knownInHand[ i ] )
+                ? previous.knownInHand[ i ]
+                : known.clone() ;
+            }
+
+        this.latestSnapshot =
+                new CanastaSnapshot( this.cardsInPlay,
+                                     encode( this.stock, previous == null ? null : previous.stock ),
+                                     encode( this.discardPile, previous == null ? null : previous.discardPile ),
+                                     hands,
+                                     melds,
+                                     cumulativeScores,
+                                     scores,
+                                     knownCounts,
+                                     this.phase,
+                                     this.currentPlayerIndex,
+                                     this.turnNumber,
+                                     this.players.indexOf( this.playerWhoWentOut ),
+                                     this.abandoned ) ;
+
+        return this.latestSnapshot ;
+
+        }   // end snapshot()
+
+
+    /*
+     * turn phases
+     */
+
+
+    /**
+     * draw from the stock or take the discard pile, as chosen by the agent
+     *
+     * @param currentPlayer
+     *     player taking the turn
+     * @param currentAgent
+     *     the player's decision maker
+     */
+    private void performDrawStep( final Player currentPlayer,
+                                  final PlayerAgent currentAgent )
+        {
+
+        // If discard pile is empty, must draw from stock
+        if ( this.discardPile.isEmpty() )
+            {
+            drawFromStock( currentPlayer ) ;
+
+            return ;
+            }
+
+        // Discard pile not empty – ask player which source to use
+        final DrawSource source = currentAgent.chooseDrawSource( this, currentPlayer ) ;
+
+        if ( this.abandoned )
+            {
+            return ;
+            }
+
+        if ( source == DrawSource.DISCARD_PILE )
+            {
+            final Card topCard = this.discardPile.lookAtTopCard() ;
+
+            if ( canTakeDiscardPile( currentPlayer ) )
+                {
+                // allowed to take the entire discard pile
+                narrate( "%s takes the discard pile starting with %s%n",
+                         currentPlayer.name,
+                         topCard ) ;
+
+                final Pile takenCards = this.discardPile.takeDiscardStack() ;
+
+                // every player saw these cards go into the hand
+                final int[] known = this.knownInHand.get( this.currentPlayerIndex ) ;
+
+                for ( final CardBase aCard : takenCards )
+                    {
+                    known[ ( (Card) aCard ).rank.ordinal() ]++ ;
+                    }
+
+                currentPlayer.receiveCards( takenCards ) ;
+
+                this.phase = TurnPhase.MELD ;
+
+                return ;
+                }
+
+            if ( this.discardPile.isCapped() )
+                {
+                narrate( "%nYou cannot take the discard pile – it is capped by %s.%n" +
+                         "Drawing from stock instead.%n",
+                         topCard ) ;
+                }
+            else
+                {
+                narrate( "%nYou cannot take the discard pile – top card %s%n" +
+                         "cannot form a valid meld with your hand. Drawing from stock instead.%n",
+                         topCard ) ;
+                }
+            }
+
+        // default to stock draw
+        drawFromStock( currentPlayer ) ;
+
+        }   // end performDrawStep()
+
+
+    /**
+     * lay down the next meld chosen by the agent or move on to the discard
+     * step when the agent is finished melding
+     *
+     * @param currentPlayer
+     *     player taking the turn
+     * @param currentAgent
+     *     the player's decision maker
+     */
+    private void performMeldStep( final Player currentPlayer,
+                                  final PlayerAgent currentAgent )
+        {
+
+        final List<Card> chosenCards = currentAgent.chooseMeld( this, currentPlayer ) ;
+
+        if ( this.abandoned )
+            {
+            return ;
+            }
+
+        if ( ( chosenCards == null ) || chosenCards.isEmpty() )
+            {
+            this.phase = TurnPhase.DISCARD ;
+
+            return ;
+            }
+
+        if ( !createMeld( currentPlayer, chosenCards ) && !currentAgent.isInteractive() )
+            {
+            // a bot would only propose the same meld again
+            this.phase = TurnPhase.DISCARD ;
+
+            return ;
+            }
+
+        // stay in the meld phase - the agent may lay down another
+
+        }   // end performMeldStep()
+
+
+    /**
+     * discard the card chosen by the agent then either end the hand, if the
+     * player went out, or pass the turn to the next player
+     *
+     * @param currentPlayer
+     *     player taking the turn
+     * @param currentAgent
+     *     the player's decision maker
+     */
+    private void performDiscardStep( final Player currentPlayer,
+                                     final PlayerAgent currentAgent )
+        {
+
+        // a player who melded every card has nothing to discard
+        if ( !currentPlayer.handIsEmpty() )
+            {
+            final Card cardToDiscard = currentAgent.chooseDiscard( this, currentPlayer ) ;
+
+            if ( this.abandoned )
+                {
+                return ;
+                }
+
+            final Card removed = cardToDiscard == null
+                ? null
+                : currentPlayer.playACard( cardToDiscard ) ;
+
+            if ( removed == null )
+                {
+
+                if ( !currentAgent.isInteractive() )
+                    {
+                    throw new IllegalStateException( String.format( "%s's agent chose to discard %s, which isn't in their hand",
+                                                                    currentPlayer.name,
+                                                                    cardToDiscard == null
+                                                                        ? "nothing"
+                                                                        : cardToDiscard.getFaceUpText() ) ) ;
+                    }
+
+                narrate( "%nYou don't have that card in your hand. Please try again.%n" ) ;
+
+                return ;    // stay in the discard phase
+                }
+
+            this.discardPile.addCard( removed.reveal() ) ;
+            forgetKnownCard( removed ) ;
+
+            narrate( "%s discarded %s%n", currentPlayer.name, removed ) ;
+            }
+
+        // Check for going out
+        if ( currentPlayer.handIsEmpty() && currentPlayer.hasAtLeastOneCanasta() )
+            {
+            narrate( "%n%s has gone out!%n", currentPlayer.name ) ;
+
+            this.playerWhoWentOut = currentPlayer ;
+
+            this.phase = TurnPhase.HAND_OVER ;
+
+            return ;
+            }
+
+        // advance turn – circularly
+        this.currentPlayerIndex = ( this.currentPlayerIndex + 1 ) % this.players.size() ;
+
+        this.phase = TurnPhase.DRAW ;
+
+        }   // end performDiscardStep()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * add recorded cards to a pile, in order and orientation
+     *
+     * @param encodedCards
+     *     the cards, as encoded by {@link #encode(Pile, int[])}
+     * @param pile
+     *     receives the cards
+     *
+     * @return the pile (fluent)
+     */
+    private Pile decode( final int[] encodedCards,
+                         final Pile pile )
+        {
+
+        for ( final int code : encodedCards )
+            {
+            final Card aCard = this.cardsInPlay.get( CanastaSnapshot.cardIndex( code ) ) ;
+
+            pile.addToBottom( aCard ) ;
+
+            // after adding - the pile may have turned it
+            if ( CanastaSnapshot.isFaceUp( code ) )
+                {
+                aCard.setFaceUp() ;
+                }
+            else
+                {
+                aCard.setFaceDown() ;
+                }
+            }
+
+        return pile ;
+
+        }   // end decode()
+
+
+    /**
+     * encode a player's melds, sharing the previous snapshot's row if no meld
+     * has changed
+     *
+     * @param melds
+     *     the player's melds
+     * @param previous
+     *     the player's melds in the previous snapshot or {@code null}
+     *
+     * @return the encoded melds
+     */
+    private int[][] encode( final List<Meld> melds,
+                            final int[][] previous )
+        {
+
+        if ( melds.isEmpty() )
+            {
+            return CanastaSnapshot.NO_MELDS ;
+            }
+
+        final int[][] encodedMelds = new int[ melds.size() ][] ;
+        boolean unchanged = ( previous != null ) && ( previous.length == encodedMelds.length ) ;
+
+        for ( int i = 0 ; i < encodedMelds.length ; i++ )
+            {
+            encodedMelds[ i ] = encode( melds.get( i ),
+                                        ( previous != null ) && ( i < previous.length ) ? previous[ i ] : null ) ;
+
+            unchanged = unchanged && ( encodedMelds[ i ] == previous[ i ] ) ;
+            }
+
+        return unchanged
+            ? previous
+            : encodedMelds ;
+
+        }   // end encode() for melds
+
+
+    /**
+     * encode the cards in a pile, in order and orientation
+     *
+     * @param pile
+     *     the pile to encode
+     * @param previous
+     *     the pile in the previous snapshot or {@code null}
+     *
+     * @return {@code previous} if the pile hasn't changed, otherwise the new
+     *     encoding
+     *
+     * @throws IllegalStateException
+     *     if the pile contains a card this game didn't open
+     */
+    private int[] encode( final Pile pile,
+                          final int[] previous )
+        {
+
+        final int length = pile.cardCount() ;
+
+        if ( this.encodedPile.length < length )
+            {
+            this.encodedPile = new int[ Math.max( length, 2 * this.encodedPile.length ) ] ;
+            }
+
+        int i = 0 ;
+
+        for ( final CardBase aCard : pile )
+            {
+            final Integer cardIndex = this.cardIndexes.get( aCard ) ;
+
+            if ( cardIndex == null )
+                {
+                throw new IllegalStateException( String.format( "%s wasn't opened for this game",
+                                                                aCard ) ) ;
+                }
+
+            this.encodedPile[ i++ ] = CanastaSnapshot.encode( cardIndex,
+                                                              aCard.getOrientation() == Orientation.FACE_UP ) ;
+            }
+
+        return CanastaSnapshot.share( previous, this.encodedPile, length ) ;
+
+        }   // end encode() for a pile
+
+
+    /**
+     * move the specified cards from the player's hand to a new meld if they
+     * form a valid meld
+     *
+     * @param currentPlayer
+     *     the player creating the meld
+     * @param chosenCards
+     *     cards matching those in the player's hand
+     *
+     * @return true if the meld was created, false otherwise
+     */
+    private boolean createMeld( final Player currentPlayer,
+                                final List<Card> chosenCards )
+        {
+
+        if ( chosenCards.size() < MINIMUM_MELD_SIZE )
+            {
+            narrate( "%nA meld must contain at least %,d cards.%n", MINIMUM_MELD_SIZE ) ;
+
+            return false ;
+            }
+
+        // a card typed at the console may not be one any deck contains
+        for ( final Card aCard : chosenCards )
+            {
+
+            if ( ( aCard == null ) || ( ( aCard.rank == JOKER ) != ( aCard.suit == Suit.NA ) ) )
+                {
+                narrate( "%n%s is not a valid card - that is not a valid meld.%n",
+                         aCard == null ? "(no card)" : aCard.getFaceUpText() ) ;
+
+                return false ;
+                }
+
+            }
+
+        if ( !Meld.isValidMeld( CardSet.of( chosenCards ) ) )
+            {
+            narrate( "%nThat set of cards does not form a valid Canasta meld.%n" ) ;
+
+            return false ;
+            }
+
+        // remove matching cards from the player's hand and build the real meld
+        final Meld newMeld = new Meld() ;
+
+        for ( final Card patternCard : chosenCards )
+            {
+            final Card removed = currentPlayer.playACard( patternCard ) ;
+
+            if ( removed == null )
+                {
+                narrate( "%nYou don't actually have %s in your hand. Aborting meld creation.%n",
+                         patternCard ) ;
+
+                // return any already-removed cards back to the player's hand
+                currentPlayer.receiveCards( newMeld ) ;
+
+                return false ;
+                }
+
+            newMeld.addToBottom( removed.reveal() ) ;
+            }
+
+        currentPlayer.addMeld( newMeld ) ;
+
+        for ( final CardBase aCard : newMeld )
+            {
+            forgetKnownCard( (Card) aCard ) ;
+            }
+
+        narrate( "%nMeld created for %s: %s%n",
+                 currentPlayer.name,
+                 newMeld.revealAll().toString() ) ;
+
+        return true ;
+
+        }   // end createMeld()
+
+
+    /**
+     * draw the top card of the stock into the player's hand - if the stock is
+     * empty, the hand is over
+     *
+     * @param currentPlayer
+     *     player taking the turn
+     */
+    private void drawFromStock( final Player currentPlayer )
+        {
+
+        if ( this.stock.isEmpty() )
+            {
+            narrate( "%nThe stock is empty - the hand is over.%n" ) ;
+
+            this.phase = TurnPhase.HAND_OVER ;
+
+            return ;
+            }
+
+        final Card drawn = this.stock.drawTopCard().reveal() ;
+        currentPlayer.dealtACard( drawn ) ;
+
+        narrate( "%s drew from stock: %s%n", currentPlayer.name, drawn ) ;
+
+        this.phase = TurnPhase.MELD ;
+
+        }   // end drawFromStock()
+
+
+    /**
+     * a card left the current player's hand for a meld or the discard pile -
+     * the others can no longer be sure they hold one of that rank they were
+     * seen to take
+     *
+     * @param card
+     *     the card which left the hand
+     */
+    private void forgetKnownCard( final Card card )
+        {
+
+        final int[] known = this.knownInHand.get( this.currentPlayerIndex ) ;
+
+        if ( known[ card.rank.ordinal() ] > 0 )
+            {
+            known[ card.rank.ordinal() ]-- ;
+            }
+
+        }   // end forgetKnownCard()
+
+
+    /**
+     * make sure no hand is being played
+     *
+     * @param action
+     *     what the caller is trying to do - for the exception message
+     *
+     * @throws IllegalStateException
+     *     if a hand is in progress
+     */
+    private void ensureNoHandInProgress( final String action )
+        {
+
+        if ( isHandInProgress() )
+            {
+            throw new IllegalStateException( String.format( "can't %s while a hand is in progress",
+                                                            action ) ) ;
+            }
+
+        }   // end ensureNoHandInProgress()
+
+
+    /**
+     * add any cards in the stock that aren't yet in {@code cardsInPlay} - the
+     * list is replaced so earlier snapshots can't be restored with the new
+     * decks
+     */
+    private void registerCardsInPlay()
+        {
+
+        final List<Card> allCards = new ArrayList<>( this.cardsInPlay ) ;
+
+        for ( final CardBase aCard : this.stock )
+            {
+            final Card card = (Card) aCard ;
+
+            if ( this.cardIndexes.putIfAbsent( card, allCards.size() ) == null )
+                {
+                allCards.add( card ) ;
+                }
+            }
+
+        this.cardsInPlay = Collections.unmodifiableList( allCards ) ;
+        this.latestSnapshot = null ;
+
+        }   // end registerCardsInPlay()
+
+
+    /**
+     * pass a description of the play to the narrator, if there is one
+     *
+     * @param format
+     *     the text with optional formatting specifiers
+     * @param arguments
+     *     argument(s) used by the formatting specifiers
+     */
+    private void narrate( final String format,
+                          final Object... arguments )
+        {
+
+        if ( this.narrator != null )
+            {
+            this.narrator.accept( String.format( format, arguments ) ) ;
+            }
+
+        }   // end narrate()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - plays one narrated hand between bots, then times many
+     * silent hands
+     *
+     * @param args
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom gameRandom = GameRandom.fromArguments( args ) ;
+        final PlayerAgent bot = new BasicAgent() ;
+
+        System.out.printf( "Seed: %s%n%n", gameRandom.toSpec() ) ;
+
+        final CanastaEngine narrated = new CanastaEngine( CardOrdering.STANDARD, gameRandom )
+                                               .setNarrator( text -> System.out.print( text ) ) ;
+
+        for ( final String name : new String[] { "Ann", "Bob", "Cy" } )
+            {
+            narrated.addPlayer( name, bot ) ;
+            }
+
+        narrated.openDecks( 2 ) ;
+        narrated.startHand( 11 ) ;
+        narrated.playHand() ;
+        narrated.scoreHand() ;
+
+        System.out.printf( "%nHand over after %,d turns%n", narrated.getTurnNumber() ) ;
+
+        Deck.validateDecks( narrated.closeDecks() ) ;
+
+
+        // a meld naming a card no deck contains, as a console user might type,
+        // is rejected rather than ending the game
+        final PlayerAgent typist = new PlayerAgent()
+            {
+
+            private boolean typed = false ;
+
+            @Override
+            public DrawSource chooseDrawSource( final CanastaEngine game,
+                                                final Player player )
+                {
+
+                return bot.chooseDrawSource( game, player ) ;
+
+                }   // end chooseDrawSource()
+
+            @Override
+            public List<Card> chooseMeld( final CanastaEngine game,
+                                          final Player player )
+                {
+
+                if ( !this.typed )
+                    {
+                    this.typed = true ;
+
+                    return List.of( new Card( JOKER, Suit.SPADES ),
+                                    new Card( Rank.FIVE, Suit.HEARTS ),
+                                    new Card( Rank.FIVE, Suit.CLUBS ) ) ;
+                    }
+
+                return bot.chooseMeld( game, player ) ;
+
+                }   // end chooseMeld()
+
+            @Override
+            public Card chooseDiscard( final CanastaEngine game,
+                                       final Player player )
+                {
+
+                return bot.chooseDiscard( game, player ) ;
+
+                }   // end chooseDiscard()
+
+            } ;
+
+        final List<String> rejections = new ArrayList<>() ;
+        final CanastaEngine typed = new CanastaEngine( CardOrdering.STANDARD, gameRandom.replay() )
+                                            .setNarrator( text ->
+                                                {
+                                                if ( text.contains( "not a valid card" ) )
+                                                    {
+                                                    rejections.add( text.trim() ) ;
+                                                    }
+                                                } ) ;
+
+        typed.addPlayer( "Ann", typist ) ;
+        typed.addPlayer( "Bob", bot ) ;
+
+        typed.openDecks( 2 ) ;
+        typed.startHand( 11 ) ;
+        typed.playHand() ;
+
+        System.out.printf( "%nInvalid card in a meld: %s; hand over after %,d turns%n",
+                           rejections,
+                           typed.getTurnNumber() ) ;
+
+        Deck.validateDecks( typed.closeDecks() ) ;
+
+
+        // a bot which discards a card it doesn't hold fails rather than being
+        // asked again forever
+        final CanastaEngine stuck = new CanastaEngine( CardOrdering.STANDARD, gameRandom.replay() ) ;
+
+        stuck.addPlayer( "Ann", new PlayerAgent()
+            {
+
+            @Override
+            public DrawSource chooseDrawSource( final CanastaEngine game,
+                                                final Player player )
+                {
+
+                return DrawSource.STOCK ;
+
+                }   // end chooseDrawSource()
+
+            @Override
+            public List<Card> chooseMeld( final CanastaEngine game,
+                                          final Player player )
+                {
+
+                return null ;
+
+                }   // end chooseMeld()
+
+            @Override
+            public Card chooseDiscard( final CanastaEngine game,
+                                       final Player player )
+                {
+
+                return null ;
+
+                }   // end chooseDiscard()
+
+            } ) ;
+
+        stuck.openDecks( 1 ) ;
+        stuck.startHand( 11 ) ;
+
+        try
+            {
+            stuck.playHand() ;
+
+            System.out.printf( "%nFAIL: a bot's unusable discard was accepted%n" ) ;
+            }
+        catch ( final IllegalStateException e )
+            {
+            System.out.printf( "Unusable discard from a bot: %s%n", e.getMessage() ) ;
+            }
+
+
+        // time silent hands
+        final int hands = 10_000 ;
+
+        final CanastaEngine silent = new CanastaEngine( CardOrdering.STANDARD, gameRandom.replay() ) ;
+
+        for ( final String name : new String[] { "Ann", "Bob", "Cy" } )
+            {
+            silent.addPlayer( name, bot ) ;
+            }
+
+        silent.openDecks( 2 ) ;
+
+        long turns = 0 ;
+        final long startTime = System.nanoTime() ;
+
+        for ( int i = 0 ; i < hands ; i++ )
+            {
+            silent.startHand( 11 ) ;
+            silent.playHand() ;
+            silent.scoreHand() ;
+
+            turns += silent.getTurnNumber() ;
+
+            silent.collectCards() ;
+            }
+
+        final long elapsed = System.nanoTime() - startTime ;
+
+        System.out.printf( "%nPlayed %,d silent hands (%,d turns) in %,d ms: %,.0f turns/minute%n",
+                           hands,
+                           turns,
+                           elapsed / 1_000_000,
+                           turns * 60e9 / elapsed ) ;
+
+        Deck.validateDecks( silent.closeDecks() ) ;
+
+        }   // end main()
+
+    }   // end class CanastaEngine
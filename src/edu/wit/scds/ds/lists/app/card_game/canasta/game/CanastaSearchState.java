@@ -0,0 +1,1508 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import static edu.wit.scds.ds.lists.app.card_game.canasta.game.CanastaEngine.MINIMUM_MELD_SIZE ;
+import static edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld.CANASTA_SIZE ;
+import static edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld.MAXIMUM_WILD_CARDS ;
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.ALL_RANKS ;
+
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.CanastaEngine.TurnPhase ;
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.Arrays ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.random.RandomGenerator ;
+
+
+/**
+ * A compact, copyable model of a hand of Canasta for search-based agents
+ * <p>
+ * The state keeps only what {@link CanastaEngine}'s rules and scoring depend
+ * on. Cards are represented by rank alone - 3s cap the discard pile whatever
+ * their color and every card's points depend only on its rank. Each hand is a
+ * count of cards by rank, the stock and discard pile are stacks of rank
+ * ordinals, and since melds are never changed once laid down, each player's
+ * melds reduce to their point value and number of canastas. Copying a state
+ * copies a few small arrays, so a search can afford to copy one per
+ * simulated game.
+ * <p>
+ * Moves are encoded as {@code int}s: {@link #DRAW_FROM_STOCK},
+ * {@link #TAKE_DISCARD_PILE} and {@link #END_MELDING}, or built by
+ * {@link #meldMove(int)} and {@link #discardMove(Rank)}.
+ * {@link #generateMoves(MeldGenerator)} lists the legal moves; {@link #apply(int)}
+ * plays one.
+ * <p>
+ * {@link #observe(CanastaEngine, Player)} captures what one player can see of
+ * a game in progress: their own hand, every meld, the discard pile and the
+ * number of cards in each other hand and the stock. The cards every player
+ * saw another take with the discard pile, and hasn't seen leave their hand,
+ * stay in that hand; the rest of the cards the observer hasn't seen are
+ * pooled. {@link #determinize(CanastaSearchState, RandomGenerator)} deals the
+ * pool at random into the rest of the other hands and the stock to produce
+ * one possible complete state.
+ * <p>
+ * A state isn't thread-safe.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 keep the cards another player was seen to take with
+ *     the discard pile in their hand
+ * @version 1.2 2026-10-18 use {@code Rank.ALL_RANKS} rather than a private
+ *     copy of the ranks
+ */
+public final class CanastaSearchState
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the number of cards of each rank in one deck, as played - the engine sets the Jokers aside */
+    private final static int[] CARDS_PER_DECK = new int[ ALL_RANKS.size() ] ;
+
+    static
+        {
+
+        for ( final CardBase aCard : new Deck() )
+            {
+            CARDS_PER_DECK[ ( (Card) aCard ).rank.ordinal() ]++ ;
+            }
+
+        CARDS_PER_DECK[ Rank.JOKER.ordinal() ] = 0 ;
+
+        }   // end static initializer
+
+    /** draw the top card of the stock */
+    public final static int DRAW_FROM_STOCK = 0 ;
+
+    /** take the entire discard pile */
+    public final static int TAKE_DISCARD_PILE = 1 ;
+
+    /** finish melding and move on to discarding */
+    public final static int END_MELDING = 2 ;
+
+    /** a hand still in progress after this many turns is ended as it stands */
+    public final static int MAXIMUM_TURNS = 1_000 ;
+
+    // move encoding - discards carry a rank ordinal, melds a MeldGenerator descriptor
+    private final static int DISCARD_MOVE = 1 << 8 ;
+    private final static int MELD_MOVE = 1 << 24 ;
+    private final static int RANK_MASK = 0xFF ;
+    private final static int DESCRIPTOR_MASK = MELD_MOVE - 1 ;
+
+    /** the chance a simulated player discards a card at random rather than by rule of thumb */
+    private final static double RANDOM_DISCARD_RATE = 0.1 ;
+
+    /** no meld summaries - a new meld is never an extension */
+    private final static int[] NO_MELDS = new int[ 0 ] ;
+
+    private final static int JOKER = Rank.JOKER.ordinal() ;
+    private final static int TWO = Rank.TWO.ordinal() ;
+    private final static int THREE = Rank.THREE.ordinal() ;
+    private final static int SEVEN = Rank.SEVEN.ordinal() ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** each player's hand - the number of cards of each rank, indexed by ordinal */
+    private final int[][] hands ;
+
+    /** the number of cards in each player's hand */
+    private final int[] handSizes ;
+
+    /** the points each player's melds are worth */
+    private final int[] meldPoints ;
+
+    /** the number of canastas each player has laid down */
+    private final int[] canastas ;
+
+    /** the stock's rank ordinals, the top card last */
+    private final int[] stock ;
+
+    /** the number of cards in the stock */
+    private int stockSize ;
+
+    /** the discard pile's rank ordinals, the top card last */
+    private final int[] discards ;
+
+    /** the number of cards in the discard pile */
+    private int discardSize ;
+
+    /** the step the current player is on */
+    private TurnPhase phase ;
+
+    /** the index of the player whose turn it is */
+    private int currentPlayer ;
+
+    /** turns started in this hand */
+    private int turnNumber ;
+
+    /** the index of the player who went out or -1 */
+    private int playerWhoWentOut ;
+
+    /** the index of the player whose view this state was observed from or -1 if complete */
+    private int observer ;
+
+    /** the rank ordinals of the cards the observer hasn't seen */
+    private final int[] unseen ;
+
+    /** the number of cards in {@code unseen} */
+    private int unseenCount ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * create an empty state
+     *
+     * @param numberOfPlayers
+     *     the number of players
+     * @param capacity
+     *     the number of cards in play
+     */
+    private CanastaSearchState( final int numberOfPlayers,
+                                final int capacity )
+        {
+
+        this.hands = new int[ numberOfPlayers ][ ALL_RANKS.size() ] ;
+        this.handSizes = new int[ numberOfPlayers ] ;
+        this.meldPoints = new int[ numberOfPlayers ] ;
+        this.canastas = new int[ numberOfPlayers ] ;
+        this.stock = new int[ capacity ] ;
+        this.discards = new int[ capacity ] ;
+        this.unseen = new int[ capacity ] ;
+
+        this.phase = TurnPhase.HAND_OVER ;
+        this.playerWhoWentOut = -1 ;
+        this.observer = -1 ;
+
+        }   // end 2-arg constructor
+
+
+    /**
+     * create a copy of a state
+     *
+     * @param original
+     *     the state to copy
+     */
+    public CanastaSearchState( final CanastaSearchState original )
+        {
+
+        this( original.hands.length, original.stock.length ) ;
+
+        copyFrom( original ) ;
+
+        }   // end copy constructor
+
+
+    /*
+     * observation
+     */
+
+
+    /**
+     * capture what a player can see of a game in progress
+     *
+     * @param game
+     *     the game
+     * @param observer
+     *     the player whose view to capture
+     *
+     * @return the observed state - the other players' hands hold only the
+     *     cards they're known to have and the stock is empty until
+     *     {@linkplain #determinize(CanastaSearchState, RandomGenerator)
+     *     determinized}
+     *
+     * @throws IllegalStateException
+     *     if no hand is in progress, the observer isn't playing, or the cards
+     *     in play don't match the number of decks
+     */
+    public static CanastaSearchState observe( final CanastaEngine game,
+                                              final Player observer )
+        {
+
+        Objects.requireNonNull( game, "game" ) ;
+        Objects.requireNonNull( observer, "observer" ) ;
+
+        if ( !game.isHandInProgress() )
+            {
+            throw new IllegalStateException( "no hand is in progress" ) ;
+            }
+
+        final List<Player> players = game.getPlayers() ;
+        final int observerIndex = indexOf( players, observer ) ;
+        final int currentIndex = indexOf( players, game.getCurrentPlayer() ) ;
+
+        if ( observerIndex < 0 )
+            {
+            throw new IllegalStateException( String.format( "%s isn't playing", observer.name ) ) ;
+            }
+
+        final int capacity = game.getDeckCount() * Arrays.stream( CARDS_PER_DECK ).sum() ;
+        final CanastaSearchState observed = new CanastaSearchState( players.size(), capacity ) ;
+
+        // the observer's view of the table
+        final int[] unseenCounts = new int[ ALL_RANKS.size() ] ;
+
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+            unseenCounts[ ordinal ] = game.getDeckCount() * CARDS_PER_DECK[ ordinal ] ;
+            }
+
+        for ( int seat = 0 ; seat < players.size() ; seat++ )
+            {
+            final Player aPlayer = players.get( seat ) ;
+
+            observed.handSizes[ seat ] = aPlayer.getHandSize() ;
+
+            for ( final Meld aMeld : aPlayer.getMelds() )
+                {
+                int cardPoints = 0 ;
+
+                for ( final CardBase aCard : aMeld )
+                    {
+                    final Rank aRank = ( (Card) aCard ).rank ;
+
+                    unseenCounts[ aRank.ordinal() ]-- ;
+                    cardPoints += Player.getPointValue( aRank ) ;
+                    }
+
+                if ( aMeld.isCanasta() )
+                    {
+                    observed.canastas[ seat ]++ ;
+                    observed.meldPoints[ seat ] += canastaBonus( aMeld.isDirty() ) ;
+                    }
+                else
+                    {
+                    observed.meldPoints[ seat ] += cardPoints ;
+                    }
+                }
+            }
+
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+            final int count = observer.countInHand( ALL_RANKS.get( ordinal ) ) ;
+
+            observed.hands[ observerIndex ][ ordinal ] = count ;
+            unseenCounts[ ordinal ] -= count ;
+            }
+
+        // the cards the others were seen to take with the discard pile
+        int knownCards = 0 ;
+
+        for ( int seat = 0 ; seat < players.size() ; seat++ )
+            {
+
+            if ( seat == observerIndex )
+                {
+                continue ;
+                }
+
+            for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+                {
+                final int count = game.countKnownInHand( players.get( seat ), ALL_RANKS.get( ordinal ) ) ;
+
+                observed.hands[ seat ][ ordinal ] = count ;
+                unseenCounts[ ordinal ] -= count ;
+                knownCards += count ;
+                }
+
+            }
+
+        final List<Card> discardPile = game.getDiscardPileCards() ;   // top down
+
+        for ( int i = discardPile.size() - 1 ; i >= 0 ; i-- )
+            {
+            final int ordinal = discardPile.get( i ).rank.ordinal() ;
+
+            observed.discards[ observed.discardSize++ ] = ordinal ;
+            unseenCounts[ ordinal ]-- ;
+            }
+
+        // pool whatever is left - it's in the other hands or the stock
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+
+            if ( unseenCounts[ ordinal ] < 0 )
+                {
+                throw new IllegalStateException( String.format( "more %s cards in play than %,d deck(s) hold",
+                                                                ALL_RANKS.get( ordinal ),
+                                                                game.getDeckCount() ) ) ;
+                }
+
+            for ( int i = 0 ; i < unseenCounts[ ordinal ] ; i++ )
+                {
+                observed.unseen[ observed.unseenCount++ ] = ordinal ;
+                }
+
+            }
+
+        int hiddenCards = game.getStockSize() - knownCards ;
+
+        for ( int seat = 0 ; seat < players.size() ; seat++ )
+            {
+
+            if ( seat != observerIndex )
+                {
+                hiddenCards += observed.handSizes[ seat ] ;
+                }
+
+            }
+
+        if ( hiddenCards != observed.unseenCount )
+            {
+            throw new IllegalStateException( String.format( "%,d unseen cards but %,d hidden in hands and the stock",
+                                                            observed.unseenCount,
+                                                            hiddenCards ) ) ;
+            }
+
+        observed.stockSize = game.getStockSize() ;
+        observed.phase = game.getPhase() ;
+        observed.currentPlayer = currentIndex ;
+        // the engine counts a turn as it starts - apply() will count this one again
+        observed.turnNumber = game.getTurnNumber() - ( observed.phase == TurnPhase.DRAW ? 1 : 0 ) ;
+        observed.observer = observerIndex ;
+
+        return observed ;
+
+        }   // end observe()
+
+
+    /**
+     * become one possible complete state consistent with an observation:
+     * the cards the observer hasn't seen are shuffled and dealt to fill the
+     * other players' hands, alongside the cards they're known to hold, and
+     * the rest become the stock
+     *
+     * @param observed
+     *     a state from {@link #observe(CanastaEngine, Player)} with the same
+     *     number of players and cards
+     * @param random
+     *     the source of randomness for the deal
+     *
+     * @return this state
+     *
+     * @throws IllegalArgumentException
+     *     if {@code observed} isn't an observation or doesn't match this
+     *     state's size
+     */
+    public CanastaSearchState determinize( final CanastaSearchState observed,
+                                           final RandomGenerator random )
+        {
+
+        if ( observed.observer < 0 )
+            {
+            throw new IllegalArgumentException( "the state to determinize isn't an observation" ) ;
+            }
+
+        copyFrom( observed ) ;
+
+        // Fisher-Yates shuffle of the unseen cards
+        for ( int i = this.unseenCount - 1 ; i > 0 ; i-- )
+            {
+            final int j = random.nextInt( i + 1 ) ;
+            final int swap = this.unseen[ i ] ;
+
+            this.unseen[ i ] = this.unseen[ j ] ;
+            this.unseen[ j ] = swap ;
+            }
+
+        int next = 0 ;
+
+        for ( int seat = 0 ; seat < this.hands.length ; seat++ )
+            {
+
+            if ( seat == this.observer )
+                {
+                continue ;
+                }
+
+            final int[] hand = this.hands[ seat ] ;
+            final int unknownCards = this.handSizes[ seat ] - Arrays.stream( hand ).sum() ;
+
+            for ( int i = 0 ; i < unknownCards ; i++ )
+                {
+                hand[ this.unseen[ next++ ] ]++ ;
+                }
+
+            }
+
+        this.stockSize = this.unseenCount - next ;
+        System.arraycopy( this.unseen, next, this.stock, 0, this.stockSize ) ;
+
+        this.observer = -1 ;
+        this.unseenCount = 0 ;
+
+        return this ;
+
+        }   // end determinize()
+
+
+    /*
+     * copying
+     */
+
+
+    /**
+     * become a copy of another state
+     *
+     * @param other
+     *     the state to copy, with the same number of players and cards
+     *
+     * @return this state
+     *
+     * @throws IllegalArgumentException
+     *     if the states' sizes differ
+     */
+    public CanastaSearchState copyFrom( final CanastaSearchState other )
+        {
+
+        if ( ( other.hands.length != this.hands.length ) || ( other.stock.length != this.stock.length ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't copy a %,d player, %,d card state to a %,d player, %,d card state",
+                                                               other.hands.length,
+                                                               other.stock.length,
+                                                               this.hands.length,
+                                                               this.stock.length ) ) ;
+            }
+
+        for ( int seat = 0 ; seat < this.hands.length ; seat++ )
+            {
+            System.arraycopy( other.hands[ seat ], 0, this.hands[ seat ], 0, ALL_RANKS.size() ) ;
+            }
+
+        System.arraycopy( other.handSizes, 0, this.handSizes, 0, this.handSizes.length ) ;
+        System.arraycopy( other.meldPoints, 0, this.meldPoints, 0, this.meldPoints.length ) ;
+        System.arraycopy( other.canastas, 0, this.canastas, 0, this.canastas.length ) ;
+        System.arraycopy( other.stock, 0, this.stock, 0, other.stockSize ) ;
+        System.arraycopy( other.discards, 0, this.discards, 0, other.discardSize ) ;
+        System.arraycopy( other.unseen, 0, this.unseen, 0, other.unseenCount ) ;
+
+        this.stockSize = other.stockSize ;
+        this.discardSize = other.discardSize ;
+        this.unseenCount = other.unseenCount ;
+        this.phase = other.phase ;
+        this.currentPlayer = other.currentPlayer ;
+        this.turnNumber = other.turnNumber ;
+        this.playerWhoWentOut = other.playerWhoWentOut ;
+        this.observer = other.observer ;
+
+        return this ;
+
+        }   // end copyFrom()
+
+
+    /*
+     * moves
+     */
+
+
+    /**
+     * list the current player's legal moves
+     * <p>
+     * while melding, the first move is always {@link #END_MELDING} and the
+     * rest are the generator's descriptors, in order
+     *
+     * @param generator
+     *     enumerates the melds - its buffer is overwritten
+     *
+     * @return the number of legal moves - 0 once the hand is over
+     *
+     * @see #getMove(MeldGenerator, int)
+     */
+    public int generateMoves( final MeldGenerator generator )
+        {
+
+        final int[] hand = this.hands[ this.currentPlayer ] ;
+
+        return switch ( this.phase )
+            {
+            case DRAW -> canTakeDiscardPile() ? 2 : 1 ;
+            case MELD -> 1 + generator.generate( hand, MeldGenerator.NO_DISCARD_TOP, NO_MELDS, 0 ) ;
+            case DISCARD -> countRanksHeld( hand ) ;
+            case HAND_OVER -> 0 ;
+            } ;
+
+        }   // end generateMoves()
+
+
+    /**
+     * retrieve one of the legal moves listed by the latest call to
+     * {@link #generateMoves(MeldGenerator)}
+     *
+     * @param generator
+     *     the generator passed to {@code generateMoves()}
+     * @param index
+     *     the move's position in the list
+     *
+     * @return the move
+     *
+     * @throws IndexOutOfBoundsException
+     *     if there is no such move
+     */
+    public int getMove( final MeldGenerator generator,
+                        final int index )
+        {
+
+        switch ( this.phase )
+            {
+            case DRAW ->
+                {
+                Objects.checkIndex( index, canTakeDiscardPile() ? 2 : 1 ) ;
+
+                return index == 0
+                    ? DRAW_FROM_STOCK
+                    : TAKE_DISCARD_PILE ;
+                }
+
+            case MELD ->
+                {
+                return index == 0
+                    ? END_MELDING
+                    : meldMove( generator.get( index - 1 ) ) ;
+                }
+
+            case DISCARD ->
+                {
+                final int[] hand = this.hands[ this.currentPlayer ] ;
+                int remaining = index ;
+
+                for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+                    {
+
+                    if ( ( hand[ ordinal ] > 0 ) && ( remaining-- == 0 ) )
+                        {
+                        return DISCARD_MOVE | ordinal ;
+                        }
+
+                    }
+
+                throw new IndexOutOfBoundsException( String.format( "no discard %,d", index ) ) ;
+                }
+
+            default -> throw new IndexOutOfBoundsException( "the hand is over" ) ;
+            }
+
+        }   // end getMove()
+
+
+    /**
+     * play a move for the current player
+     *
+     * @param move
+     *     a legal move
+     *
+     * @return this state
+     *
+     * @throws IllegalArgumentException
+     *     if the move isn't legal
+     */
+    public CanastaSearchState apply( final int move )
+        {
+
+        final int[] hand = this.hands[ this.currentPlayer ] ;
+
+        switch ( this.phase )
+            {
+            case DRAW ->
+                {
+                this.turnNumber++ ;
+
+                if ( move == TAKE_DISCARD_PILE )
+                    {
+
+                    if ( !canTakeDiscardPile() )
+                        {
+                        throw new IllegalArgumentException( "the discard pile can't be taken" ) ;
+                        }
+
+                    for ( int i = 0 ; i < this.discardSize ; i++ )
+                        {
+                        hand[ this.discards[ i ] ]++ ;
+                        }
+
+                    this.handSizes[ this.currentPlayer ] += this.discardSize ;
+                    this.discardSize = 0 ;
+                    this.phase = TurnPhase.MELD ;
+                    }
+                else if ( move == DRAW_FROM_STOCK )
+                    {
+
+                    if ( this.stockSize == 0 )
+                        {
+                        this.phase = TurnPhase.HAND_OVER ;  // the stock is exhausted
+                        }
+                    else
+                        {
+                        hand[ this.stock[ --this.stockSize ] ]++ ;
+                        this.handSizes[ this.currentPlayer ]++ ;
+                        this.phase = TurnPhase.MELD ;
+                        }
+
+                    }
+                else
+                    {
+                    throw illegalMove( move ) ;
+                    }
+                }
+
+            case MELD ->
+                {
+
+                if ( move == END_MELDING )
+                    {
+
+                    if ( this.handSizes[ this.currentPlayer ] == 0 )
+                        {
+                        endTurn() ;     // nothing to discard
+                        }
+                    else
+                        {
+                        this.phase = TurnPhase.DISCARD ;
+                        }
+
+                    }
+                else if ( isMeld( move ) )
+                    {
+                    layDownMeld( getMeldDescriptor( move ) ) ;
+                    }
+                else
+                    {
+                    throw illegalMove( move ) ;
+                    }
+                }
+
+            case DISCARD ->
+                {
+
+                if ( !isDiscard( move ) || ( hand[ move & RANK_MASK ] == 0 ) )
+                    {
+                    throw illegalMove( move ) ;
+                    }
+
+                hand[ move & RANK_MASK ]-- ;
+                this.handSizes[ this.currentPlayer ]-- ;
+                this.discards[ this.discardSize++ ] = move & RANK_MASK ;
+
+                endTurn() ;
+                }
+
+            default -> throw new IllegalArgumentException( "the hand is over" ) ;
+            }
+
+        return this ;
+
+        }   // end apply()
+
+
+    /**
+     * finish the hand with every player following simple rules of thumb
+     * (like {@link BasicAgent}'s) with an occasional random discard
+     *
+     * @param random
+     *     the source of randomness for the discards
+     *
+     * @return this state
+     */
+    public CanastaSearchState playOut( final RandomGenerator random )
+        {
+
+        while ( this.phase != TurnPhase.HAND_OVER )
+            {
+            final int[] hand = this.hands[ this.currentPlayer ] ;
+
+            switch ( this.phase )
+                {
+                case DRAW ->
+                    {
+                    // take the pile only to meld its (natural) top card right away
+                    final int top = this.discardSize == 0
+                        ? -1
+                        : this.discards[ this.discardSize - 1 ] ;
+
+                    apply( ( top >= 0 ) &&
+                           !isWild( top ) &&
+                           ( hand[ top ] >= ( MINIMUM_MELD_SIZE - 1 ) ) &&
+                           canTakeDiscardPile()
+                               ? TAKE_DISCARD_PILE
+                               : DRAW_FROM_STOCK ) ;
+                    }
+
+                case MELD -> apply( chooseRuleOfThumbMeld( hand ) ) ;
+
+                case DISCARD -> apply( DISCARD_MOVE | chooseRuleOfThumbDiscard( hand, random ) ) ;
+
+                default -> throw new IllegalStateException( String.format( "unexpected phase: %s", this.phase ) ) ;
+                }
+
+            }
+
+        return this ;
+
+        }   // end playOut()
+
+
+    /*
+     * move encoding
+     */
+
+
+    /**
+     * encode discarding a card
+     *
+     * @param rank
+     *     the rank of the card to discard
+     *
+     * @return the move
+     */
+    public static int discardMove( final Rank rank )
+        {
+
+        return DISCARD_MOVE | rank.ordinal() ;
+
+        }   // end discardMove()
+
+
+    /**
+     * retrieve the rank a discard move discards
+     *
+     * @param move
+     *     a discard move
+     *
+     * @return the rank
+     *
+     * @throws IllegalArgumentException
+     *     if the move isn't a discard
+     */
+    public static Rank getDiscardRank( final int move )
+        {
+
+        if ( !isDiscard( move ) )
+            {
+            throw illegalMove( move ) ;
+            }
+
+        return ALL_RANKS.get( move & RANK_MASK ) ;
+
+        }   // end getDiscardRank()
+
+
+    /**
+     * retrieve the meld a meld move lays down
+     *
+     * @param move
+     *     a meld move
+     *
+     * @return the {@link MeldGenerator} descriptor
+     *
+     * @throws IllegalArgumentException
+     *     if the move isn't a meld
+     */
+    public static int getMeldDescriptor( final int move )
+        {
+
+        if ( !isMeld( move ) )
+            {
+            throw illegalMove( move ) ;
+            }
+
+        return move & DESCRIPTOR_MASK ;
+
+        }   // end getMeldDescriptor()
+
+
+    /**
+     * is a move a discard?
+     *
+     * @param move
+     *     the move
+     *
+     * @return true if the move discards a card
+     */
+    public static boolean isDiscard( final int move )
+        {
+
+        return ( ( move & ~RANK_MASK ) == DISCARD_MOVE ) && ( ( move & RANK_MASK ) < ALL_RANKS.size() ) ;
+
+        }   // end isDiscard()
+
+
+    /**
+     * is a move a new meld?
+     *
+     * @param move
+     *     the move
+     *
+     * @return true if the move lays down a meld
+     */
+    public static boolean isMeld( final int move )
+        {
+
+        return ( move & ~DESCRIPTOR_MASK ) == MELD_MOVE ;
+
+        }   // end isMeld()
+
+
+    /**
+     * encode laying down a new meld
+     *
+     * @param descriptor
+     *     a {@link MeldGenerator} descriptor for a new meld, without the
+     *     discard pile's top card
+     *
+     * @return the move
+     *
+     * @throws IllegalArgumentException
+     *     if the descriptor extends a meld or uses the discard pile's top card
+     */
+    public static int meldMove( final int descriptor )
+        {
+
+        if ( !MeldGenerator.isNewMeld( descriptor ) || MeldGenerator.usesDiscardTop( descriptor ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't lay down %s",
+                                                               MeldGenerator.describe( descriptor ) ) ) ;
+            }
+
+        return MELD_MOVE | descriptor ;
+
+        }   // end meldMove()
+
+
+    /**
+     * describe a move
+     *
+     * @param move
+     *     the move
+     *
+     * @return the description
+     */
+    public static String describeMove( final int move )
+        {
+
+        if ( move == DRAW_FROM_STOCK )
+            {
+            return "draw from the stock" ;
+            }
+
+        if ( move == TAKE_DISCARD_PILE )
+            {
+            return "take the discard pile" ;
+            }
+
+        if ( move == END_MELDING )
+            {
+            return "finish melding" ;
+            }
+
+        if ( isDiscard( move ) )
+            {
+            return String.format( "discard a %s", getDiscardRank( move ).getDisplayName() ) ;
+            }
+
+        if ( isMeld( move ) )
+            {
+            return MeldGenerator.describe( getMeldDescriptor( move ) ) ;
+            }
+
+        return String.format( "unknown move %,d", move ) ;
+
+        }   // end describeMove()
+
+
+    /*
+     * accessors
+     */
+
+
+    /**
+     * retrieve the number of cards of a rank in a player's hand
+     *
+     * @param player
+     *     the player's index, in turn order
+     * @param rank
+     *     the rank to count
+     *
+     * @return the number of cards
+     */
+    public int countInHand( final int player,
+                            final Rank rank )
+        {
+
+        return this.hands[ player ][ rank.ordinal() ] ;
+
+        }   // end countInHand()
+
+
+    /**
+     * retrieve the index of the player whose turn it is
+     *
+     * @return the player's index, in turn order
+     */
+    public int getCurrentPlayer()
+        {
+
+        return this.currentPlayer ;
+
+        }   // end getCurrentPlayer()
+
+
+    /**
+     * retrieve the number of cards in the discard pile
+     *
+     * @return the number of cards
+     */
+    public int getDiscardPileSize()
+        {
+
+        return this.discardSize ;
+
+        }   // end getDiscardPileSize()
+
+
+    /**
+     * retrieve the number of cards in a player's hand
+     *
+     * @param player
+     *     the player's index, in turn order
+     *
+     * @return the number of cards
+     */
+    public int getHandSize( final int player )
+        {
+
+        return this.handSizes[ player ] ;
+
+        }   // end getHandSize()
+
+
+    /**
+     * retrieve the step the current player is on
+     *
+     * @return the phase
+     */
+    public TurnPhase getPhase()
+        {
+
+        return this.phase ;
+
+        }   // end getPhase()
+
+
+    /**
+     * retrieve the number of players
+     *
+     * @return the number of players
+     */
+    public int getPlayerCount()
+        {
+
+        return this.hands.length ;
+
+        }   // end getPlayerCount()
+
+
+    /**
+     * retrieve the player who went out
+     *
+     * @return the player's index or -1 if no one has
+     */
+    public int getPlayerWhoWentOut()
+        {
+
+        return this.playerWhoWentOut ;
+
+        }   // end getPlayerWhoWentOut()
+
+
+    /**
+     * retrieve a player's score as {@link CanastaEngine#scoreHand()} would
+     * record it now - the points for their melds
+     *
+     * @param player
+     *     the player's index, in turn order
+     *
+     * @return the score
+     */
+    public int getScore( final int player )
+        {
+
+        return this.meldPoints[ player ] ;
+
+        }   // end getScore()
+
+
+    /**
+     * retrieve the number of cards in the stock
+     *
+     * @return the number of cards
+     */
+    public int getStockSize()
+        {
+
+        return this.stockSize ;
+
+        }   // end getStockSize()
+
+
+    /**
+     * retrieve the number of turns started in this hand
+     *
+     * @return the number of turns
+     */
+    public int getTurnNumber()
+        {
+
+        return this.turnNumber ;
+
+        }   // end getTurnNumber()
+
+
+    /**
+     * is the hand over?
+     *
+     * @return true if the hand is over
+     */
+    public boolean isOver()
+        {
+
+        return this.phase == TurnPhase.HAND_OVER ;
+
+        }   // end isOver()
+
+
+    /**
+     * share a win among the players with the high score
+     *
+     * @param rewards
+     *     receives each player's share: 1 divided by the number of players
+     *     with the high score, or 0
+     *
+     * @return {@code rewards}
+     */
+    public double[] getRewards( final double[] rewards )
+        {
+
+        int highScore = Integer.MIN_VALUE ;
+        int winners = 0 ;
+
+        for ( final int score : this.meldPoints )
+            {
+
+            if ( score > highScore )
+                {
+                highScore = score ;
+                winners = 1 ;
+                }
+            else if ( score == highScore )
+                {
+                winners++ ;
+                }
+
+            }
+
+        for ( int seat = 0 ; seat < this.meldPoints.length ; seat++ )
+            {
+            rewards[ seat ] = this.meldPoints[ seat ] == highScore
+                ? 1.0 / winners
+                : 0.0 ;
+            }
+
+        return rewards ;
+
+        }   // end getRewards()
+
+
+    @Override
+    public String toString()
+        {
+
+        final StringBuilder description = new StringBuilder( String.format( "turn %,d, player %,d to %s, stock %,d, discard pile %,d%n",
+                                                                            this.turnNumber,
+                                                                            this.currentPlayer + 1,
+                                                                            this.phase,
+                                                                            this.stockSize,
+                                                                            this.discardSize ) ) ;
+
+        for ( int seat = 0 ; seat < this.hands.length ; seat++ )
+            {
+            description.append( String.format( "  player %,d: %,d card(s) %s, %,d point(s) in melds, %,d canasta(s)%n",
+                                               seat + 1,
+                                               this.handSizes[ seat ],
+                                               ( ( this.observer < 0 ) || ( seat == this.observer ) )
+                                                   ? Arrays.toString( this.hands[ seat ] )
+                                                   : "(unseen)",
+                                               this.meldPoints[ seat ],
+                                               this.canastas[ seat ] ) ) ;
+            }
+
+        return description.toString() ;
+
+        }   // end toString()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * can the current player take the discard pile? as
+     * {@link CanastaEngine#canTakeDiscardPile(Player)}: the pile must not be
+     * empty or capped and its top card must form a meld with the hand
+     *
+     * @return true if the discard pile can be taken
+     */
+    private boolean canTakeDiscardPile()
+        {
+
+        if ( this.discardSize == 0 )
+            {
+            return false ;
+            }
+
+        final int top = this.discards[ this.discardSize - 1 ] ;
+
+        if ( ( top == THREE ) || ( top == SEVEN ) )
+            {
+            return false ;  // capped
+            }
+
+        // same arithmetic as Player.canFormMeldWith()
+        final int[] hand = this.hands[ this.currentPlayer ] ;
+        final int sameRank = hand[ top ] ;
+        final int wildCards = ( hand[ TWO ] + hand[ JOKER ] ) - ( isWild( top ) ? sameRank : 0 ) ;
+
+        return ( 1 + sameRank + wildCards ) >= MINIMUM_MELD_SIZE ;
+
+        }   // end canTakeDiscardPile()
+
+
+    /**
+     * the rule of thumb meld: all the naturals of the rank held most (at least
+     * three), plus wild cards only if they complete a canasta
+     *
+     * @param hand
+     *     the current player's hand
+     *
+     * @return the meld move or {@link #END_MELDING}
+     */
+    private static int chooseRuleOfThumbMeld( final int[] hand )
+        {
+
+        int meldRank = -1 ;
+
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+
+            if ( !isWild( ordinal ) &&
+                 ( hand[ ordinal ] >= MINIMUM_MELD_SIZE ) &&
+                 ( ( meldRank < 0 ) || ( hand[ ordinal ] > hand[ meldRank ] ) ) )
+                {
+                meldRank = ordinal ;
+                }
+
+            }
+
+        if ( meldRank < 0 )
+            {
+            return END_MELDING ;
+            }
+
+        final int naturals = hand[ meldRank ] ;
+        int twos = 0 ;
+        int jokers = 0 ;
+
+        if ( ( naturals < CANASTA_SIZE ) &&
+             ( ( CANASTA_SIZE - naturals ) <= Math.min( hand[ TWO ] + hand[ JOKER ], MAXIMUM_WILD_CARDS ) ) )
+            {
+            twos = Math.min( hand[ TWO ], CANASTA_SIZE - naturals ) ;
+            jokers = CANASTA_SIZE - naturals - twos ;
+            }
+
+        return MELD_MOVE | MeldGenerator.encode( meldRank, naturals, jokers, twos ) ;
+
+        }   // end chooseRuleOfThumbMeld()
+
+
+    /**
+     * the rule of thumb discard: a natural of the rank held fewest, chosen at
+     * random among equals, keeping wild cards as long as possible - or,
+     * occasionally, any card at random
+     *
+     * @param hand
+     *     the current player's hand, not empty
+     * @param random
+     *     the source of randomness
+     *
+     * @return the ordinal of the rank to discard
+     */
+    private static int chooseRuleOfThumbDiscard( final int[] hand,
+                                                 final RandomGenerator random )
+        {
+
+        final boolean anyCard = random.nextDouble() < RANDOM_DISCARD_RATE ;
+
+        int choice = -1 ;
+        int fewest = Integer.MAX_VALUE ;
+        int equals = 0 ;
+
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+
+            if ( ( hand[ ordinal ] == 0 ) || ( !anyCard && isWild( ordinal ) ) )
+                {
+                continue ;
+                }
+
+            final int count = anyCard ? 0 : hand[ ordinal ] ;
+
+            if ( count < fewest )
+                {
+                choice = ordinal ;
+                fewest = count ;
+                equals = 1 ;
+                }
+            else if ( ( count == fewest ) && ( random.nextInt( ++equals ) == 0 ) )
+                {
+                choice = ordinal ;   // reservoir sampling among the equals
+                }
+
+            }
+
+        if ( choice < 0 )
+            {
+            // only wild cards left
+            choice = hand[ TWO ] > 0 ? TWO : JOKER ;
+            }
+
+        return choice ;
+
+        }   // end chooseRuleOfThumbDiscard()
+
+
+    /**
+     * count the distinct ranks in a hand
+     *
+     * @param hand
+     *     the hand
+     *
+     * @return the number of ranks held
+     */
+    private static int countRanksHeld( final int[] hand )
+        {
+
+        int ranks = 0 ;
+
+        for ( final int aCount : hand )
+            {
+
+            if ( aCount > 0 )
+                {
+                ranks++ ;
+                }
+
+            }
+
+        return ranks ;
+
+        }   // end countRanksHeld()
+
+
+    /**
+     * the bonus for a canasta
+     *
+     * @param dirty
+     *     whether the canasta includes wild cards
+     *
+     * @return the bonus points
+     */
+    private static int canastaBonus( final boolean dirty )
+        {
+
+        return Player.getPointValue( dirty
+            ? PointValue.DIRTY_MELD
+            : PointValue.MELD ) ;
+
+        }   // end canastaBonus()
+
+
+    /**
+     * pass the turn to the next player, unless the current player went out or
+     * the hand has gone on too long
+     */
+    private void endTurn()
+        {
+
+        if ( ( this.handSizes[ this.currentPlayer ] == 0 ) && ( this.canastas[ this.currentPlayer ] > 0 ) )
+            {
+            this.playerWhoWentOut = this.currentPlayer ;
+            this.phase = TurnPhase.HAND_OVER ;
+
+            return ;
+            }
+
+        this.currentPlayer = ( this.currentPlayer + 1 ) % this.hands.length ;
+        this.phase = this.turnNumber >= MAXIMUM_TURNS
+            ? TurnPhase.HAND_OVER
+            : TurnPhase.DRAW ;
+
+        }   // end endTurn()
+
+
+    /**
+     * build the exception for an illegal move
+     *
+     * @param move
+     *     the move
+     *
+     * @return the exception
+     */
+    private static IllegalArgumentException illegalMove( final int move )
+        {
+
+        return new IllegalArgumentException( String.format( "illegal move: %s", describeMove( move ) ) ) ;
+
+        }   // end illegalMove()
+
+
+    /**
+     * find a player by identity
+     *
+     * @param players
+     *     the players
+     * @param player
+     *     the player to find
+     *
+     * @return the player's index or -1
+     */
+    private static int indexOf( final List<Player> players,
+                                final Player player )
+        {
+
+        for ( int i = 0 ; i < players.size() ; i++ )
+            {
+
+            if ( players.get( i ) == player )
+                {
+                return i ;
+                }
+
+            }
+
+        return -1 ;
+
+        }   // end indexOf()
+
+
+    /**
+     * is a rank wild?
+     *
+     * @param ordinal
+     *     the rank's ordinal
+     *
+     * @return true for 2s and Jokers
+     */
+    private static boolean isWild( final int ordinal )
+        {
+
+        return ( ordinal == TWO ) || ( ordinal == JOKER ) ;
+
+        }   // end isWild()
+
+
+    /**
+     * move a new meld's cards from the current player's hand to their melds
+     *
+     * @param descriptor
+     *     the meld's {@link MeldGenerator} descriptor
+     *
+     * @throws IllegalArgumentException
+     *     if the meld isn't legal or the cards aren't in the hand
+     */
+    private void layDownMeld( final int descriptor )
+        {
+
+        final int[] hand = this.hands[ this.currentPlayer ] ;
+        final Rank rank = MeldGenerator.getRank( descriptor ) ;
+        final int naturals = MeldGenerator.countNaturals( descriptor ) ;
+        final int jokers = MeldGenerator.countJokers( descriptor ) ;
+        final int twos = MeldGenerator.countTwos( descriptor ) ;
+        final int cards = MeldGenerator.countCards( descriptor ) ;
+
+        if ( ( cards < MINIMUM_MELD_SIZE ) ||
+             ( ( jokers + twos ) > MAXIMUM_WILD_CARDS ) ||
+             ( hand[ JOKER ] < jokers ) ||
+             ( hand[ TWO ] < twos ) ||
+             ( ( naturals > 0 ) && ( isWild( rank.ordinal() ) || ( hand[ rank.ordinal() ] < naturals ) ) ) )
+            {
+            throw illegalMove( MELD_MOVE | descriptor ) ;
+            }
+
+        int cardPoints = ( jokers * Player.getPointValue( Rank.JOKER ) ) + ( twos * Player.getPointValue( Rank.TWO ) ) ;
+
+        if ( naturals > 0 )
+            {
+            hand[ rank.ordinal() ] -= naturals ;
+            cardPoints += naturals * Player.getPointValue( rank ) ;
+            }
+
+        hand[ JOKER ] -= jokers ;
+        hand[ TWO ] -= twos ;
+        this.handSizes[ this.currentPlayer ] -= cards ;
+
+        if ( cards >= CANASTA_SIZE )
+            {
+            this.canastas[ this.currentPlayer ]++ ;
+            this.meldPoints[ this.currentPlayer ] += canastaBonus( ( jokers + twos ) > 0 ) ;
+            }
+        else
+            {
+            this.meldPoints[ this.currentPlayer ] += cardPoints ;
+            }
+
+        }   // end layDownMeld()
+
+    }   // end class CanastaSearchState
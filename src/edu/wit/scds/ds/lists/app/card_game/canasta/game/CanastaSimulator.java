@@ -0,0 +1,754 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.util.ArrayList ;
+import java.util.IntSummaryStatistics ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.concurrent.Callable ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.ExecutorService ;
+import java.util.concurrent.Executors ;
+import java.util.concurrent.Future ;
+import java.util.function.Supplier ;
+
+
+/**
+ * Plays many independent hands of Canasta between automated players, spread
+ * across a pool of worker threads, and summarizes the outcomes: win rates,
+ * score distributions and hand lengths
+ * <p>
+ * Each game gets its own {@link CanastaEngine}, its own agents and its own
+ * {@link GameRandom#derive(long) derived} source of randomness, so games share
+ * no mutable state and the workers never wait on one another. Each task tallies
+ * its games privately; the tallies are merged once, at the end. Because a
+ * game's seed depends only on the simulation's seed and the game's number, the
+ * results are identical whatever the number of threads.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class CanastaSimulator
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** games played by each task - enough to amortize scheduling */
+    private final static int GAMES_PER_TASK = 64 ;
+
+    /** the width of each score histogram bucket, in points */
+    public final static int SCORE_BUCKET_WIDTH = 100 ;
+
+    /** the number of score histogram buckets - the last collects all higher scores */
+    public final static int SCORE_BUCKETS = 30 ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** creates the decision maker for each seat, one per game */
+    private final List<Supplier<? extends PlayerAgent>> seatAgents ;
+
+    /** the number of decks shuffled together for each game */
+    private final int numberOfDecks ;
+
+    /** the number of cards dealt to each player */
+    private final int cardsPerHand ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * configure the games to simulate
+     *
+     * @param agentsBySeat
+     *     for each seat, in turn order, creates that player's agent - called
+     *     once per game, possibly from several threads at once
+     * @param decks
+     *     the number of decks shuffled together for each game
+     * @param cardsDealt
+     *     the number of cards dealt to each player
+     *
+     * @throws IllegalArgumentException
+     *     if there are no seats or the number of decks or cards is less than 1
+     */
+    public CanastaSimulator( final List<? extends Supplier<? extends PlayerAgent>> agentsBySeat,
+                             final int decks,
+                             final int cardsDealt )
+        {
+
+        Objects.requireNonNull( agentsBySeat, "agentsBySeat" ) ;
+
+        if ( agentsBySeat.isEmpty() )
+            {
+            throw new IllegalArgumentException( "at least one seat is required" ) ;
+            }
+
+        if ( ( decks < 1 ) || ( cardsDealt < 1 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't play with %,d deck(s) and %,d card(s) per hand",
+                                                               decks,
+                                                               cardsDealt ) ) ;
+            }
+
+        this.seatAgents = List.copyOf( agentsBySeat ) ;
+        this.numberOfDecks = decks ;
+        this.cardsPerHand = cardsDealt ;
+
+        }   // end 3-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * play the games using one worker thread per available processor
+     *
+     * @param numberOfGames
+     *     the number of games to play
+     * @param simulationRandom
+     *     the source from which each game's randomness is derived
+     *
+     * @return the combined results
+     */
+    public Results run( final int numberOfGames,
+                        final GameRandom simulationRandom )
+        {
+
+        return run( numberOfGames,
+                    simulationRandom,
+                    Runtime.getRuntime().availableProcessors() ) ;
+
+        }   // end 2-arg run()
+
+
+    /**
+     * play the games
+     *
+     * @param numberOfGames
+     *     the number of games to play
+     * @param simulationRandom
+     *     the source from which each game's randomness is derived
+     * @param threads
+     *     the number of worker threads
+     *
+     * @return the combined results
+     *
+     * @throws IllegalArgumentException
+     *     if the number of games is negative or the number of threads is less
+     *     than 1
+     * @throws IllegalStateException
+     *     if a game fails or the simulation is interrupted
+     */
+    public Results run( final int numberOfGames,
+                        final GameRandom simulationRandom,
+                        final int threads )
+        {
+
+        Objects.requireNonNull( simulationRandom, "simulationRandom" ) ;
+
+        if ( ( numberOfGames < 0 ) || ( threads < 1 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't play %,d game(s) on %,d thread(s)",
+                                                               numberOfGames,
+                                                               threads ) ) ;
+            }
+
+        // carve the games into contiguous batches
+        final List<Callable<Results>> tasks = new ArrayList<>() ;
+
+        for ( int firstGame = 0 ; firstGame < numberOfGames ; firstGame += GAMES_PER_TASK )
+            {
+            final int batchStart = firstGame ;
+            final int batchEnd = Math.min( firstGame + GAMES_PER_TASK, numberOfGames ) ;
+
+            tasks.add( () -> playGames( batchStart, batchEnd, simulationRandom ) ) ;
+            }
+
+        final Results combined = new Results( this.seatAgents.size() ) ;
+
+        try ( ExecutorService workers = Executors.newFixedThreadPool( threads ) )
+            {
+
+            for ( final Future<Results> batch : workers.invokeAll( tasks ) )
+                {
+                combined.merge( batch.get() ) ;
+                }
+
+            }
+        catch ( final InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+
+            throw new IllegalStateException( "simulation interrupted", e ) ;
+            }
+        catch ( final ExecutionException e )
+            {
+            throw new IllegalStateException( "simulated game failed", e.getCause() ) ;
+            }
+
+        return combined ;
+
+        }   // end 3-arg run()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * play one game - a single hand - and tally it
+     *
+     * @param gameRandom
+     *     the game's own source of randomness
+     * @param tally
+     *     accumulates the outcome
+     */
+    private void playGame( final GameRandom gameRandom,
+                           final Results tally )
+        {
+
+        final CanastaEngine engine = new CanastaEngine( CardOrdering.STANDARD, gameRandom ) ;
+
+        for ( int seat = 0 ; seat < this.seatAgents.size() ; seat++ )
+            {
+            engine.addPlayer( "Seat " + ( seat + 1 ), this.seatAgents.get( seat ).get() ) ;
+            }
+
+        engine.openDecks( this.numberOfDecks ) ;
+        engine.startHand( this.cardsPerHand ) ;
+        engine.playHand() ;
+        engine.scoreHand() ;
+
+        tally.record( engine ) ;
+
+        }   // end playGame()
+
+
+    /**
+     * play a batch of games on the calling thread
+     *
+     * @param firstGame
+     *     the number of the first game in the batch
+     * @param endGame
+     *     one past the number of the last game in the batch
+     * @param simulationRandom
+     *     the source from which each game's randomness is derived
+     *
+     * @return the batch's results
+     */
+    private Results playGames( final int firstGame,
+                               final int endGame,
+                               final GameRandom simulationRandom )
+        {
+
+        final Results tally = new Results( this.seatAgents.size() ) ;
+
+        for ( int game = firstGame ; game < endGame ; game++ )
+            {
+            playGame( simulationRandom.derive( game ), tally ) ;
+            }
+
+        return tally ;
+
+        }   // end playGames()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * The combined outcome of simulated games
+     * <p>
+     * A game's winner is the single player with the highest score (from
+     * {@link Player#evaluatePerRound()}); if several players share the highest
+     * score the game is a draw. Each instance is confined to one thread until
+     * the simulation returns it.
+     */
+    public static final class Results
+        {
+
+        /** the number of players in each game */
+        private final int seats ;
+
+        /** games played */
+        private long games ;
+
+        /** games which ended with a player going out rather than an empty stock */
+        private long gamesGoneOut ;
+
+        /** games in which two or more players shared the highest score */
+        private long drawnGames ;
+
+        /** games won outright, by seat */
+        private final long[] wins ;
+
+        /** games in which the seat made at least one canasta, by seat */
+        private final long[] canastaGames ;
+
+        /** final scores, by seat */
+        private final IntSummaryStatistics[] scores ;
+
+        /** final scores of all players, bucketed by {@link #SCORE_BUCKET_WIDTH} */
+        private final long[] scoreHistogram ;
+
+        /** turns taken in each game */
+        private final IntSummaryStatistics turns ;
+
+
+        /**
+         * set up an empty tally
+         *
+         * @param numberOfSeats
+         *     the number of players in each game
+         */
+        private Results( final int numberOfSeats )
+            {
+
+            this.seats = numberOfSeats ;
+
+            this.wins = new long[ numberOfSeats ] ;
+            this.canastaGames = new long[ numberOfSeats ] ;
+            this.scores = new IntSummaryStatistics[ numberOfSeats ] ;
+
+            for ( int seat = 0 ; seat < numberOfSeats ; seat++ )
+                {
+                this.scores[ seat ] = new IntSummaryStatistics() ;
+                }
+
+            this.scoreHistogram = new long[ SCORE_BUCKETS ] ;
+            this.turns = new IntSummaryStatistics() ;
+
+            }   // end constructor
+
+
+        /**
+         * retrieve the fraction of games in which a seat made at least one
+         * canasta
+         *
+         * @param seat
+         *     the seat's position in turn order, starting at 0
+         *
+         * @return the fraction, 0.0 if no games were played
+         */
+        public double getCanastaRate( final int seat )
+            {
+
+            return fractionOfGames( this.canastaGames[ seat ] ) ;
+
+            }   // end getCanastaRate()
+
+
+        /**
+         * retrieve the fraction of games which were drawn
+         *
+         * @return the fraction, 0.0 if no games were played
+         */
+        public double getDrawRate()
+            {
+
+            return fractionOfGames( this.drawnGames ) ;
+
+            }   // end getDrawRate()
+
+
+        /**
+         * retrieve the number of games played
+         *
+         * @return the number of games
+         */
+        public long getGames()
+            {
+
+            return this.games ;
+
+            }   // end getGames()
+
+
+        /**
+         * retrieve the fraction of games which ended with a player going out
+         *
+         * @return the fraction, 0.0 if no games were played
+         */
+        public double getGoingOutRate()
+            {
+
+            return fractionOfGames( this.gamesGoneOut ) ;
+
+            }   // end getGoingOutRate()
+
+
+        /**
+         * retrieve the number of final scores in each bucket of
+         * {@link #SCORE_BUCKET_WIDTH} points
+         *
+         * @return a copy of the histogram
+         */
+        public long[] getScoreHistogram()
+            {
+
+            return this.scoreHistogram.clone() ;
+
+            }   // end getScoreHistogram()
+
+
+        /**
+         * retrieve a summary of a seat's final scores
+         *
+         * @param seat
+         *     the seat's position in turn order, starting at 0
+         *
+         * @return a copy of the summary
+         */
+        public IntSummaryStatistics getScoreStatistics( final int seat )
+            {
+
+            return copyOf( this.scores[ seat ] ) ;
+
+            }   // end getScoreStatistics()
+
+
+        /**
+         * retrieve the number of players in each game
+         *
+         * @return the number of seats
+         */
+        public int getSeats()
+            {
+
+            return this.seats ;
+
+            }   // end getSeats()
+
+
+        /**
+         * retrieve a summary of the number of turns in each game
+         *
+         * @return a copy of the summary
+         */
+        public IntSummaryStatistics getTurnStatistics()
+            {
+
+            return copyOf( this.turns ) ;
+
+            }   // end getTurnStatistics()
+
+
+        /**
+         * retrieve the fraction of games a seat won outright
+         *
+         * @param seat
+         *     the seat's position in turn order, starting at 0
+         *
+         * @return the fraction, 0.0 if no games were played
+         */
+        public double getWinRate( final int seat )
+            {
+
+            return fractionOfGames( this.wins[ seat ] ) ;
+
+            }   // end getWinRate()
+
+
+        @Override
+        public String toString()
+            {
+
+            final StringBuilder report = new StringBuilder() ;
+
+            report.append( String.format( "%,d games: %.1f%% went out, %.1f%% drawn, %.1f turns per game (%,d to %,d)%n",
+                                          this.games,
+                                          100 * getGoingOutRate(),
+                                          100 * getDrawRate(),
+                                          this.turns.getAverage(),
+                                          this.turns.getMin(),
+                                          this.turns.getMax() ) ) ;
+
+            for ( int seat = 0 ; seat < this.seats ; seat++ )
+                {
+                report.append( String.format( "  seat %d: won %5.1f%%, canasta %5.1f%%, score %,7.1f average (%,d to %,d)%n",
+                                              seat + 1,
+                                              100 * getWinRate( seat ),
+                                              100 * getCanastaRate( seat ),
+                                              this.scores[ seat ].getAverage(),
+                                              this.scores[ seat ].getMin(),
+                                              this.scores[ seat ].getMax() ) ) ;
+                }
+
+            report.append( String.format( "  score distribution:%n" ) ) ;
+
+            final long scoresRecorded = this.games * this.seats ;
+
+            for ( int bucket = 0 ; bucket < SCORE_BUCKETS ; bucket++ )
+                {
+
+                if ( this.scoreHistogram[ bucket ] == 0 )
+                    {
+                    continue ;
+                    }
+
+                final double fraction = (double) this.scoreHistogram[ bucket ] / scoresRecorded ;
+
+                report.append( String.format( "    %,6d%s %5.1f%% %s%n",
+                                              bucket * SCORE_BUCKET_WIDTH,
+                                              bucket == ( SCORE_BUCKETS - 1 )
+                                                  ? "+"
+                                                  : " ",
+                                              100 * fraction,
+                                              "*".repeat( (int) Math.round( 50 * fraction ) ) ) ) ;
+                }
+
+            return report.toString() ;
+
+            }   // end toString()
+
+
+        /**
+         * copy a summary - {@code IntSummaryStatistics} is mutable
+         *
+         * @param original
+         *     the summary to copy
+         *
+         * @return the copy
+         */
+        private static IntSummaryStatistics copyOf( final IntSummaryStatistics original )
+            {
+
+            final IntSummaryStatistics copy = new IntSummaryStatistics() ;
+            copy.combine( original ) ;
+
+            return copy ;
+
+            }   // end copyOf()
+
+
+        /**
+         * express a count as a fraction of the games played
+         *
+         * @param count
+         *     the number of games
+         *
+         * @return the fraction, 0.0 if no games were played
+         */
+        private double fractionOfGames( final long count )
+            {
+
+            return this.games == 0
+                ? 0.0
+                : (double) count / this.games ;
+
+            }   // end fractionOfGames()
+
+
+        /**
+         * add another tally to this one
+         *
+         * @param other
+         *     the tally to add
+         */
+        private void merge( final Results other )
+            {
+
+            this.games += other.games ;
+            this.gamesGoneOut += other.gamesGoneOut ;
+            this.drawnGames += other.drawnGames ;
+
+            for ( int seat = 0 ; seat < this.seats ; seat++ )
+                {
+                this.wins[ seat ] += other.wins[ seat ] ;
+                this.canastaGames[ seat ] += other.canastaGames[ seat ] ;
+                this.scores[ seat ].combine( other.scores[ seat ] ) ;
+                }
+
+            for ( int bucket = 0 ; bucket < SCORE_BUCKETS ; bucket++ )
+                {
+                this.scoreHistogram[ bucket ] += other.scoreHistogram[ bucket ] ;
+                }
+
+            this.turns.combine( other.turns ) ;
+
+            }   // end merge()
+
+
+        /**
+         * tally a scored game
+         *
+         * @param engine
+         *     the game, after {@link CanastaEngine#scoreHand()}
+         */
+        private void record( final CanastaEngine engine )
+            {
+
+            final List<Player> players = engine.getPlayers() ;
+
+            int highScore = Integer.MIN_VALUE ;
+            int highScoreSeat = -1 ;
+            boolean drawn = false ;
+
+            for ( int seat = 0 ; seat < this.seats ; seat++ )
+                {
+                final Player aPlayer = players.get( seat ) ;
+                final int score = aPlayer.getScore() ;
+
+                this.scores[ seat ].accept( score ) ;
+                this.scoreHistogram[ Math.clamp( score / SCORE_BUCKET_WIDTH, 0, SCORE_BUCKETS - 1 ) ]++ ;
+
+                if ( aPlayer.hasAtLeastOneCanasta() )
+                    {
+                    this.canastaGames[ seat ]++ ;
+                    }
+
+                if ( score > highScore )
+                    {
+                    highScore = score ;
+                    highScoreSeat = seat ;
+                    drawn = false ;
+                    }
+                else if ( score == highScore )
+                    {
+                    drawn = true ;
+                    }
+                }
+
+            this.games++ ;
+            this.turns.accept( engine.getTurnNumber() ) ;
+
+            if ( engine.getPlayerWhoWentOut() != null )
+                {
+                this.gamesGoneOut++ ;
+                }
+
+            if ( drawn )
+                {
+                this.drawnGames++ ;
+                }
+            else
+                {
+                this.wins[ highScoreSeat ]++ ;
+                }
+
+            }   // end record()
+
+        }   // end class Results
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - simulates games between three {@link BasicAgent}s on 1, 2,
+     * 4, ... threads up to the number of available processors, reports the
+     * results and the speedup, and confirms every run had the same results
+     *
+     * @param args
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}<br>
+     *     [1] optional number of games, default 20,000
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom simulationRandom = GameRandom.fromArguments( args ) ;
+        final int games = args.length > 1
+            ? Integer.parseInt( args[ 1 ] )
+            : 20_000 ;
+
+        final CanastaSimulator simulator =
+                new CanastaSimulator( List.of( BasicAgent::new, BasicAgent::new, BasicAgent::new ), 2, 11 ) ;
+
+        System.out.printf( "Seed: %s%n%n", simulationRandom.toSpec() ) ;
+
+        // warm up so the timings compare compiled code
+        simulator.run( Math.min( games, 2_000 ), simulationRandom.derive( -1 ) ) ;
+
+        // 1, 2, 4, ... threads then all processors - at least two runs to check repeatability
+        final int processors = Math.max( 2, Runtime.getRuntime().availableProcessors() ) ;
+        final List<Integer> threadCounts = new ArrayList<>() ;
+
+        for ( int threads = 1 ; threads < processors ; threads *= 2 )
+            {
+            threadCounts.add( threads ) ;
+            }
+
+        threadCounts.add( processors ) ;
+
+        String firstReport = null ;
+        long firstElapsed = 0 ;
+
+        for ( final int threads : threadCounts )
+            {
+            final long startTime = System.nanoTime() ;
+            final Results results = simulator.run( games, simulationRandom, threads ) ;
+            final long elapsed = System.nanoTime() - startTime ;
+
+            System.out.printf( "%,d thread(s): %,d ms, %,.0f games/second%s%n",
+                               threads,
+                               elapsed / 1_000_000,
+                               games * 1e9 / elapsed,
+                               firstReport == null
+                                   ? ""
+                                   : String.format( ", %.2fx speedup", (double) firstElapsed / elapsed ) ) ;
+
+            if ( firstReport == null )
+                {
+                firstReport = results.toString() ;
+                firstElapsed = elapsed ;
+
+                System.out.printf( "%n%s%n", firstReport ) ;
+                }
+            else if ( !firstReport.equals( results.toString() ) )
+                {
+                throw new IllegalStateException( "results depend on the number of threads" ) ;
+                }
+            }
+
+        }   // end main()
+
+    }   // end class CanastaSimulator
@@ -0,0 +1,648 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.CanastaEngine.TurnPhase ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.List ;
+
+
+/**
+ * An immutable record of the table during a game of Canasta - every pile's
+ * cards, in order and orientation, each player's scores, and whose turn it
+ * is and at what step - taken by {@link CanastaEngine#snapshot()} and put
+ * back by {@link CanastaEngine#restore(CanastaSnapshot)}, e.g. to branch a
+ * search or undo a move
+ * <p>
+ * Each pile is stored as an {@code int[]} with one entry per card: the card's
+ * position in the engine's list of cards in play, shifted left one bit, with
+ * the low bit set if the card is face up. Copying and restoring are O(number
+ * of cards), and since a snapshot never changes, a pile which is the same as
+ * in the engine's previous snapshot shares that snapshot's array rather than
+ * copying it. Between consecutive turns typically only two or three piles
+ * change.
+ * <p>
+ * A snapshot can only be restored to the engine which took it, with the same
+ * decks. The engine's source of randomness isn't part of the snapshot.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 record the cards each player is known to hold
+ */
+public final class CanastaSnapshot
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the encoding of an empty pile - shared by every snapshot */
+    final static int[] EMPTY_PILE = new int[ 0 ] ;
+
+    /** the encoding of a player with no melds - shared by every snapshot */
+    final static int[][] NO_MELDS = new int[ 0 ][] ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the cards in play for the game - identifies the engine and decks this snapshot belongs to */
+    final Object cardsInPlay ;
+
+    /** the stock, from the top down */
+    final int[] stock ;
+
+    /** the discard pile, from the top down */
+    final int[] discardPile ;
+
+    /** each player's hand, in turn order */
+    final int[][] hands ;
+
+    /** each player's melds, in turn order then the order they were laid down */
+    final int[][][] melds ;
+
+    /** each player's cumulative score from {@code tallyRoundPoints()} */
+    final int[] cumulativeScores ;
+
+    /** each player's score as returned by {@code getScore()} */
+    final int[] scores ;
+
+    /** for each player, the cards of each rank known to be in their hand */
+    final int[][] knownInHand ;
+
+    /** the step the current player was on */
+    final TurnPhase phase ;
+
+    /** the index of the current player */
+    final int currentPlayerIndex ;
+
+    /** turns started in the hand */
+    final int turnNumber ;
+
+    /** the index of the player who went out or -1 */
+    final int playerWhoWentOutIndex ;
+
+    /** whether the game had been abandoned */
+    final boolean abandoned ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * record the state of a game - the arrays become the snapshot's and must
+     * not be changed
+     *
+     * @param theCardsInPlay
+     *     identifies the engine and decks
+     * @param theStock
+     *     the stock, encoded
+     * @param theDiscardPile
+     *     the discard pile, encoded
+     * @param theHands
+     *     each player's hand, encoded
+     * @param theMelds
+     *     each player's melds, encoded
+     * @param theCumulativeScores
+     *     each player's cumulative score
+     * @param theScores
+     *     each player's score
+     * @param theKnownInHand
+     *     for each player, the cards of each rank known to be in their hand
+     * @param thePhase
+     *     the current step
+     * @param theCurrentPlayerIndex
+     *     the index of the current player
+     * @param theTurnNumber
+     *     turns started in the hand
+     * @param thePlayerWhoWentOutIndex
+     *     the index of the player who went out or -1
+     * @param wasAbandoned
+     *     whether the game had been abandoned
+     */
+    CanastaSnapshot( final Object theCardsInPlay,
+                     final int[] theStock,
+                     final int[] theDiscardPile,
+                     final int[][] theHands,
+                     final int[][][] theMelds,
+                     final int[] theCumulativeScores,
+                     final int[] theScores,
+                     final int[][] theKnownInHand,
+                     final TurnPhase thePhase,
+                     final int theCurrentPlayerIndex,
+                     final int theTurnNumber,
+                     final int thePlayerWhoWentOutIndex,
+                     final boolean wasAbandoned )
+        {
+
+        this.cardsInPlay = theCardsInPlay ;
+        this.stock = theStock ;
+        this.discardPile = theDiscardPile ;
+        this.hands = theHands ;
+        this.melds = theMelds ;
+        this.cumulativeScores = theCumulativeScores ;
+        this.scores = theScores ;
+        this.knownInHand = theKnownInHand ;
+        this.phase = thePhase ;
+        this.currentPlayerIndex = theCurrentPlayerIndex ;
+        this.turnNumber = theTurnNumber ;
+        this.playerWhoWentOutIndex = thePlayerWhoWentOutIndex ;
+        this.abandoned = wasAbandoned ;
+
+        }   // end 13-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * count the cards recorded in this snapshot
+     *
+     * @return the number of cards
+     */
+    public int cardCount()
+        {
+
+        int cards = this.stock.length + this.discardPile.length ;
+
+        for ( int player = 0 ; player < this.hands.length ; player++ )
+            {
+            cards += this.hands[ player ].length ;
+
+            for ( final int[] aMeld : this.melds[ player ] )
+                {
+                cards += aMeld.length ;
+                }
+
+            }
+
+        return cards ;
+
+        }   // end cardCount()
+
+
+    /**
+     * retrieve the index of the player whose turn it was
+     *
+     * @return the player's index, in turn order
+     */
+    public int getCurrentPlayerIndex()
+        {
+
+        return this.currentPlayerIndex ;
+
+        }   // end getCurrentPlayerIndex()
+
+
+    /**
+     * retrieve the number of cards in the discard pile
+     *
+     * @return the number of cards
+     */
+    public int getDiscardPileSize()
+        {
+
+        return this.discardPile.length ;
+
+        }   // end getDiscardPileSize()
+
+
+    /**
+     * retrieve the number of cards in a player's hand
+     *
+     * @param player
+     *     the player's index, in turn order
+     *
+     * @return the number of cards
+     */
+    public int getHandSize( final int player )
+        {
+
+        return this.hands[ player ].length ;
+
+        }   // end getHandSize()
+
+
+    /**
+     * retrieve the number of melds a player had laid down
+     *
+     * @param player
+     *     the player's index, in turn order
+     *
+     * @return the number of melds
+     */
+    public int getMeldCount( final int player )
+        {
+
+        return this.melds[ player ].length ;
+
+        }   // end getMeldCount()
+
+
+    /**
+     * retrieve the step the current player was on
+     *
+     * @return the phase
+     */
+    public TurnPhase getPhase()
+        {
+
+        return this.phase ;
+
+        }   // end getPhase()
+
+
+    /**
+     * retrieve the number of players
+     *
+     * @return the number of players
+     */
+    public int getPlayerCount()
+        {
+
+        return this.hands.length ;
+
+        }   // end getPlayerCount()
+
+
+    /**
+     * retrieve a player's score, as {@link Player#getScore()} returned it
+     *
+     * @param player
+     *     the player's index, in turn order
+     *
+     * @return the score
+     */
+    public int getScore( final int player )
+        {
+
+        return this.scores[ player ] ;
+
+        }   // end getScore()
+
+
+    /**
+     * retrieve the number of cards in the stock
+     *
+     * @return the number of cards
+     */
+    public int getStockSize()
+        {
+
+        return this.stock.length ;
+
+        }   // end getStockSize()
+
+
+    /**
+     * retrieve the number of turns started in the hand
+     *
+     * @return the number of turns
+     */
+    public int getTurnNumber()
+        {
+
+        return this.turnNumber ;
+
+        }   // end getTurnNumber()
+
+
+    /**
+     * snapshots are equal if they were taken of the same game and record the
+     * same cards, in the same places, order and orientation, the same cards
+     * known to be in each hand, and the same scores, turn and phase
+     */
+    @Override
+    public boolean equals( final Object otherObject )
+        {
+
+        if ( this == otherObject )
+            {
+            return true ;
+            }
+
+        if ( ! ( otherObject instanceof final CanastaSnapshot other ) )
+            {
+            return false ;
+            }
+
+        return ( this.cardsInPlay == other.cardsInPlay ) &&
+               ( this.phase == other.phase ) &&
+               ( this.currentPlayerIndex == other.currentPlayerIndex ) &&
+               ( this.turnNumber == other.turnNumber ) &&
+               ( this.playerWhoWentOutIndex == other.playerWhoWentOutIndex ) &&
+               ( this.abandoned == other.abandoned ) &&
+               Arrays.equals( this.stock, other.stock ) &&
+               Arrays.equals( this.discardPile, other.discardPile ) &&
+               Arrays.deepEquals( this.hands, other.hands ) &&
+               Arrays.deepEquals( this.melds, other.melds ) &&
+               Arrays.equals( this.cumulativeScores, other.cumulativeScores ) &&
+               Arrays.equals( this.scores, other.scores ) &&
+               Arrays.deepEquals( this.knownInHand, other.knownInHand ) ;
+
+        }   // end equals()
+
+
+    @Override
+    public int hashCode()
+        {
+
+        int hash = Arrays.hashCode( this.stock ) ;
+
+        hash = ( 31 * hash ) + Arrays.hashCode( this.discardPile ) ;
+        hash = ( 31 * hash ) + Arrays.deepHashCode( this.hands ) ;
+        hash = ( 31 * hash ) + Arrays.deepHashCode( this.melds ) ;
+        hash = ( 31 * hash ) + Arrays.hashCode( this.scores ) ;
+        hash = ( 31 * hash ) + this.turnNumber ;
+
+        return hash ;
+
+        }   // end hashCode()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "turn %,d, player %,d to %s, %,d cards: stock %,d, discard pile %,d",
+                              this.turnNumber,
+                              this.currentPlayerIndex + 1,
+                              this.phase,
+                              cardCount(),
+                              this.stock.length,
+                              this.discardPile.length ) ;
+
+        }   // end toString()
+
+
+    /*
+     * package utility methods
+     */
+
+
+    /**
+     * encode a card
+     *
+     * @param cardIndex
+     *     the card's position in the engine's list of cards in play
+     * @param faceUp
+     *     whether the card is face up
+     *
+     * @return the encoded card
+     */
+    static int encode( final int cardIndex,
+                       final boolean faceUp )
+        {
+
+        return ( cardIndex << 1 ) | ( faceUp ? 1 : 0 ) ;
+
+        }   // end encode()
+
+
+    /**
+     * retrieve an encoded card's position in the engine's list of cards in
+     * play
+     *
+     * @param code
+     *     the encoded card
+     *
+     * @return the card's position
+     */
+    static int cardIndex( final int code )
+        {
+
+        return code >>> 1 ;
+
+        }   // end cardIndex()
+
+
+    /**
+     * is an encoded card face up?
+     *
+     * @param code
+     *     the encoded card
+     *
+     * @return true if the card is face up
+     */
+    static boolean isFaceUp( final int code )
+        {
+
+        return ( code & 1 ) != 0 ;
+
+        }   // end isFaceUp()
+
+
+    /**
+     * reuse the previous snapshot's copy of a pile if the pile hasn't changed
+     *
+     * @param previous
+     *     the pile in the previous snapshot or {@code null} if there wasn't one
+     * @param encoded
+     *     scratch space holding the pile's current encoding
+     * @param length
+     *     the number of cards in the pile
+     *
+     * @return {@code previous} if it's the same, otherwise a copy of the
+     *     encoding
+     */
+    static int[] share( final int[] previous,
+                        final int[] encoded,
+                        final int length )
+        {
+
+        if ( length == 0 )
+            {
+            return EMPTY_PILE ;
+            }
+
+        if ( ( previous != null ) && Arrays.equals( previous, 0, previous.length, encoded, 0, length ) )
+            {
+            return previous ;
+            }
+
+        return Arrays.copyOf( encoded, length ) ;
+
+        }   // end share()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * count the piles this snapshot shares with another
+     *
+     * @param other
+     *     the other snapshot
+     *
+     * @return the number of pile arrays the two have in common
+     */
+    private int countSharedPiles( final CanastaSnapshot other )
+        {
+
+        int shared = ( this.stock == other.stock ? 1 : 0 ) + ( this.discardPile == other.discardPile ? 1 : 0 ) ;
+
+        for ( int player = 0 ; player < Math.min( this.hands.length, other.hands.length ) ; player++ )
+            {
+            shared += this.hands[ player ] == other.hands[ player ] ? 1 : 0 ;
+
+            final int[][] theseMelds = this.melds[ player ] ;
+            final int[][] thoseMelds = other.melds[ player ] ;
+
+            for ( int i = 0 ; i < Math.min( theseMelds.length, thoseMelds.length ) ; i++ )
+                {
+                shared += theseMelds[ i ] == thoseMelds[ i ] ? 1 : 0 ;
+                }
+
+            }
+
+        return shared ;
+
+        }   // end countSharedPiles()
+
+
+    /**
+     * count the piles in this snapshot
+     *
+     * @return the number of pile arrays
+     */
+    private int countPiles()
+        {
+
+        int piles = 2 + this.hands.length ;
+
+        for ( final int[][] playerMelds : this.melds )
+            {
+            piles += playerMelds.length ;
+            }
+
+        return piles ;
+
+        }   // end countPiles()
+
+
+    /**
+     * Test driver - snapshot every step of a game between {@link BasicAgent}s,
+     * then restore each snapshot, replay its step, and check the game arrives
+     * at the next snapshot
+     *
+     * @param args
+     *     [0]: seed - see {@link GameRandom#fromArguments(String[])}
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom gameRandom = GameRandom.fromArguments( args ) ;
+        final CanastaEngine engine = new CanastaEngine( CardOrdering.STANDARD, gameRandom ) ;
+
+        for ( int seat = 1 ; seat <= 3 ; seat++ )
+            {
+            engine.addPlayer( "Seat " + seat, new BasicAgent() ) ;
+            }
+
+        engine.openDecks( 2 ) ;
+        engine.startHand( 11 ) ;
+
+        // play the hand, recording every step
+        final List<CanastaSnapshot> snapshots = new ArrayList<>() ;
+        long totalPiles = 0 ;
+        long sharedPiles = 0 ;
+
+        snapshots.add( engine.snapshot() ) ;
+
+        boolean handInProgress = true ;
+
+        while ( handInProgress )
+            {
+            handInProgress = engine.step() ;
+
+            final CanastaSnapshot latest = engine.snapshot() ;
+
+            totalPiles += latest.countPiles() ;
+            sharedPiles += latest.countSharedPiles( snapshots.getLast() ) ;
+
+            snapshots.add( latest ) ;
+            }
+
+        System.out.printf( "Seed: %s%n%,d steps, %s%n", gameRandom.toSpec(), snapshots.size() - 1, snapshots.getLast() ) ;
+        System.out.printf( "%,d of %,d piles (%.1f%%) shared with the previous step's snapshot%n",
+                           sharedPiles,
+                           totalPiles,
+                           ( 100.0 * sharedPiles ) / Math.max( 1, totalPiles ) ) ;
+
+        // BasicAgent is deterministic, so each step replays exactly
+        int failures = 0 ;
+
+        for ( int i = 0 ; i < ( snapshots.size() - 1 ) ; i++ )
+            {
+            engine.restore( snapshots.get( i ) ) ;
+
+            if ( !engine.snapshot().equals( snapshots.get( i ) ) )
+                {
+                System.out.printf( "FAIL: restoring step %,d didn't reproduce it%n", i ) ;
+                failures++ ;
+                }
+
+            engine.step() ;
+
+            if ( !engine.snapshot().equals( snapshots.get( i + 1 ) ) )
+                {
+                System.out.printf( "FAIL: replaying step %,d didn't reach step %,d%n", i, i + 1 ) ;
+                failures++ ;
+                }
+            }
+
+        System.out.printf( "restored and replayed %,d steps: %,d failure(s)%n", snapshots.size() - 1, failures ) ;
+
+        // undo back to the start then check every card is accounted for
+        engine.restore( snapshots.getFirst() ) ;
+        engine.playHand() ;
+        engine.scoreHand() ;
+
+        Deck.validateDecks( engine.closeDecks() ) ;
+
+        }   // end main()
+
+    }   // end class CanastaSnapshot
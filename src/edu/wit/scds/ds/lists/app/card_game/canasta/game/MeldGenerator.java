@@ -0,0 +1,1023 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import static edu.wit.scds.ds.lists.app.card_game.canasta.game.CanastaEngine.MINIMUM_MELD_SIZE ;
+import static edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld.MAXIMUM_WILD_CARDS ;
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.ALL_RANKS ;
+
+import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Meld ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.StringJoiner ;
+
+
+/**
+ * Enumerates every legal meld a player could lay down from their hand and
+ * the discard pile's top card, and every legal way to extend the melds they
+ * already have, for bots and hints
+ * <p>
+ * The rules are those enforced by {@code Meld.isValidMeld()} and
+ * {@link CanastaEngine}: a new meld has at least
+ * {@value CanastaEngine#MINIMUM_MELD_SIZE} cards, no meld ever holds more than
+ * {@value Meld#MAXIMUM_WILD_CARDS} wild cards (2s and Jokers), and all its
+ * natural cards share a rank. A top card which caps the discard pile (a 3 or
+ * a 7) can't be taken, so it is never used.
+ * <p>
+ * The generator works from counts - the hand's cards by rank and a summary of
+ * each meld - rather than from the cards, so it never builds a pile. Each
+ * candidate is packed into a single {@code int} descriptor recording the
+ * natural rank, how many naturals, Jokers and 2s it uses, whether one of those
+ * is the discard pile's top card, and which existing meld, if any, it extends.
+ * Use the static {@code count...()}, {@code get...()} and {@code is...()}
+ * methods to unpack a descriptor.
+ * <p>
+ * The descriptors are kept in an internal buffer which is reused by the next
+ * call to {@code generate()}, so a generator allocates only while its buffer
+ * grows. A generator is not thread-safe; give each thread its own.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add {@code encode()} so a caller can describe a
+ *     meld it chose without enumerating them all
+ * @version 1.2 2026-10-18 use {@code Rank.ALL_RANKS} rather than a private
+ *     copy of the ranks
+ */
+public final class MeldGenerator
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** pass as the discard pile's top card when there isn't one to use */
+    public final static int NO_DISCARD_TOP = -1 ;
+
+    /** the summary of a meld which can't be extended because it isn't valid */
+    public final static int NOT_EXTENDABLE = -1 ;
+
+    /** {@code getMeldIndex()} of a descriptor which lays down a new meld */
+    public final static int NEW_MELD = -1 ;
+
+    /** the most natural cards of one rank a descriptor can record */
+    public final static int MAXIMUM_NATURALS = ( 1 << 10 ) - 1 ;
+
+    /** the most melds whose extensions can be enumerated */
+    public final static int MAXIMUM_MELDS = ( 1 << 11 ) - 2 ;
+
+    // @formatter:off
+    // descriptor layout, low to high bits:
+    //   rank ordinal + 1 (0: none)     4 bits
+    //   natural cards                 10 bits
+    //   Jokers                         2 bits
+    //   2s                             2 bits
+    //   discard top card source        2 bits
+    //   meld index + 1 (0: new meld)  11 bits
+    private final static int RANK_SHIFT = 0 ;
+    private final static int RANK_MASK = 0xF ;
+    private final static int NATURALS_SHIFT = 4 ;
+    private final static int NATURALS_MASK = MAXIMUM_NATURALS ;
+    private final static int JOKERS_SHIFT = 14 ;
+    private final static int TWOS_SHIFT = 16 ;
+    private final static int WILD_MASK = 0x3 ;
+    private final static int SOURCE_SHIFT = 18 ;
+    private final static int SOURCE_MASK = 0x3 ;
+    private final static int MELD_SHIFT = 20 ;
+
+    // where the discard pile's top card goes - stored in the source field
+    private final static int TOP_UNUSED = 0 ;
+    private final static int TOP_NATURAL = 1 ;
+    private final static int TOP_JOKER = 2 ;
+    private final static int TOP_TWO = 3 ;
+
+    // meld summary layout: rank ordinal + 1 (0: no naturals) then the wild card count
+    private final static int SUMMARY_WILD_SHIFT = 4 ;
+    // @formatter:on
+
+    /** the ordinal used for 'no natural rank' */
+    private final static int NO_RANK = -1 ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the descriptors from the latest call to {@code generate()} */
+    private int[] descriptors = new int[ 64 ] ;
+
+    /** the number of descriptors in {@code descriptors} */
+    private int descriptorCount ;
+
+    /** scratch: the player's hand counts by rank */
+    private final int[] playerHandCounts = new int[ ALL_RANKS.size() ] ;
+
+    /** scratch: the player's meld summaries */
+    private int[] playerMeldSummaries = new int[ 16 ] ;
+
+    /** during {@code generate()}, the number of Jokers in the hand */
+    private int handJokers ;
+
+    /** during {@code generate()}, the number of 2s in the hand */
+    private int handTwos ;
+
+    /** during {@code generate()}, the discard pile's top card, if usable, as a source */
+    private int topSource ;
+
+    /** during {@code generate()}, the ordinal of the discard pile's top card */
+    private int topOrdinal ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * create a generator with an empty buffer
+     */
+    public MeldGenerator()
+        {
+
+        // nothing else to do
+
+        }   // end no-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * enumerate the melds a player can lay down or extend
+     *
+     * @param player
+     *     the player whose hand and melds to use
+     * @param discardTop
+     *     the discard pile's top card or {@code null} to use only the hand
+     *
+     * @return the number of descriptors generated
+     */
+    public int generate( final Player player,
+                         final Card discardTop )
+        {
+
+        Objects.requireNonNull( player, "player" ) ;
+
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+            this.playerHandCounts[ ordinal ] = player.countInHand( ALL_RANKS.get( ordinal ) ) ;
+            }
+
+        final List<Meld> melds = player.getMelds() ;
+        final int meldCount = melds.size() ;
+
+        if ( this.playerMeldSummaries.length < meldCount )
+            {
+            this.playerMeldSummaries = new int[ Math.max( meldCount, this.playerMeldSummaries.length * 2 ) ] ;
+            }
+
+        for ( int i = 0 ; i < meldCount ; i++ )
+            {
+            this.playerMeldSummaries[ i ] = summarize( melds.get( i ) ) ;
+            }
+
+        return generate( this.playerHandCounts,
+                         discardTop == null
+                             ? NO_DISCARD_TOP
+                             : discardTop.rank.ordinal(),
+                         this.playerMeldSummaries,
+                         meldCount ) ;
+
+        }   // end generate() from a player
+
+
+    /**
+     * enumerate the melds which can be laid down or extended from counts
+     * <p>
+     * new melds come first, by rank, then the extensions of each existing
+     * meld, in order
+     *
+     * @param handCounts
+     *     the number of cards of each rank in the hand, indexed by ordinal
+     * @param discardTopOrdinal
+     *     the ordinal of the discard pile's top card's rank or
+     *     {@link #NO_DISCARD_TOP}
+     * @param meldSummaries
+     *     the {@link #summarize(Meld) summary} of each existing meld
+     * @param meldCount
+     *     the number of meld summaries to use
+     *
+     * @return the number of descriptors generated
+     *
+     * @throws IllegalArgumentException
+     *     if there isn't a count for each rank, a count is negative or too
+     *     large, or there are too many melds
+     */
+    public int generate( final int[] handCounts,
+                         final int discardTopOrdinal,
+                         final int[] meldSummaries,
+                         final int meldCount )
+        {
+
+        Objects.requireNonNull( handCounts, "handCounts" ) ;
+        Objects.requireNonNull( meldSummaries, "meldSummaries" ) ;
+
+        if ( handCounts.length != ALL_RANKS.size() )
+            {
+            throw new IllegalArgumentException( String.format( "expected %,d hand counts, found %,d",
+                                                               ALL_RANKS.size(),
+                                                               handCounts.length ) ) ;
+            }
+
+        for ( final int aCount : handCounts )
+            {
+
+            if ( ( aCount < 0 ) || ( aCount >= MAXIMUM_NATURALS ) )
+                {
+                throw new IllegalArgumentException( String.format( "hand count %,d must be between 0 and %,d",
+                                                                   aCount,
+                                                                   MAXIMUM_NATURALS - 1 ) ) ;
+                }
+
+            }
+
+        if ( ( meldCount < 0 ) || ( meldCount > Math.min( MAXIMUM_MELDS, meldSummaries.length ) ) )
+            {
+            throw new IllegalArgumentException( String.format( "meld count %,d must be between 0 and %,d",
+                                                               meldCount,
+                                                               Math.min( MAXIMUM_MELDS, meldSummaries.length ) ) ) ;
+            }
+
+        this.descriptorCount = 0 ;
+        this.handJokers = handCounts[ Rank.JOKER.ordinal() ] ;
+        this.handTwos = handCounts[ Rank.TWO.ordinal() ] ;
+        this.topOrdinal = discardTopOrdinal ;
+        this.topSource = topSourceOf( discardTopOrdinal ) ;
+
+        // new melds - at least one natural of a rank, or wild cards alone
+        for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+            {
+
+            if ( !isWild( ordinal ) )
+                {
+                generateFor( ordinal, handCounts[ ordinal ], MAXIMUM_WILD_CARDS, MINIMUM_MELD_SIZE, 1, 0 ) ;
+                }
+
+            }
+
+        generateFor( NO_RANK, 0, MAXIMUM_WILD_CARDS, MINIMUM_MELD_SIZE, 0, 0 ) ;
+
+        // extensions - at least one card, within the meld's remaining wild card allowance
+        for ( int i = 0 ; i < meldCount ; i++ )
+            {
+            final int summary = meldSummaries[ i ] ;
+
+            if ( summary == NOT_EXTENDABLE )
+                {
+                continue ;
+                }
+
+            final int meldOrdinal = ( summary & RANK_MASK ) - 1 ;
+            final int wildAllowance = MAXIMUM_WILD_CARDS - ( summary >>> SUMMARY_WILD_SHIFT ) ;
+
+            if ( meldOrdinal != NO_RANK )
+                {
+                generateFor( meldOrdinal, handCounts[ meldOrdinal ], wildAllowance, 1, 0, i + 1 ) ;
+
+                continue ;
+                }
+
+            // a meld of wild cards alone takes naturals of any one rank
+            for ( int ordinal = 0 ; ordinal < ALL_RANKS.size() ; ordinal++ )
+                {
+
+                if ( !isWild( ordinal ) )
+                    {
+                    generateFor( ordinal, handCounts[ ordinal ], wildAllowance, 1, 1, i + 1 ) ;
+                    }
+
+                }
+
+            generateFor( NO_RANK, 0, wildAllowance, 1, 0, i + 1 ) ;
+            }
+
+        return this.descriptorCount ;
+
+        }   // end generate() from counts
+
+
+    /**
+     * retrieve one of the descriptors from the latest call to
+     * {@code generate()}
+     *
+     * @param index
+     *     the position of the descriptor
+     *
+     * @return the descriptor
+     *
+     * @throws IndexOutOfBoundsException
+     *     if {@code index} is not less than {@link #size()}
+     */
+    public int get( final int index )
+        {
+
+        Objects.checkIndex( index, this.descriptorCount ) ;
+
+        return this.descriptors[ index ] ;
+
+        }   // end get()
+
+
+    /**
+     * retrieve the number of descriptors from the latest call to
+     * {@code generate()}
+     *
+     * @return the number of descriptors
+     */
+    public int size()
+        {
+
+        return this.descriptorCount ;
+
+        }   // end size()
+
+
+    /**
+     * copy the descriptors from the latest call to {@code generate()}
+     *
+     * @return a new array holding the descriptors
+     */
+    public int[] toArray()
+        {
+
+        return Arrays.copyOf( this.descriptors, this.descriptorCount ) ;
+
+        }   // end toArray()
+
+
+    /**
+     * summarize a meld for {@link #generate(int[], int, int[], int)}
+     *
+     * @param meld
+     *     the meld to summarize
+     *
+     * @return the meld's natural rank and wild card count, packed, or
+     *     {@link #NOT_EXTENDABLE} if the meld isn't valid
+     */
+    public static int summarize( final Meld meld )
+        {
+
+        if ( !meld.validateMeld() )
+            {
+            return NOT_EXTENDABLE ;
+            }
+
+        final Rank naturalRank = meld.getNaturalRank() ;
+
+        return summarize( naturalRank == null
+                              ? NO_RANK
+                              : naturalRank.ordinal(),
+                          meld.countWildCards() ) ;
+
+        }   // end summarize() for a meld
+
+
+    /**
+     * summarize a valid meld for {@link #generate(int[], int, int[], int)}
+     * from its natural rank and wild card count
+     *
+     * @param naturalOrdinal
+     *     the ordinal of the meld's natural rank or -1 if it holds only wild
+     *     cards
+     * @param wildCards
+     *     the number of wild cards in the meld
+     *
+     * @return the meld's summary
+     *
+     * @throws IllegalArgumentException
+     *     if the rank is wild or out of range or there are too many wild cards
+     */
+    public static int summarize( final int naturalOrdinal,
+                                 final int wildCards )
+        {
+
+        if ( ( naturalOrdinal < NO_RANK ) ||
+             ( naturalOrdinal >= ALL_RANKS.size() ) ||
+             ( ( naturalOrdinal != NO_RANK ) && isWild( naturalOrdinal ) ) ||
+             ( wildCards < 0 ) ||
+             ( wildCards > MAXIMUM_WILD_CARDS ) )
+            {
+            throw new IllegalArgumentException( String.format( "no valid meld has natural rank %,d and %,d wild card(s)",
+                                                               naturalOrdinal,
+                                                               wildCards ) ) ;
+            }
+
+        return ( naturalOrdinal + 1 ) | ( wildCards << SUMMARY_WILD_SHIFT ) ;
+
+        }   // end summarize() from counts
+
+
+    /*
+     * descriptor accessors
+     */
+
+
+    /**
+     * build the descriptor for a new meld from the hand alone
+     *
+     * @param naturalOrdinal
+     *     the ordinal of the natural rank or -1 for wild cards alone
+     * @param naturals
+     *     the number of natural cards
+     * @param jokers
+     *     the number of Jokers
+     * @param twos
+     *     the number of 2s
+     *
+     * @return the descriptor
+     *
+     * @throws IllegalArgumentException
+     *     if the counts can't form a legal meld
+     *
+     * @since 1.1
+     */
+    public static int encode( final int naturalOrdinal,
+                              final int naturals,
+                              final int jokers,
+                              final int twos )
+        {
+
+        if ( ( naturalOrdinal < NO_RANK ) ||
+             ( naturalOrdinal >= ALL_RANKS.size() ) ||
+             ( ( naturalOrdinal == NO_RANK ) != ( naturals == 0 ) ) ||
+             ( ( naturalOrdinal != NO_RANK ) && isWild( naturalOrdinal ) ) ||
+             ( naturals < 0 ) ||
+             ( naturals > MAXIMUM_NATURALS ) ||
+             ( jokers < 0 ) ||
+             ( twos < 0 ) ||
+             ( ( jokers + twos ) > MAXIMUM_WILD_CARDS ) ||
+             ( ( naturals + jokers + twos ) < MINIMUM_MELD_SIZE ) )
+            {
+            throw new IllegalArgumentException( String.format( "no legal meld has %,d natural(s) of rank %,d, %,d Joker(s) and %,d 2(s)",
+                                                               naturals,
+                                                               naturalOrdinal,
+                                                               jokers,
+                                                               twos ) ) ;
+            }
+
+        return ( ( naturalOrdinal + 1 ) << RANK_SHIFT ) |
+               ( naturals << NATURALS_SHIFT ) |
+               ( jokers << JOKERS_SHIFT ) |
+               ( twos << TWOS_SHIFT ) ;
+
+        }   // end encode()
+
+
+    /**
+     * count the cards a descriptor melds, including the discard pile's top
+     * card if it is used
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the number of cards
+     */
+    public static int countCards( final int descriptor )
+        {
+
+        return countNaturals( descriptor ) + countWildCards( descriptor ) ;
+
+        }   // end countCards()
+
+
+    /**
+     * count the Jokers a descriptor melds
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the number of Jokers, including the discard pile's top card if
+     *     it is a Joker and is used
+     */
+    public static int countJokers( final int descriptor )
+        {
+
+        return ( descriptor >>> JOKERS_SHIFT ) & WILD_MASK ;
+
+        }   // end countJokers()
+
+
+    /**
+     * count the natural cards a descriptor melds
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the number of natural cards, including the discard pile's top
+     *     card if it is natural and is used
+     */
+    public static int countNaturals( final int descriptor )
+        {
+
+        return ( descriptor >>> NATURALS_SHIFT ) & NATURALS_MASK ;
+
+        }   // end countNaturals()
+
+
+    /**
+     * count the 2s a descriptor melds
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the number of 2s, including the discard pile's top card if it is
+     *     a 2 and is used
+     */
+    public static int countTwos( final int descriptor )
+        {
+
+        return ( descriptor >>> TWOS_SHIFT ) & WILD_MASK ;
+
+        }   // end countTwos()
+
+
+    /**
+     * count the wild cards a descriptor melds
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the number of Jokers and 2s
+     */
+    public static int countWildCards( final int descriptor )
+        {
+
+        return countJokers( descriptor ) + countTwos( descriptor ) ;
+
+        }   // end countWildCards()
+
+
+    /**
+     * retrieve the meld a descriptor extends
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the index of the meld, in the order given to
+     *     {@code generate()}, or {@link #NEW_MELD}
+     */
+    public static int getMeldIndex( final int descriptor )
+        {
+
+        return ( descriptor >>> MELD_SHIFT ) - 1 ;
+
+        }   // end getMeldIndex()
+
+
+    /**
+     * retrieve the natural rank of the meld a descriptor lays down or extends
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return the rank or {@code null} if the meld holds only wild cards
+     */
+    public static Rank getRank( final int descriptor )
+        {
+
+        final int rankField = ( descriptor >>> RANK_SHIFT ) & RANK_MASK ;
+
+        return rankField == 0
+            ? null
+            : ALL_RANKS.get( rankField - 1 ) ;
+
+        }   // end getRank()
+
+
+    /**
+     * does a descriptor lay down a new meld?
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return true if the descriptor lays down a new meld, false if it extends
+     *     an existing one
+     */
+    public static boolean isNewMeld( final int descriptor )
+        {
+
+        return getMeldIndex( descriptor ) == NEW_MELD ;
+
+        }   // end isNewMeld()
+
+
+    /**
+     * does a descriptor use the discard pile's top card?
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return true if one of the cards melded is the discard pile's top card
+     */
+    public static boolean usesDiscardTop( final int descriptor )
+        {
+
+        return ( ( descriptor >>> SOURCE_SHIFT ) & SOURCE_MASK ) != TOP_UNUSED ;
+
+        }   // end usesDiscardTop()
+
+
+    /**
+     * describe a descriptor, e.g. for a hint
+     *
+     * @param descriptor
+     *     a descriptor from {@code generate()}
+     *
+     * @return a description of the cards melded and where
+     */
+    public static String describe( final int descriptor )
+        {
+
+        final StringJoiner description = new StringJoiner( ", ",
+                                                           isNewMeld( descriptor )
+                                                               ? "new meld: "
+                                                               : String.format( "extend meld %,d: ",
+                                                                                getMeldIndex( descriptor ) + 1 ),
+                                                           usesDiscardTop( descriptor )
+                                                               ? " (with the discard pile)"
+                                                               : "" ) ;
+
+        if ( countNaturals( descriptor ) > 0 )
+            {
+            description.add( String.format( "%,d x %s", countNaturals( descriptor ), getRank( descriptor ).getGraphic() ) ) ;
+            }
+
+        if ( countJokers( descriptor ) > 0 )
+            {
+            description.add( String.format( "%,d x Joker", countJokers( descriptor ) ) ) ;
+            }
+
+        if ( countTwos( descriptor ) > 0 )
+            {
+            description.add( String.format( "%,d x 2", countTwos( descriptor ) ) ) ;
+            }
+
+        return description.toString() ;
+
+        }   // end describe()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * generate the melds of one rank, or of wild cards alone, from the hand
+     * and, where it fits, the discard pile's top card
+     *
+     * @param ordinal
+     *     the natural rank's ordinal or {@code NO_RANK}
+     * @param handNaturals
+     *     the number of naturals of the rank in the hand
+     * @param wildAllowance
+     *     the most wild cards which may be added
+     * @param minimumCards
+     *     the fewest cards to add
+     * @param minimumNaturals
+     *     the fewest naturals to add
+     * @param meldField
+     *     the meld index + 1, or 0 for a new meld
+     */
+    private void generateFor( final int ordinal,
+                              final int handNaturals,
+                              final int wildAllowance,
+                              final int minimumCards,
+                              final int minimumNaturals,
+                              final int meldField )
+        {
+
+        // from the hand alone
+        generateCombinations( ordinal, handNaturals, wildAllowance, minimumCards, minimumNaturals, meldField, TOP_UNUSED ) ;
+
+        // with the discard pile's top card as one of the naturals or wild cards
+        switch ( this.topSource )
+            {
+            case TOP_NATURAL ->
+                {
+
+                if ( ( ordinal != NO_RANK ) && ( this.topOrdinal == ordinal ) )
+                    {
+                    generateCombinations( ordinal,
+                                          handNaturals + 1,
+                                          wildAllowance,
+                                          minimumCards,
+                                          Math.max( 1, minimumNaturals ),
+                                          meldField,
+                                          TOP_NATURAL ) ;
+                    }
+
+                }
+
+            case TOP_JOKER, TOP_TWO ->
+                {
+
+                if ( wildAllowance > 0 )
+                    {
+                    generateCombinations( ordinal,
+                                          handNaturals,
+                                          wildAllowance - 1,
+                                          minimumCards,
+                                          minimumNaturals,
+                                          meldField,
+                                          this.topSource ) ;
+                    }
+
+                }
+
+            default ->
+                {
+                // not usable
+                }
+            }
+
+        }   // end generateFor()
+
+
+    /**
+     * record every combination of naturals, Jokers and 2s from the hand
+     * (plus the top card, if used) which meets the minimums
+     *
+     * @param ordinal
+     *     the natural rank's ordinal or {@code NO_RANK}
+     * @param availableNaturals
+     *     the naturals available, including the top card if used
+     * @param wildAllowance
+     *     the most wild cards which may be taken from the hand
+     * @param minimumCards
+     *     the fewest cards to add
+     * @param minimumNaturals
+     *     the fewest naturals to add
+     * @param meldField
+     *     the meld index + 1, or 0 for a new meld
+     * @param source
+     *     where the discard pile's top card goes
+     */
+    private void generateCombinations( final int ordinal,
+                                       final int availableNaturals,
+                                       final int wildAllowance,
+                                       final int minimumCards,
+                                       final int minimumNaturals,
+                                       final int meldField,
+                                       final int source )
+        {
+
+        final int topJokers = source == TOP_JOKER ? 1 : 0 ;
+        final int topTwos = source == TOP_TWO ? 1 : 0 ;
+
+        final int fixedFields = ( ( ordinal + 1 ) << RANK_SHIFT ) |
+                                ( source << SOURCE_SHIFT ) |
+                                ( meldField << MELD_SHIFT ) ;
+
+        for ( int jokers = 0 ; jokers <= Math.min( this.handJokers, wildAllowance ) ; jokers++ )
+            {
+
+            for ( int twos = 0 ; twos <= Math.min( this.handTwos, wildAllowance - jokers ) ; twos++ )
+                {
+                final int totalJokers = jokers + topJokers ;
+                final int totalTwos = twos + topTwos ;
+                final int wilds = totalJokers + totalTwos ;
+                final int wildFields = fixedFields |
+                                       ( totalJokers << JOKERS_SHIFT ) |
+                                       ( totalTwos << TWOS_SHIFT ) ;
+
+                for ( int naturals = Math.max( minimumNaturals, minimumCards - wilds ) ;
+                      naturals <= availableNaturals ;
+                      naturals++ )
+                    {
+                    add( wildFields | ( naturals << NATURALS_SHIFT ) ) ;
+                    }
+
+                }
+
+            }
+
+        }   // end generateCombinations()
+
+
+    /**
+     * append a descriptor, growing the buffer if it's full
+     *
+     * @param descriptor
+     *     the descriptor to append
+     */
+    private void add( final int descriptor )
+        {
+
+        if ( this.descriptorCount == this.descriptors.length )
+            {
+            this.descriptors = Arrays.copyOf( this.descriptors, this.descriptors.length * 2 ) ;
+            }
+
+        this.descriptors[ this.descriptorCount++ ] = descriptor ;
+
+        }   // end add()
+
+
+    /**
+     * determine how the discard pile's top card may be used
+     *
+     * @param ordinal
+     *     the top card's rank's ordinal or {@link #NO_DISCARD_TOP}
+     *
+     * @return the source - unused if there is no top card or it caps the pile
+     *
+     * @throws IllegalArgumentException
+     *     if the ordinal is out of range
+     */
+    private static int topSourceOf( final int ordinal )
+        {
+
+        if ( ordinal == NO_DISCARD_TOP )
+            {
+            return TOP_UNUSED ;
+            }
+
+        if ( ( ordinal < 0 ) || ( ordinal >= ALL_RANKS.size() ) )
+            {
+            throw new IllegalArgumentException( String.format( "no rank has ordinal %,d", ordinal ) ) ;
+            }
+
+        return switch ( ALL_RANKS.get( ordinal ) )
+            {
+            case THREE, SEVEN -> TOP_UNUSED ;   // caps the discard pile
+            case JOKER -> TOP_JOKER ;
+            case TWO -> TOP_TWO ;
+            default -> TOP_NATURAL ;
+            } ;
+
+        }   // end topSourceOf()
+
+
+    /**
+     * is a rank wild?
+     *
+     * @param ordinal
+     *     the rank's ordinal
+     *
+     * @return true if the rank is a Joker or a 2
+     */
+    private static boolean isWild( final int ordinal )
+        {
+
+        return ( ordinal == Rank.JOKER.ordinal() ) || ( ordinal == Rank.TWO.ordinal() ) ;
+
+        }   // end isWild()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - list the melds for a small position and check the counts
+     * against the rules
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( final String[] args )
+        {
+
+        // take the cards from a deck - piles only accept permanent cards
+        final List<Card> deckCards = new ArrayList<>() ;
+
+        for ( final CardBase aCard : new Deck().removeAllCards() )
+            {
+            deckCards.add( ( (Card) aCard ).reveal() ) ;
+            }
+
+        final Player player = new Player( "Tester" ) ;
+        final Meld nines = new Meld() ;
+
+        for ( final Rank aRank : new Rank[] { Rank.KING, Rank.KING, Rank.FIVE, Rank.TWO, Rank.JOKER, Rank.NINE } )
+            {
+            player.dealtACard( takeCard( deckCards, aRank ) ) ;
+            }
+
+        for ( final Rank aRank : new Rank[] { Rank.NINE, Rank.NINE, Rank.TWO } )
+            {
+            nines.addToBottom( takeCard( deckCards, aRank ) ) ;
+            }
+
+        player.addMeld( nines ) ;
+
+        final MeldGenerator generator = new MeldGenerator() ;
+
+        System.out.printf( "Hand: %s%nMelds: %s%n", player.revealHand(), player.revealMelds() ) ;
+
+        for ( final Card discardTop : new Card[] { null,
+                                                   new Card( Rank.FIVE, Suit.DIAMONDS ).reveal(),
+                                                   new Card( Rank.SEVEN, Suit.DIAMONDS ).reveal() } )
+            {
+            final int found = generator.generate( player, discardTop ) ;
+
+            System.out.printf( "%nWith discard top %s: %,d meld(s)%n",
+                               discardTop == null
+                                   ? "(none)"
+                                   : discardTop,
+                               found ) ;
+
+            for ( int i = 0 ; i < found ; i++ )
+                {
+                final int descriptor = generator.get( i ) ;
+
+                System.out.printf( "  %s%n", describe( descriptor ) ) ;
+
+                final boolean legal = ( countWildCards( descriptor ) <= MAXIMUM_WILD_CARDS ) &&
+                                      ( countCards( descriptor ) >= ( isNewMeld( descriptor )
+                                          ? MINIMUM_MELD_SIZE
+                                          : 1 ) ) ;
+
+                if ( !legal )
+                    {
+                    System.out.printf( "    ^ FAIL: breaks the meld rules%n" ) ;
+                    }
+
+                }
+
+            }
+
+        }   // end main()
+
+
+    /**
+     * remove the first card of a rank from a list of cards
+     *
+     * @param cards
+     *     the cards to take from
+     * @param rank
+     *     the rank to take
+     *
+     * @return the card
+     */
+    private static Card takeCard( final List<Card> cards,
+                                  final Rank rank )
+        {
+
+        for ( int i = 0 ; i < cards.size() ; i++ )
+            {
+
+            if ( cards.get( i ).rank == rank )
+                {
+                return cards.remove( i ) ;
+                }
+
+            }
+
+        throw new IllegalStateException( String.format( "no %s left", rank ) ) ;
+
+        }   // end takeCard()
+
+    }   // end class MeldGenerator
@@ -0,0 +1,835 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.canasta.game.CanastaSimulator.Results ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.time.Duration ;
+import java.util.ArrayList ;
+import java.util.Arrays ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.concurrent.Callable ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.ExecutorService ;
+import java.util.concurrent.Executors ;
+import java.util.concurrent.Future ;
+import java.util.function.Supplier ;
+import java.util.random.RandomGenerator ;
+
+
+/**
+ * A Canasta player which searches for its moves with Information Set Monte
+ * Carlo Tree Search (ISMCTS)
+ * <p>
+ * For each decision the agent {@linkplain CanastaSearchState#observe
+ * observes} what its player can see - their own hand, the discard pile and
+ * every meld - then repeatedly:
+ * <ol>
+ * <li>deals the cards it hasn't seen at random into the other hands and the
+ * stock ({@linkplain CanastaSearchState#determinize determinization})
+ * <li>walks down a tree of moves, for every player, choosing among the moves
+ * legal in that deal by UCB1 (an unexplored move first)
+ * <li>finishes the hand with every player following rules of thumb
+ * <li>credits each move on the path with its player's share of the win
+ * </ol>
+ * The tree is shared by every deal, so its statistics average over the hidden
+ * cards (single-observer ISMCTS).
+ * <p>
+ * The search runs on several threads, each growing its own tree from its own
+ * deals; at the end the visits to each of the root's moves are summed and the
+ * most visited move is played (root parallelization). Each search stops when
+ * its time budget runs out or, if set, after a fixed number of iterations per
+ * thread. With an iteration limit the agent's play depends only on the
+ * game's seed and the number of threads.
+ * <p>
+ * The agent keeps no game state between decisions so one instance can play
+ * for any number of players, in any number of games, on any number of
+ * threads. An agent searching on more than one thread holds its search
+ * threads for its lifetime; {@linkplain #close() close} it when it's done
+ * playing.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 reuse one pool of search threads for every
+ *     decision rather than starting a pool per decision
+ */
+public final class MonteCarloAgent implements PlayerAgent, AutoCloseable
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the time allowed for each decision unless specified */
+    public final static Duration DEFAULT_TIME_BUDGET = Duration.ofMillis( 100 ) ;
+
+    /** the UCB1 exploration constant - rewards are between 0 and 1 */
+    private final static double EXPLORATION = 0.7 ;
+
+    /** the number of iterations between checks of the clock */
+    private final static int ITERATIONS_PER_CLOCK_CHECK = 16 ;
+
+    /** the number of turn phases - part of each decision's random stream index */
+    private final static int PHASES = CanastaEngine.TurnPhase.values().length ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the time allowed for each decision, in nanoseconds */
+    private final long timeBudgetNanos ;
+
+    /** the number of threads searching for each decision */
+    private final int threads ;
+
+    /** the most iterations each thread runs per decision or 0 for no limit */
+    private final int iterationLimit ;
+
+    /** the threads searching for each decision or {@code null} to search on the game's thread */
+    private final ExecutorService searchPool ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * create an agent which takes {@link #DEFAULT_TIME_BUDGET} per decision,
+     * searching on one thread per available processor
+     */
+    public MonteCarloAgent()
+        {
+
+        this( DEFAULT_TIME_BUDGET ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * create an agent which searches on one thread per available processor
+     *
+     * @param timeBudget
+     *     the time allowed for each decision
+     */
+    public MonteCarloAgent( final Duration timeBudget )
+        {
+
+        this( timeBudget, Runtime.getRuntime().availableProcessors(), 0 ) ;
+
+        }   // end 1-arg constructor
+
+
+    /**
+     * create an agent
+     *
+     * @param timeBudget
+     *     the time allowed for each decision
+     * @param searchThreads
+     *     the number of threads searching for each decision - 1 searches on
+     *     the game's thread
+     * @param iterationsPerThread
+     *     the most iterations each thread runs per decision or 0 for no limit
+     *
+     * @throws IllegalArgumentException
+     *     if the time budget isn't positive, there are no threads, or the
+     *     iteration limit is negative
+     */
+    public MonteCarloAgent( final Duration timeBudget,
+                            final int searchThreads,
+                            final int iterationsPerThread )
+        {
+
+        Objects.requireNonNull( timeBudget, "timeBudget" ) ;
+
+        if ( timeBudget.isNegative() || timeBudget.isZero() )
+            {
+            throw new IllegalArgumentException( String.format( "time budget must be positive, was %s", timeBudget ) ) ;
+            }
+
+        if ( ( searchThreads < 1 ) || ( iterationsPerThread < 0 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't search with %,d thread(s) and %,d iteration(s) each",
+                                                               searchThreads,
+                                                               iterationsPerThread ) ) ;
+            }
+
+        this.timeBudgetNanos = timeBudget.toNanos() ;
+        this.threads = searchThreads ;
+        this.iterationLimit = iterationsPerThread ;
+
+        // daemon threads so an agent which isn't closed doesn't keep the program running
+        this.searchPool = searchThreads == 1
+            ? null
+            : Executors.newFixedThreadPool( searchThreads, task ->
+                {
+                final Thread searchThread = new Thread( task, "ISMCTS search" ) ;
+
+                searchThread.setDaemon( true ) ;
+
+                return searchThread ;
+                } ) ;
+
+        }   // end 3-arg constructor
+
+
+    /*
+     * AutoCloseable methods
+     */
+
+
+    /**
+     * stop the search threads - the agent can't search on more than one
+     * thread once it's closed
+     *
+     * @since 1.1
+     */
+    @Override
+    public void close()
+        {
+
+        if ( this.searchPool != null )
+            {
+            this.searchPool.shutdownNow() ;
+            }
+
+        }   // end close()
+
+
+    /*
+     * PlayerAgent methods
+     */
+
+
+    @Override
+    public DrawSource chooseDrawSource( final CanastaEngine game,
+                                        final Player player )
+        {
+
+        return search( game, player ) == CanastaSearchState.TAKE_DISCARD_PILE
+            ? DrawSource.DISCARD_PILE
+            : DrawSource.STOCK ;
+
+        }   // end chooseDrawSource()
+
+
+    @Override
+    public List<Card> chooseMeld( final CanastaEngine game,
+                                  final Player player )
+        {
+
+        final int move = search( game, player ) ;
+
+        if ( !CanastaSearchState.isMeld( move ) )
+            {
+            return List.of() ;  // finished melding
+            }
+
+        final int descriptor = CanastaSearchState.getMeldDescriptor( move ) ;
+        final Rank meldRank = MeldGenerator.getRank( descriptor ) ;
+        int naturals = MeldGenerator.countNaturals( descriptor ) ;
+        int jokers = MeldGenerator.countJokers( descriptor ) ;
+        int twos = MeldGenerator.countTwos( descriptor ) ;
+
+        final List<Card> meldCards = new ArrayList<>( MeldGenerator.countCards( descriptor ) ) ;
+
+        for ( final Card aCard : player.getHandCards() )
+            {
+
+            if ( ( naturals > 0 ) && ( aCard.rank == meldRank ) )
+                {
+                meldCards.add( aCard ) ;
+                naturals-- ;
+                }
+            else if ( ( jokers > 0 ) && ( aCard.rank == Rank.JOKER ) )
+                {
+                meldCards.add( aCard ) ;
+                jokers-- ;
+                }
+            else if ( ( twos > 0 ) && ( aCard.rank == Rank.TWO ) )
+                {
+                meldCards.add( aCard ) ;
+                twos-- ;
+                }
+
+            }
+
+        return meldCards ;
+
+        }   // end chooseMeld()
+
+
+    @Override
+    public Card chooseDiscard( final CanastaEngine game,
+                               final Player player )
+        {
+
+        final Rank discardRank = CanastaSearchState.getDiscardRank( search( game, player ) ) ;
+
+        for ( final Card aCard : player.getHandCards() )
+            {
+
+            if ( aCard.rank == discardRank )
+                {
+                return aCard ;
+                }
+
+            }
+
+        return null ;   // unreachable - the search only discards cards in the hand
+
+        }   // end chooseDiscard()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "ISMCTS (%,d ms, %,d thread(s)%s)",
+                              this.timeBudgetNanos / 1_000_000,
+                              this.threads,
+                              this.iterationLimit == 0
+                                  ? ""
+                                  : String.format( ", %,d iterations each", this.iterationLimit ) ) ;
+
+        }   // end toString()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * choose the current player's next move
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     *
+     * @return the most visited of the root's moves
+     */
+    private int search( final CanastaEngine game,
+                        final Player player )
+        {
+
+        final CanastaSearchState observed = CanastaSearchState.observe( game, player ) ;
+
+        final MeldGenerator generator = new MeldGenerator() ;
+        final int moveCount = observed.generateMoves( generator ) ;
+        final int[] rootMoves = new int[ moveCount ] ;
+
+        for ( int i = 0 ; i < moveCount ; i++ )
+            {
+            rootMoves[ i ] = observed.getMove( generator, i ) ;
+            }
+
+        if ( moveCount == 1 )
+            {
+            return rootMoves[ 0 ] ;     // nothing to decide
+            }
+
+        // each decision, and each thread, gets its own reproducible randomness
+        final long decision = ( ( ( (long) game.getTurnNumber() * PHASES ) +
+                                  game.getPhase().ordinal() ) << 16 ) +
+                              player.getMeldCount() ;
+        final GameRandom decisionRandom = game.getRandom().derive( decision ) ;
+        final long deadline = System.nanoTime() + this.timeBudgetNanos ;
+
+        final List<Callable<long[]>> searches = new ArrayList<>( this.threads ) ;
+
+        for ( int thread = 0 ; thread < this.threads ; thread++ )
+            {
+            final RandomGenerator threadRandom = decisionRandom.derive( thread ).getGenerator() ;
+
+            searches.add( () -> new SearchTree( observed, rootMoves, threadRandom ).search( deadline,
+                                                                                           this.iterationLimit ) ) ;
+            }
+
+        final long[] visits = new long[ moveCount ] ;
+
+        for ( final long[] threadVisits : runSearches( searches ) )
+            {
+
+            for ( int i = 0 ; i < moveCount ; i++ )
+                {
+                visits[ i ] += threadVisits[ i ] ;
+                }
+
+            }
+
+        int best = 0 ;
+
+        for ( int i = 1 ; i < moveCount ; i++ )
+            {
+
+            if ( visits[ i ] > visits[ best ] )
+                {
+                best = i ;
+                }
+
+            }
+
+        return rootMoves[ best ] ;
+
+        }   // end search()
+
+
+    /**
+     * run the searches - on the calling thread if there's only one
+     *
+     * @param searches
+     *     the searches
+     *
+     * @return each search's visits to the root's moves
+     *
+     * @throws IllegalStateException
+     *     if the agent has been closed or a search fails
+     */
+    private List<long[]> runSearches( final List<Callable<long[]>> searches )
+        {
+
+        if ( ( searches.size() > 1 ) && this.searchPool.isShutdown() )
+            {
+            throw new IllegalStateException( "the agent has been closed" ) ;
+            }
+
+        try
+            {
+
+            if ( searches.size() == 1 )
+                {
+                return List.of( searches.getFirst().call() ) ;
+                }
+
+            final List<long[]> results = new ArrayList<>( searches.size() ) ;
+
+            for ( final Future<long[]> aSearch : this.searchPool.invokeAll( searches ) )
+                {
+                results.add( aSearch.get() ) ;
+                }
+
+            return results ;
+
+            }
+        catch ( final InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+
+            throw new IllegalStateException( "interrupted while searching", e ) ;
+            }
+        catch ( final ExecutionException e )
+            {
+            throw new IllegalStateException( "search failed", e.getCause() ) ;
+            }
+        catch ( final Exception e )
+            {
+            throw new IllegalStateException( "search failed", e ) ;
+            }
+
+        }   // end runSearches()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * one node of a search tree: a move and the statistics of the iterations
+     * which played it
+     */
+    private final static class Node
+        {
+
+        /** the move which led here */
+        private final int move ;
+
+        /** the player who made the move */
+        private final int player ;
+
+        /** the node this move was made from */
+        private final Node parent ;
+
+        /** the moves tried from here */
+        private final List<Node> children = new ArrayList<>() ;
+
+        /** the iterations which played this move */
+        private int visits ;
+
+        /** the iterations in which this move was legal when its parent was reached */
+        private int availability ;
+
+        /** the total reward, for {@code player}, of the iterations which played this move */
+        private double reward ;
+
+
+        /**
+         * create a node
+         *
+         * @param theMove
+         *     the move which led here
+         * @param thePlayer
+         *     the player who made the move
+         * @param theParent
+         *     the node the move was made from or {@code null} for the root
+         */
+        private Node( final int theMove,
+                      final int thePlayer,
+                      final Node theParent )
+            {
+
+            this.move = theMove ;
+            this.player = thePlayer ;
+            this.parent = theParent ;
+
+            }   // end 3-arg constructor
+
+
+        /**
+         * find the child for a move
+         *
+         * @param childMove
+         *     the move
+         *
+         * @return the child or {@code null} if the move hasn't been tried
+         */
+        private Node findChild( final int childMove )
+            {
+
+            for ( int i = 0 ; i < this.children.size() ; i++ )
+                {
+                final Node aChild = this.children.get( i ) ;
+
+                if ( aChild.move == childMove )
+                    {
+                    return aChild ;
+                    }
+
+                }
+
+            return null ;
+
+            }   // end findChild()
+
+
+        /**
+         * the UCB1 score for choosing this node, using availability in place
+         * of the parent's visits
+         *
+         * @return the score
+         */
+        private double score()
+            {
+
+            return ( this.reward / this.visits ) +
+                   ( EXPLORATION * Math.sqrt( Math.log( this.availability ) / this.visits ) ) ;
+
+            }   // end score()
+
+        }   // end class Node
+
+
+    /**
+     * one thread's search: a tree and the scratch space for its iterations
+     */
+    private final static class SearchTree
+        {
+
+        /** what the searching player can see */
+        private final CanastaSearchState observed ;
+
+        /** the legal moves at the root, in the order visits are reported */
+        private final int[] rootMoves ;
+
+        /** this thread's source of randomness */
+        private final RandomGenerator random ;
+
+        /** the root of the tree */
+        private final Node root = new Node( -1, -1, null ) ;
+
+        /** the state being played by the current iteration */
+        private final CanastaSearchState state ;
+
+        /** enumerates the melds for each move list */
+        private final MeldGenerator generator = new MeldGenerator() ;
+
+        /** the legal moves in the current iteration's current state */
+        private int[] moves = new int[ 64 ] ;
+
+        /** the untried legal moves in the current iteration's current state */
+        private int[] untried = new int[ 64 ] ;
+
+        /** each player's reward from the current iteration */
+        private final double[] rewards ;
+
+
+        /**
+         * prepare a search
+         *
+         * @param observedState
+         *     what the searching player can see
+         * @param legalRootMoves
+         *     the legal moves in the observed state
+         * @param threadRandom
+         *     this thread's source of randomness
+         */
+        private SearchTree( final CanastaSearchState observedState,
+                            final int[] legalRootMoves,
+                            final RandomGenerator threadRandom )
+            {
+
+            this.observed = observedState ;
+            this.rootMoves = legalRootMoves ;
+            this.random = threadRandom ;
+            this.state = new CanastaSearchState( observedState ) ;
+            this.rewards = new double[ observedState.getPlayerCount() ] ;
+
+            }   // end 3-arg constructor
+
+
+        /**
+         * iterate until the deadline or the iteration limit
+         *
+         * @param deadline
+         *     when to stop, per {@link System#nanoTime()}
+         * @param iterationLimit
+         *     the most iterations or 0 for no limit
+         *
+         * @return the visits to each of the root's moves
+         */
+        private long[] search( final long deadline,
+                               final int iterationLimit )
+            {
+
+            for ( int iteration = 1 ; ; iteration++ )
+                {
+                iterate() ;
+
+                if ( ( iteration == iterationLimit ) ||
+                     ( ( ( iteration % ITERATIONS_PER_CLOCK_CHECK ) == 0 ) && ( System.nanoTime() >= deadline ) ) )
+                    {
+                    break ;
+                    }
+
+                }
+
+            final long[] visits = new long[ this.rootMoves.length ] ;
+
+            for ( final Node aChild : this.root.children )
+                {
+
+                for ( int i = 0 ; i < this.rootMoves.length ; i++ )
+                    {
+
+                    if ( this.rootMoves[ i ] == aChild.move )
+                        {
+                        visits[ i ] = aChild.visits ;
+                        }
+
+                    }
+
+                }
+
+            return visits ;
+
+            }   // end search()
+
+
+        /**
+         * one iteration: deal, select, expand, play out, and back up the
+         * rewards
+         */
+        private void iterate()
+            {
+
+            this.state.determinize( this.observed, this.random ) ;
+
+            Node node = this.root ;
+
+            while ( !this.state.isOver() )
+                {
+                final int legalCount = listMoves() ;
+
+                // note which moves are untried and update the others' availability
+                int untriedCount = 0 ;
+                Node best = null ;
+                double bestScore = Double.NEGATIVE_INFINITY ;
+
+                for ( int i = 0 ; i < legalCount ; i++ )
+                    {
+                    final Node aChild = node.findChild( this.moves[ i ] ) ;
+
+                    if ( aChild == null )
+                        {
+                        this.untried[ untriedCount++ ] = this.moves[ i ] ;
+
+                        continue ;
+                        }
+
+                    aChild.availability++ ;
+
+                    final double score = aChild.score() ;
+
+                    if ( score > bestScore )
+                        {
+                        best = aChild ;
+                        bestScore = score ;
+                        }
+
+                    }
+
+                if ( untriedCount > 0 )
+                    {
+                    // expand one untried move then play out from there
+                    final int move = this.untried[ this.random.nextInt( untriedCount ) ] ;
+                    final Node child = new Node( move, this.state.getCurrentPlayer(), node ) ;
+
+                    child.availability = 1 ;
+                    node.children.add( child ) ;
+                    this.state.apply( move ) ;
+                    node = child ;
+
+                    break ;
+                    }
+
+                this.state.apply( best.move ) ;
+                node = best ;
+                }
+
+            this.state.playOut( this.random ) ;
+            this.state.getRewards( this.rewards ) ;
+
+            for ( Node aNode = node ; aNode != this.root ; aNode = aNode.parent )
+                {
+                aNode.visits++ ;
+                aNode.reward += this.rewards[ aNode.player ] ;
+                }
+
+            }   // end iterate()
+
+
+        /**
+         * list the legal moves in the current state into {@code moves}
+         *
+         * @return the number of legal moves
+         */
+        private int listMoves()
+            {
+
+            final int legalCount = this.state.generateMoves( this.generator ) ;
+
+            if ( this.moves.length < legalCount )
+                {
+                this.moves = Arrays.copyOf( this.moves, Math.max( legalCount, this.moves.length * 2 ) ) ;
+                this.untried = new int[ this.moves.length ] ;
+                }
+
+            for ( int i = 0 ; i < legalCount ; i++ )
+                {
+                this.moves[ i ] = this.state.getMove( this.generator, i ) ;
+                }
+
+            return legalCount ;
+
+            }   // end listMoves()
+
+        }   // end class SearchTree
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - play games with one searching player against two
+     * {@link BasicAgent}s, rotating the seats, and report the results
+     *
+     * @param args
+     *     [0]: seed - see {@link GameRandom#fromArguments(String[])}; [1]:
+     *     games per seat (default 20); [2]: iterations per decision (default
+     *     500)
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom simulationRandom = GameRandom.fromArguments( args ) ;
+        final int gamesPerSeat = args.length > 1
+            ? Integer.parseInt( args[ 1 ] )
+            : 20 ;
+        final int iterations = args.length > 2
+            ? Integer.parseInt( args[ 2 ] )
+            : 500 ;
+
+        // the simulator already spreads games across the processors - search each on one thread
+        try ( MonteCarloAgent searcher = new MonteCarloAgent( Duration.ofSeconds( 10 ), 1, iterations ) )
+            {
+            System.out.printf( "Seed: %s%n%s vs 2 x BasicAgent, %,d game(s) per seat%n",
+                               simulationRandom.toSpec(),
+                               searcher,
+                               gamesPerSeat ) ;
+
+            for ( int seat = 0 ; seat < 3 ; seat++ )
+                {
+                final List<Supplier<PlayerAgent>> agents = new ArrayList<>() ;
+
+                for ( int i = 0 ; i < 3 ; i++ )
+                    {
+                    agents.add( i == seat
+                        ? () -> searcher
+                        : BasicAgent::new ) ;
+                    }
+
+                final CanastaSimulator simulator = new CanastaSimulator( agents, 2, 11 ) ;
+
+                final long startTime = System.nanoTime() ;
+                final Results results = simulator.run( gamesPerSeat, simulationRandom.derive( seat ) ) ;
+
+                System.out.printf( "%nsearching player in seat %d (%,d ms):%n%s",
+                                   seat + 1,
+                                   ( System.nanoTime() - startTime ) / 1_000_000,
+                                   results ) ;
+                }
+            }
+
+        }   // end main()
+
+    }   // end class MonteCarloAgent
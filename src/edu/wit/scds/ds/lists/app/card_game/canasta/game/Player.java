@@ -32,6 +32,7 @@ package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
@@ -46,9 +47,12 @@ import edu.wit.scds.ds.lists.app.card_game.canasta.pile.Stock ;
 import java.io.File ;
 import java.io.FileNotFoundException ;
 import java.util.ArrayList ;
+import java.util.Collections ;
 import java.util.List ;
-import java.util.Random ;
+import java.util.Objects ;
 import java.util.Scanner ;
+import java.util.SplittableRandom ;
+import java.util.random.RandomGenerator ;
 
 import static edu.wit.scds.ds.lists.app.card_game.canasta.game.PointValue.*;
 
@@ -66,9 +70,63 @@ import static edu.wit.scds.ds.lists.app.card_game.canasta.game.PointValue.*;
  * @author Jasmine Bonilla
  * 
  * @version 3.0 2025-11-03 modifications for your game
+ * @version 3.1 2026-10-18 keep the hand sorted as cards arrive rather than
+ *     re-sorting it after every card
+ * @version 3.2 2026-10-18 optionally compare cards using a per-game
+ *     {@code CardOrdering}
+ * @version 3.3 2026-10-18 choose cards using the game's source of randomness
+ *     rather than a new {@code Random} for every card
+ * @version 3.4 2026-10-18 expose the hand and melds read-only so agents can
+ *     make decisions without parsing text
+ * @version 3.5 2026-10-18 make {@code tallyRoundPoints()} public so it can be
+ *     benchmarked alongside the other scoring methods
+ * @version 3.6 2026-10-18 score from a table of card points indexed by rank,
+ *     without copying the hand or melds, and add batch scoring of many players
+ * @version 3.7 2026-10-18 answer {@code canFormMeldWith()} in O(1) from the
+ *     hand's rank counts; add {@code countInHand()}
+ * @version 3.8 2026-10-18 add {@code getPointValue()} for a rank so search
+ *     code can score melds from rank counts
+ * @version 3.9 2026-10-18 let the engine read and replace the hand, melds and
+ *     scores wholesale for its snapshots
+ * @version 3.10 2026-10-18 test driver compares by rank using its own
+ *     {@code CardOrdering} rather than changing the program-wide defaults
+ * @version 3.11 2026-10-18 build the points table from {@code Rank.ALL_RANKS}
  */
 public final class Player
     {
+    /*
+     * constants
+     */
+
+    /**
+     * the point value of a card of each rank, indexed by {@code Rank.ordinal()}:
+     * <ul>
+     * <li>3–7  -&gt; 5 points</li>
+     * <li>8–K  -&gt; 10 points</li>
+     * <li>2, A -&gt; 20 points</li>
+     * <li>Joker-&gt; 50 points</li>
+     * </ul>
+     *
+     * (Red 3 special +/– 100 is handled separately as a bonus/penalty, not here.)
+     */
+    private final static int[] POINTS_BY_RANK = new int[ Rank.ALL_RANKS.size() ] ;
+
+    static
+        {
+
+        for ( final Rank aRank : Rank.ALL_RANKS )
+            {
+            POINTS_BY_RANK[ aRank.ordinal() ] = switch ( aRank )
+                {
+                case ACE, TWO -> getPointValue( ACE_AND_TWO ) ;
+                case THREE, FOUR, FIVE, SIX, SEVEN -> getPointValue( BTHREE_TO_SEVEN ) ;
+                case EIGHT, NINE, TEN, JACK, QUEEN, KING -> getPointValue( EIGHT_TO_KING ) ;
+                case JOKER -> getPointValue( JOKER ) ;
+                } ;
+            }
+
+        }   // end static initializer
+
     /*
      * data fields
      */
@@ -84,6 +142,9 @@ public final class Player
     /** player's name */
     public final String name ;
 
+    /** source of randomness for choosing cards to play */
+    private final RandomGenerator random ;
+
     /** adding point clarifications */
     private int totalPoints;
 
@@ -101,13 +162,59 @@ public final class Player
     public Player( final String playerName )
         {
 
+        this( playerName, null ) ;
+
+        }   // end 1-arg constructor
+
+
+    /**
+     * initialize a player whose hand compares cards using a specific ordering
+     *
+     * @param playerName
+     *     the player's name
+     * @param cardOrdering
+     *     the rules for comparing cards in the player's hand or {@code null} to
+     *     follow {@code Card}'s default ordering
+     */
+    public Player( final String playerName,
+                   final CardOrdering cardOrdering )
+        {
+
+        this( playerName, cardOrdering, new SplittableRandom() ) ;
+
+        }   // end 2-arg constructor
+
+
+    /**
+     * initialize a player whose hand compares cards using a specific ordering
+     * and who chooses cards using a specific source of randomness
+     *
+     * @param playerName
+     *     the player's name
+     * @param cardOrdering
+     *     the rules for comparing cards in the player's hand or {@code null} to
+     *     follow {@code Card}'s default ordering
+     * @param randomGenerator
+     *     the source of randomness - typically the game's, so the game can be
+     *     replayed
+     */
+    public Player( final String playerName,
+                   final CardOrdering cardOrdering,
+                   final RandomGenerator randomGenerator )
+        {
+
+        Objects.requireNonNull( randomGenerator, "randomGenerator" ) ;
+
         this.name = playerName ;
 
-        this.hand = new Hand() ;
+        this.random = randomGenerator ;
+
+        this.hand = new Hand().setOrdering( cardOrdering )
+                              .setKeepSorted( true ) ;
 
         this.melds = new ArrayList<>() ;
 
-        }   // end constructor
+        }   // end 3-arg constructor
 
 
     /*
@@ -122,8 +229,7 @@ public final class Player
     public void dealtACard( final Card dealt )
         {
 
-        this.hand.addToBottom( dealt ) ;
-        this.hand.sort() ;
+        this.hand.addToBottom( dealt ) ;    // inserted in order
 
         }  // end dealtACard()
 
@@ -143,6 +249,70 @@ public final class Player
         }   // end getMeldCount()
 
 
+    /**
+     * count the cards of a rank in our hand without copying it
+     *
+     * @param rank
+     *     the rank to count
+     *
+     * @return the number of cards of that rank
+     *
+     * @since 3.7
+     */
+    public int countInHand( final Rank rank )
+        {
+
+        return this.hand.countRank( rank ) ;
+
+        }   // end countInHand()
+
+
+    /**
+     * retrieve the cards in our hand, in order
+     *
+     * @return a copy of the cards in our hand - changing the list doesn't
+     *     change the hand
+     *
+     * @since 3.4
+     */
+    public List<Card> getHandCards()
+        {
+
+        return this.hand.getAllCards() ;
+
+        }   // end getHandCards()
+
+
+    /**
+     * retrieve the number of cards in our hand
+     *
+     * @return the number of cards in our hand
+     *
+     * @since 3.4
+     */
+    public int getHandSize()
+        {
+
+        return this.hand.cardCount() ;
+
+        }   // end getHandSize()
+
+
+    /**
+     * retrieve our melds
+     *
+     * @return a read-only view of our melds
+     *
+     * @since 3.4
+     */
+    public List<Meld> getMelds()
+        {
+
+        return Collections.unmodifiableList( this.melds ) ;
+
+        }   // end getMelds()
+
+
     /**
      * Remove an unspecified card from our hand
      *
@@ -154,8 +324,7 @@ public final class Player
     public Card playACard() throws NoCardsException
         {
 
-        return this.hand.removeCardAt( new Random().nextInt( 0,
-                                                             this.hand.cardCount() ) ) ;
+        return this.hand.removeCardAt( this.random.nextInt( 0, this.hand.cardCount() ) ) ;
 
         }  // end playACard()
 
@@ -308,8 +477,7 @@ public final class Player
     public void receiveCards( final Pile p )
         {
 
-        this.hand.moveCardsToBottom( p ) ;
-        this.hand.sort() ;
+        this.hand.moveCardsToBottom( p ) ;  // merged in order
 
         }   // end receiveCards()
     
@@ -357,22 +525,14 @@ public final class Player
      */
     public boolean canFormMeldWith ( final Card topCard )
         {
-        
-        int sameRankCount = 0 ;
-        int wildCardCount = 0 ;
-        for ( final Card c : this.hand.getAllCards() )
-            {
-            
-            if ( c.rank == topCard.rank ) 
-                {
-                sameRankCount++ ;
-                }
-            else if ( (c.rank == Rank.JOKER ) || (c.rank == Rank.TWO ) )
-                {
-                wildCardCount++ ;
-                }
 
-            }
+        // cards matching the top card's rank, then wild cards of the other wild rank(s)
+        final int sameRankCount = this.hand.countRank( topCard.rank ) ;
+        final int wildCardCount = this.hand.countWildCards()
+                                  - ( ( ( topCard.rank == Rank.JOKER ) || ( topCard.rank == Rank.TWO ) )
+                                          ? sameRankCount
+                                          : 0 ) ;
+
         // very simple heuristic: topCard (1) + at least 2 others (natural or wild)
         // gives us 3 cards to start a meld. The detailed rules are enforced
         // by Meld.validateMeld().
@@ -391,34 +551,24 @@ public final class Player
      *
      * Red 3 (+/- 100) is left as a hook/TODO because it depends on how you
      * track when Red 3s are laid vs when the round ends.
+     *
+     * @since 3.5 public
      */
-    private void tallyRoundPoints()
+    public void tallyRoundPoints()
         {
 
         int roundPoints = 0 ;
 
-        // 1. Points from melds + canasta bonuses
-        for ( final Meld m : this.melds )
+        // 1. Points from melds + canasta bonuses (clean canasta = 500, dirty = 300)
+        for ( int i = 0 ; i < this.melds.size() ; i++ )
             {
-            // sum values of cards in this meld
-            for ( final Card c : m.getAllCards() )
-                {
-                roundPoints += cardPointValue( c.rank ) ;
-                }
+            final Meld m = this.melds.get( i ) ;
+
+            roundPoints += m.sumByRank( POINTS_BY_RANK ) ;
 
-            // canasta bonuses
             if ( m.isCanasta() )
                 {
-                if ( m.countWildCards() == 0 )
-                    {
-                    // clean canasta = 500
-                    roundPoints += 500 ;
-                    }
-                else
-                    {
-                    // dirty canasta = 300
-                    roundPoints += 300 ;
-                    }
+                roundPoints += canastaBonus( m.isDirty() ) ;
                 }
             }
 
@@ -426,40 +576,12 @@ public final class Player
         //    Hook: apply +/- 100 per red 3 based on whether player went out.
 
         // 3. Subtract points for cards left in hand (penalty)
-        for ( final Card c : this.hand.getAllCards() )
-            {
-            roundPoints -= cardPointValue( c.rank ) ;
-            }
+        roundPoints -= this.hand.sumByRank( POINTS_BY_RANK ) ;
 
         // 4. Apply to cumulative score
         this.score += roundPoints ;
 
         }   // end tallyRoundPoints()
-    /**
-     * Point values per card rank based on the project rules:
-     * <ul>
-     * <li>3–7  -&gt; 5 points</li>
-     * <li>8–K  -&gt; 10 points</li>
-     * <li>2, A -&gt; 20 points</li>
-     * <li>Joker-&gt; 50 points</li>
-     * </ul>
-     *
-     * (Red 3 special +/– 100 is handled separately as a bonus/penalty, not here.)
-     */
-    private static int cardPointValue( final Rank r )
-        {
-
-        return switch ( r )
-            {
-            case JOKER -> 50 ;
-            case ACE -> 20 ;
-            case TWO -> 20 ;
-            case KING, QUEEN, JACK, TEN, NINE, EIGHT -> 10 ;
-            case SEVEN, SIX, FIVE, FOUR, THREE -> 5 ;
-            default -> 0 ;
-            } ;
-
-        }   // end cardPointValue()
 
 
     /**
@@ -553,6 +675,23 @@ public final class Player
 
         } // end getPointValue()
 
+    /**
+     * retrieve the points a card of a rank is worth in a meld or hand
+     *
+     * @param rank
+     *     the card's rank
+     *
+     * @return the card's point value
+     *
+     * @since 3.8
+     */
+    public static int getPointValue( final Rank rank )
+        {
+
+        return POINTS_BY_RANK[ rank.ordinal() ] ;
+
+        } // end getPointValue() for a rank
+
     /**
      * <p>
      * Adds points to the player's total amount
@@ -633,95 +772,226 @@ public final class Player
         } // end getScore()
 
     /**
-     * Evaluates how many points the player has at the end of the game
+     * Evaluates how many points the player has at the end of the game: their
+     * melds less the cards left in their hand
      */
     public void evaluateAtEnd()
         {
 
-        this.totalPoints = 0;
+        this.totalPoints = meldPoints() - this.hand.sumByRank( POINTS_BY_RANK ) ;
+
+        } // end evaluateAtEnd()
+
+    /**
+     * Evaluates how many points the player has at the end of
+     * each round: their melds
+     */
+    public void evaluatePerRound()
+        {
+
+        this.totalPoints = meldPoints() ;
+
+        } // end evaluatePerRound()
+
+    /**
+     * score many players at once with {@link #evaluateAtEnd()} - e.g. every
+     * player in a batch of simulated games
+     *
+     * @param players
+     *     the players to score
+     * @param scores
+     *     receives each player's score, in the same order as {@code players} -
+     *     must be at least as long as {@code players}
+     *
+     * @return {@code scores}
+     *
+     * @since 3.6
+     */
+    public static int[] evaluateAtEnd( final List<Player> players,
+                                       final int[] scores )
+        {
+
+        checkBatch( players, scores ) ;
 
-        // Adding points per each meld (both completed and played)
-        for (final Meld m : this.melds)
+        for ( int i = 0 ; i < players.size() ; i++ )
             {
-            if (m.isCanasta())
-                {
-                if (m.isDirty())
-                    {
-                    add(getPointValue(DIRTY_MELD));
-                    } else
-                    {
-                    add(getPointValue(MELD));
-                    }
-                } else
-                {
-                for (Card c : m.getAllCards())
-                    {
-                    switch (c.rank)
-                        {
-                        case ACE, TWO -> add(getPointValue(ACE_AND_TWO));
-                        case THREE, FOUR, FIVE, SIX, SEVEN -> add(getPointValue(BTHREE_TO_SEVEN));
-                        case EIGHT, NINE, TEN, JACK, QUEEN, KING -> add(getPointValue(EIGHT_TO_KING));
-                        case JOKER -> add(getPointValue(JOKER));
-                        }
-                    }
-                }
+            final Player aPlayer = players.get( i ) ;
+
+            aPlayer.evaluateAtEnd() ;
+            scores[ i ] = aPlayer.totalPoints ;
             }
 
-        // Subtracting points if any cards are in the player's hand
-        if (!this.hand.isEmpty())
+        return scores ;
+
+        } // end evaluateAtEnd() for many players
+
+    /**
+     * score many players at once with {@link #evaluatePerRound()} - e.g.
+     * every player in a batch of simulated games
+     *
+     * @param players
+     *     the players to score
+     * @param scores
+     *     receives each player's score, in the same order as {@code players} -
+     *     must be at least as long as {@code players}
+     *
+     * @return {@code scores}
+     *
+     * @since 3.6
+     */
+    public static int[] evaluatePerRound( final List<Player> players,
+                                          final int[] scores )
+        {
+
+        checkBatch( players, scores ) ;
+
+        for ( int i = 0 ; i < players.size() ; i++ )
             {
-            for (Card card : this.hand.getAllCards())
-                {
+            final Player aPlayer = players.get( i ) ;
 
-                switch (card.rank)
-                    {
-                    case ACE, TWO -> subtract(getPointValue(ACE_AND_TWO));
-                    case THREE, FOUR, FIVE, SIX, SEVEN -> subtract(getPointValue(BTHREE_TO_SEVEN));
-                    case EIGHT, NINE, TEN, JACK, QUEEN, KING -> subtract(getPointValue(EIGHT_TO_KING));
-                    case JOKER -> subtract(getPointValue(JOKER));
-                    }
-                }
+            aPlayer.evaluatePerRound() ;
+            scores[ i ] = aPlayer.totalPoints ;
             }
 
-        } // end evaluateAtEnd()
+        return scores ;
+
+        } // end evaluatePerRound() for many players
+
+    /*
+     * package methods - for CanastaEngine's snapshots
+     */
+
 
     /**
-     * Evaluates how many points the player has at the end of
-     * each round
+     * retrieve our cumulative score from {@link #tallyRoundPoints()}
+     *
+     * @return the cumulative score
+     *
+     * @since 3.9
      */
-    public void evaluatePerRound()
+    int getCumulativeScore()
         {
 
-        this.totalPoints = 0;
+        return this.score ;
+
+        }   // end getCumulativeScore()
 
-        // Adding points per each meld (both completed and played)
-        for (final Meld m : this.melds)
+
+    /**
+     * retrieve our hand without copying it - the caller must not change it
+     *
+     * @return our hand
+     *
+     * @since 3.9
+     */
+    Hand getHand()
+        {
+
+        return this.hand ;
+
+        }   // end getHand()
+
+
+    /**
+     * replace our cards and scores - we must not have any cards (see
+     * {@link #turnInAllCards()})
+     *
+     * @param handCards
+     *     the cards for our hand, in order
+     *     <p>
+     *     post-condition: {@code handCards} will be empty
+     * @param restoredMelds
+     *     our melds
+     * @param cumulativeScore
+     *     our cumulative score
+     * @param points
+     *     our score as returned by {@link #getScore()}
+     *
+     * @since 3.9
+     */
+    void restore( final Pile handCards,
+                  final List<Meld> restoredMelds,
+                  final int cumulativeScore,
+                  final int points )
+        {
+
+        this.hand.moveCardsToBottom( handCards ) ;  // already in order
+
+        this.melds.addAll( restoredMelds ) ;
+
+        this.score = cumulativeScore ;
+        this.totalPoints = points ;
+
+        }   // end restore()
+
+
+    /**
+     * the bonus for a canasta
+     *
+     * @param dirty
+     *     true if the canasta contains wild cards
+     *
+     * @return the bonus
+     */
+    private static int canastaBonus( final boolean dirty )
+        {
+
+        return dirty
+            ? getPointValue( DIRTY_MELD )
+            : getPointValue( MELD ) ;
+
+        } // end canastaBonus()
+
+    /**
+     * make sure a batch of scores can be recorded
+     *
+     * @param players
+     *     the players to score
+     * @param scores
+     *     receives each player's score
+     *
+     * @throws IllegalArgumentException
+     *     if {@code scores} is shorter than {@code players}
+     */
+    private static void checkBatch( final List<Player> players,
+                                    final int[] scores )
+        {
+
+        Objects.requireNonNull( players, "players" ) ;
+        Objects.requireNonNull( scores, "scores" ) ;
+
+        if ( scores.length < players.size() )
             {
-            if (m.isCanasta())
-                {
-                if (m.isDirty())
-                    {
-                    add(getPointValue(DIRTY_MELD));
-                    } else
-                    {
-                    add(getPointValue(MELD));
-                    }
-                } else
-                {
-                for (Card c : m.getAllCards())
-                    {
-                    switch (c.rank)
-                        {
-                        case ACE, TWO -> add(getPointValue(ACE_AND_TWO));
-                        case THREE, FOUR, FIVE, SIX, SEVEN -> add(getPointValue(BTHREE_TO_SEVEN));
-                        case EIGHT, NINE, TEN, JACK, QUEEN, KING -> add(getPointValue(EIGHT_TO_KING));
-                        case JOKER -> add(getPointValue(JOKER));
-                        }
-                    }
-                }
+            throw new IllegalArgumentException( String.format( "can't record %,d scores in %,d elements",
+                                                               players.size(),
+                                                               scores.length ) ) ;
             }
 
-        } // end evaluatePerRound()
+        } // end checkBatch()
+
+    /**
+     * total the points for this player's melds - a canasta earns its bonus,
+     * any other meld earns the value of its cards
+     *
+     * @return the total
+     */
+    private int meldPoints()
+        {
+
+        int points = 0 ;
+
+        for ( int i = 0 ; i < this.melds.size() ; i++ )
+            {
+            final Meld m = this.melds.get( i ) ;
+
+            points += m.isCanasta()
+                ? canastaBonus( m.isDirty() )
+                : m.sumByRank( POINTS_BY_RANK ) ;
+            }
+
+        return points ;
+
+        } // end meldPoints()
 
     /**
      * Verifies that the points added/subtracted are legal
@@ -753,22 +1023,17 @@ public final class Player
         {
 
         // we'll sort by rank only and treat ace as highest value card
-        Card.setCompareOnAttributes( CompareOn.COMPARE_RANK_ONLY ) ;
-        Rank.setUseAltOrder( true ) ;
+        final CardOrdering rankOnly = CardOrdering.of( CompareOn.COMPARE_RANK_ONLY, true, true ) ;
 
         final Deck testDeck = new Deck() ;
 
         // create the stock initially populated with all the cards from the deck
         final Stock testStock = new Stock( testDeck ) ;
+        testStock.setOrdering( rankOnly ) ;
 
         // put any jokers back in the deck
         final Card lookupJoker = new Card( Rank.JOKER ) ;
-        Card foundJoker ;
-
-        while ((foundJoker = testStock.removeCard(lookupJoker)) != null )
-            {
-            testDeck.addToBottom( foundJoker ) ;
-            }
+        testDeck.moveCardsToBottom( testStock.removeAllMatchingCards( lookupJoker ) ) ;
         
         // shuffle them
         testStock.shuffle() ;
@@ -782,7 +1047,7 @@ public final class Player
         testDeck.hideAll() ;
 
 
-        final Player testPlayer = new Player( "tester" ) ;
+        final Player testPlayer = new Player( "tester", rankOnly ) ;
 
         System.out.printf( "start: %s%n", testPlayer ) ;
 
@@ -0,0 +1,174 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.canasta.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+
+import java.util.List ;
+
+
+/**
+ * The decisions a Canasta player makes during their turn
+ * <p>
+ * {@code CanastaEngine} enforces the rules and asks the agent for each player
+ * only for the choices the rules leave open: where to draw from, which melds
+ * to lay down, and which card to discard. A console user, a scripted test, or
+ * a bot are all just agents.
+ * <p>
+ * An agent may end the game early by calling {@link CanastaEngine#abandon()};
+ * whatever the agent then returns is ignored.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add {@code isInteractive()} so only a person is
+ *     asked again after an unusable answer
+ */
+public interface PlayerAgent
+    {
+
+    /*
+     * utility constants
+     */
+
+
+    /** the piles a player may draw from */
+    public enum DrawSource
+        {
+
+        // @formatter:off
+
+        /** draw the top card of the stock */
+        STOCK
+
+        , /** take the entire discard pile */
+        DISCARD_PILE ;
+
+        // @formatter:on
+
+        }   // end enum DrawSource
+
+
+    /*
+     * decisions
+     */
+
+
+    /**
+     * notification that {@code player}'s turn is starting - the default does
+     * nothing
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     */
+    default void turnStarted( final CanastaEngine game,
+                              final Player player )
+        {
+
+        // nothing to do
+
+        }   // end turnStarted()
+
+
+    /**
+     * does this agent relay a person's choices? a person who gives an unusable
+     * answer, such as a card that isn't in their hand, is asked again; any
+     * other agent would just give the same answer forever. The default is
+     * {@code false}.
+     *
+     * @return true if this agent may be asked again after an unusable answer
+     *
+     * @since 1.1
+     */
+    default boolean isInteractive()
+        {
+
+        return false ;
+
+        }   // end isInteractive()
+
+
+    /**
+     * choose where to draw from
+     * <p>
+     * only asked when the discard pile isn't empty; if the discard pile is
+     * chosen but can't be taken, the player draws from the stock instead
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     *
+     * @return the pile to draw from
+     */
+    DrawSource chooseDrawSource( CanastaEngine game,
+                                 Player player ) ;
+
+
+    /**
+     * choose the cards for the next new meld
+     * <p>
+     * asked repeatedly until the agent returns {@code null} or an empty list;
+     * the cards only need to match cards in the player's hand. If the cards
+     * don't form a valid meld, an interactive agent is asked again; for any
+     * other agent, the player is finished melding
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     *
+     * @return the cards for a new meld or {@code null} or an empty list when
+     *     the player is finished melding
+     */
+    List<Card> chooseMeld( CanastaEngine game,
+                           Player player ) ;
+
+
+    /**
+     * choose the card to discard
+     * <p>
+     * an interactive agent is asked again if the card isn't in the player's
+     * hand
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     *
+     * @return a card matching one in the player's hand
+     */
+    Card chooseDiscard( CanastaEngine game,
+                        Player player ) ;
+
+    }   // end interface PlayerAgent
@@ -51,6 +51,8 @@ import edu.wit.scds.ds.lists.app.card_game.universal_base.support.NoCardsExcepti
  * @author Lynn Snow
  * 
  * @version 4.0 2025-12-01 Implementation
+ * @version 4.1 2026-10-18 add {@code isCapped()}; leave reporting a capped pile
+ *     to the caller
  */
 public final class DiscardPile extends Pile
     {
@@ -115,10 +117,31 @@ public final class DiscardPile extends Pile
         }   // end lookAtTopCard()
 
 
+    /**
+     * is the discard pile topped by a cap (a three or a seven)? a capped pile
+     * can't be taken
+     *
+     * @return true if the top card is a cap, false otherwise
+     *
+     * @throws NoCardsException
+     *     if the pile is empty
+     *
+     * @since 4.1
+     */
+    public boolean isCapped() throws NoCardsException
+        {
+
+        final Rank topRank = getTopCard().rank ;
+
+        return ( topRank == Rank.SEVEN ) || ( topRank == Rank.THREE ) ;
+
+        }   // end isCapped()
+
+
     /**
      * take the entire discard pile
      *
-     * @return the discard pile in its entirety
+     * @return the discard pile in its entirety or null if it's topped by a cap
      *
      * @throws NoCardsException
      *     if the pile is empty
@@ -126,9 +149,8 @@ public final class DiscardPile extends Pile
     public Pile takeDiscardStack() throws NoCardsException
         {
 
-        if ( getTopCard().rank == Rank.SEVEN || getTopCard().rank == Rank.THREE)
+        if ( isCapped() )
             {
-            System.out.println("Can't discard pile: topped by cap");
             return null ;
             }
 
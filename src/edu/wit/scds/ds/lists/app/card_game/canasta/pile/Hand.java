@@ -33,14 +33,21 @@ package edu.wit.scds.ds.lists.app.card_game.canasta.pile ;
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_DOWN ;
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardColor ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.pile.PileBase ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.NoCardsException ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence ;
 // import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
 
+import java.util.Arrays ;
 import java.util.Collections ;
+import java.util.Comparator ;
+import java.util.Objects ;
 // import java.util.ArrayList ;
 // import java.util.List ;
 
@@ -64,11 +71,35 @@ import java.util.Collections ;
  * @author Lynn Snow
  * 
  * @version 4.0 2025-11-03 modifications for your implementation
+ * @version 4.1 2026-10-18 index the cards in the hand for fast lookups
+ * @version 4.2 2026-10-18 add an optional sorted mode which inserts each card
+ *     in order rather than requiring the entire hand to be re-sorted
+ * @version 4.3 2026-10-18 order the cards using the hand's
+ *     {@code CardOrdering} rather than the global comparison settings
+ * @version 4.4 2026-10-18 maintain a count of the cards of each rank, the wild
+ *     cards, and the red and black threes so they can be queried in O(1)
+ * @version 4.5 2026-10-18 recount when a saved version of the hand is
+ *     restored - the counts always depend on the cards, so the hand always
+ *     {@code tracksCards()}
+ * @version 4.6 2026-10-18 test driver checks that a failed
+ *     {@code removeCardsIf()} leaves the hand unchanged
  */
 public final class Hand extends Pile
     {
 
-    // no additional data fields
+    /*
+     * data fields
+     */
+
+
+    /** when {@code true}, cards are added in sorted order */
+    private boolean keepSorted ;
+
+    /** the number of cards of each rank, indexed by ordinal */
+    private final int[] rankCounts = new int[ Rank.values().length ] ;
+
+    /** the number of red threes */
+    private int redThrees ;
 
 
     /*
@@ -82,6 +113,11 @@ public final class Hand extends Pile
         {
 
         super( FACE_DOWN ) ;
+
+        // players look up specific cards in their hands constantly
+        enableIndex() ;
+
+        this.keepSorted = false ;
 /*
         flipAll() ;
 
@@ -96,6 +132,225 @@ public final class Hand extends Pile
      */
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * if the hand is being kept sorted, the card is inserted in order instead
+     */
+    @Override
+    public Hand addToBottom( final CardBase newCard )
+        {
+
+        if ( this.keepSorted )
+            {
+            addInOrder( newCard ) ;
+            }
+        else
+            {
+            super.addToBottom( newCard ) ;
+            }
+
+        return this ;
+
+        }   // end addToBottom()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * if the hand is being kept sorted, the card is inserted in order instead
+     */
+    @Override
+    public Hand addToTop( final CardBase newCard )
+        {
+
+        if ( this.keepSorted )
+            {
+            addInOrder( newCard ) ;
+            }
+        else
+            {
+            super.addToTop( newCard ) ;
+            }
+
+        return this ;
+
+        }   // end addToTop()
+
+
+    /**
+     * count the black threes in this hand
+     *
+     * @return the number of black threes
+     *
+     * @since 4.4
+     */
+    public int countBlackThrees()
+        {
+
+        return this.rankCounts[ Rank.THREE.ordinal() ] - this.redThrees ;
+
+        }   // end countBlackThrees()
+
+
+    /**
+     * count the cards of a rank in this hand
+     *
+     * @param rank
+     *     the rank to count
+     *
+     * @return the number of cards of that rank
+     *
+     * @since 4.4
+     */
+    public int countRank( final Rank rank )
+        {
+
+        return this.rankCounts[ rank.ordinal() ] ;
+
+        }   // end countRank()
+
+
+    /**
+     * count the red threes in this hand
+     *
+     * @return the number of red threes
+     *
+     * @since 4.4
+     */
+    public int countRedThrees()
+        {
+
+        return this.redThrees ;
+
+        }   // end countRedThrees()
+
+
+    /**
+     * count the wild cards (2s and Jokers) in this hand
+     *
+     * @return the number of wild cards
+     *
+     * @since 4.4
+     */
+    public int countWildCards()
+        {
+
+        return this.rankCounts[ Rank.TWO.ordinal() ] + this.rankCounts[ Rank.JOKER.ordinal() ] ;
+
+        }   // end countWildCards()
+
+
+    /**
+     * determine whether cards are added to this hand in sorted order
+     *
+     * @return {@code true} if the hand is kept sorted, {@code false} otherwise
+     */
+    public boolean isKeepSorted()
+        {
+
+        return this.keepSorted ;
+
+        }   // end isKeepSorted()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * if the hand is being kept sorted, the cards are merged in order instead
+     */
+    @Override
+    public Hand moveCardsToBottom( final PileBase otherCards )
+        {
+
+        if ( this.keepSorted )
+            {
+            super.mergeCards( otherCards, getCardComparator() ) ;
+            }
+        else
+            {
+            super.moveCardsToBottom( otherCards ) ;
+            }
+
+        return this ;
+
+        }   // end moveCardsToBottom()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * if the hand is being kept sorted, the cards are merged in order instead
+     */
+    @Override
+    public Hand moveCardsToTop( final PileBase otherCards )
+        {
+
+        if ( this.keepSorted )
+            {
+            super.mergeCards( otherCards, getCardComparator() ) ;
+            }
+        else
+            {
+            super.moveCardsToTop( otherCards ) ;
+            }
+
+        return this ;
+
+        }   // end moveCardsToTop()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * if the hand is being kept sorted, it is re-sorted using the new ordering
+     */
+    @Override
+    public Hand setOrdering( final CardOrdering newOrdering )
+        {
+
+        super.setOrdering( newOrdering ) ;
+
+        if ( this.keepSorted )
+            {
+            sort() ;
+            }
+
+        return this ;
+
+        }   // end setOrdering()
+
+
+    /**
+     * choose whether cards are added to this hand in sorted order
+     * <p>
+     * while enabled, {@code addToBottom()} and {@code addToTop()} insert each
+     * card in order in O(log n) comparisons and {@code moveCardsToBottom()}
+     * and {@code moveCardsToTop()} merge the incoming cards in O(n + m) -
+     * there's no need to call {@code sort()} after adding cards.
+     * {@code addAtPosition()} still places the card where directed.
+     *
+     * @param sorted
+     *     {@code true} to keep the hand sorted (the hand is sorted
+     *     immediately), {@code false} to add cards where directed
+     *
+     * @return this hand (fluent)
+     */
+    public Hand setKeepSorted( final boolean sorted )
+        {
+
+        if ( sorted && !this.keepSorted )
+            {
+            sort() ;
+            }
+
+        this.keepSorted = sorted ;
+
+        return this ;
+
+        }   // end setKeepSorted()
+
+
     /**
      * retrieve and remove the highest value card in the hand
      *
@@ -112,7 +367,7 @@ public final class Hand extends Pile
             throw new NoCardsException() ;
             }
 
-        return removeCard( Collections.max( super.cards ) ) ;
+        return removeCard( Collections.max( super.cards, getCardComparator() ) ) ;
 
         }  // end removeHighestCard()
 
@@ -133,7 +388,7 @@ public final class Hand extends Pile
             throw new NoCardsException() ;
             }
 
-        return removeCard( Collections.min( super.cards ) ) ;
+        return removeCard( Collections.min( super.cards, getCardComparator() ) ) ;
 
         }  // end removeLowestCard()
 
@@ -208,6 +463,132 @@ public final class Hand extends Pile
         }
 
 
+    /*
+     * protected utility methods
+     */
+
+
+    @Override
+    protected void allCardsRemoved()
+        {
+
+        super.allCardsRemoved() ;
+
+        Arrays.fill( this.rankCounts, 0 ) ;
+        this.redThrees = 0 ;
+
+        }   // end allCardsRemoved()
+
+
+    @Override
+    protected void cardAdded( final CardBase addedCard )
+        {
+
+        super.cardAdded( addedCard ) ;
+
+        final Card aCard = (Card) addedCard ;
+
+        this.rankCounts[ aCard.rank.ordinal() ]++ ;
+
+        if ( isRedThree( aCard ) )
+            {
+            this.redThrees++ ;
+            }
+
+        }   // end cardAdded()
+
+
+    @Override
+    protected void cardRemoved( final CardBase removedCard )
+        {
+
+        super.cardRemoved( removedCard ) ;
+
+        final Card aCard = (Card) removedCard ;
+
+        this.rankCounts[ aCard.rank.ordinal() ]-- ;
+
+        if ( isRedThree( aCard ) )
+            {
+            this.redThrees-- ;
+            }
+
+        }   // end cardRemoved()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * the counts always depend on the cards, indexed or not
+     */
+    @Override
+    protected boolean tracksCards()
+        {
+
+        return true ;
+
+        }   // end tracksCards()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * determine whether a card is a red three
+     *
+     * @param aCard
+     *     the card to check
+     *
+     * @return true if the card is the three of hearts or diamonds
+     */
+    private static boolean isRedThree( final Card aCard )
+        {
+
+        return ( aCard.rank == Rank.THREE ) && ( aCard.suit.getColor() == CardColor.RED ) ;
+
+        }   // end isRedThree()
+
+
+    /**
+     * insert a card after any cards which sort before or equal to it - the
+     * same position a stable sort would leave it in
+     *
+     * @param newCard
+     *     the card to add
+     */
+    private void addInOrder( final CardBase newCard )
+        {
+
+        Objects.requireNonNull( newCard, "newCard" ) ;
+
+        final Comparator<CardBase> sortedOrder = getCardComparator() ;
+
+        // binary search for the first card which sorts after the new card
+        int low = 0 ;
+        int high = super.cards.size() ;
+
+        while ( low < high )
+            {
+            final int middle = ( low + high ) >>> 1 ;
+
+            if ( sortedOrder.compare( super.cards.get( middle ), newCard ) <= 0 )
+                {
+                low = middle + 1 ;
+                }
+            else
+                {
+                high = middle ;
+                }
+
+            }
+
+        super.addAtPosition( newCard, low ) ;
+
+        }   // end addInOrder()
+
+
     /**
      * (optional) test driver
      *
@@ -236,7 +617,50 @@ public final class Hand extends Pile
 
         System.out.println(hand.revealAll()) ;
 
+        // a failed removeCardsIf() leaves the hand, and its counts, unchanged
+        final Card firstCard = (Card) hand.getTopCard() ;
+        final String before = hand.revealAll().toString() ;
+
+        try
+            {
+            hand.removeCardsIf( aCard ->
+                {
+                if ( aCard != firstCard )
+                    {
+                    throw new IllegalStateException( "filter failed" ) ;
+                    }
+
+                return true ;
+                },
+                                new Pile()
+                                    { /* unrestricted */ } ) ;
+            }
+        catch ( final IllegalStateException e )
+            {
+            System.out.printf( "%nthrowing filter (%s): unchanged %b, %s count %d%n",
+                               e.getMessage(),
+                               before.equals( hand.revealAll().toString() ),
+                               firstCard.rank,
+                               hand.countRank( firstCard.rank ) ) ;
+            }
+
+        final Pile temporaryOnly = new Pile()
+            { /* accepts only temporary cards */ } ;
+        temporaryOnly.setAcceptablePersistence( Persistence.TEMPORARY ) ;
 
+        try
+            {
+            hand.removeCardsIf( aCard -> true, temporaryOnly ) ;
+            }
+        catch ( final IllegalArgumentException e )
+            {
+            System.out.printf( "rejecting target (%s): unchanged %b, %d card(s) moved, %s count %d%n",
+                               e.getMessage(),
+                               before.equals( hand.revealAll().toString() ),
+                               temporaryOnly.cardCount(),
+                               firstCard.rank,
+                               hand.countRank( firstCard.rank ) ) ;
+            }
 
         }	// end main()
 
@@ -30,12 +30,16 @@
 
 package edu.wit.scds.ds.lists.app.card_game.canasta.pile ;
 
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.ALL_RANKS ;
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_UP ;
 
 import java.util.ArrayList;
+import java.util.Arrays ;
+import java.util.Collection ;
 import java.util.List;
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardSet;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank;
 // import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck;
@@ -60,6 +64,17 @@ import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
  * @author Lynn Snow
  * 
  * @version 2.0 2025-12-01 canasta implementation
+ * @version 2.1 2026-10-18 add {@code isValidMeld()} to check a {@code CardSet}
+ *     without building a meld
+ * @version 2.2 2026-10-18 make {@code validateMeld()} public so a meld built
+ *     card by card can be checked (and benchmarked)
+ * @version 2.3 2026-10-18 maintain the natural and wild card counts as cards
+ *     are added and removed so every query is O(1); {@code isDirty()} now
+ *     reflects the cards; add {@code canExtendWith()}
+ * @version 2.4 2026-10-18 recount the natural and wild cards when a saved
+ *     version of the meld is restored - the meld always {@code tracksCards()}
+ * @version 2.5 2026-10-18 use {@code Rank.ALL_RANKS} rather than a private
+ *     copy of the ranks
  */
 public final class Meld extends Pile
     {
@@ -69,7 +84,30 @@ public final class Meld extends Pile
      */
     /** by default, cards added to a meld will be turned face up */
     private final static Orientation DEFAULT_CARD_ORIENTATION = FACE_UP ;
-    private boolean isDirty = false;
+
+    /** the most wild cards allowed in a meld */
+    public final static int MAXIMUM_WILD_CARDS = 3 ;
+
+    /** a meld with at least this many cards is a canasta */
+    public final static int CANASTA_SIZE = 7 ;
+
+
+    /*
+     * data fields - maintained as cards are added and removed
+     */
+
+
+    /** the number of natural (non-wild) cards of each rank, indexed by ordinal */
+    private final int[] naturalCounts = new int[ ALL_RANKS.size() ] ;
+
+    /** the number of ranks with at least one natural card */
+    private int naturalRanks ;
+
+    /** the number of natural cards */
+    private int naturalCount ;
+
+    /** the number of wild cards (2s and Jokers) */
+    private int wildCount ;
 
 
     /*
@@ -108,6 +146,40 @@ public final class Meld extends Pile
             }
         }   // end 1-arg constructor
 
+    /**
+     * determine whether a set of cards satisfies the same rules as
+     * {@code validateMeld()} - at most 3 wild cards (2s or Jokers) and the
+     * remaining (natural) cards all the same rank
+     * <p>
+     * works directly on the bitmasks so simulations can check candidate melds
+     * without building piles
+     *
+     * @param candidateCards
+     *     the cards to check
+     *
+     * @return true if the cards would form a valid meld, false otherwise
+     */
+    public static boolean isValidMeld( final CardSet candidateCards )
+        {
+
+        final int jokers = candidateCards.countRank( Rank.JOKER ) ;
+        final int twos = candidateCards.countRank( Rank.TWO ) ;
+
+        // cannot have more than 3 wild cards in a meld
+        if ( ( jokers + twos ) > MAXIMUM_WILD_CARDS )
+            {
+            return false ;
+            }
+
+        // all natural cards must be the same rank
+        final int naturalRanks = candidateCards.distinctRankCount()
+                                 - ( jokers > 0 ? 1 : 0 )
+                                 - ( twos > 0 ? 1 : 0 ) ;
+
+        return naturalRanks <= 1 ;
+
+        }   // end isValidMeld()
+
     /*
      * testing/debugging
      */
@@ -141,97 +213,201 @@ public final class Meld extends Pile
          System.out.println(meld.revealAll());
          System.out.println(myStock.revealAll());
 
+        // the maintained state
+        System.out.printf( "%nnatural rank: %s x %d, wild cards: %d, valid: %b, dirty: %b, canasta: %b%n",
+                           meld.getNaturalRank(),
+                           meld.getNaturalCount(),
+                           meld.countWildCards(),
+                           meld.validateMeld(),
+                           meld.isDirty(),
+                           meld.isCanasta() ) ;
+
+        for ( final Rank aRank : new Rank[] { Rank.JOKER, Rank.TWO, Rank.KING } )
+            {
+            System.out.printf( "can extend with %s: %b%n",
+                               aRank,
+                               meld.canExtendWith( new Card( aRank ) ) ) ;
+            }
+
         }	// end main()
 
-        /**
-         * Verifies the meld that the user creates by making sure they are all
-         * the same rank (allowing up to 3 wildcards: 2s or Jokers)
-         *
-         * @return true if valid meld, false otherwise
-         */
-        private boolean validateMeld()
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * Verifies the meld that the user creates by making sure they are all
+     * the same rank (allowing up to 3 wildcards: 2s or Jokers)
+     *
+     * @return true if valid meld, false otherwise
+     *
+     * @since 2.2 public
+     */
+    public boolean validateMeld()
+        {
+
+        return ( this.wildCount <= MAXIMUM_WILD_CARDS ) && ( this.naturalRanks <= 1 ) ;
+
+        }   // end validateMeld()
+
+
+    /**
+     * determine whether adding a card would leave this (valid) meld valid
+     *
+     * @param candidateCard
+     *     the card to add
+     *
+     * @return true if the meld is valid now and would still be valid with the
+     *     card added, false otherwise
+     *
+     * @since 2.3
+     */
+    public boolean canExtendWith( final Card candidateCard )
+        {
+
+        if ( !validateMeld() )
+            {
+            return false ;
+            }
+
+        if ( isWild( candidateCard ) )
+            {
+            return this.wildCount < MAXIMUM_WILD_CARDS ;
+            }
+
+        return ( this.naturalRanks == 0 ) || ( this.naturalCounts[ candidateCard.rank.ordinal() ] > 0 ) ;
+
+        }   // end canExtendWith() for one card
+
+
+    /**
+     * determine whether adding several cards would leave this (valid) meld
+     * valid
+     * <p>
+     * the cost depends only on the number of candidate cards, not the size of
+     * the meld
+     *
+     * @param candidateCards
+     *     the cards to add
+     *
+     * @return true if the meld is valid now and would still be valid with all
+     *     the cards added, false otherwise
+     *
+     * @since 2.3
+     */
+    public boolean canExtendWith( final Collection<Card> candidateCards )
         {
-        int wildCardCounter = 0;
-        Card previousCard = null;
-        Card constantCard = null;
 
-        for (CardBase base : this.cards)
+        if ( !validateMeld() )
             {
-            Card currentCard = (Card) base;
+            return false ;
+            }
+
+        Rank naturalRank = getNaturalRank() ;
+        int wilds = this.wildCount ;
 
-            // Wildcards: Jokers and Twos
-            if (currentCard.rank == Rank.JOKER || currentCard.rank == Rank.TWO)
+        for ( final Card aCard : candidateCards )
+            {
+
+            if ( isWild( aCard ) )
                 {
-                wildCardCounter++;
 
-                // cannot have more than 3 wild cards in a meld
-                if (wildCardCounter > 3)
+                if ( ++wilds > MAXIMUM_WILD_CARDS )
                     {
-                    return false;
+                    return false ;
                     }
 
-                previousCard = currentCard;
-                continue;
                 }
-
-            // First non-wild card seen
-            if (constantCard == null)
+            else if ( naturalRank == null )
                 {
-                constantCard = currentCard;
-                previousCard = currentCard;
-                continue;
+                naturalRank = aCard.rank ;
                 }
-
-            // If ranks mismatch, not a valid meld
-            if (currentCard.rank != constantCard.rank)
+            else if ( aCard.rank != naturalRank )
                 {
-                return false;
+                return false ;
                 }
 
-            previousCard = currentCard;
             }
 
-        return true;
-        }   // end validateMeld()
+        return true ;
 
+        }   // end canExtendWith() for several cards
 
 
     /**
-     * count wild cards (Joker or 2) in this meld
+     * retrieve the number of natural (non-wild) cards in this meld
      *
-     * @return number of wild cards
+     * @return the number of natural cards
+     *
+     * @since 2.3
      */
-    public int countWildCards()
-    {
+    public int getNaturalCount()
+        {
+
+        return this.naturalCount ;
+
+        }   // end getNaturalCount()
 
-    int count = 0;
 
-    for (CardBase cb : this.cards)
+    /**
+     * retrieve the rank of the natural cards in this meld
+     *
+     * @return the rank or {@code null} if the meld has no natural cards or
+     *     naturals of more than one rank
+     *
+     * @since 2.3
+     */
+    public Rank getNaturalRank()
         {
-        Card c = (Card) cb;
-        Rank r = c.rank;   // <-- use the field, not getRank()
 
-        if (r == Rank.JOKER || r == Rank.TWO)
+        if ( this.naturalRanks != 1 )
             {
-            count++;
+            return null ;
             }
-        }
 
-    return count;
+        for ( int ordinal = 0 ; ordinal < this.naturalCounts.length ; ordinal++ )
+            {
+
+            if ( this.naturalCounts[ ordinal ] > 0 )
+                {
+                return ALL_RANKS.get( ordinal ) ;
+                }
+
+            }
+
+        return null ;   // unreachable - naturalRanks is 1
+
+        }   // end getNaturalRank()
+
+
+
+    /**
+     * count wild cards (Joker or 2) in this meld
+     *
+     * @return number of wild cards
+     */
+    public int countWildCards()
+        {
+
+        return this.wildCount ;
+
+        }   // end countWildCards()
 
-    }
 
     /**
-     * Returns a boolean if a meld is dirty
+     * Returns a boolean if a meld is dirty - it contains at least one wild
+     * card
      *
      * @return boolean
      */
     public boolean isDirty()
         {
 
-        return this.isDirty;
+        return this.wildCount > 0 ;
 
-        }
+        }   // end isDirty()
 
  
 
@@ -266,8 +442,114 @@ public final class Meld extends Pile
     public boolean isCanasta()
         {
 
-        return this.cardCount() >= 7 ;
+        return this.cardCount() >= CANASTA_SIZE ;
 
         }   // end isCanasta()
 
+
+    /*
+     * protected utility methods
+     */
+
+
+    @Override
+    protected void allCardsRemoved()
+        {
+
+        super.allCardsRemoved() ;
+
+        Arrays.fill( this.naturalCounts, 0 ) ;
+        this.naturalRanks = 0 ;
+        this.naturalCount = 0 ;
+        this.wildCount = 0 ;
+
+        }   // end allCardsRemoved()
+
+
+    @Override
+    protected void cardAdded( final CardBase addedCard )
+        {
+
+        super.cardAdded( addedCard ) ;
+
+        final Card aCard = (Card) addedCard ;
+
+        if ( isWild( aCard ) )
+            {
+            this.wildCount++ ;
+            }
+        else
+            {
+
+            if ( this.naturalCounts[ aCard.rank.ordinal() ]++ == 0 )
+                {
+                this.naturalRanks++ ;
+                }
+
+            this.naturalCount++ ;
+            }
+
+        }   // end cardAdded()
+
+
+    @Override
+    protected void cardRemoved( final CardBase removedCard )
+        {
+
+        super.cardRemoved( removedCard ) ;
+
+        final Card aCard = (Card) removedCard ;
+
+        if ( isWild( aCard ) )
+            {
+            this.wildCount-- ;
+            }
+        else
+            {
+
+            if ( --this.naturalCounts[ aCard.rank.ordinal() ] == 0 )
+                {
+                this.naturalRanks-- ;
+                }
+
+            this.naturalCount-- ;
+            }
+
+        }   // end cardRemoved()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * the natural and wild card counts always depend on the cards, indexed or not
+     */
+    @Override
+    protected boolean tracksCards()
+        {
+
+        return true ;
+
+        }   // end tracksCards()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * determine whether a card is wild
+     *
+     * @param aCard
+     *     the card to check
+     *
+     * @return true if the card is a 2 or a Joker
+     */
+    private static boolean isWild( final Card aCard )
+        {
+
+        return ( aCard.rank == Rank.JOKER ) || ( aCard.rank == Rank.TWO ) ;
+
+        }   // end isWild()
+
     }	// end class Meld
\ No newline at end of file
@@ -101,6 +101,32 @@ import java.util.Objects ;
  *     {@code true}/{@code false} to an {@code enum} to support more
  *     combinations of comparison including disabling them
  * @version 8.1 2025-11-19 add support for template cards
+ * @version 8.2 2026-10-18 add {@code getFaceIndex()} to support indexing cards
+ *     by rank and suit
+ * @version 8.3 2026-10-18 add {@code getComparisonKey()} to support sorting
+ *     without pairwise comparisons
+ * @version 9.0 2026-10-18
+ *     <ul>
+ *     <li>delegate all comparisons to a {@code CardOrdering} - the default
+ *     ordering replaces the {@code compareOnAttributes} setting and can be
+ *     replaced as a whole
+ *     <li>replace {@code getComparisonKey()} with
+ *     {@code CardOrdering.keyOf()}
+ *     </ul>
+ * @version 9.1 2026-10-18 add a constructor for {@code CardFactory} which
+ *     doesn't depend on {@code CardBase}'s static defaults
+ * @version 9.2 2026-10-18 look up each card's face up text in a precomputed
+ *     table rather than formatting it for every card
+ * @version 9.3 2026-10-18 cards created by a {@code CardFactory} share its
+ *     interned {@code CardText}
+ * @version 9.4 2026-10-18
+ *     <ul>
+ *     <li>{@code equals()} and {@code hashCode()} depend only on the rank and
+ *     suit, so a card's hash code never changes
+ *     <li>deprecate {@code setCompareOnAttributes()} and
+ *     {@code setDefaultOrdering()} - piles and games should use their own
+ *     {@code CardOrdering}
+ *     </ul>
  */
 public final class Card extends CardBase
     {
@@ -136,15 +162,47 @@ public final class Card extends CardBase
         }   // end enum CompareOn
 
 
+    /** number of suits, including the placeholder suit */
+    private final static int SUIT_COUNT = Suit.values().length ;
+
+    /**
+     * number of distinct face indices - every combination of rank and suit,
+     * including the placeholder suit
+     *
+     * @see #getFaceIndex()
+     */
+    public final static int FACE_INDEX_COUNT = Rank.values().length * SUIT_COUNT ;
+
+    /** face up text for each card face, indexed by face index */
+    private final static String[] FACE_UP_TEXTS = new String[ FACE_INDEX_COUNT ] ;
+    static
+        {
+
+        // format each face once rather than once per card
+        for ( final Rank aRank : Rank.values() )
+            {
+
+            for ( final Suit aSuit : Suit.values() )
+                {
+                FACE_UP_TEXTS[ ( aRank.ordinal() * SUIT_COUNT ) + aSuit.ordinal() ] =
+                        String.format( "%s%s", aRank, aSuit ) ;
+                }
+
+            }
+
+        }   // end static initializer
+
+
     /*
      * static data
      */
 
 
     /**
-     * controls the selection of attributes to use in {@code Card} comparisons
+     * controls comparisons between {@code Card}s - piles and games may use
+     * their own {@code CardOrdering} instead
      */
-    private static CompareOn compareOnAttributes = CompareOn.COMPARE_SUIT_AND_RANK ;
+    private static volatile CardOrdering defaultOrdering = CardOrdering.STANDARD ;
 
 
     /*
@@ -196,11 +254,37 @@ public final class Card extends CardBase
         this.suit = theSuit ;
         this.rank = theRank ;
 
-        super.setFaceUpText( String.format( "%s%s", this.rank, this.suit ) ) ;
+        super.setFaceUpText( faceUpTextFor( this.rank, this.suit ) ) ;
 
         }   // end 2-arg constructor
 
 
+    /**
+     * Initialize a card with a specified suit and rank using the settings
+     * carried by a factory rather than the static defaults
+     *
+     * @param theRank
+     *     this card's rank
+     * @param theSuit
+     *     this card's suit
+     * @param factory
+     *     supplies the orientation, persistence, face down text, and decoration
+     *
+     * @since 9.1
+     */
+    Card( final Rank theRank,
+          final Suit theSuit,
+          final CardFactory factory )
+        {
+
+        super( factory.textFor( theRank, theSuit ), factory.getOrientation(), factory.getPersistence() ) ;
+
+        this.suit = theSuit ;
+        this.rank = theRank ;
+
+        }   // end 3-arg factory constructor
+
+
     /**
      * create a temporary clone of a card, typically for searching
      *
@@ -250,11 +334,26 @@ public final class Card extends CardBase
     public static CompareOn getCompareOnAttributes()
         {
 
-        return Card.compareOnAttributes ;
+        return Card.defaultOrdering.getCompareOn() ;
 
         }  // end getCompareOnAttributes()
 
 
+    /**
+     * Retrieves the ordering used by {@code compareTo()} and {@code matches()}
+     *
+     * @return the default ordering
+     *
+     * @since 9.0
+     */
+    public static CardOrdering getDefaultOrdering()
+        {
+
+        return Card.defaultOrdering ;
+
+        }  // end getDefaultOrdering()
+
+
     /**
      * Sets the behavior of {@code Card} comparisons
      *
@@ -262,21 +361,80 @@ public final class Card extends CardBase
      *     the new evaluation behavior wrt card comparisons
      *
      * @return the previous state
+     *
+     * @deprecated this changes comparisons for every pile and game in the
+     *     program - configure the pile or game with its own
+     *     {@code CardOrdering}, such as
+     *     {@code CardOrdering.of( COMPARE_RANK_ONLY, true, true )}, instead
      */
+    @Deprecated
     public static CompareOn setCompareOnAttributes( final CompareOn newCompareOnAttributes )
         {
 
         Objects.requireNonNull( newCompareOnAttributes, "newCompareRankSuit" ) ;
 
-        final CompareOn wasCompareOnAttributes = Card.compareOnAttributes ;
+        final CompareOn wasCompareOnAttributes = getCompareOnAttributes() ;
 
-        Card.compareOnAttributes = newCompareOnAttributes ;
+        Card.defaultOrdering = Card.defaultOrdering.withCompareOn( newCompareOnAttributes ) ;
 
         return wasCompareOnAttributes ;
 
         }  // end setCompareOnAttributes()
 
 
+    /**
+     * Sets the ordering used by {@code compareTo()} and {@code matches()}
+     * <p>
+     * this affects every pile and game which isn't configured with its own
+     * ordering
+     *
+     * @param newDefaultOrdering
+     *     the new ordering
+     *
+     * @return the previous ordering
+     *
+     * @since 9.0
+     *
+     * @deprecated this changes comparisons for every pile and game in the
+     *     program - configure the pile or game with its own
+     *     {@code CardOrdering} instead
+     */
+    @Deprecated
+    public static CardOrdering setDefaultOrdering( final CardOrdering newDefaultOrdering )
+        {
+
+        Objects.requireNonNull( newDefaultOrdering, "newDefaultOrdering" ) ;
+
+        final CardOrdering wasDefaultOrdering = Card.defaultOrdering ;
+
+        Card.defaultOrdering = newDefaultOrdering ;
+
+        return wasDefaultOrdering ;
+
+        }  // end setDefaultOrdering()
+
+
+    /*
+     * accessors
+     */
+
+
+    /**
+     * determine a compact identifier for this card's face - two cards have the
+     * same face index if and only if they have the same rank and suit
+     *
+     * @return a value from 0 to {@code FACE_INDEX_COUNT - 1}
+     *
+     * @since 8.2
+     */
+    public int getFaceIndex()
+        {
+
+        return faceIndexOf( this.rank, this.suit ) ;
+
+        }   // end getFaceIndex()
+
+
     /*
      * methods to affect face up/down state and display of an instance
      */
@@ -345,34 +503,16 @@ public final class Card extends CardBase
     public int compareTo( final CardBase otherCard )
         {
 
-        // make sure comparisons are permitted
-        if ( Card.compareOnNone() )
+        // if other card is a standard playing card, the ordering decides
+        if ( otherCard instanceof final Card otherStandardCard )
             {
-            throw new UnsupportedOperationException( "comparisons are disabled" ) ;
+            return Card.defaultOrdering.compare( this, otherStandardCard ) ;
             }
 
-        // if other card is a standard playing card
-        // compare rank then suit as enabled/disabled
-
-        if ( otherCard instanceof final Card otherStandardCard )
+        // make sure comparisons are permitted
+        if ( compareOnNone() )
             {
-            // other card is one of ours
-
-            int cardComparison = 0 ;    // value will be (re)set by either of
-                                        // both of the tests
-
-            if ( compareOnRank() )
-                {
-                cardComparison = this.rank.getAltOrder() - otherStandardCard.rank.getAltOrder() ;
-                }
-
-            // check suit, if necessary
-            if ( ( cardComparison == 0 ) && compareOnSuit() )
-                {
-                cardComparison = this.suit.getAltPriority() - otherStandardCard.suit.getAltPriority() ;
-                }
-
-            return cardComparison ;
+            throw new UnsupportedOperationException( "comparisons are disabled" ) ;
             }
 
         // other card is not one of ours or is null (will cause
@@ -385,16 +525,17 @@ public final class Card extends CardBase
         }   // end compareTo()
 
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * cards are equal if they have the same rank and suit, whatever the
+     * default ordering - use {@link #matches(CardBase)} or a
+     * {@code CardOrdering} to compare cards by a game's rules
+     */
     @Override
     public boolean equals( final Object otherObject )
         {
 
-        // make sure comparisons are permitted
-        if ( Card.compareOnNone() )
-            {
-            throw new UnsupportedOperationException( "comparisons are disabled" ) ;
-            }
-
         // same object?
         if ( this == otherObject )
             {
@@ -404,7 +545,7 @@ public final class Card extends CardBase
         // another StandardCard? false if otherObject is null
         if ( otherObject instanceof final Card otherCard )
             {
-            return compareTo( otherCard ) == 0 ;
+            return ( this.rank == otherCard.rank ) && ( this.suit == otherCard.suit ) ;
             }
 
         // not one of ours so can't match
@@ -417,18 +558,8 @@ public final class Card extends CardBase
     public int hashCode()
         {
 
-        // make sure comparisons are permitted
-        if ( Card.compareOnNone() )
-            {
-            throw new UnsupportedOperationException( "comparisons are disabled" ) ;
-            }
-
-        return Objects.hash( compareOnSuit()
-                                 ? this.suit
-                                 : 0,
-                             compareOnRank()
-                                 ? this.rank
-                                 : 0 ) ;
+        // consistent with equals() - unique for each rank and suit
+        return getFaceIndex() ;
 
         }   // end hashCode()
 
@@ -436,7 +567,7 @@ public final class Card extends CardBase
     /**
      * {@inheritDoc}
      * <p>
-     * prevents comparison if disabled
+     * compares using the default ordering; prevents comparison if disabled
      */
     @Override
     public boolean matches( final CardBase otherBaseCard )
@@ -448,61 +579,78 @@ public final class Card extends CardBase
             throw new UnsupportedOperationException( "comparisons are disabled" ) ;
             }
 
-        // delegate to equals()
-        return this.equals( otherBaseCard ) ;
+        // not one of ours (or null) so can't match
+        return ( otherBaseCard instanceof final Card otherCard ) &&
+               Card.defaultOrdering.matches( this, otherCard ) ;
 
         }   // end matches()
 
 
     /*
-     * private utility methods
+     * package utility methods
      */
 
 
     /**
-     * convenience method to determine if comparisons of cards is disabled
+     * determine the face index for a rank and suit
      *
-     * @return {@code true} if comparisons should not be done, {@code false}
-     *     otherwise
+     * @param theRank
+     *     the card's rank
+     * @param theSuit
+     *     the card's suit
+     *
+     * @return the face index
+     *
+     * @see #getFaceIndex()
      */
-    private static boolean compareOnNone()
+    static int faceIndexOf( final Rank theRank,
+                            final Suit theSuit )
         {
 
-        return Card.compareOnAttributes == CompareOn.COMPARE_NONE ;
+        Objects.requireNonNull( theSuit, "theSuit" ) ;
+        Objects.requireNonNull( theRank, "theRank" ) ;
+
+        return ( theRank.ordinal() * SUIT_COUNT ) + theSuit.ordinal() ;
 
-        }   // end compareOnNone()
+        }   // end faceIndexOf()
 
 
     /**
-     * convenience method to determine if rank should be considered when
-     * comparing two cards
+     * determine the text to display when a card is face up
      *
-     * @return {@code true} if comparisons should consider rank, {@code false}
-     *     otherwise
+     * @param theRank
+     *     the card's rank
+     * @param theSuit
+     *     the card's suit
+     *
+     * @return the face up text
      */
-    private static boolean compareOnRank()
+    static String faceUpTextFor( final Rank theRank,
+                                 final Suit theSuit )
         {
 
-        return ( Card.compareOnAttributes == CompareOn.COMPARE_RANK_ONLY )
-               || ( Card.compareOnAttributes == CompareOn.COMPARE_SUIT_AND_RANK ) ;
+        return FACE_UP_TEXTS[ faceIndexOf( theRank, theSuit ) ] ;
+
+        }   // end faceUpTextFor()
 
-        }   // end compareOnRank()
+
+    /*
+     * private utility methods
+     */
 
 
     /**
-     * convenience method to determine if suit should be considered when
-     * comparing two cards
+     * convenience method to determine if comparisons of cards is disabled
      *
-     * @return {@code true} if comparisons should consider suit, {@code false}
+     * @return {@code true} if comparisons should not be done, {@code false}
      *     otherwise
      */
-    private static boolean compareOnSuit()
+    private static boolean compareOnNone()
         {
 
-        return ( Card.compareOnAttributes == CompareOn.COMPARE_SUIT_ONLY )
-               || ( Card.compareOnAttributes == CompareOn.COMPARE_SUIT_AND_RANK ) ;
+        return getCompareOnAttributes() == CompareOn.COMPARE_NONE ;
 
-        }   // end compareOnSuit()
+        }   // end compareOnNone()
 
 
     /*
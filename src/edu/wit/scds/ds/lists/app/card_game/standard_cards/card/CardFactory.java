@@ -0,0 +1,557 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.standard_cards.card ;
+
+import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_DOWN ;
+import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_UP ;
+
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardText ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence ;
+
+import java.util.Arrays ;
+import java.util.Objects ;
+
+
+/**
+ * Creates {@code Card}s with an explicit set of attributes - orientation,
+ * persistence, face down text, and decoration
+ * <p>
+ * {@code CardBase}'s static defaults are read once, when a factory is
+ * instantiated via {@link #defaults()} or {@link #of(Orientation, Persistence)},
+ * and never written. Factories are immutable so a single instance may be
+ * shared by any number of threads, and threads using different factories can
+ * create cards concurrently without interfering with each other.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18
+ *     <ul>
+ *     <li>cards share the factory's interned {@code CardText} for their face
+ *     <li>{@code of()} reuses the most recent factory for an orientation and
+ *     persistence while the defaults it captured are unchanged
+ *     </ul>
+ */
+public final class CardFactory
+    {
+
+    /*
+     * static fields
+     */
+
+
+    /**
+     * the most recent factory returned by {@code of()} for each orientation
+     * and persistence - races are benign since factories are immutable and
+     * an equivalent factory may be created more than once
+     */
+    private final static CardFactory[] recentFactories =
+            new CardFactory[ Orientation.values().length * Persistence.values().length ] ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** orientation of each new card */
+    private final Orientation orientation ;
+
+    /** persistence of each new card */
+    private final Persistence persistence ;
+
+    /** text to display when a new card is face down */
+    private final String faceDownText ;
+
+    /**
+     * decoration for each new card where [0] is applied immediately before the
+     * face text and [1] immediately following
+     */
+    private final String[] decoration ;
+
+    /**
+     * the shared text for each card face, indexed by face index - filled in as
+     * needed; races are benign since the text is interned and immutable
+     */
+    private final CardText[] texts ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * configure the factory
+     *
+     * @param cardOrientation
+     *     orientation of each new card
+     * @param cardPersistence
+     *     persistence of each new card
+     * @param cardFaceDownText
+     *     text to display when a new card is face down
+     * @param cardDecoration
+     *     decoration for each new card - the caller must not retain a
+     *     reference to it
+     */
+    private CardFactory( final Orientation cardOrientation,
+                         final Persistence cardPersistence,
+                         final String cardFaceDownText,
+                         final String[] cardDecoration )
+        {
+
+        this.orientation = cardOrientation ;
+        this.persistence = cardPersistence ;
+        this.faceDownText = cardFaceDownText ;
+        this.decoration = cardDecoration ;
+        this.texts = new CardText[ Card.FACE_INDEX_COUNT ] ;
+
+        }   // end constructor
+
+
+    /*
+     * factories
+     */
+
+
+    /**
+     * retrieve a factory configured with a snapshot of {@code CardBase}'s
+     * current defaults
+     *
+     * @return the factory
+     */
+    public static CardFactory defaults()
+        {
+
+        return of( CardBase.getDefaultOrientation(), CardBase.getDefaultPersistence() ) ;
+
+        }   // end defaults()
+
+
+    /**
+     * retrieve a factory for cards with the specified orientation and
+     * persistence, the current default face down text, and the current
+     * default decoration for the persistence
+     *
+     * @param cardOrientation
+     *     {@code FACE_UP} or {@code FACE_DOWN}
+     * @param cardPersistence
+     *     {@code PERMANENT}, {@code TEMPLATE}, or {@code TEMPORARY}
+     *
+     * @return the factory
+     *
+     * @throws IllegalArgumentException
+     *     if the orientation or persistence isn't acceptable for a card
+     */
+    public static CardFactory of( final Orientation cardOrientation,
+                                  final Persistence cardPersistence )
+        {
+
+        validateOrientation( cardOrientation ) ;
+
+        final String faceDownText = CardBase.getDefaultFaceDownText() ;
+        final String[] decoration = defaultDecorationFor( cardPersistence ) ;
+
+        // reuse the previous factory (and its text) if nothing has changed
+        final int slot = ( cardOrientation.ordinal() * Persistence.values().length ) + cardPersistence.ordinal() ;
+        final CardFactory recentFactory = recentFactories[ slot ] ;
+
+        if ( ( recentFactory != null ) && recentFactory.faceDownText.equals( faceDownText ) &&
+             Arrays.equals( recentFactory.decoration, decoration ) )
+            {
+            return recentFactory ;
+            }
+
+        final CardFactory newFactory = new CardFactory( cardOrientation, cardPersistence, faceDownText, decoration ) ;
+        recentFactories[ slot ] = newFactory ;
+
+        return newFactory ;
+
+        }   // end of()
+
+
+    /**
+     * retrieve a factory which differs from this one only in decoration
+     *
+     * @param newDecoration
+     *     2-element array where [0] is applied immediately before the face text
+     *     and [1] immediately following
+     *
+     * @return the factory
+     *
+     * @throws IllegalArgumentException
+     *     if the array doesn't have exactly 2 elements
+     */
+    public CardFactory withDecoration( final String[] newDecoration )
+        {
+
+        // the array must be non-null, length 2, and contain non-null references
+        Objects.requireNonNull( newDecoration, "newDecoration" ) ;
+
+        if ( newDecoration.length != 2 )
+            {
+            throw new IllegalArgumentException( String.format( "withDecoration() requires a 2-element array, argument array has %,d element(s)",
+                                                               newDecoration.length ) ) ;
+            }
+
+        Objects.requireNonNull( newDecoration[ 0 ], "newDecoration[ 0 ]" ) ;
+        Objects.requireNonNull( newDecoration[ 1 ], "newDecoration[ 1 ]" ) ;
+
+        // make a copy of the array for safety
+        return new CardFactory( this.orientation,
+                                this.persistence,
+                                this.faceDownText,
+                                Arrays.copyOf( newDecoration, newDecoration.length ) ) ;
+
+        }   // end withDecoration()
+
+
+    /**
+     * retrieve a factory which differs from this one only in face down text
+     *
+     * @param newFaceDownText
+     *     text to display when a new card is face down
+     *
+     * @return the factory
+     */
+    public CardFactory withFaceDownText( final String newFaceDownText )
+        {
+
+        Objects.requireNonNull( newFaceDownText, "newFaceDownText" ) ;
+
+        return new CardFactory( this.orientation, this.persistence, newFaceDownText, this.decoration ) ;
+
+        }   // end withFaceDownText()
+
+
+    /**
+     * retrieve a factory which differs from this one only in orientation
+     *
+     * @param newOrientation
+     *     {@code FACE_UP} or {@code FACE_DOWN}
+     *
+     * @return the factory
+     *
+     * @throws IllegalArgumentException
+     *     if the orientation isn't acceptable for a card
+     */
+    public CardFactory withOrientation( final Orientation newOrientation )
+        {
+
+        return new CardFactory( validateOrientation( newOrientation ),
+                                this.persistence,
+                                this.faceDownText,
+                                this.decoration ) ;
+
+        }   // end withOrientation()
+
+
+    /**
+     * retrieve a factory which differs from this one in persistence
+     * <p>
+     * Note: the decoration is reset to the current default for the new
+     * persistence - use {@link #withDecoration(String[])} afterward to
+     * override it
+     *
+     * @param newPersistence
+     *     {@code PERMANENT}, {@code TEMPLATE}, or {@code TEMPORARY}
+     *
+     * @return the factory
+     *
+     * @throws IllegalArgumentException
+     *     if the persistence isn't acceptable for a card
+     */
+    public CardFactory withPersistence( final Persistence newPersistence )
+        {
+
+        return new CardFactory( this.orientation,
+                                newPersistence,
+                                this.faceDownText,
+                                defaultDecorationFor( newPersistence ) ) ;
+
+        }   // end withPersistence()
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * create a card with no suit (e.g., a joker)
+     *
+     * @param theRank
+     *     the card's rank
+     *
+     * @return the new card
+     */
+    public Card createCard( final Rank theRank )
+        {
+
+        return createCard( theRank, Suit.NA ) ;
+
+        }   // end createCard()
+
+
+    /**
+     * create a card with a specified rank and suit
+     *
+     * @param theRank
+     *     the card's rank
+     * @param theSuit
+     *     the card's suit
+     *
+     * @return the new card
+     */
+    public Card createCard( final Rank theRank,
+                            final Suit theSuit )
+        {
+
+        return new Card( theRank, theSuit, this ) ;
+
+        }   // end createCard()
+
+
+    /**
+     * create a card with the same rank and suit as an existing card but this
+     * factory's attributes
+     *
+     * @param sourceCard
+     *     the card to copy
+     *
+     * @return the new card
+     */
+    public Card copyOf( final Card sourceCard )
+        {
+
+        Objects.requireNonNull( sourceCard, "sourceCard" ) ;
+
+        return new Card( sourceCard.rank, sourceCard.suit, this ) ;
+
+        }   // end copyOf()
+
+
+    /**
+     * retrieve the decoration applied to new cards
+     *
+     * @return 2-element array where [0] is the left decoration and [1] is the
+     *     right
+     */
+    public String[] getDecoration()
+        {
+
+        return Arrays.copyOf( this.decoration, this.decoration.length ) ;
+
+        }   // end getDecoration()
+
+
+    /**
+     * retrieve the text displayed when a new card is face down
+     *
+     * @return the face down text
+     */
+    public String getFaceDownText()
+        {
+
+        return this.faceDownText ;
+
+        }   // end getFaceDownText()
+
+
+    /**
+     * retrieve the orientation of new cards
+     *
+     * @return the orientation
+     */
+    public Orientation getOrientation()
+        {
+
+        return this.orientation ;
+
+        }   // end getOrientation()
+
+
+    /**
+     * retrieve the persistence of new cards
+     *
+     * @return the persistence
+     */
+    public Persistence getPersistence()
+        {
+
+        return this.persistence ;
+
+        }   // end getPersistence()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "%s[%s, %s, \"%s\", %s]",
+                              this.getClass().getSimpleName(),
+                              this.orientation,
+                              this.persistence,
+                              this.faceDownText,
+                              Arrays.toString( this.decoration ) ) ;
+
+        }   // end toString()
+
+
+    /*
+     * package methods
+     */
+
+
+    /**
+     * retrieve the shared text for cards with a specified rank and suit
+     *
+     * @param theRank
+     *     the card's rank
+     * @param theSuit
+     *     the card's suit
+     *
+     * @return the interned text
+     */
+    CardText textFor( final Rank theRank,
+                      final Suit theSuit )
+        {
+
+        final int faceIndex = Card.faceIndexOf( theRank, theSuit ) ;
+        CardText text = this.texts[ faceIndex ] ;
+
+        if ( text == null )
+            {
+            text = CardText.of( Card.faceUpTextFor( theRank, theSuit ), this.faceDownText, this.decoration ) ;
+            this.texts[ faceIndex ] = text ;
+            }
+
+        return text ;
+
+        }   // end textFor()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * retrieve the current default decoration for a persistence
+     *
+     * @param cardPersistence
+     *     the persistence
+     *
+     * @return a private copy of the decoration
+     *
+     * @throws IllegalArgumentException
+     *     if the persistence isn't acceptable for a card
+     */
+    private static String[] defaultDecorationFor( final Persistence cardPersistence )
+        {
+
+        Objects.requireNonNull( cardPersistence, "cardPersistence" ) ;
+
+        return switch ( cardPersistence )
+            {
+            case PERMANENT -> CardBase.getPermanentDecoration() ;
+            case TEMPLATE -> CardBase.getTemplateDecoration() ;
+            case TEMPORARY -> CardBase.getTemporaryDecoration() ;
+            default -> throw new IllegalArgumentException( String.format( "%s is not an acceptable persistence for a card",
+                                                                          cardPersistence ) ) ;
+            } ;
+
+        }   // end defaultDecorationFor()
+
+
+    /**
+     * ensure an orientation is acceptable for a card
+     *
+     * @param cardOrientation
+     *     the orientation to check
+     *
+     * @return the orientation
+     *
+     * @throws IllegalArgumentException
+     *     if the orientation is other than {@code FACE_UP} or
+     *     {@code FACE_DOWN}
+     */
+    private static Orientation validateOrientation( final Orientation cardOrientation )
+        {
+
+        Objects.requireNonNull( cardOrientation, "cardOrientation" ) ;
+
+        if ( ( cardOrientation != FACE_UP ) && ( cardOrientation != FACE_DOWN ) )
+            {
+            throw new IllegalArgumentException( String.format( "%s is not acceptable for a card",
+                                                               cardOrientation.name() ) ) ;
+            }
+
+        return cardOrientation ;
+
+        }   // end validateOrientation()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( final String[] args )
+        {
+
+        final CardFactory faceUpPermanent = CardFactory.of( FACE_UP, Persistence.PERMANENT ) ;
+        final CardFactory faceDownTemplate = faceUpPermanent.withOrientation( FACE_DOWN )
+                                                            .withPersistence( Persistence.TEMPLATE ) ;
+        final CardFactory bracketed = faceUpPermanent.withDecoration( new String[] { "[", "]" } ) ;
+
+        for ( final CardFactory aFactory : new CardFactory[] { faceUpPermanent, faceDownTemplate, bracketed } )
+            {
+            System.out.printf( "%s: %s %s%n",
+                               aFactory,
+                               aFactory.createCard( Rank.ACE, Suit.SPADES ),
+                               aFactory.createCard( Rank.JOKER ) ) ;
+            }
+
+        // the static defaults are untouched
+        System.out.printf( "%ndefaults: %s%n", CardFactory.defaults() ) ;
+
+        }   // end main()
+
+    }   // end class CardFactory
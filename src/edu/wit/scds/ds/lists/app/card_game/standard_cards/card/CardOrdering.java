@@ -0,0 +1,453 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.standard_cards.card ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+
+import java.util.Comparator ;
+import java.util.Objects ;
+
+
+/**
+ * An immutable set of rules for comparing {@code Card}s: which attributes are
+ * considered and whether ranks and suits use their regular or alternate
+ * order/priority
+ * <p>
+ * each rule set precomputes an {@code int} key for every card face so
+ * comparing two cards is a single subtraction and doesn't depend on any
+ * global settings. Games and piles can each be configured with their own
+ * ordering so several games with different rules can run in the same JVM.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class CardOrdering implements Comparator<Card>
+    {
+
+    /*
+     * constants
+     */
+
+
+    /**
+     * the ordering {@code Card} has always used - rank (alternate order: Ace
+     * high) then suit (alternate priority: Spades high)
+     */
+    public final static CardOrdering STANDARD = new CardOrdering( CompareOn.COMPARE_SUIT_AND_RANK, true, true ) ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** which attributes are considered */
+    private final CompareOn compareOn ;
+
+    /** use each rank's alternate order rather than its regular order */
+    private final boolean useAltRankOrder ;
+
+    /** use each suit's alternate priority rather than its regular priority */
+    private final boolean useAltSuitPriority ;
+
+    /** comparison key for each card face, indexed by {@code Card.getFaceIndex()} */
+    private final int[] keys ;
+
+    /** all keys are less than this */
+    private final int keyCount ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * precompute the keys for a set of rules
+     *
+     * @param theCompareOn
+     *     which attributes are considered
+     * @param altRankOrder
+     *     {@code true} to use each rank's alternate order
+     * @param altSuitPriority
+     *     {@code true} to use each suit's alternate priority
+     */
+    private CardOrdering( final CompareOn theCompareOn,
+                          final boolean altRankOrder,
+                          final boolean altSuitPriority )
+        {
+
+        this.compareOn = theCompareOn ;
+        this.useAltRankOrder = altRankOrder ;
+        this.useAltSuitPriority = altSuitPriority ;
+
+        final boolean compareRank = ( theCompareOn == CompareOn.COMPARE_RANK_ONLY )
+                                    || ( theCompareOn == CompareOn.COMPARE_SUIT_AND_RANK ) ;
+        final boolean compareSuit = ( theCompareOn == CompareOn.COMPARE_SUIT_ONLY )
+                                    || ( theCompareOn == CompareOn.COMPARE_SUIT_AND_RANK ) ;
+
+        final Rank[] ranks = Rank.values() ;
+        final Suit[] suits = Suit.values() ;
+
+        // suit values occupy the low part of each key
+        int suitSpan = 1 ;
+
+        for ( final Suit aSuit : suits )
+            {
+            suitSpan = Math.max( suitSpan, suitValue( aSuit ) + 1 ) ;
+            }
+
+        int rankSpan = 1 ;
+
+        for ( final Rank aRank : ranks )
+            {
+            rankSpan = Math.max( rankSpan, rankValue( aRank ) + 1 ) ;
+            }
+
+        // same size as Card.FACE_INDEX_COUNT - computed here so initializing
+        // this class never depends on initializing Card
+        this.keys = new int[ ranks.length * suits.length ] ;
+
+        for ( final Rank aRank : ranks )
+            {
+
+            for ( final Suit aSuit : suits )
+                {
+                final int rankPart = compareRank
+                        ? rankValue( aRank )
+                        : 0 ;
+                final int suitPart = compareSuit
+                        ? suitValue( aSuit )
+                        : 0 ;
+
+                this.keys[ ( aRank.ordinal() * suits.length ) + aSuit.ordinal() ] = ( rankPart * suitSpan ) +
+                                                                                    suitPart ;
+                }
+
+            }
+
+        this.keyCount = rankSpan * suitSpan ;
+
+        }   // end 3-arg constructor
+
+
+    /*
+     * factories
+     */
+
+
+    /**
+     * retrieve an ordering for a set of rules
+     *
+     * @param theCompareOn
+     *     which attributes are considered
+     * @param altRankOrder
+     *     {@code true} to use each rank's alternate order (Ace high),
+     *     {@code false} to use the regular order (Ace low)
+     * @param altSuitPriority
+     *     {@code true} to use each suit's alternate priority (Spades high),
+     *     {@code false} to use the regular priority (Clubs high)
+     *
+     * @return the ordering
+     */
+    public static CardOrdering of( final CompareOn theCompareOn,
+                                   final boolean altRankOrder,
+                                   final boolean altSuitPriority )
+        {
+
+        Objects.requireNonNull( theCompareOn, "theCompareOn" ) ;
+
+        if ( ( theCompareOn == STANDARD.compareOn ) && ( altRankOrder == STANDARD.useAltRankOrder ) &&
+             ( altSuitPriority == STANDARD.useAltSuitPriority ) )
+            {
+            return STANDARD ;
+            }
+
+        return new CardOrdering( theCompareOn, altRankOrder, altSuitPriority ) ;
+
+        }   // end of()
+
+
+    /**
+     * retrieve an ordering with the same rank and suit rules as this one but
+     * considering different attributes
+     *
+     * @param newCompareOn
+     *     which attributes are considered
+     *
+     * @return the ordering
+     */
+    public CardOrdering withCompareOn( final CompareOn newCompareOn )
+        {
+
+        Objects.requireNonNull( newCompareOn, "newCompareOn" ) ;
+
+        return newCompareOn == this.compareOn
+                ? this
+                : of( newCompareOn, this.useAltRankOrder, this.useAltSuitPriority ) ;
+
+        }   // end withCompareOn()
+
+
+    /*
+     * accessors
+     */
+
+
+    /**
+     * retrieve which attributes are considered
+     *
+     * @return the setting
+     */
+    public CompareOn getCompareOn()
+        {
+
+        return this.compareOn ;
+
+        }   // end getCompareOn()
+
+
+    /**
+     * determine whether ranks are compared using their alternate order
+     *
+     * @return {@code true} if alternate order (Ace high), {@code false} if
+     *     regular order
+     */
+    public boolean isUsingAltRankOrder()
+        {
+
+        return this.useAltRankOrder ;
+
+        }   // end isUsingAltRankOrder()
+
+
+    /**
+     * determine whether suits are compared using their alternate priority
+     *
+     * @return {@code true} if alternate priority, {@code false} if regular
+     *     priority
+     */
+    public boolean isUsingAltSuitPriority()
+        {
+
+        return this.useAltSuitPriority ;
+
+        }   // end isUsingAltSuitPriority()
+
+
+    /**
+     * the number of distinct keys
+     *
+     * @return all keys are from 0 to one less than this
+     */
+    public int keyCount()
+        {
+
+        return this.keyCount ;
+
+        }   // end keyCount()
+
+
+    /*
+     * comparisons
+     */
+
+
+    @Override
+    public int compare( final Card card1,
+                        final Card card2 )
+        {
+
+        return keyOf( card1 ) - keyOf( card2 ) ;
+
+        }   // end compare()
+
+
+    /**
+     * compute a hash code for a card consistent with {@link #matches(Card, Card)}
+     *
+     * @param aCard
+     *     the card
+     *
+     * @return the hash code
+     *
+     * @throws UnsupportedOperationException
+     *     if comparisons are disabled
+     */
+    public int hashOf( final Card aCard )
+        {
+
+        return keyOf( aCard ) ;
+
+        }   // end hashOf()
+
+
+    /**
+     * determine a key which orders cards under this ordering - for any two
+     * cards, the keys compare the same way the cards do and are equal exactly
+     * when the cards match
+     *
+     * @param aCard
+     *     the card
+     *
+     * @return a value from 0 to {@code keyCount() - 1}
+     *
+     * @throws UnsupportedOperationException
+     *     if comparisons are disabled
+     */
+    public int keyOf( final Card aCard )
+        {
+
+        if ( this.compareOn == CompareOn.COMPARE_NONE )
+            {
+            throw new UnsupportedOperationException( "comparisons are disabled" ) ;
+            }
+
+        return this.keys[ aCard.getFaceIndex() ] ;
+
+        }   // end keyOf()
+
+
+    /**
+     * determine whether two cards are equivalent under this ordering
+     *
+     * @param card1
+     *     one card
+     * @param card2
+     *     the other card
+     *
+     * @return {@code true} if the cards match, {@code false} otherwise
+     *
+     * @throws UnsupportedOperationException
+     *     if comparisons are disabled
+     */
+    public boolean matches( final Card card1,
+                            final Card card2 )
+        {
+
+        return keyOf( card1 ) == keyOf( card2 ) ;
+
+        }   // end matches()
+
+
+    /*
+     * general methods
+     */
+
+
+    @Override
+    public boolean equals( final Object otherObject )
+        {
+
+        if ( this == otherObject )
+            {
+            return true ;
+            }
+
+        if ( otherObject instanceof final CardOrdering otherOrdering )
+            {
+            return ( this.compareOn == otherOrdering.compareOn ) &&
+                   ( this.useAltRankOrder == otherOrdering.useAltRankOrder ) &&
+                   ( this.useAltSuitPriority == otherOrdering.useAltSuitPriority ) ;
+            }
+
+        return false ;
+
+        }   // end equals()
+
+
+    @Override
+    public int hashCode()
+        {
+
+        return Objects.hash( this.compareOn, this.useAltRankOrder, this.useAltSuitPriority ) ;
+
+        }   // end hashCode()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "%s, %s rank order, %s suit priority",
+                              this.compareOn,
+                              this.useAltRankOrder
+                                      ? "alternate"
+                                      : "regular",
+                              this.useAltSuitPriority
+                                      ? "alternate"
+                                      : "regular" ) ;
+
+        }   // end toString()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * the value of a rank under this ordering
+     *
+     * @param aRank
+     *     the rank
+     *
+     * @return its order
+     */
+    private int rankValue( final Rank aRank )
+        {
+
+        return this.useAltRankOrder
+                ? aRank.getAltOrder()
+                : aRank.getRegularOrder() ;
+
+        }   // end rankValue()
+
+
+    /**
+     * the value of a suit under this ordering
+     *
+     * @param aSuit
+     *     the suit
+     *
+     * @return its priority
+     */
+    private int suitValue( final Suit aSuit )
+        {
+
+        return this.useAltSuitPriority
+                ? aSuit.getAltPriority()
+                : aSuit.getRegularPriority() ;
+
+        }   // end suitValue()
+
+    }   // end class CardOrdering
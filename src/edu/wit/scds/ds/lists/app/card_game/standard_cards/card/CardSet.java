@@ -0,0 +1,792 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.standard_cards.card ;
+
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.Arrays ;
+import java.util.Objects ;
+import java.util.StringJoiner ;
+
+
+/**
+ * An immutable multiset of standard playing cards packed into bitmasks
+ * <p>
+ * each distinct card (rank and suit, or Joker) is assigned one bit of a
+ * {@code long}; the set holds one {@code long} per copy - layer <i>k</i> has a
+ * card's bit set if the set contains more than <i>k</i> of that card. A single
+ * deck therefore fits in a single {@code long} (plus a second layer for the
+ * second Joker) and combining sets or counting cards takes a few instructions
+ * per deck rather than a walk over {@code Card} objects.
+ * <p>
+ * only cards which can appear in a {@code Deck} can be represented: the 52
+ * playing cards with one of the 4 real suits and Jokers with no suit
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class CardSet
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** number of ranks excluding Joker */
+    private final static int RANKS_PER_SUIT = Rank.JOKER.ordinal() ;
+
+    /** number of real suits excluding the placeholder */
+    private final static int REAL_SUIT_COUNT = Suit.NA.ordinal() ;
+
+    /** bit assigned to Jokers - follows the bits for the playing cards */
+    private final static int JOKER_BIT = RANKS_PER_SUIT * REAL_SUIT_COUNT ;
+
+    /** number of bits in use */
+    private final static int BIT_COUNT = JOKER_BIT + 1 ;
+
+    /** bits for all cards of each rank, indexed by rank ordinal */
+    private final static long[] RANK_MASKS ;
+
+    /** bits for all cards of each suit, indexed by suit ordinal */
+    private final static long[] SUIT_MASKS ;
+
+    static
+        {
+
+        RANK_MASKS = new long[ Rank.values().length ] ;
+        SUIT_MASKS = new long[ Suit.values().length ] ;
+
+        for ( int suitOrdinal = 0 ; suitOrdinal < REAL_SUIT_COUNT ; suitOrdinal++ )
+            {
+
+            for ( int rankOrdinal = 0 ; rankOrdinal < RANKS_PER_SUIT ; rankOrdinal++ )
+                {
+                final long bit = 1L << ( ( suitOrdinal * RANKS_PER_SUIT ) + rankOrdinal ) ;
+
+                RANK_MASKS[ rankOrdinal ] |= bit ;
+                SUIT_MASKS[ suitOrdinal ] |= bit ;
+                }
+
+            }
+
+        RANK_MASKS[ Rank.JOKER.ordinal() ] = 1L << JOKER_BIT ;
+        SUIT_MASKS[ Suit.NA.ordinal() ] = 1L << JOKER_BIT ;
+
+        }   // end static initializer
+
+    /** the set with no cards */
+    public final static CardSet EMPTY = new CardSet( new long[ 0 ] ) ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /**
+     * layer <i>k</i> contains the bits of cards with more than <i>k</i> copies
+     * - each layer is a subset of the previous one and the last layer is never
+     * 0
+     */
+    private final long[] layers ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * wrap an array of layers - the caller must not retain a reference to it
+     *
+     * @param theLayers
+     *     the layers with no trailing empty layers
+     */
+    private CardSet( final long[] theLayers )
+        {
+
+        this.layers = theLayers ;
+
+        }   // end 1-arg constructor
+
+
+    /*
+     * factories
+     */
+
+
+    /**
+     * build a set containing the specified cards
+     *
+     * @param cards
+     *     the cards to include
+     *
+     * @return the new set
+     *
+     * @throws IllegalArgumentException
+     *     if any card can't be represented
+     */
+    public static CardSet of( final Card... cards )
+        {
+
+        Objects.requireNonNull( cards, "cards" ) ;
+
+        return of( Arrays.asList( cards ) ) ;
+
+        }   // end of() given cards
+
+
+    /**
+     * build a set containing all the cards in a collection, for instance, a
+     * pile
+     *
+     * @param cards
+     *     the cards to include
+     *
+     * @return the new set
+     *
+     * @throws IllegalArgumentException
+     *     if any card isn't a standard playing card or can't be represented
+     */
+    public static CardSet of( final Iterable<? extends CardBase> cards )
+        {
+
+        Objects.requireNonNull( cards, "cards" ) ;
+
+        final int[] counts = new int[ BIT_COUNT ] ;
+
+        for ( final CardBase aCard : cards )
+            {
+
+            if ( !( aCard instanceof final Card aStandardCard ) )
+                {
+                throw new IllegalArgumentException( String.format( "can't include %s in a %s",
+                                                                   aCard,
+                                                                   CardSet.class.getSimpleName() ) ) ;
+                }
+
+            counts[ bitFor( aStandardCard.rank, aStandardCard.suit ) ]++ ;
+            }
+
+        return fromCounts( counts ) ;
+
+        }   // end of() given a collection
+
+
+    /**
+     * build a set from the number of copies of each card
+     *
+     * @param countsByFaceIndex
+     *     the number of copies of each card indexed by
+     *     {@link Card#getFaceIndex()}
+     *
+     * @return the new set
+     *
+     * @throws IllegalArgumentException
+     *     if a card which can't be represented has a non-0 count or any count
+     *     is negative
+     */
+    public static CardSet ofFaceCounts( final int[] countsByFaceIndex )
+        {
+
+        Objects.requireNonNull( countsByFaceIndex, "countsByFaceIndex" ) ;
+
+        if ( countsByFaceIndex.length != Card.FACE_INDEX_COUNT )
+            {
+            throw new IllegalArgumentException( String.format( "expected %,d counts, received %,d",
+                                                               Card.FACE_INDEX_COUNT,
+                                                               countsByFaceIndex.length ) ) ;
+            }
+
+        final Rank[] ranks = Rank.values() ;
+        final Suit[] suits = Suit.values() ;
+
+        final int[] counts = new int[ BIT_COUNT ] ;
+
+        for ( int faceIndex = 0 ; faceIndex < countsByFaceIndex.length ; faceIndex++ )
+            {
+            final int count = countsByFaceIndex[ faceIndex ] ;
+
+            if ( count == 0 )
+                {
+                continue ;
+                }
+
+            if ( count < 0 )
+                {
+                throw new IllegalArgumentException( String.format( "count for face %,d is negative: %,d",
+                                                                   faceIndex,
+                                                                   count ) ) ;
+                }
+
+            counts[ bitFor( ranks[ faceIndex / suits.length ], suits[ faceIndex % suits.length ] ) ] += count ;
+            }
+
+        return fromCounts( counts ) ;
+
+        }   // end ofFaceCounts()
+
+
+    /*
+     * queries
+     */
+
+
+    /**
+     * determine whether this set contains at least one of a card
+     *
+     * @param aCard
+     *     the card to look for
+     *
+     * @return {@code true} if the card is present, {@code false} otherwise
+     */
+    public boolean contains( final Card aCard )
+        {
+
+        Objects.requireNonNull( aCard, "aCard" ) ;
+
+        return ( this.layers.length != 0 )
+               && ( ( this.layers[ 0 ] & ( 1L << bitFor( aCard.rank, aCard.suit ) ) ) != 0 ) ;
+
+        }   // end contains()
+
+
+    /**
+     * determine whether this set contains at least as many of every card as
+     * another set
+     *
+     * @param other
+     *     the other set
+     *
+     * @return {@code true} if {@code other} is a sub-multiset of this set,
+     *     {@code false} otherwise
+     */
+    public boolean containsAll( final CardSet other )
+        {
+
+        Objects.requireNonNull( other, "other" ) ;
+
+        if ( other.layers.length > this.layers.length )
+            {
+            return false ;
+            }
+
+        for ( int i = 0 ; i < other.layers.length ; i++ )
+            {
+
+            if ( ( other.layers[ i ] & ~this.layers[ i ] ) != 0 )
+                {
+                return false ;
+                }
+
+            }
+
+        return true ;
+
+        }   // end containsAll()
+
+
+    /**
+     * determine the number of copies of a card in this set
+     *
+     * @param aCard
+     *     the card to count
+     *
+     * @return the number of copies
+     */
+    public int count( final Card aCard )
+        {
+
+        Objects.requireNonNull( aCard, "aCard" ) ;
+
+        final long bit = 1L << bitFor( aCard.rank, aCard.suit ) ;
+
+        // layers are nested so stop at the first one without the card
+        int copies = 0 ;
+
+        while ( ( copies < this.layers.length ) && ( ( this.layers[ copies ] & bit ) != 0 ) )
+            {
+            copies++ ;
+            }
+
+        return copies ;
+
+        }   // end count()
+
+
+    /**
+     * determine the number of cards of a rank in this set
+     *
+     * @param rank
+     *     the rank to count
+     *
+     * @return the number of cards of that rank
+     */
+    public int countRank( final Rank rank )
+        {
+
+        Objects.requireNonNull( rank, "rank" ) ;
+
+        return countMasked( RANK_MASKS[ rank.ordinal() ] ) ;
+
+        }   // end countRank()
+
+
+    /**
+     * determine the number of cards of a suit in this set - Jokers are the only
+     * cards with no suit ({@code Suit.NA})
+     *
+     * @param suit
+     *     the suit to count
+     *
+     * @return the number of cards of that suit
+     */
+    public int countSuit( final Suit suit )
+        {
+
+        Objects.requireNonNull( suit, "suit" ) ;
+
+        return countMasked( SUIT_MASKS[ suit.ordinal() ] ) ;
+
+        }   // end countSuit()
+
+
+    /**
+     * determine the number of different ranks present in this set - Joker
+     * counts as a rank
+     *
+     * @return the number of distinct ranks
+     */
+    public int distinctRankCount()
+        {
+
+        if ( this.layers.length == 0 )
+            {
+            return 0 ;
+            }
+
+        final long present = this.layers[ 0 ] ;
+
+        // fold the suits on top of each other
+        final long suitMask = ( 1L << RANKS_PER_SUIT ) - 1 ;
+        long ranks = 0 ;
+
+        for ( int suitOrdinal = 0 ; suitOrdinal < REAL_SUIT_COUNT ; suitOrdinal++ )
+            {
+            ranks |= ( present >>> ( suitOrdinal * RANKS_PER_SUIT ) ) & suitMask ;
+            }
+
+        return Long.bitCount( ranks ) + ( ( present >>> JOKER_BIT ) != 0
+                ? 1
+                : 0 ) ;
+
+        }   // end distinctRankCount()
+
+
+    /**
+     * determine whether this set contains any cards
+     *
+     * @return {@code true} if the set has no cards, {@code false} otherwise
+     */
+    public boolean isEmpty()
+        {
+
+        return this.layers.length == 0 ;
+
+        }   // end isEmpty()
+
+
+    /**
+     * determine the number of cards in this set, counting every copy
+     *
+     * @return the number of cards
+     */
+    public int size()
+        {
+
+        int cardCount = 0 ;
+
+        for ( final long layer : this.layers )
+            {
+            cardCount += Long.bitCount( layer ) ;
+            }
+
+        return cardCount ;
+
+        }   // end size()
+
+
+    /*
+     * operations - these never modify this set
+     */
+
+
+    /**
+     * determine the cards common to this set and another set
+     *
+     * @param other
+     *     the other set
+     *
+     * @return a set containing, for each card, the smaller of the two counts
+     */
+    public CardSet intersection( final CardSet other )
+        {
+
+        Objects.requireNonNull( other, "other" ) ;
+
+        int layerCount = Math.min( this.layers.length, other.layers.length ) ;
+        final long[] combined = new long[ layerCount ] ;
+
+        for ( int i = 0 ; i < layerCount ; i++ )
+            {
+            combined[ i ] = this.layers[ i ] & other.layers[ i ] ;
+            }
+
+        // the deeper layers may have become empty
+        while ( ( layerCount > 0 ) && ( combined[ layerCount - 1 ] == 0 ) )
+            {
+            layerCount-- ;
+            }
+
+        return new CardSet( Arrays.copyOf( combined, layerCount ) ) ;
+
+        }   // end intersection()
+
+
+    /**
+     * determine the cards in either this set or another set
+     *
+     * @param other
+     *     the other set
+     *
+     * @return a set containing, for each card, the larger of the two counts
+     */
+    public CardSet union( final CardSet other )
+        {
+
+        Objects.requireNonNull( other, "other" ) ;
+
+        final CardSet longer = this.layers.length >= other.layers.length
+                ? this
+                : other ;
+        final CardSet shorter = longer == this
+                ? other
+                : this ;
+
+        final long[] combined = longer.layers.clone() ;
+
+        for ( int i = 0 ; i < shorter.layers.length ; i++ )
+            {
+            combined[ i ] |= shorter.layers[ i ] ;
+            }
+
+        return new CardSet( combined ) ;
+
+        }   // end union()
+
+
+    /**
+     * add one copy of a card
+     *
+     * @param aCard
+     *     the card to add
+     *
+     * @return a set with one more copy of {@code aCard}
+     */
+    public CardSet with( final Card aCard )
+        {
+
+        final int copies = count( aCard ) ;     // checks for null argument
+        final long bit = 1L << bitFor( aCard.rank, aCard.suit ) ;
+
+        final long[] updated = Arrays.copyOf( this.layers, Math.max( this.layers.length, copies + 1 ) ) ;
+        updated[ copies ] |= bit ;
+
+        return new CardSet( updated ) ;
+
+        }   // end with()
+
+
+    /**
+     * remove one copy of a card
+     *
+     * @param aCard
+     *     the card to remove
+     *
+     * @return a set with one less copy of {@code aCard} or this set if it
+     *     doesn't contain the card
+     */
+    public CardSet without( final Card aCard )
+        {
+
+        final int copies = count( aCard ) ;     // checks for null argument
+
+        if ( copies == 0 )
+            {
+            return this ;
+            }
+
+        final long bit = 1L << bitFor( aCard.rank, aCard.suit ) ;
+
+        final long[] updated = this.layers.clone() ;
+        updated[ copies - 1 ] &= ~bit ;
+
+        return new CardSet( updated[ updated.length - 1 ] == 0
+                ? Arrays.copyOf( updated, updated.length - 1 )
+                : updated ) ;
+
+        }   // end without()
+
+
+    /*
+     * general methods
+     */
+
+
+    @Override
+    public boolean equals( final Object otherObject )
+        {
+
+        if ( this == otherObject )
+            {
+            return true ;
+            }
+
+        if ( otherObject instanceof final CardSet otherSet )
+            {
+            return Arrays.equals( this.layers, otherSet.layers ) ;
+            }
+
+        return false ;
+
+        }   // end equals()
+
+
+    @Override
+    public int hashCode()
+        {
+
+        return Arrays.hashCode( this.layers ) ;
+
+        }   // end hashCode()
+
+
+    @Override
+    public String toString()
+        {
+
+        final StringJoiner cardList = new StringJoiner( ", ", "[", "]" ) ;
+
+        final Rank[] ranks = Rank.values() ;
+        final Suit[] suits = Suit.values() ;
+
+        for ( int bit = 0 ; bit < BIT_COUNT ; bit++ )
+            {
+            final Rank rank = bit == JOKER_BIT
+                    ? Rank.JOKER
+                    : ranks[ bit % RANKS_PER_SUIT ] ;
+            final Suit suit = bit == JOKER_BIT
+                    ? Suit.NA
+                    : suits[ bit / RANKS_PER_SUIT ] ;
+            final String faceText = String.format( "%s%s", rank, suit ) ;
+
+            for ( final long layer : this.layers )
+                {
+
+                if ( ( layer & ( 1L << bit ) ) == 0 )
+                    {
+                    break ;
+                    }
+
+                cardList.add( faceText ) ;
+                }
+
+            }
+
+        return cardList.toString() ;
+
+        }   // end toString()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * determine the bit assigned to a card
+     *
+     * @param rank
+     *     the card's rank
+     * @param suit
+     *     the card's suit
+     *
+     * @return the bit number
+     *
+     * @throws IllegalArgumentException
+     *     if the combination can't appear in a deck
+     */
+    private static int bitFor( final Rank rank,
+                               final Suit suit )
+        {
+
+        final boolean isJoker = rank == Rank.JOKER ;
+
+        if ( isJoker != ( suit == Suit.NA ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't include rank %s with suit %s in a %s",
+                                                               rank.name(),
+                                                               suit.name(),
+                                                               CardSet.class.getSimpleName() ) ) ;
+            }
+
+        return isJoker
+                ? JOKER_BIT
+                : ( suit.ordinal() * RANKS_PER_SUIT ) + rank.ordinal() ;
+
+        }   // end bitFor()
+
+
+    /**
+     * count the cards in all layers restricted to a mask
+     *
+     * @param mask
+     *     the cards of interest
+     *
+     * @return the number of cards of interest
+     */
+    private int countMasked( final long mask )
+        {
+
+        int cardCount = 0 ;
+
+        for ( final long layer : this.layers )
+            {
+            final int layerCount = Long.bitCount( layer & mask ) ;
+
+            if ( layerCount == 0 )
+                {
+                break ;     // deeper layers are subsets of this one
+                }
+
+            cardCount += layerCount ;
+            }
+
+        return cardCount ;
+
+        }   // end countMasked()
+
+
+    /**
+     * build a set from the number of copies of each card
+     *
+     * @param countsByBit
+     *     the number of copies indexed by bit number
+     *
+     * @return the new set
+     */
+    private static CardSet fromCounts( final int[] countsByBit )
+        {
+
+        int layerCount = 0 ;
+
+        for ( final int count : countsByBit )
+            {
+            layerCount = Math.max( layerCount, count ) ;
+            }
+
+        if ( layerCount == 0 )
+            {
+            return EMPTY ;
+            }
+
+        final long[] theLayers = new long[ layerCount ] ;
+
+        for ( int bit = 0 ; bit < countsByBit.length ; bit++ )
+            {
+
+            for ( int layer = 0 ; layer < countsByBit[ bit ] ; layer++ )
+                {
+                theLayers[ layer ] |= 1L << bit ;
+                }
+
+            }
+
+        return new CardSet( theLayers ) ;
+
+        }   // end fromCounts()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * (optional) test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( final String[] args )
+        {
+
+        final CardSet fives = of( new Card( Rank.FIVE, Suit.CLUBS ),
+                                  new Card( Rank.FIVE, Suit.HEARTS ),
+                                  new Card( Rank.FIVE, Suit.HEARTS ) ) ;
+        final CardSet wilds = of( new Card( Rank.JOKER ), new Card( Rank.TWO, Suit.SPADES ) ) ;
+
+        System.out.printf( "fives: %s (%,d cards)%n", fives, fives.size() ) ;
+        System.out.printf( "wilds: %s (%,d cards)%n", wilds, wilds.size() ) ;
+
+        final CardSet combined = fives.union( wilds ) ;
+        System.out.printf( "union: %s%n", combined ) ;
+        System.out.printf( "intersection with fives: %s%n", combined.intersection( fives ) ) ;
+        System.out.printf( "5H count: %,d%n", combined.count( new Card( Rank.FIVE, Suit.HEARTS ) ) ) ;
+        System.out.printf( "fives count: %,d%n", combined.countRank( Rank.FIVE ) ) ;
+        System.out.printf( "distinct ranks: %,d%n", combined.distinctRankCount() ) ;
+        System.out.printf( "contains all fives: %b%n", combined.containsAll( fives ) ) ;
+        System.out.printf( "without a 5H: %s%n", combined.without( new Card( Rank.FIVE, Suit.HEARTS ) ) ) ;
+
+        try
+            {
+            of( new Card( Rank.ACE ) ) ;
+            }
+        catch ( final IllegalArgumentException e )
+            {
+            System.out.printf( "suitless ace: %s%n", e.getMessage() ) ;
+            }
+
+        }   // end main()
+
+    }   // end class CardSet
@@ -31,6 +31,7 @@
 package edu.wit.scds.ds.lists.app.card_game.standard_cards.card ;
 
 import java.util.Arrays ;
+import java.util.List ;
 
 /**
  * An enumeration of card ranks.
@@ -52,6 +53,11 @@ import java.util.Arrays ;
  *     <li>rename from {@code Rank} to {@code Rank} to track other class changes
  *     <li>swap (alt) point and (alt) order values
  *     </ul>
+ * @version 7.1 2026-10-18 add {@code getRegularOrder()} so the order can be
+ *     selected independently of {@code useAltOrder}
+ * @version 7.2 2026-10-18 add {@code ALL_RANKS}
+ * @version 7.3 2026-10-18 deprecate the program-wide {@code setUseAltOrder()}
+ *     and {@code setUseAltPoints()}
  */
 public enum Rank
     {
@@ -105,6 +111,14 @@ public enum Rank
     /** indicate rank should use the regular priority rather than the alt priority */
     public final static boolean USE_ALT_ORDER = true ;
 
+    /**
+     * every rank, indexed by ordinal - unlike {@code values()}, doesn't allocate
+     * a new array on each use
+     *
+     * @since 7.2
+     */
+    public final static List<Rank> ALL_RANKS = List.of( values() ) ;
+
 
     /*
      * static fields
@@ -274,6 +288,22 @@ public enum Rank
         } // end getOrder()
 
 
+    /**
+     * Retrieves the regular order regardless of the setting of
+     * {@code useAltOrder}
+     *
+     * @return the regular order
+     *
+     * @since 7.1
+     */
+    public int getRegularOrder()
+        {
+
+        return this.order ;
+
+        } // end getRegularOrder()
+
+
     /**
      * Retrieves the point value
      *
@@ -322,7 +352,13 @@ public enum Rank
      *     the new setting
      *
      * @return the previous setting of {@code useAltOrder}
+     *
+     * @deprecated this changes {@code getOrder()} for every caller in the
+     *     program and no longer affects how cards are ordered - use a
+     *     {@code CardOrdering}, or {@code getRegularOrder()} and
+     *     {@code getAltOrder()}, instead
      */
+    @Deprecated
     public static boolean setUseAltOrder( final boolean newUseAltOrder )
         {
 
@@ -342,7 +378,12 @@ public enum Rank
      *     the new setting
      *
      * @return the previous setting of {@code useAltPoints}
+     *
+     * @deprecated this changes {@code getPoints()} for every caller in the
+     *     program - use {@code getAltPoints()} where the alternate points are
+     *     wanted instead
      */
+    @Deprecated
     public static boolean setUseAltPoints( final boolean newUseAltPoints )
         {
 
@@ -82,6 +82,10 @@ import java.util.Arrays ;
  *     <li>rename from {@code Suit} to {@code Suit} to track other class changes
  *     <li>swap priority and alt priority values
  *     </ul>
+ * @version 7.1 2026-10-18 add {@code getRegularPriority()} so the priority can
+ *     be selected independently of {@code useAltPriority}
+ * @version 7.2 2026-10-18 deprecate the program-wide
+ *     {@code setUseAltPriority()}
  */
 public enum Suit
     {
@@ -272,6 +276,22 @@ public enum Suit
         }   // end getPriority()
 
 
+    /**
+     * Retrieves the regular priority regardless of the setting of
+     * {@code useAltPriority}
+     *
+     * @return the regular priority
+     *
+     * @since 7.1
+     */
+    public int getRegularPriority()
+        {
+
+        return this.priority ;
+
+        }   // end getRegularPriority()
+
+
     /**
      * Retrieves the current setting of {@code useAltPriority}
      *
@@ -292,7 +312,13 @@ public enum Suit
      *     the new setting
      *
      * @return the previous setting of {@code useAltPriority}
+     *
+     * @deprecated this changes {@code getPriority()} for every caller in the
+     *     program and no longer affects how cards are ordered - use a
+     *     {@code CardOrdering}, or {@code getRegularPriority()} and
+     *     {@code getAltPriority()}, instead
      */
+    @Deprecated
     public static boolean setUseAltPriority( final boolean newUseAltPriority )
         {
 
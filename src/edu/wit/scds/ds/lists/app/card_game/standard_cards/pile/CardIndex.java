@@ -0,0 +1,287 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.standard_cards.pile ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.Arrays ;
+
+
+/**
+ * occupancy counts for the cards in a pile keyed by face (rank and suit), rank,
+ * and suit
+ * <p>
+ * the counts are maintained incrementally as cards are added to and removed
+ * from the pile so questions like "how many cards match this one?" can be
+ * answered in O(1) under any {@code Card.CompareOn} setting
+ * <p>
+ * positions are deliberately not tracked: adding a card to the top of a pile
+ * shifts the position of every other card so keeping them would make the
+ * cheapest pile operations O(n)
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+final class CardIndex
+    {
+
+    /*
+     * data fields
+     */
+
+
+    /** number of cards with each face, indexed by {@code Card.getFaceIndex()} */
+    private final int[] faceCounts ;
+
+    /** number of cards of each rank, indexed by rank ordinal */
+    private final int[] rankCounts ;
+
+    /** number of cards of each suit, indexed by suit ordinal */
+    private final int[] suitCounts ;
+
+    /**
+     * number of cards which aren't standard playing cards - while non-0 the
+     * counts can't answer questions about the pile as a whole
+     */
+    private int otherCount ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * initialize an empty index
+     */
+    CardIndex()
+        {
+
+        this.faceCounts = new int[ Card.FACE_INDEX_COUNT ] ;
+        this.rankCounts = new int[ Rank.values().length ] ;
+        this.suitCounts = new int[ Suit.values().length ] ;
+        this.otherCount = 0 ;
+
+        }   // end no-arg constructor
+
+
+    /*
+     * package methods
+     */
+
+
+    /**
+     * account for a card added to the pile
+     *
+     * @param addedCard
+     *     the card which was added
+     */
+    void add( final CardBase addedCard )
+        {
+
+        adjust( addedCard, +1 ) ;
+
+        }   // end add()
+
+
+    /**
+     * forget all cards
+     */
+    void clear()
+        {
+
+        Arrays.fill( this.faceCounts, 0 ) ;
+        Arrays.fill( this.rankCounts, 0 ) ;
+        Arrays.fill( this.suitCounts, 0 ) ;
+        this.otherCount = 0 ;
+
+        }   // end clear()
+
+
+    /**
+     * determine the number of cards with a specific face
+     *
+     * @param faceIndex
+     *     the face of interest as determined by {@code Card.getFaceIndex()}
+     *
+     * @return the number of cards with that face
+     */
+    int faceCount( final int faceIndex )
+        {
+
+        return this.faceCounts[ faceIndex ] ;
+
+        }   // end faceCount()
+
+
+    /**
+     * determine whether the counts account for every card in the pile
+     *
+     * @return {@code true} if the pile only contains standard playing cards,
+     *     {@code false} otherwise
+     */
+    boolean isComplete()
+        {
+
+        return this.otherCount == 0 ;
+
+        }   // end isComplete()
+
+
+    /**
+     * determine the number of cards which match (are equal to) a target card
+     * when comparing the specified attributes
+     * <p>
+     * the caller must ensure the index is complete
+     *
+     * @param targetCard
+     *     the card to look for
+     * @param compareOn
+     *     which attributes determine a match
+     *
+     * @return the number of matching cards
+     */
+    int matchCount( final Card targetCard,
+                    final CompareOn compareOn )
+        {
+
+        return switch ( compareOn )
+            {
+            case COMPARE_SUIT_AND_RANK -> this.faceCounts[ targetCard.getFaceIndex() ] ;
+            case COMPARE_RANK_ONLY -> this.rankCounts[ targetCard.rank.ordinal() ] ;
+            case COMPARE_SUIT_ONLY -> this.suitCounts[ targetCard.suit.ordinal() ] ;
+            case COMPARE_NONE -> throw new UnsupportedOperationException( "comparisons are disabled" ) ;
+            } ;
+
+        }   // end matchCount()
+
+
+    /**
+     * determine the number of cards of a specific rank
+     *
+     * @param rank
+     *     the rank of interest
+     *
+     * @return the number of cards of that rank
+     */
+    int rankCount( final Rank rank )
+        {
+
+        return this.rankCounts[ rank.ordinal() ] ;
+
+        }   // end rankCount()
+
+
+    /**
+     * recalculate all counts from scratch
+     *
+     * @param cards
+     *     all the cards in the pile
+     */
+    void rebuild( final Iterable<CardBase> cards )
+        {
+
+        clear() ;
+
+        for ( final CardBase aCard : cards )
+            {
+            add( aCard ) ;
+            }
+
+        }   // end rebuild()
+
+
+    /**
+     * account for a card removed from the pile
+     *
+     * @param removedCard
+     *     the card which was removed
+     */
+    void remove( final CardBase removedCard )
+        {
+
+        adjust( removedCard, -1 ) ;
+
+        }   // end remove()
+
+
+    /**
+     * determine the number of cards of a specific suit
+     *
+     * @param suit
+     *     the suit of interest
+     *
+     * @return the number of cards of that suit
+     */
+    int suitCount( final Suit suit )
+        {
+
+        return this.suitCounts[ suit.ordinal() ] ;
+
+        }   // end suitCount()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * apply a change to the counts for a card
+     *
+     * @param aCard
+     *     the card
+     * @param delta
+     *     {@code +1} if the card was added, {@code -1} if it was removed
+     */
+    private void adjust( final CardBase aCard,
+                         final int delta )
+        {
+
+        if ( aCard instanceof final Card aStandardCard )
+            {
+            this.faceCounts[ aStandardCard.getFaceIndex() ] += delta ;
+            this.rankCounts[ aStandardCard.rank.ordinal() ] += delta ;
+            this.suitCounts[ aStandardCard.suit.ordinal() ] += delta ;
+            }
+        else
+            {
+            this.otherCount += delta ;
+            }
+
+        }   // end adjust()
+
+    }   // end class CardIndex
@@ -33,12 +33,19 @@ package edu.wit.scds.ds.lists.app.card_game.standard_cards.pile ;
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_DOWN ;
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardFactory ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence ;
 
+import java.util.Arrays ;
+import java.util.Collection ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.stream.IntStream ;
+
 
 /**
  * Representation of a standard deck of cards containing
@@ -56,6 +63,18 @@ import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence ;
  * @version 1.1 2025-07-13 make the number of playing cards per deck available
  * @version 1.2 2025-11-19 add support for a template collection of
  *     {@code Card}s
+ * @version 1.3 2026-10-18 index the cards during validation
+ * @version 1.4 2026-10-18 create the cards with a {@code CardFactory} rather
+ *     than temporarily changing {@code CardBase}'s static defaults so decks
+ *     can be built concurrently
+ * @version 1.5 2026-10-18 build decks by cloning prototype cards resolved
+ *     once from the template deck
+ * @version 1.6 2026-10-18
+ *     <ul>
+ *     <li>validate a deck in a single pass by comparing per-face counts
+ *     against the template's
+ *     <li>add {@code validateDecks()} to validate several decks concurrently
+ *     </ul>
  */
 public final class Deck extends Pile
     {
@@ -80,12 +99,71 @@ public final class Deck extends Pile
     
     /** template deck contains all playing cards and the default number of jokers */
     private final static Deck templateCards ;
+
+    /** the template's playing cards, in order - the source for every new deck */
+    private final static Card[] prototypeCards ;
+
+    /** the source for every new deck's jokers */
+    private final static Card prototypeJoker ;
+
+    /** the template's cards, in order */
+    private final static Card[] templateOrder ;
+
+    /** the number of template cards with each face, indexed by face index */
+    private final static int[] templateFaceCounts ;
+
+    /**
+     * position of the first template card with each face if the template were
+     * grouped by face, indexed by face index
+     */
+    private final static int[] templateFaceStarts ;
     static
         {
 
         // instantiate a template deck
         templateCards = new Deck( Persistence.TEMPLATE );
-        
+
+        // resolve the prototypes once so building a deck is just cloning
+        prototypeCards = new Card[ NUMBER_OF_PLAYING_CARDS_PER_DECK ] ;
+        Card joker = null ;
+        int playingCardCount = 0 ;
+
+        for ( final CardBase aCardBase : templateCards )
+            {
+            final Card aCard = (Card) aCardBase ;
+
+            if ( aCard.rank == Rank.JOKER )
+                {
+                joker = aCard ;
+                }
+            else
+                {
+                prototypeCards[ playingCardCount++ ] = aCard ;
+                }
+
+            }
+
+        prototypeJoker = joker ;
+
+        // tally the template so validation is a matter of comparing counts
+        templateOrder = new Card[ templateCards.cardCount() ] ;
+        templateFaceCounts = new int[ Card.FACE_INDEX_COUNT ] ;
+        templateFaceStarts = new int[ Card.FACE_INDEX_COUNT ] ;
+        int templateCardCount = 0 ;
+
+        for ( final CardBase aCardBase : templateCards )
+            {
+            final Card aCard = (Card) aCardBase ;
+            templateOrder[ templateCardCount++ ] = aCard ;
+            templateFaceCounts[ aCard.getFaceIndex() ]++ ;
+            }
+
+        for ( int faceIndex = 1 ; faceIndex < Card.FACE_INDEX_COUNT ; faceIndex++ )
+            {
+            templateFaceStarts[ faceIndex ] = templateFaceStarts[ faceIndex - 1 ] +
+                                              templateFaceCounts[ faceIndex - 1 ] ;
+            }
+
         }   // end static initializer
     
     
@@ -161,11 +239,48 @@ public final class Deck extends Pile
                  final int numberOfJokers )
         {
 
+        // instantiate the deck with permanent cards in the specified orientation
+        this( CardFactory.of( initialOrientation, Persistence.PERMANENT ), numberOfJokers ) ;
+
+        }  // end 2-arg constructor w/ card orientation and # of jokers
+
+
+    /**
+     * Initialize a deck of cards including a specified number of Jokers with
+     * all card attributes supplied by a factory<br>
+     * the cards are in sorted order
+     * <p>
+     * this doesn't depend on any of {@code CardBase}'s static defaults so any
+     * number of threads may build decks concurrently
+     *
+     * @param cardFactory
+     *     creates the cards - must create permanent cards
+     * @param numberOfJokers
+     *     the desired number of jokers to add to the deck
+     *
+     * @throws IllegalArgumentException
+     *     if the factory doesn't create permanent cards
+     *
+     * @since 1.4
+     */
+    public Deck( final CardFactory cardFactory,
+                 final int numberOfJokers )
+        {
+
         // initialize the pile
         super() ;
 
+        Objects.requireNonNull( cardFactory, "cardFactory" ) ;
+
+        if ( cardFactory.getPersistence() != Persistence.PERMANENT )
+            {
+            throw new IllegalArgumentException( String.format( "a deck requires %s cards, factory creates %s cards",
+                                                               Persistence.PERMANENT,
+                                                               cardFactory.getPersistence() ) ) ;
+            }
+
         // populate it as a deck
-        populateDeck( initialOrientation, numberOfJokers, Persistence.PERMANENT ) ;
+        cloneDeck( cardFactory, numberOfJokers ) ;
 
         }  // end full/2-arg constructor
     
@@ -188,7 +303,7 @@ public final class Deck extends Pile
         super() ;
 
         // populate it as a deck
-        populateDeck( DEFAULT_CARD_ORIENTATION, DEFAULT_JOKER_COUNT, persistence ) ;
+        populateDeck( CardFactory.of( DEFAULT_CARD_ORIENTATION, persistence ), DEFAULT_JOKER_COUNT ) ;
 
         }   // end private template constructor
 
@@ -207,15 +322,20 @@ public final class Deck extends Pile
     /**
      * Add the specified number of Joker cards to the deck
      *
+     * @param cardFactory
+     *     creates the cards
      * @param numberOfJokers
      *     the desired number of Jokers to add to the deck
      */
-    private void createJokers( int numberOfJokers )
+    private void createJokers( final CardFactory cardFactory,
+                               int numberOfJokers )
         {
 
         while ( numberOfJokers-- > 0 )
             {
-            super.cards.add( new Card( Rank.JOKER ) ) ;
+            final Card newJoker = cardFactory.createCard( Rank.JOKER ) ;
+            super.cards.add( newJoker ) ;
+            cardAdded( newJoker ) ;
             }
 
         }  // end createJokers()
@@ -227,8 +347,11 @@ public final class Deck extends Pile
      * <li>cards are generated by rank within suit
      * <li>jokers are excluded
      * </ul>
+     *
+     * @param cardFactory
+     *     creates the cards
      */
-    private void createPlayingCards()
+    private void createPlayingCards( final CardFactory cardFactory )
         {
 
         // generate all the cards in the deck
@@ -251,7 +374,9 @@ public final class Deck extends Pile
                     }
 
                 // build a card and save it
-                super.cards.add( new Card( rank, suit ) ) ;
+                final Card newCard = cardFactory.createCard( rank, suit ) ;
+                super.cards.add( newCard ) ;
+                cardAdded( newCard ) ;
                 }   // end inner for
 
             }   // end outer for
@@ -265,57 +390,80 @@ public final class Deck extends Pile
     private void populateDeck()
         {
 
-        for ( CardBase aCardBase : Deck.templateCards )
-            {
-            if ( aCardBase instanceof Card aCard )
-                {
-                final Card newCard = new Card( aCard, Persistence.PERMANENT ) ;
-                this.addToBottom( newCard ) ;
-                }
-            }
-        
+        cloneDeck( CardFactory.of( DEFAULT_CARD_ORIENTATION, Persistence.PERMANENT ), DEFAULT_JOKER_COUNT ) ;
+
         }   // end no-arg cloning populate
 
 
     /**
-     * Initialize a deck of cards including a specified number of Jokers and card orientation<br>
-     * the cards are in sorted order
+     * build a deck of cards by cloning the prototype cards - the new cards are
+     * collected in a single array and appended in bulk
      *
-     * @param initialOrientation
-     *     indicate face up or face down
+     * @param cardFactory
+     *     creates the cards
      * @param numberOfJokers
      *     the desired number of jokers to add to the deck
-     * @param persistence
-     *     controls the cards' persistence (permanent or template) 
      */
-    private void populateDeck( final Orientation initialOrientation,
-                               final int numberOfJokers,
-                               final Persistence persistence )
+    private void cloneDeck( final CardFactory cardFactory,
+                            final int numberOfJokers )
         {
 
-        // prepare to create the cards
-        final Orientation savedOrientation = CardBase.setDefaultOrientation( initialOrientation ) ;
+        final int playingCardCount = Deck.prototypeCards.length ;
+        final Card[] newCards = new Card[ playingCardCount + Math.max( 0, numberOfJokers ) ] ;
+
+        for ( int i = 0 ; i < playingCardCount ; i++ )
+            {
+            newCards[ i ] = cardFactory.copyOf( Deck.prototypeCards[ i ] ) ;
+            }
+
+        for ( int i = playingCardCount ; i < newCards.length ; i++ )
+            {
+            newCards[ i ] = cardFactory.copyOf( Deck.prototypeJoker ) ;
+            }
+
+        super.cards.addAll( Arrays.asList( newCards ) ) ;
+
+        for ( final Card newCard : newCards )
+            {
+            cardAdded( newCard ) ;
+            }
+
+        }   // end cloneDeck()
 
-        // if these are the 'real' cards - mark them as permanent
-        // if they're the template cards - mark them as template
-        final Persistence savedPersistence = CardBase.setDefaultPersistence( persistence ) ;
+
+    /**
+     * Initialize a deck of cards including a specified number of Jokers<br>
+     * the cards are in sorted order
+     * <p>
+     * only the template deck is built this way - every other deck is cloned
+     * from its prototypes
+     *
+     * @param cardFactory
+     *     creates the cards - controls their orientation and persistence
+     *     (permanent or template)
+     * @param numberOfJokers
+     *     the desired number of jokers to add to the deck
+     */
+    private void populateDeck( final CardFactory cardFactory,
+                               final int numberOfJokers )
+        {
 
         // populate it with all the playing cards
-        createPlayingCards() ;
+        createPlayingCards( cardFactory ) ;
 
         // add jokers, if any
-        createJokers( numberOfJokers ) ;
-
-        // set the default card state back to its prior state
-        CardBase.setDefaultPersistence( savedPersistence ) ;
-        CardBase.setDefaultOrientation( savedOrientation ) ;
+        createJokers( cardFactory, numberOfJokers ) ;
 
-        }  // end full, 3-arg populateDeck()
+        }  // end full, 2-arg populateDeck()
     
     
     /**
      * ensure that this deck contains the all the cards it had when instantiated
      * and nothing else
+     * <p>
+     * the cards are put back in the same order as the template. when the deck
+     * holds more than one card with the same face, the earliest ones are kept
+     * and the rest are strays.
      * 
      * @throws IllegalStateException
      *     if any cards are missing or contains any stray cards
@@ -328,31 +476,57 @@ public final class Deck extends Pile
         missingCards.setDefaultOrientation( Orientation.AS_IS ) ;
         missingCards.setAcceptablePersistence( Persistence.UNRESTRICTED ) ;
         
-        final Pile remainingCards ;
+        final Pile remainingCards = new Pile() { /* temporary */ } ;
         
         // move all cards from this deck to a temporary collection
         final Pile temporaryDeck = this.removeAllCards() ;
-        
-        // iterate over the template moving corresponding cards from
-        // the temporary collection back into this deck
-        for ( CardBase templateCard : Deck.templateCards )
+
+        // a single pass tallies each face - cards beyond the template's
+        // count for their face are strays
+        // matchedCards is grouped by face in the order the cards were found
+        final CardBase[] matchedCards = new CardBase[ Deck.templateOrder.length ] ;
+        final int[] faceCounts = new int[ Card.FACE_INDEX_COUNT ] ;
+
+        for ( final CardBase aCard : temporaryDeck )
             {
-            CardBase realCard = temporaryDeck.removeCard( templateCard ) ;
+
+            if ( aCard instanceof final Card aStandardCard )
+                {
+                final int faceIndex = aStandardCard.getFaceIndex() ;
+
+                if ( faceCounts[ faceIndex ] < Deck.templateFaceCounts[ faceIndex ] )
+                    {
+                    matchedCards[ Deck.templateFaceStarts[ faceIndex ] + faceCounts[ faceIndex ]++ ] = aCard ;
+
+                    continue ;
+                    }
+
+                }
+
+            remainingCards.addToBottom( aCard ) ;
+            }
+
+        // put the matched cards back in template order - any gaps are missing
+        // cards
+        Arrays.fill( faceCounts, 0 ) ;
+
+        for ( final Card templateCard : Deck.templateOrder )
+            {
+            final int faceIndex = templateCard.getFaceIndex() ;
+            final CardBase realCard = matchedCards[ Deck.templateFaceStarts[ faceIndex ] + faceCounts[ faceIndex ]++ ] ;
             
-            // if a card is missing, capture it otherwise put it back in our list
+            // if a card is missing, capture it (without disturbing the
+            // template) otherwise put it back in our list
             if ( realCard == null )
                 {
-                missingCards.addToBottom( templateCard ) ;
+                missingCards.addToBottom( new Card( templateCard, Persistence.TEMPLATE ) ) ;
                 }
             else
                 {
                 this.addToBottom( realCard ) ;
                 }
+
             }
-        
-        // after that loop, if there are any cards left in the temporary
-        // collection collect them
-        remainingCards = temporaryDeck.removeAllCards() ;
 
         // if there are any collected problems, report them via exception
         if ( ( missingCards.cardCount() != 0 ) || ( remainingCards.cardCount() != 0 ) )
@@ -375,6 +549,69 @@ public final class Deck extends Pile
         }   // end validateDeck()
 
 
+    /**
+     * validate several decks concurrently - each deck is validated as by
+     * {@link #validateDeck()}
+     * 
+     * @param decks
+     *     the decks to validate
+     * 
+     * @throws IllegalStateException
+     *     if any deck fails validation - the exception is the first deck's
+     *     failure with any other decks' failures attached as suppressed
+     *     exceptions
+     *
+     * @since 1.6
+     */
+    public static void validateDecks( final Collection<Deck> decks ) throws IllegalStateException
+        {
+
+        final List<Deck> decksToValidate = List.copyOf( decks ) ;
+        final IllegalStateException[] failures = new IllegalStateException[ decksToValidate.size() ] ;
+
+        // each deck is independent - the template is only read
+        IntStream.range( 0, decksToValidate.size() ).parallel().forEach( deckIndex ->
+            {
+            try
+                {
+                decksToValidate.get( deckIndex ).validateDeck() ;
+                }
+            catch ( final IllegalStateException e )
+                {
+                failures[ deckIndex ] = e ;
+                }
+            } ) ;
+
+        // report the failures in deck order
+        IllegalStateException firstFailure = null ;
+
+        for ( final IllegalStateException failure : failures )
+            {
+
+            if ( failure == null )
+                {
+                continue ;
+                }
+
+            if ( firstFailure == null )
+                {
+                firstFailure = failure ;
+                }
+            else
+                {
+                firstFailure.addSuppressed( failure ) ;
+                }
+
+            }
+
+        if ( firstFailure != null )
+            {
+            throw firstFailure ;
+            }
+
+        }   // end validateDecks()
+
+
     /*
      * for testing/debugging
      */
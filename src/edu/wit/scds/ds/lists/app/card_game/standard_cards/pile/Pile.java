@@ -31,6 +31,9 @@
 package edu.wit.scds.ds.lists.app.card_game.standard_cards.pile ;
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardSet ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
@@ -39,8 +42,12 @@ import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
 
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.FACE_DOWN ;
 
+import java.util.Comparator ;
 import java.util.Iterator ;
 import java.util.ListIterator ;
+import java.util.Objects ;
+import java.util.RandomAccess ;
+import java.util.function.Predicate ;
 
 
 /**
@@ -59,6 +66,20 @@ import java.util.ListIterator ;
  *     <li>rename from {@code StandardPile} to {@code Pile}
  *     </ul>
  * @version 2.1 2025-11-19 extend functionality to support deck validation
+ * @version 2.2 2026-10-18 add an optional index of the cards in the pile by
+ *     rank and suit - when enabled, match counts are O(1) and lookups for
+ *     cards which aren't in the pile fail without searching
+ * @version 2.3 2026-10-18 add {@code removeCardsIf()} to remove all cards which
+ *     satisfy a condition in a single pass
+ * @version 2.4 2026-10-18 add {@code toCardSet()}
+ * @version 2.5 2026-10-18 sort with a stable counting sort rather than
+ *     pairwise comparisons
+ * @version 3.0 2026-10-18 support a per-pile {@code CardOrdering} so piles
+ *     don't depend on the global comparison settings
+ * @version 3.1 2026-10-18 add {@code sumByRank()} to total table-driven card
+ *     values without copying or allocating
+ * @version 3.2 2026-10-18 only track the cards when indexed, so restoring a
+ *     saved version of an unindexed pile is O(1)
  */
 public abstract class Pile extends PileBase
     {
@@ -73,7 +94,19 @@ public abstract class Pile extends PileBase
     /*
      * data fields
      */
-    // none
+
+
+    /**
+     * occupancy counts for the cards in this pile - {@code null} unless
+     * enabled via {@link #enableIndex()}
+     */
+    private CardIndex index ;
+
+    /**
+     * the rules for comparing cards in this pile - {@code null} to follow
+     * {@code Card}'s default ordering
+     */
+    private CardOrdering ordering ;
 
 
     /*
@@ -112,10 +145,79 @@ public abstract class Pile extends PileBase
      */
 
 
+    /**
+     * stop maintaining the index of the cards in this pile
+     *
+     * @return this pile (fluent)
+     *
+     * @since 2.2
+     */
+    public Pile disableIndex()
+        {
+
+        this.index = null ;
+
+        return this ;
+
+        }   // end disableIndex()
+
+
+    /**
+     * start maintaining an index of the cards in this pile by rank and suit
+     * <p>
+     * the index costs a small, constant amount of work for each card added or
+     * removed; in exchange, {@link #matchCount(CardBase)} is O(1) and
+     * {@link #getCardLike(CardBase)} and {@link #removeCard(CardBase)} return
+     * immediately when the pile doesn't contain a matching card
+     *
+     * @return this pile (fluent)
+     *
+     * @since 2.2
+     */
+    public Pile enableIndex()
+        {
+
+        if ( this.index == null )
+            {
+            this.index = new CardIndex() ;
+            this.index.rebuild( super.cards ) ;
+            }
+
+        return this ;
+
+        }   // end enableIndex()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * standard playing cards are compared using this pile's effective
+     * ordering
+     */
+    @Override
+    public Comparator<CardBase> getCardComparator()
+        {
+
+        final CardOrdering comparisonOrdering = getEffectiveOrdering() ;
+
+        return ( card1,
+                 card2 ) -> ( ( card1 instanceof final Card standardCard1 ) &&
+                              ( card2 instanceof final Card standardCard2 ) )
+                                      ? comparisonOrdering.compare( standardCard1, standardCard2 )
+                                      : card1.compareTo( card2 ) ;
+
+        }   // end getCardComparator()
+
+
     @Override
     public Card getCardLike( final CardBase likeCard )
         {
 
+        if ( isDefinitelyAbsent( likeCard ) )   // checks for null argument
+            {
+            return null ;
+            }
+
         return (Card) super.getCardLike( likeCard ) ;
 
         }  // end getCardLike() given a Card
@@ -141,6 +243,55 @@ public abstract class Pile extends PileBase
         }  // end getCardLike() given rank and suit
 
 
+    /**
+     * retrieve the rules used to compare cards in this pile: its own ordering,
+     * if set, otherwise {@code Card}'s default ordering
+     *
+     * @return the ordering in effect
+     *
+     * @since 3.0
+     */
+    public CardOrdering getEffectiveOrdering()
+        {
+
+        return this.ordering != null
+                ? this.ordering
+                : Card.getDefaultOrdering() ;
+
+        }   // end getEffectiveOrdering()
+
+
+    /**
+     * retrieve this pile's own rules for comparing cards
+     *
+     * @return the ordering or {@code null} if this pile follows {@code Card}'s
+     *     default ordering
+     *
+     * @since 3.0
+     */
+    public CardOrdering getOrdering()
+        {
+
+        return this.ordering ;
+
+        }   // end getOrdering()
+
+
+    /**
+     * determine whether this pile maintains an index of its cards
+     *
+     * @return {@code true} if the index is enabled, {@code false} otherwise
+     *
+     * @since 2.2
+     */
+    public boolean isIndexed()
+        {
+
+        return this.index != null ;
+
+        }   // end isIndexed()
+
+
     @Override
     public Iterator<CardBase> iterator()
         {
@@ -164,6 +315,33 @@ public abstract class Pile extends PileBase
         }   // end listIterator()
 
 
+    @Override
+    public int matchCount( final CardBase targetCard )
+        {
+
+        if ( ( this.index == null ) || !this.index.isComplete() )
+            {
+            return super.matchCount( targetCard ) ;
+            }
+
+        Objects.requireNonNull( targetCard, "targetCard" ) ;
+
+        if ( isEmpty() )
+            {
+            return 0 ;
+            }
+
+        // a standard playing card never matches any other kind of card
+        if ( targetCard instanceof final Card targetStandardCard )
+            {
+            return this.index.matchCount( targetStandardCard, getEffectiveOrdering().getCompareOn() ) ;
+            }
+
+        return 0 ;
+
+        }   // end matchCount()
+
+
     /**
      * Remove all cards from the pile
      *
@@ -174,6 +352,7 @@ public abstract class Pile extends PileBase
 
         final Pile allCards = new Pile()
             { /* temporary */ } ;
+        allCards.ordering = this.ordering ;
 
         for ( final CardBase card : super.removeAll() )
             {
@@ -198,18 +377,68 @@ public abstract class Pile extends PileBase
 
         final Pile removedCards = new Pile()
             { /* temporary collection type */ } ;
+        removedCards.ordering = this.ordering ;
 
-        super.removeAllMatchingCards( lookupCard, removedCards ) ;
+        removeAllMatchingCards( lookupCard, removedCards ) ;
 
         return removedCards ;
 
         }  // end removeAllMatchingCards()
 
 
+    @Override
+    public Pile removeAllMatchingCards( final CardBase lookupCard,
+                                        final PileBase removedCards )
+        {
+
+        if ( !isDefinitelyAbsent( lookupCard ) )    // checks for null argument
+            {
+            super.removeAllMatchingCards( lookupCard, removedCards ) ;
+            }
+
+        return this ;
+
+        }  // end removeAllMatchingCards() into an existing pile
+
+
+    /**
+     * Remove all cards which satisfy a condition from the pile in a single pass
+     *
+     * @param filter
+     *     the condition - cards for which it returns {@code true} are removed
+     *
+     * @return a new pile containing the removed cards, if any, in the order they
+     *     appeared in this pile
+     *
+     * @since 2.3
+     */
+    public Pile removeCardsIf( final Predicate<? super Card> filter )
+        {
+
+        Objects.requireNonNull( filter, "filter" ) ;
+
+        final Pile removedCards = new Pile()
+            { /* temporary collection type */ } ;
+        removedCards.ordering = this.ordering ;
+
+        super.removeCardsIf( aCard -> ( aCard instanceof final Card aStandardCard )
+                                      && filter.test( aStandardCard ),
+                             removedCards ) ;
+
+        return removedCards ;
+
+        }  // end removeCardsIf()
+
+
     @Override
     public Card removeCard( final CardBase card )
         {
 
+        if ( isDefinitelyAbsent( card ) )   // checks for null argument
+            {
+            return null ;
+            }
+
         return (Card) super.removeCard( card ) ;
 
         }  // end removeCard() given a card
@@ -252,6 +481,177 @@ public abstract class Pile extends PileBase
         }  // end removeTopCard()
 
 
+    /**
+     * set this pile's own rules for comparing cards - used for lookups,
+     * {@code matchCount()}, and {@code sort()}
+     *
+     * @param newOrdering
+     *     the ordering or {@code null} to follow {@code Card}'s default
+     *     ordering
+     *
+     * @return this pile (fluent)
+     *
+     * @since 3.0
+     */
+    public Pile setOrdering( final CardOrdering newOrdering )
+        {
+
+        this.ordering = newOrdering ;
+
+        return this ;
+
+        }   // end setOrdering()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * since there are only a handful of distinct comparison keys, a pile of
+     * standard playing cards is sorted with a stable counting sort in O(n)
+     * rather than O(n log n) comparisons - the resulting order is identical
+     */
+    @Override
+    public Pile sort()
+        {
+
+        final int cardCount = super.cards.size() ;
+        final CardOrdering sortOrdering = getEffectiveOrdering() ;
+
+        // comparisons may be disabled - let the general sort report that
+        if ( sortOrdering.getCompareOn() == CompareOn.COMPARE_NONE )
+            {
+            super.sort() ;
+
+            return this ;
+            }
+
+        // gather the keys - any other kind of card needs the general sort
+        final Card[] unsorted = new Card[ cardCount ] ;
+        final int[] keys = new int[ cardCount ] ;
+        final int[] keyCounts = new int[ sortOrdering.keyCount() + 1 ] ;
+
+        int position = 0 ;
+
+        for ( final CardBase aCard : super.cards )
+            {
+
+            if ( !( aCard instanceof final Card aStandardCard ) )
+                {
+                super.sort() ;
+
+                return this ;
+                }
+
+            unsorted[ position ] = aStandardCard ;
+            keys[ position ] = sortOrdering.keyOf( aStandardCard ) ;
+            keyCounts[ keys[ position ] + 1 ]++ ;
+            position++ ;
+            }
+
+        // convert the counts to the starting position for each key
+        for ( int key = 1 ; key < keyCounts.length ; key++ )
+            {
+            keyCounts[ key ] += keyCounts[ key - 1 ] ;
+            }
+
+        // distribute the cards - equal cards keep their relative order
+        final Card[] sorted = new Card[ cardCount ] ;
+
+        for ( int i = 0 ; i < cardCount ; i++ )
+            {
+            sorted[ keyCounts[ keys[ i ] ]++ ] = unsorted[ i ] ;
+            }
+
+        // write them back in place - the same cards so the index is unaffected
+        final ListIterator<CardBase> cardIterator = super.cards.listIterator() ;
+
+        for ( final Card aCard : sorted )
+            {
+            cardIterator.next() ;
+            cardIterator.set( aCard ) ;
+            }
+
+        return this ;
+
+        }   // end sort()
+
+
+    /**
+     * total a value for each card in this pile, looked up by the card's rank -
+     * e.g. the cards' point values
+     * <p>
+     * visits the cards in place; with the default (random access) storage
+     * nothing is allocated
+     *
+     * @param valueByRank
+     *     the value of a card of each rank, indexed by {@code Rank.ordinal()}
+     *
+     * @return the total value of the cards
+     *
+     * @since 3.1
+     */
+    public int sumByRank( final int[] valueByRank )
+        {
+
+        int total = 0 ;
+
+        if ( super.cards instanceof RandomAccess )
+            {
+
+            for ( int i = 0 ; i < super.cards.size() ; i++ )
+                {
+                total += valueByRank[ ( (Card) super.cards.get( i ) ).rank.ordinal() ] ;
+                }
+
+            }
+        else
+            {
+
+            for ( final CardBase aCard : super.cards )
+                {
+                total += valueByRank[ ( (Card) aCard ).rank.ordinal() ] ;
+                }
+
+            }
+
+        return total ;
+
+        }   // end sumByRank()
+
+
+    /**
+     * summarize the cards in this pile as a compact, immutable set
+     * <p>
+     * uses the index, if enabled, so the cards themselves needn't be visited
+     *
+     * @return a set containing every card in this pile
+     *
+     * @throws IllegalArgumentException
+     *     if the pile contains a card which can't be represented in a
+     *     {@code CardSet}
+     *
+     * @since 2.4
+     */
+    public CardSet toCardSet()
+        {
+
+        if ( ( this.index == null ) || !this.index.isComplete() )
+            {
+            return CardSet.of( this ) ;
+            }
+
+        final int[] faceCounts = new int[ Card.FACE_INDEX_COUNT ] ;
+
+        for ( int faceIndex = 0 ; faceIndex < faceCounts.length ; faceIndex++ )
+            {
+            faceCounts[ faceIndex ] = this.index.faceCount( faceIndex ) ;
+            }
+
+        return CardSet.ofFaceCounts( faceCounts ) ;
+
+        }   // end toCardSet()
+
+
     @Override
     public Pile setDefaultFaceDown()
         {
@@ -275,9 +675,134 @@ public abstract class Pile extends PileBase
 
 
     /*
-     * utility methods
+     * protected utility methods
      */
-    // none
+
+
+    @Override
+    protected void allCardsRemoved()
+        {
+
+        if ( this.index != null )
+            {
+            this.index.clear() ;
+            }
+
+        }   // end allCardsRemoved()
+
+
+    @Override
+    protected void cardAdded( final CardBase addedCard )
+        {
+
+        if ( this.index != null )
+            {
+            this.index.add( addedCard ) ;
+            }
+
+        }   // end cardAdded()
+
+
+    @Override
+    protected void cardRemoved( final CardBase removedCard )
+        {
+
+        if ( this.index != null )
+            {
+            this.index.remove( removedCard ) ;
+            }
+
+        }   // end cardRemoved()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * standard playing cards are compared using this pile's effective
+     * ordering
+     */
+    @Override
+    protected boolean isMatchingCard( final CardBase candidateCard,
+                                      final CardBase targetCard )
+        {
+
+        if ( ( candidateCard instanceof final Card candidateStandardCard ) &&
+             ( targetCard instanceof final Card targetStandardCard ) )
+            {
+            return getEffectiveOrdering().matches( candidateStandardCard, targetStandardCard ) ;
+            }
+
+        return super.isMatchingCard( candidateCard, targetCard ) ;
+
+        }   // end isMatchingCard()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * standard playing cards are compared using this pile's effective
+     * ordering
+     */
+    @Override
+    protected boolean isSameCard( final CardBase lookupCard,
+                                  final CardBase candidateCard )
+        {
+
+        if ( ( lookupCard instanceof final Card lookupStandardCard ) &&
+             ( candidateCard instanceof final Card candidateStandardCard ) )
+            {
+            return getEffectiveOrdering().matches( lookupStandardCard, candidateStandardCard ) ;
+            }
+
+        return super.isSameCard( lookupCard, candidateCard ) ;
+
+        }   // end isSameCard()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * only the index depends on the cards, so a pile tracks them only while
+     * it's indexed - subclasses which track the cards themselves must
+     * override this too
+     */
+    @Override
+    protected boolean tracksCards()
+        {
+
+        return this.index != null ;
+
+        }   // end tracksCards()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * use the index, if enabled, to determine that no card in this pile
+     * matches the lookup card without searching the pile
+     *
+     * @param lookupCard
+     *     the card to look for
+     *
+     * @return {@code true} if the pile definitely doesn't contain a matching
+     *     card, {@code false} if it might
+     */
+    private boolean isDefinitelyAbsent( final CardBase lookupCard )
+        {
+
+        Objects.requireNonNull( lookupCard, "lookupCard" ) ;
+
+        // comparisons may be disabled - let the search report that
+        return ( this.index != null )
+               && this.index.isComplete()
+               && ( getEffectiveOrdering().getCompareOn() != CompareOn.COMPARE_NONE )
+               && ( lookupCard instanceof final Card lookupStandardCard )
+               && ( this.index.matchCount( lookupStandardCard, getEffectiveOrdering().getCompareOn() ) == 0 ) ;
+
+        }   // end isDefinitelyAbsent()
 
 
     /*
@@ -0,0 +1,74 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.top_this.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+
+
+/**
+ * A Top This player who always plays their highest card, as ranked by the
+ * game's card ordering
+ * <p>
+ * The agent keeps no state so one instance can play for any number of
+ * players, in any number of games.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class HighestCardAgent implements TopThisAgent
+    {
+
+    @Override
+    public Card chooseCard( final TopThisEngine game,
+                            final Player player )
+        {
+
+        final CardOrdering ordering = game.getOrdering() ;
+
+        Card highestCard = null ;
+
+        for ( final Card aCard : player.getHandCards() )
+            {
+
+            if ( ( highestCard == null ) || ( ordering.compare( aCard, highestCard ) > 0 ) )
+                {
+                highestCard = aCard ;
+                }
+
+            }
+
+        return highestCard ;
+
+        }   // end chooseCard()
+
+    }   // end class HighestCardAgent
@@ -34,6 +34,7 @@ import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.JOKER
 
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card.CompareOn ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
@@ -41,14 +42,17 @@ import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
 import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Hand ;
 import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Meld ;
 import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Stock ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.NoCardsException ;
 
 import java.io.File ;
 import java.io.FileNotFoundException ;
 import java.util.ArrayList ;
 import java.util.List ;
-import java.util.Random ;
+import java.util.Objects ;
 import java.util.Scanner ;
+import java.util.SplittableRandom ;
+import java.util.random.RandomGenerator ;
 
 /**
  * Representation of a player
@@ -58,6 +62,14 @@ import java.util.Scanner ;
  * @version 1.0 2021-12-08 Initial implementation
  * @version 2.0 2025-06-28 track changes to other classes
  * @version 2.1 2025-11-04 track changes to other classes
+ * @version 2.2 2026-10-18 optionally compare cards using a per-game
+ *     {@code CardOrdering}
+ * @version 2.3 2026-10-18 choose cards using the game's source of randomness
+ *     rather than a new {@code Random} for every card
+ * @version 2.4 2026-10-18 expose the hand read-only so agents can choose a
+ *     card without parsing text
+ * @version 2.5 2026-10-18 test driver compares by rank using its own
+ *     {@code CardOrdering} rather than changing the program-wide defaults
  */
 public final class Player
     {
@@ -76,6 +88,9 @@ public final class Player
     /** player's name */
     public final String name ;
 
+    /** source of randomness for choosing cards to play */
+    private final RandomGenerator random ;
+
 
     /*
      * constructor(s)
@@ -91,13 +106,59 @@ public final class Player
     public Player( final String playerName )
         {
 
+        this( playerName, null ) ;
+
+        }   // end 1-arg constructor
+
+
+    /**
+     * initialize a player whose hand compares cards using a specific ordering
+     *
+     * @param playerName
+     *     the player's name
+     * @param cardOrdering
+     *     the rules for comparing cards in the player's hand or {@code null} to
+     *     follow {@code Card}'s default ordering
+     */
+    public Player( final String playerName,
+                   final CardOrdering cardOrdering )
+        {
+
+        this( playerName, cardOrdering, new SplittableRandom() ) ;
+
+        }   // end 2-arg constructor
+
+
+    /**
+     * initialize a player whose hand compares cards using a specific ordering
+     * and who chooses cards using a specific source of randomness
+     *
+     * @param playerName
+     *     the player's name
+     * @param cardOrdering
+     *     the rules for comparing cards in the player's hand or {@code null} to
+     *     follow {@code Card}'s default ordering
+     * @param randomGenerator
+     *     the source of randomness - typically the game's, so the game can be
+     *     replayed
+     */
+    public Player( final String playerName,
+                   final CardOrdering cardOrdering,
+                   final RandomGenerator randomGenerator )
+        {
+
+        Objects.requireNonNull( randomGenerator, "randomGenerator" ) ;
+
         this.name = playerName ;
 
+        this.random = randomGenerator ;
+
         this.hand = new Hand() ;
+        this.hand.setOrdering( cardOrdering ) ;
 
         this.melds = new ArrayList<>() ;
 
-        }   // end constructor
+        }   // end 3-arg constructor
 
 
     /*
@@ -135,6 +196,44 @@ public final class Player
         }   // end getMeldCount()
 
 
+    /**
+     * retrieve the cards in our hand, in order
+     *
+     * @return a copy of the cards in our hand - changing the list doesn't
+     *     change the hand
+     *
+     * @since 2.4
+     */
+    public List<Card> getHandCards()
+        {
+
+        final List<Card> handCards = new ArrayList<>( this.hand.cardCount() ) ;
+
+        for ( final CardBase aCard : this.hand )
+            {
+            handCards.add( (Card) aCard ) ;
+            }
+
+        return handCards ;
+
+        }   // end getHandCards()
+
+
+    /**
+     * retrieve the number of cards in our hand
+     *
+     * @return the number of cards in our hand
+     *
+     * @since 2.4
+     */
+    public int getHandSize()
+        {
+
+        return this.hand.cardCount() ;
+
+        }   // end getHandSize()
+
+
     /**
      * Remove an unspecified card from our hand
      *
@@ -146,8 +245,7 @@ public final class Player
     public Card playACard() throws NoCardsException
         {
 
-        return this.hand.removeCardAt( new Random().nextInt( 0,
-                                                             this.hand.cardCount() ) ) ;
+        return this.hand.removeCardAt( this.random.nextInt( 0, this.hand.cardCount() ) ) ;
 
         }  // end playACard()
 
@@ -334,22 +432,17 @@ public final class Player
         {
 
         // we'll sort by rank only and treat ace as highest value card
-        Card.setCompareOnAttributes( CompareOn.COMPARE_RANK_ONLY ) ;
-        Rank.setUseAltOrder( true ) ;
+        final CardOrdering rankOnly = CardOrdering.of( CompareOn.COMPARE_RANK_ONLY, true, true ) ;
 
         final Deck testDeck = new Deck() ;
 
         // create the stock initially populated with all the cards from the deck
         final Stock testStock = new Stock( testDeck ) ;
+        testStock.setOrdering( rankOnly ) ;
 
         // put any jokers back in the deck
         final Card lookupJoker = new Card( JOKER ) ;
-        Card foundJoker ;
-
-        while ( ( foundJoker = testStock.removeCard( lookupJoker ) ) != null )
-            {
-            testDeck.addToBottom( foundJoker ) ;
-            }
+        testDeck.moveCardsToBottom( testStock.removeAllMatchingCards( lookupJoker ) ) ;
         
         // shuffle them
         testStock.shuffle() ;
@@ -363,7 +456,7 @@ public final class Player
         testDeck.hideAll() ;
 
 
-        final Player testPlayer = new Player( "tester" ) ;
+        final Player testPlayer = new Player( "tester", rankOnly ) ;
 
         System.out.printf( "start: %s%n", testPlayer ) ;
 
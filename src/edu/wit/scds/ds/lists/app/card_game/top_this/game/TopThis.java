@@ -30,18 +30,14 @@
 
 package edu.wit.scds.ds.lists.app.card_game.top_this.game ;
 
-import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.JOKER ;
-
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Suit ;
 import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
-import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
-import edu.wit.scds.ds.lists.app.card_game.top_this.pile.DiscardPile ;
-import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Meld ;
-import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Stock ;
+import edu.wit.scds.ds.lists.app.card_game.top_this.game.TopThisEngine.RoundResult ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
 
-import java.util.ArrayList ;
 import java.util.LinkedList ;
 import java.util.List ;
 import java.util.ListIterator ;
@@ -89,6 +85,17 @@ import java.util.Scanner ;
  * @version 1.0 2025-03-27 Initial implementation
  * @version 2.0 2025-06-28 track changes to other classes
  * @version 2.1 2025-11-19 validate the deck(s) at the end of the game
+ * @version 2.2 2026-10-18 compare cards using this game's
+ *     {@code CardOrdering} rather than the global comparison settings
+ * @version 2.3 2026-10-18 validate all the decks concurrently at the end of
+ *     the game
+ * @version 2.4 2026-10-18 shuffle and play from a seeded {@code GameRandom} so
+ *     a game can be replayed
+ * @version 3.0 2026-10-18 move the rules into {@code TopThisEngine}; this class
+ *     is now the console user interface, choosing each player's card through
+ *     a {@code TopThisAgent}
+ * @version 3.1 2026-10-18 mark the console agent interactive so the user
+ *     is asked again after choosing a card they don't hold
  */
 public final class TopThis
     {
@@ -107,7 +114,6 @@ public final class TopThis
      * data fields
      */
 
-    private final List<Player> players ;
     private int numberOfPlayers ;
 
     private int numberOfCardsPerHand ;
@@ -118,12 +124,14 @@ public final class TopThis
 
     private final Scanner scanner ;
 
-    private final List<Deck> decks ;
-    private final Stock stock ;
-    private final DiscardPile discardPile ;
-
     private boolean running = false ;
 
+    /** the rules of the game - owns the cards and the players */
+    private final TopThisEngine engine ;
+
+    /** makes every player's decisions by prompting at the console */
+    private final ConsoleAgent consoleAgent ;
+
 
     /*
      * constructors
@@ -135,13 +143,38 @@ public final class TopThis
      *
      * @param input
      *     used for player interactions
+     * @param gameRandom
+     *     the seeded source of randomness for this game
      */
-    private TopThis( final Scanner input )
+    private TopThis( final Scanner input,
+                     final GameRandom gameRandom )
+        {
+
+        this( input, CardOrdering.STANDARD, gameRandom ) ;
+
+        }   // end 2-arg constructor
+
+
+    /**
+     * set up the game instance
+     *
+     * @param input
+     *     used for player interactions
+     * @param cardOrdering
+     *     the rules for comparing cards in this game
+     * @param gameRandom
+     *     the seeded source of randomness for this game
+     */
+    private TopThis( final Scanner input,
+                     final CardOrdering cardOrdering,
+                     final GameRandom gameRandom )
         {
 
         this.running = false ;
 
-        this.players = new ArrayList<>() ;  // indexing is O(1)
+        this.engine = new TopThisEngine( cardOrdering, gameRandom ) ;
+        this.consoleAgent = new ConsoleAgent() ;
+
         this.numberOfPlayers = -1 ;
 
         this.numberOfCardsPerHand = -1 ;
@@ -151,16 +184,9 @@ public final class TopThis
 
         this.scanner = input ;
 
-        this.stock = new Stock() ;
-
-        this.discardPile = new DiscardPile() ;
-
-
         this.numberOfDecks = -1 ;
 
-        this.decks = new ArrayList<>() ;   // indexing is O(1)
-
-        }   // end constructor
+        }   // end 3-arg constructor
 
 
     /*
@@ -172,17 +198,22 @@ public final class TopThis
      * This is the top-level driver for the game of Top This.
      *
      * @param args
-     *     -unused-
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}, to
+     *     replay a previous game
      */
     public static void main( final String[] args )
         {
 
         try ( final Scanner input = new Scanner( System.in ) ; )
             {
-            final TopThis topThis = new TopThis( input ) ;
+            final TopThis topThis = new TopThis( input,
+                                                 GameRandom.fromArguments( args ) ) ;
             
             welcome() ;
 
+            System.out.printf( "%nTo replay this game, run it with the argument: %s%n",
+                               topThis.engine.getRandom().toSpec() ) ;
+
             displayDivider() ;
             
             topThis.setup() ;
@@ -256,11 +287,8 @@ public final class TopThis
         while ( this.numberOfDecks < MINIMUM_NUMBER_OF_DECKS ) ;
 
         
-        // open the appropriate number of decks (no jokers) and put the cards into the stock
-        getCardsFromDecks() ;
-        
-        // shuffle the cards
-        this.stock.shuffle() ;
+        // open the appropriate number of decks (no jokers) and shuffle the cards into the stock
+        this.engine.openDecks( this.numberOfDecks ) ;
 
         }   // end configureCards()
     
@@ -275,7 +303,7 @@ public final class TopThis
 
         // get the number of cards per hand
 
-        final int maximumCardsPerHand = this.stock.cardCount() /
+        final int maximumCardsPerHand = this.engine.getStockSize() /
                                         this.numberOfPlayers ;
 
         do
@@ -359,35 +387,12 @@ public final class TopThis
                 return ;
                 }
 
-            this.players.add( new Player( playerName ) ) ;
+            this.engine.addPlayer( playerName, this.consoleAgent ) ;
             }
         
         }   // end configurePlayers()
     
     
-    /**
-     * deal hands to all players
-     * 
-     * @since 2.0
-     */
-    private void dealHands()
-        {
-
-        // deal one card to each player in turn
-        for ( int i = 1 ; i <= this.numberOfCardsPerHand ; i++ )
-            {
-
-            for ( final Player aPlayer : this.players )
-                {
-                final Card dealt = this.stock.drawTopCard().hide() ;
-                aPlayer.dealtACard( dealt ) ;
-                }
-
-            }
-
-        }   // end dealHands()
-    
-    
     /**
      * display a visual separator between sections of output
      *
@@ -413,7 +418,7 @@ public final class TopThis
                            this.roundNumber,
                            this.numberOfRounds ) ;
 
-        for ( final Player aPlayer : this.players )
+        for ( final Player aPlayer : this.engine.getPlayers() )
             {
             final int meldCount = aPlayer.getMeldCount() ;
             System.out.printf( "\t%s: %s meld%s%n",
@@ -429,61 +434,13 @@ public final class TopThis
         }   // end displayStandings()
 
 
-    /**
-     * populate stock from all playing cards (excludes jokers) from one or more decks
-     */
-    private void getCardsFromDecks()
-        {
-
-        // populate the stock from the requisite number of decks
-
-        // NOTE we're determining the maximum # of cards per player based on the # of cards in all
-        // the decks
-        // NOTE alternative: determine minimum # of decks based upon the # of hands and # of
-        // cards/hand
-
-        final Card joker = new Card( JOKER ) ;    // for lookup
-
-        for ( int i = 1 ; i <= this.numberOfDecks ; i++ )
-            {
-            // 'open' a 'box' of cards
-            final Deck newDeck = new Deck() ;
-
-            // take the cards out of the box
-            Pile newCards = newDeck.removeAllCards() ;
-
-            // pull out the jokers, turn them face up and put them back in the 'box'
-            newDeck.moveCardsToBottom( newCards.removeAllMatchingCards( joker ).revealAll() ) ;
-            
-            // add this set of cards to the stock
-            this.stock.moveCardsToBottom( newCards ) ;
-
-            // save the 'box'
-            this.decks.add( newDeck ) ;
-            }
-
-        // assertion: each deck in this.decks have all cards that won't be used during game play
-
-        // assertion: this.stock contains all cards to be used during game play
-
-        }   // end getCardsFromDecks()
-
-
     /**
      * prepare the game to run again
      */
     private void reset()
-
         {
 
-        this.stock.moveCardsToBottom( this.discardPile ) ;
-
-        for ( final Player aPlayer : this.players )
-            {
-            this.stock.moveCardsToBottom( aPlayer.turnInAllCards() ) ;
-            }
-
-        this.stock.shuffle() ;
+        this.engine.collectCards() ;
 
         }   // end reset()
 
@@ -512,14 +469,10 @@ public final class TopThis
 
         
         // deal initial hands
-        dealHands() ;
+        this.engine.dealHands( this.numberOfCardsPerHand ) ;
 
         // assertion: all players have the same number of cards in their hand
 
-        int firstPlayerThisRound = 0 ;
-
-        final List<Player> highCardHolders = new LinkedList<>() ;
-
         // take turns playing
         for ( this.roundNumber = 1 ;
               this.roundNumber <= this.numberOfRounds ;
@@ -531,135 +484,48 @@ public final class TopThis
                 return ;
                 }
 
-            // make new meld to hold the cards played during this round
-            // cards will be added face down
-            // after all players have taken their turn, the cards will all be turned face up
-            final Pile cardsInPlay = new Meld().setDefaultFaceDown() ;
-
-
             displayDivider() ;
             
             System.out.printf( "Round %,d of %,d%n",
                                this.roundNumber,
                                this.numberOfRounds ) ;
 
-            // (re-)set high card tracking
-            Card highCard = null ;
-            highCardHolders.clear() ;
+            // each player chooses a card through our console agent
+            final RoundResult result = this.engine.playRound() ;
 
-            for ( int i = 0 ; i < this.numberOfPlayers ; i++ )
+            if ( result == null )
                 {
-                final int currentPlayerIndex = ( firstPlayerThisRound + i ) %
-                                               this.numberOfPlayers ;
-                final Player currentPlayer = this.players.get( currentPlayerIndex ) ;
-
-                System.out.printf( "%nIt's %s's turn%n", currentPlayer.name ) ;
-
-                Card cardToPlay = null ;
-
-                while ( cardToPlay == null )
-                    {
-                    cardToPlay = promptForCard( "%nChoose a card from %s: ",
-                                                currentPlayer.revealHand() ) ;
-
-                    if ( !this.running )
-                        {
-                        this.stock.moveCardsToBottom( cardsInPlay ) ;
-
-                        return ;
-                        }
-
-                    // cardToPlay is null if the specified card isn't in the player's hand
-                    cardToPlay = currentPlayer.playACard( cardToPlay ) ;
-                    }
-
-                cardsInPlay.addToBottom( cardToPlay ) ;
-                
-                
-                // NOTE the determination of highest card and winner(s) should follow card selection
-                // by all players but this is simpler for demonstration purposes
-                
-
-                // is this the highest card so far?
-                if ( highCardHolders.isEmpty() )
-                    {
-                    // this is the first card so it's highest
-                    highCard = cardToPlay ;
-                    highCardHolders.add( currentPlayer ) ;
-                    }
-                else
-                    {
-                    // we already have at least 1 highest card
-
-                    // we care about rank and suit when comparing cards
-                    final int cardComparison = cardToPlay.compareTo( highCard ) ;
-
-                    if ( cardComparison > 0 )
-                        {
-                        // new high card
-                        highCard = cardToPlay ;
-                        highCardHolders.clear() ;
-                        highCardHolders.add( currentPlayer ) ;
-                        }
-                    else if ( cardComparison == 0 )
-                        {
-                        // duplicate of high card
-                        highCardHolders.add( currentPlayer ) ;
-                        }
-
-                    // otherwise, card is lower than the highest
-                    }
-
-                }   // end for
-            
-            // reveal all the cards that were played this round
-            cardsInPlay.revealAll() ;
+                // a player quit
+                return ;
+                }
 
             displayDivider() ;
 
+            final List<Player> highCardHolders = result.highCardHolders() ;
             final int highCardHolderCount = highCardHolders.size() ;
 
-            if ( highCardHolderCount == 1 )
+            if ( !result.isTie() )
                 {
                 // we have a solo winner of this round
-
-                final Player winner = highCardHolders.removeFirst() ;
-
                 System.out.printf( "%s won round %,d with the highest card %s of %s%n",
-                                   winner.name,
+                                   result.winner().name,
                                    this.roundNumber,
-                                   highCard,
-                                   cardsInPlay ) ;
-
-                // give the winner the cards
-                winner.wonRound( cardsInPlay ) ;
+                                   result.highCard(),
+                                   result.cardsPlayed() ) ;
                 }
             else
                 {
                 // multiple winners
                 final StringBuilder highCardHolderNames = new StringBuilder() ;
-                String delimiter = "" ;
-
-                final ListIterator<Player> winnerIterator = highCardHolders.listIterator() ;
 
-                while ( winnerIterator.hasNext() )
+                for ( int i = 0 ; i < highCardHolderCount ; i++ )
                     {
-                    final Player aWinner = winnerIterator.next() ;
-
-                    highCardHolderNames.append( delimiter )
-                                       .append( aWinner.name ) ;
-
-                    winnerIterator.remove() ;
-
-                    if ( highCardHolders.size() == 1 )
-                        {
-                        delimiter = " and " ;
-                        }
-                    else
-                        {
-                        delimiter = ", " ;
-                        }
-
+                    highCardHolderNames.append( i == 0
+                                                    ? ""
+                                                    : i == ( highCardHolderCount - 1 )
+                                                        ? " and "
+                                                        : ", " )
+                                       .append( highCardHolders.get( i ).name ) ;
                     }
 
                 // 2 or more of high card - no winner of this round
@@ -670,15 +536,12 @@ public final class TopThis
                                        ? ""
                                        : "s" ),
                                    highCardHolderNames.toString(),
-                                   highCard,
-                                   cardsInPlay ) ;
-
-                // discard the cards
-                this.discardPile.moveCardsToTop( cardsInPlay ) ;
+                                   result.highCard(),
+                                   result.cardsPlayed() ) ;
                 }
 
-            // start the next round with the next player
-            firstPlayerThisRound++ ;
+            // give the winner the cards or discard them
+            this.engine.awardRound() ;
 
             displayStandings() ;
             }   // end for(roundNumber)
@@ -737,7 +600,7 @@ public final class TopThis
         int highestMeldCount = 0 ;
         final List<Player> winners = new LinkedList<>() ;
 
-        for ( final Player aPlayer : this.players )
+        for ( final Player aPlayer : this.engine.getPlayers() )
             {
             System.out.printf( "%s%n", aPlayer ) ;
 
@@ -820,10 +683,10 @@ public final class TopThis
         displayDivider() ;
 
         System.out.printf( "For visual confirmation, the cards in the discard pile are:%n\t%s%n",
-                           this.discardPile.revealAll().toString() ) ;
+                           this.engine.revealDiscardPile() ) ;
 
         System.out.printf( "%nand the cards left in the stock are:%n\t%s%n",
-                           this.stock.revealAll().toString() ) ;
+                           this.engine.revealStock() ) ;
 
         }   // end summary()
 
@@ -836,49 +699,24 @@ public final class TopThis
 
         displayDivider() ;
 
-        // release most resources
-        reset() ;
-
-        this.players.clear() ;
-
-        // return the cards to the decks (put them back in their boxes)
-        this.stock.sort() ; // the cards are all in the stock
-
-        // assertion: 'same' cards are grouped next to each other
-
-        // whether we have the right number of cards or not, re-box them
-        int deckIndex = 0 ;
-
-        while ( !this.stock.isEmpty() )
-            {
-            // remove the top card from the stock, turn it face up (so we'll be able to display
-            // them), add it to the 'next' deck
-
-            this.decks.get( deckIndex )
-                      .addToBottom( this.stock.removeTopCard() ) ;
-
-            // move to the 'next' deck
-            deckIndex = ( deckIndex + 1 ) % this.decks.size() ;
-            }
+        // release the players and return the cards to the decks (put them back in their boxes)
+        final List<Deck> decks = this.engine.closeDecks() ;
 
         // visually confirm all decks are intact
         System.out.printf( "%nFor visual confirmation, the re-constituted %s:%n",
-                           this.decks.size() == 1
+                           decks.size() == 1
                                    ? "deck is"
                                    : "decks are" ) ;
 
-        // validate the decks
-        for ( final Deck deck : this.decks )
+        for ( final Deck deck : decks )
             {
             System.out.printf( "\t%s%n", deck.revealAll().toString() ) ;
 
             deck.hideAll() ;
-            
-            deck.validateDeck() ;
             }
 
-        // free up the decks
-        this.decks.clear() ;
+        // validate the decks - concurrently
+        Deck.validateDecks( decks ) ;
 
         System.out.printf( "%n%nThank you for playing Top This!%n%n" ) ;
 
@@ -1162,4 +1000,58 @@ public final class TopThis
 
         }   // end promptForLine()
 
+
+
+    /*
+     * inner classes
+     */
+
+
+    /**
+     * the console user interface: prompts the current player for the card to
+     * play
+     *
+     * @since 3.0
+     */
+    private final class ConsoleAgent implements TopThisAgent
+        {
+
+        @Override
+        public boolean isInteractive()
+            {
+
+            return true ;   // the user may correct a mistake
+
+            }   // end isInteractive()
+
+
+        @Override
+        public void turnStarted( final TopThisEngine game,
+                                 final Player player )
+            {
+
+            System.out.printf( "%nIt's %s's turn%n", player.name ) ;
+
+            }   // end turnStarted()
+
+
+        @Override
+        public Card chooseCard( final TopThisEngine game,
+                                final Player player )
+            {
+
+            final Card cardToPlay = promptForCard( "%nChoose a card from %s: ",
+                                                   player.revealHand() ) ;
+
+            if ( !TopThis.this.running )
+                {
+                game.abandon() ;
+                }
+
+            return cardToPlay ;
+
+            }   // end chooseCard()
+
+        }   // end inner class ConsoleAgent
+
     }   // end class TopThis
\ No newline at end of file
@@ -0,0 +1,106 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.top_this.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+
+
+/**
+ * The decision a Top This player makes each round: which card to play
+ * <p>
+ * {@code TopThisEngine} enforces the rules and asks the agent for each player
+ * for their card. A console user, a scripted test, or a bot are all just
+ * agents.
+ * <p>
+ * An agent may end the game early by calling {@link TopThisEngine#abandon()};
+ * whatever the agent then returns is ignored.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add {@code isInteractive()} so only a person is
+ *     asked again for a card they don't hold
+ */
+public interface TopThisAgent
+    {
+
+    /**
+     * notification that {@code player}'s turn is starting - the default does
+     * nothing
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     */
+    default void turnStarted( final TopThisEngine game,
+                              final Player player )
+        {
+
+        // nothing to do
+
+        }   // end turnStarted()
+
+
+    /**
+     * does this agent relay a person's choices? a person who chooses a card
+     * that isn't in their hand is asked again; any other agent would just
+     * choose the same card forever. The default is {@code false}.
+     *
+     * @return true if this agent may be asked again after an unusable answer
+     *
+     * @since 1.1
+     */
+    default boolean isInteractive()
+        {
+
+        return false ;
+
+        }   // end isInteractive()
+
+
+    /**
+     * choose the card to play this round
+     * <p>
+     * an interactive agent is asked again if the card isn't in the player's
+     * hand
+     *
+     * @param game
+     *     the game being played
+     * @param player
+     *     the player whose turn it is
+     *
+     * @return a card matching one in the player's hand
+     */
+    Card chooseCard( TopThisEngine game,
+                     Player player ) ;
+
+    }   // end interface TopThisAgent
@@ -0,0 +1,860 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.top_this.game ;
+
+import static edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Rank.JOKER ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Deck ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.pile.Pile ;
+import edu.wit.scds.ds.lists.app.card_game.top_this.pile.DiscardPile ;
+import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Meld ;
+import edu.wit.scds.ds.lists.app.card_game.top_this.pile.Stock ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.List ;
+import java.util.Objects ;
+
+
+/**
+ * The rules of Top This with no user interface
+ * <p>
+ * The engine owns the cards (decks, stock, discard pile) and the players.
+ * Each round is played in two steps:
+ * <ol>
+ * <li>{@link #playRound()} - starting with the next player in rotation, each
+ * player's {@link TopThisAgent} chooses a card; once everyone has played, the
+ * cards are turned face up and the highest card's holder(s) determined
+ * <li>{@link #awardRound()} - a single holder of the highest card wins the
+ * cards as a meld, otherwise they're discarded
+ * </ol>
+ * Splitting the steps lets a user interface display the cards played before
+ * they're put away.
+ * <p>
+ * An engine isn't thread-safe - each concurrent game needs its own instance.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation - rules extracted from
+ *     {@code TopThis}
+ * @version 1.1 2026-10-18 only ask an interactive agent again for a card
+ *     that isn't in the player's hand - any other agent fails rather than
+ *     looping forever
+ */
+public final class TopThisEngine
+    {
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * the outcome of a round
+     *
+     * @param roundNumber
+     *     the round's number - the first round is 1
+     * @param highCard
+     *     the highest card played
+     * @param highCardHolders
+     *     the player(s) who played the highest card, in the order they played
+     * @param cardsPlayed
+     *     the cards played, in the order they were played
+     */
+    public record RoundResult( int roundNumber,
+                               Card highCard,
+                               List<Player> highCardHolders,
+                               List<Card> cardsPlayed )
+        {
+
+        /**
+         * determine whether two or more players played the highest card
+         *
+         * @return true if no one won the round, false otherwise
+         */
+        public boolean isTie()
+            {
+
+            return this.highCardHolders.size() > 1 ;
+
+            }   // end isTie()
+
+
+        /**
+         * retrieve the winner of the round
+         *
+         * @return the only player who played the highest card or {@code null}
+         *     if the round was a tie
+         */
+        public Player winner()
+            {
+
+            return isTie()
+                ? null
+                : this.highCardHolders.getFirst() ;
+
+            }   // end winner()
+
+        }   // end record RoundResult
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the rules for comparing cards in this game */
+    private final CardOrdering ordering ;
+
+    /** the seeded source of randomness for shuffling and automated play */
+    private final GameRandom random ;
+
+    /** the players in the order they were dealt to */
+    private final List<Player> players ;
+
+    /** the decision maker for each player - parallels {@code players} */
+    private final List<TopThisAgent> agents ;
+
+    /** the 'boxes' the cards came from */
+    private final List<Deck> decks ;
+
+    private final Stock stock ;
+    private final DiscardPile discardPile ;
+
+    /** the player(s) holding the highest card this round - reused every round */
+    private final List<Player> highCardHolders ;
+
+    /** index of the player who plays first in the next round */
+    private int firstPlayerIndex ;
+
+    /** rounds played since the hands were dealt */
+    private int roundNumber ;
+
+    /** the cards from the last round played until they're awarded */
+    private Pile cardsToAward ;
+
+    /** the winner of the last round played, {@code null} if it was a tie */
+    private Player roundWinner ;
+
+    /** set when an agent ends the game early */
+    private boolean abandoned ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * set up a game using the standard card ordering and an unseeded source of
+     * randomness
+     */
+    public TopThisEngine()
+        {
+
+        this( CardOrdering.STANDARD, new GameRandom() ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * set up a game
+     *
+     * @param cardOrdering
+     *     the rules for comparing cards in this game
+     * @param gameRandom
+     *     the seeded source of randomness for this game
+     */
+    public TopThisEngine( final CardOrdering cardOrdering,
+                          final GameRandom gameRandom )
+        {
+
+        this.ordering = Objects.requireNonNull( cardOrdering, "cardOrdering" ) ;
+        this.random = Objects.requireNonNull( gameRandom, "gameRandom" ) ;
+
+        this.players = new ArrayList<>() ;  // indexing is O(1)
+        this.agents = new ArrayList<>() ;
+        this.decks = new ArrayList<>() ;
+
+        this.stock = new Stock() ;
+        this.stock.setOrdering( cardOrdering ) ;
+
+        this.discardPile = new DiscardPile() ;
+        this.discardPile.setOrdering( cardOrdering ) ;
+
+        this.highCardHolders = new ArrayList<>() ;
+
+        this.firstPlayerIndex = 0 ;
+        this.roundNumber = 0 ;
+        this.cardsToAward = null ;
+        this.roundWinner = null ;
+        this.abandoned = false ;
+
+        }   // end 2-arg constructor
+
+
+    /*
+     * game configuration
+     */
+
+
+    /**
+     * add a player to the game
+     *
+     * @param playerName
+     *     the player's name
+     * @param agent
+     *     makes the player's decisions
+     *
+     * @return the new player
+     */
+    public Player addPlayer( final String playerName,
+                             final TopThisAgent agent )
+        {
+
+        Objects.requireNonNull( agent, "agent" ) ;
+
+        final Player newPlayer = new Player( playerName,
+                                             this.ordering,
+                                             this.random.getGenerator() ) ;
+
+        this.players.add( newPlayer ) ;
+        this.agents.add( agent ) ;
+
+        return newPlayer ;
+
+        }   // end addPlayer()
+
+
+    /**
+     * open the specified number of decks, set aside the jokers, and shuffle
+     * the rest of the cards into the stock
+     *
+     * @param numberOfDecks
+     *     the number of decks to play with
+     *
+     * @throws IllegalArgumentException
+     *     if {@code numberOfDecks} isn't positive
+     */
+    public void openDecks( final int numberOfDecks )
+        {
+
+        if ( numberOfDecks < 1 )
+            {
+            throw new IllegalArgumentException( String.format( "number of decks must be positive, was %,d",
+                                                               numberOfDecks ) ) ;
+            }
+
+        final Card joker = new Card( JOKER ) ;    // for lookup
+
+        for ( int i = 1 ; i <= numberOfDecks ; i++ )
+            {
+            // 'open' a 'box' of cards
+            final Deck newDeck = new Deck() ;
+
+            // take the cards out of the box
+            final Pile newCards = newDeck.removeAllCards() ;
+
+            // pull out the jokers, turn them face up and put them back in the 'box'
+            newDeck.moveCardsToBottom( newCards.removeAllMatchingCards( joker ).revealAll() ) ;
+
+            // add this set of cards to the stock
+            this.stock.moveCardsToBottom( newCards ) ;
+
+            // save the 'box'
+            this.decks.add( newDeck ) ;
+            }
+
+        // assertion: each deck in this.decks has all cards that won't be used during game play
+
+        // assertion: this.stock contains all cards to be used during game play
+
+        this.stock.shuffle( this.random.getGenerator() ) ;
+
+        }   // end openDecks()
+
+
+    /*
+     * game play
+     */
+
+
+    /**
+     * end the game early - typically called by an agent whose user quit
+     */
+    public void abandon()
+        {
+
+        this.abandoned = true ;
+
+        }   // end abandon()
+
+
+    /**
+     * give the cards from the last round played to its winner, as a meld, or
+     * discard them if it was a tie
+     *
+     * @throws IllegalStateException
+     *     if there's no round to award
+     */
+    public void awardRound()
+        {
+
+        if ( this.cardsToAward == null )
+            {
+            throw new IllegalStateException( "no round to award" ) ;
+            }
+
+        if ( this.roundWinner != null )
+            {
+            // give the winner the cards
+            this.roundWinner.wonRound( this.cardsToAward ) ;
+            }
+        else
+            {
+            // 2 or more of high card - no winner of this round
+            this.discardPile.moveCardsToTop( this.cardsToAward ) ;
+            }
+
+        this.cardsToAward = null ;
+        this.roundWinner = null ;
+
+        }   // end awardRound()
+
+
+    /**
+     * return all the cards in play to the stock and shuffle it, ready for
+     * another game
+     */
+    public void collectCards()
+        {
+
+        if ( this.cardsToAward != null )
+            {
+            this.stock.moveCardsToBottom( this.cardsToAward ) ;
+
+            this.cardsToAward = null ;
+            this.roundWinner = null ;
+            }
+
+        this.stock.moveCardsToBottom( this.discardPile ) ;
+
+        for ( final Player aPlayer : this.players )
+            {
+            this.stock.moveCardsToBottom( aPlayer.turnInAllCards() ) ;
+            }
+
+        this.stock.shuffle( this.random.getGenerator() ) ;
+
+        this.firstPlayerIndex = 0 ;
+        this.roundNumber = 0 ;
+
+        }   // end collectCards()
+
+
+    /**
+     * finish the game: collect all the cards, remove the players, and put the
+     * cards back in their 'boxes'
+     *
+     * @return the re-constituted decks - ready for display and validation
+     */
+    public List<Deck> closeDecks()
+        {
+
+        collectCards() ;
+
+        this.players.clear() ;
+        this.agents.clear() ;
+
+        // return the cards to the decks (put them back in their boxes)
+        this.stock.sort() ; // the cards are all in the stock
+
+        // assertion: 'same' cards are grouped next to each other
+
+        // whether we have the right number of cards or not, re-box them
+        int deckIndex = 0 ;
+
+        while ( !this.stock.isEmpty() )
+            {
+            this.decks.get( deckIndex )
+                      .addToBottom( this.stock.removeTopCard() ) ;
+
+            // move to the 'next' deck
+            deckIndex = ( deckIndex + 1 ) % this.decks.size() ;
+            }
+
+        final List<Deck> closedDecks = new ArrayList<>( this.decks ) ;
+
+        this.decks.clear() ;
+
+        return closedDecks ;
+
+        }   // end closeDecks()
+
+
+    /**
+     * deal the same number of cards to every player, one at a time, in
+     * rotation
+     *
+     * @param cardsPerHand
+     *     the number of cards dealt to each player
+     *
+     * @throws IllegalArgumentException
+     *     if the stock doesn't have enough cards for every player
+     * @throws IllegalStateException
+     *     if there are no players
+     */
+    public void dealHands( final int cardsPerHand )
+        {
+
+        if ( this.players.isEmpty() )
+            {
+            throw new IllegalStateException( "can't deal without players" ) ;
+            }
+
+        if ( ( cardsPerHand < 1 ) ||
+             ( ( (long) cardsPerHand * this.players.size() ) > this.stock.cardCount() ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't deal %,d cards to each of %,d players from %,d cards",
+                                                               cardsPerHand,
+                                                               this.players.size(),
+                                                               this.stock.cardCount() ) ) ;
+            }
+
+        // deal one card to each player in turn
+        for ( int i = 1 ; i <= cardsPerHand ; i++ )
+            {
+
+            for ( final Player aPlayer : this.players )
+                {
+                aPlayer.dealtACard( this.stock.drawTopCard().hide() ) ;
+                }
+
+            }
+
+        // assertion: all players have the same number of cards in their hand
+
+        }   // end dealHands()
+
+
+    /**
+     * each player, in turn, plays a card; once all have played, the cards are
+     * turned face up and the highest card determined
+     * <p>
+     * the cards stay in play until {@link #awardRound()} is called
+     *
+     * @return the outcome of the round or {@code null} if the game was
+     *     abandoned - any cards played this round are returned to the stock
+     *
+     * @throws IllegalStateException
+     *     if the previous round hasn't been awarded, a player has no cards, or
+     *     a non-interactive agent chooses a card that isn't in the player's
+     *     hand - any cards played this round are returned to the stock
+     */
+    public RoundResult playRound()
+        {
+
+        if ( this.cardsToAward != null )
+            {
+            throw new IllegalStateException( String.format( "round %,d hasn't been awarded",
+                                                            this.roundNumber ) ) ;
+            }
+
+        for ( final Player aPlayer : this.players )
+            {
+
+            if ( aPlayer.getHandSize() == 0 )
+                {
+                throw new IllegalStateException( String.format( "%s has no cards to play",
+                                                                aPlayer.name ) ) ;
+                }
+
+            }
+
+        // make new meld to hold the cards played during this round
+        // cards will be added face down
+        // after all players have taken their turn, the cards will all be turned face up
+        final Pile cardsInPlay = new Meld().setDefaultFaceDown() ;
+
+        // (re-)set high card tracking
+        Card highCard = null ;
+        this.highCardHolders.clear() ;
+
+        final int numberOfPlayers = this.players.size() ;
+
+        for ( int i = 0 ; i < numberOfPlayers ; i++ )
+            {
+            final int currentPlayerIndex = ( this.firstPlayerIndex + i ) % numberOfPlayers ;
+            final Player currentPlayer = this.players.get( currentPlayerIndex ) ;
+            final TopThisAgent currentAgent = this.agents.get( currentPlayerIndex ) ;
+
+            currentAgent.turnStarted( this, currentPlayer ) ;
+
+            Card cardToPlay = null ;
+
+            while ( cardToPlay == null )
+                {
+                final Card chosenCard = currentAgent.chooseCard( this, currentPlayer ) ;
+
+                if ( this.abandoned )
+                    {
+                    this.stock.moveCardsToBottom( cardsInPlay ) ;
+
+                    return null ;
+                    }
+
+                // cardToPlay is null if the specified card isn't in the player's hand
+                cardToPlay = chosenCard == null
+                    ? null
+                    : currentPlayer.playACard( chosenCard ) ;
+
+                if ( ( cardToPlay == null ) && !currentAgent.isInteractive() )
+                    {
+                    // a bot would only choose the same card again
+                    this.stock.moveCardsToBottom( cardsInPlay ) ;
+
+                    throw new IllegalStateException( String.format( "%s's agent chose to play %s, which isn't in their hand",
+                                                                    currentPlayer.name,
+                                                                    chosenCard == null
+                                                                        ? "nothing"
+                                                                        : chosenCard.getFaceUpText() ) ) ;
+                    }
+                }
+
+            cardsInPlay.addToBottom( cardToPlay ) ;
+
+            // is this the highest card so far?
+            if ( highCard == null )
+                {
+                // this is the first card so it's highest
+                highCard = cardToPlay ;
+                this.highCardHolders.add( currentPlayer ) ;
+                }
+            else
+                {
+                // we already have at least 1 highest card
+                final int cardComparison = this.ordering.compare( cardToPlay, highCard ) ;
+
+                if ( cardComparison > 0 )
+                    {
+                    // new high card
+                    highCard = cardToPlay ;
+                    this.highCardHolders.clear() ;
+                    this.highCardHolders.add( currentPlayer ) ;
+                    }
+                else if ( cardComparison == 0 )
+                    {
+                    // duplicate of high card
+                    this.highCardHolders.add( currentPlayer ) ;
+                    }
+
+                // otherwise, card is lower than the highest
+                }
+
+            }   // end for
+
+        // reveal all the cards that were played this round
+        cardsInPlay.revealAll() ;
+
+        // start the next round with the next player
+        this.firstPlayerIndex = ( this.firstPlayerIndex + 1 ) % numberOfPlayers ;
+        this.roundNumber++ ;
+
+        this.cardsToAward = cardsInPlay ;
+        this.roundWinner = this.highCardHolders.size() == 1
+            ? this.highCardHolders.getFirst()
+            : null ;
+
+        final List<Card> cardsPlayed = new ArrayList<>( numberOfPlayers ) ;
+
+        for ( final CardBase aCard : cardsInPlay )
+            {
+            cardsPlayed.add( (Card) aCard ) ;
+            }
+
+        return new RoundResult( this.roundNumber,
+                                highCard,
+                                List.copyOf( this.highCardHolders ),
+                                Collections.unmodifiableList( cardsPlayed ) ) ;
+
+        }   // end playRound()
+
+
+    /**
+     * play and award rounds
+     *
+     * @param numberOfRounds
+     *     the number of rounds to play
+     *
+     * @return the number of rounds played - fewer than {@code numberOfRounds}
+     *     only if the game was abandoned
+     */
+    public int playRounds( final int numberOfRounds )
+        {
+
+        for ( int i = 0 ; i < numberOfRounds ; i++ )
+            {
+
+            if ( playRound() == null )
+                {
+                return i ;
+                }
+
+            awardRound() ;
+            }
+
+        return numberOfRounds ;
+
+        }   // end playRounds()
+
+
+    /*
+     * game state
+     */
+
+
+    /**
+     * retrieve the number of cards in the discard pile
+     *
+     * @return the number of cards in the discard pile
+     */
+    public int getDiscardPileSize()
+        {
+
+        return this.discardPile.cardCount() ;
+
+        }   // end getDiscardPileSize()
+
+
+    /**
+     * retrieve the rules for comparing cards in this game
+     *
+     * @return the card ordering
+     */
+    public CardOrdering getOrdering()
+        {
+
+        return this.ordering ;
+
+        }   // end getOrdering()
+
+
+    /**
+     * retrieve the players in the order they were dealt to
+     *
+     * @return a read-only view of the players
+     */
+    public List<Player> getPlayers()
+        {
+
+        return Collections.unmodifiableList( this.players ) ;
+
+        }   // end getPlayers()
+
+
+    /**
+     * retrieve this game's source of randomness
+     *
+     * @return the game's seeded source of randomness
+     */
+    public GameRandom getRandom()
+        {
+
+        return this.random ;
+
+        }   // end getRandom()
+
+
+    /**
+     * retrieve the number of rounds played since the hands were dealt
+     *
+     * @return the number of rounds played
+     */
+    public int getRoundNumber()
+        {
+
+        return this.roundNumber ;
+
+        }   // end getRoundNumber()
+
+
+    /**
+     * retrieve the number of cards in the stock
+     *
+     * @return the number of cards in the stock
+     */
+    public int getStockSize()
+        {
+
+        return this.stock.cardCount() ;
+
+        }   // end getStockSize()
+
+
+    /**
+     * determine whether an agent ended the game early
+     *
+     * @return true if the game was abandoned
+     */
+    public boolean isAbandoned()
+        {
+
+        return this.abandoned ;
+
+        }   // end isAbandoned()
+
+
+    /**
+     * turn the cards in the discard pile face up and describe them
+     *
+     * @return the cards in the discard pile
+     */
+    public String revealDiscardPile()
+        {
+
+        return this.discardPile.revealAll().toString() ;
+
+        }   // end revealDiscardPile()
+
+
+    /**
+     * turn the cards in the stock face up and describe them
+     *
+     * @return the cards in the stock
+     */
+    public String revealStock()
+        {
+
+        return this.stock.revealAll().toString() ;
+
+        }   // end revealStock()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - plays a game between bots, then times many games
+     *
+     * @param args
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom gameRandom = GameRandom.fromArguments( args ) ;
+
+        System.out.printf( "Seed: %s%n%n", gameRandom.toSpec() ) ;
+
+        final TopThisEngine game = new TopThisEngine( CardOrdering.STANDARD, gameRandom ) ;
+
+        game.addPlayer( "Ann", new RandomAgent() ) ;
+        game.addPlayer( "Bob", new HighestCardAgent() ) ;
+        game.addPlayer( "Cy", new RandomAgent() ) ;
+
+        game.openDecks( 2 ) ;
+        game.dealHands( 10 ) ;
+
+        for ( int i = 1 ; i <= 10 ; i++ )
+            {
+            final RoundResult result = game.playRound() ;
+
+            System.out.printf( "Round %,d: played %s - %s%n",
+                               result.roundNumber(),
+                               result.cardsPlayed(),
+                               result.isTie()
+                                   ? "tie"
+                                   : result.winner().name + " won" ) ;
+
+            game.awardRound() ;
+            }
+
+        for ( final Player aPlayer : game.getPlayers() )
+            {
+            System.out.printf( "%s: %,d melds%n", aPlayer.name, aPlayer.getMeldCount() ) ;
+            }
+
+
+        // time many games
+        final int games = 100_000 ;
+        final long startTime = System.nanoTime() ;
+
+        for ( int i = 0 ; i < games ; i++ )
+            {
+            game.collectCards() ;
+            game.dealHands( 10 ) ;
+            game.playRounds( 10 ) ;
+            }
+
+        final long elapsed = System.nanoTime() - startTime ;
+
+        System.out.printf( "%nPlayed %,d games of 10 rounds in %,d ms: %,.0f rounds/minute%n",
+                           games,
+                           elapsed / 1_000_000,
+                           games * 10 * 60e9 / elapsed ) ;
+
+        Deck.validateDecks( game.closeDecks() ) ;
+
+
+        // a bot which chooses a card it doesn't hold fails rather than being
+        // asked again forever
+        final TopThisEngine stuck = new TopThisEngine( CardOrdering.STANDARD, gameRandom.replay() ) ;
+
+        stuck.addPlayer( "Ann", new RandomAgent() ) ;
+        stuck.addPlayer( "Bob", ( stuckGame, player ) -> null ) ;
+
+        stuck.openDecks( 1 ) ;
+        stuck.dealHands( 5 ) ;
+
+        try
+            {
+            stuck.playRound() ;
+
+            System.out.printf( "%nFAIL: a bot's unusable card was accepted%n" ) ;
+            }
+        catch ( final IllegalStateException e )
+            {
+            System.out.printf( "%nUnusable card from a bot: %s%n", e.getMessage() ) ;
+            }
+
+        stuck.collectCards() ;
+
+        Deck.validateDecks( stuck.closeDecks() ) ;
+
+        }   // end main()
+
+    }   // end class TopThisEngine
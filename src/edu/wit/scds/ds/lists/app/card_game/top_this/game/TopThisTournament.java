@@ -0,0 +1,727 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.top_this.game ;
+
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.Card ;
+import edu.wit.scds.ds.lists.app.card_game.standard_cards.card.CardOrdering ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.GameRandom ;
+
+import java.util.ArrayList ;
+import java.util.Collections ;
+import java.util.Comparator ;
+import java.util.HashSet ;
+import java.util.List ;
+import java.util.Objects ;
+import java.util.Set ;
+import java.util.concurrent.ExecutionException ;
+import java.util.concurrent.ExecutorService ;
+import java.util.concurrent.Executors ;
+import java.util.concurrent.Future ;
+import java.util.concurrent.atomic.LongAdder ;
+import java.util.function.Supplier ;
+
+
+/**
+ * Plays a round-robin tournament of Top This between automated strategies,
+ * spread across a pool of worker threads
+ * <p>
+ * Every combination of {@link MatchFormat#playersPerMatch()} entrants is a
+ * matchup; each matchup is played the requested number of times, rotating the
+ * seating from one match to the next. Match {@code n} of the tournament gets
+ * its own {@link TopThisEngine}, its own agents and the source of randomness
+ * {@link GameRandom#derive(long) derived} from the tournament's seed and
+ * {@code n}, so any match can be replayed and the standings don't depend on
+ * the number of threads.
+ * <p>
+ * As each match ends, its results are added to per-entrant
+ * {@link LongAdder}s, so the workers never wait on one another and nothing
+ * is kept per match. The player with the most melds
+ * ({@link Player#getMeldCount()}) wins the match; players tied for the most
+ * share it.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class TopThisTournament
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** matches played by each task - enough to amortize scheduling */
+    private final static int MATCHES_PER_TASK = 256 ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the competing strategies */
+    private final List<Entrant> entrants ;
+
+    /** how each match is played */
+    private final MatchFormat format ;
+
+    /** for each matchup, the indices of the entrants playing, in seating order */
+    private final List<int[]> matchups ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * set up a tournament
+     *
+     * @param competitors
+     *     the competing strategies - their names must be unique
+     * @param matchFormat
+     *     how each match is played
+     *
+     * @throws IllegalArgumentException
+     *     if there are fewer competitors than players in a match or two share
+     *     a name
+     */
+    public TopThisTournament( final List<Entrant> competitors,
+                              final MatchFormat matchFormat )
+        {
+
+        Objects.requireNonNull( competitors, "competitors" ) ;
+        Objects.requireNonNull( matchFormat, "matchFormat" ) ;
+
+        if ( competitors.size() < matchFormat.playersPerMatch() )
+            {
+            throw new IllegalArgumentException( String.format( "need at least %,d entrants, have %,d",
+                                                               matchFormat.playersPerMatch(),
+                                                               competitors.size() ) ) ;
+            }
+
+        final Set<String> names = new HashSet<>() ;
+
+        for ( final Entrant anEntrant : competitors )
+            {
+
+            if ( !names.add( anEntrant.name() ) )
+                {
+                throw new IllegalArgumentException( String.format( "more than one entrant is named '%s'",
+                                                                   anEntrant.name() ) ) ;
+                }
+
+            }
+
+        this.entrants = List.copyOf( competitors ) ;
+        this.format = matchFormat ;
+        this.matchups = combinations( this.entrants.size(), matchFormat.playersPerMatch() ) ;
+
+        }   // end 2-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * retrieve the number of distinct matchups - each combination of entrants
+     *
+     * @return the number of matchups
+     */
+    public int getMatchupCount()
+        {
+
+        return this.matchups.size() ;
+
+        }   // end getMatchupCount()
+
+
+    /**
+     * play the tournament using one worker thread per available processor
+     *
+     * @param matchesPerMatchup
+     *     the number of times each matchup is played
+     * @param tournamentRandom
+     *     the source from which each match's randomness is derived
+     *
+     * @return the standings, best first
+     */
+    public List<Standing> run( final int matchesPerMatchup,
+                               final GameRandom tournamentRandom )
+        {
+
+        return run( matchesPerMatchup,
+                    tournamentRandom,
+                    Runtime.getRuntime().availableProcessors() ) ;
+
+        }   // end 2-arg run()
+
+
+    /**
+     * play the tournament
+     *
+     * @param matchesPerMatchup
+     *     the number of times each matchup is played
+     * @param tournamentRandom
+     *     the source from which each match's randomness is derived
+     * @param threads
+     *     the number of worker threads
+     *
+     * @return the standings, best first
+     *
+     * @throws IllegalArgumentException
+     *     if the number of matches is negative or the number of threads is
+     *     less than 1
+     * @throws IllegalStateException
+     *     if a match fails or the tournament is interrupted
+     */
+    public List<Standing> run( final int matchesPerMatchup,
+                               final GameRandom tournamentRandom,
+                               final int threads )
+        {
+
+        Objects.requireNonNull( tournamentRandom, "tournamentRandom" ) ;
+
+        if ( ( matchesPerMatchup < 0 ) || ( threads < 1 ) )
+            {
+            throw new IllegalArgumentException( String.format( "can't play %,d match(es) per matchup on %,d thread(s)",
+                                                               matchesPerMatchup,
+                                                               threads ) ) ;
+            }
+
+        final List<Tally> tallies = new ArrayList<>( this.entrants.size() ) ;
+
+        for ( int i = 0 ; i < this.entrants.size() ; i++ )
+            {
+            tallies.add( new Tally() ) ;
+            }
+
+        // matches are numbered matchup by matchup; carve them into contiguous batches
+        final long totalMatches = (long) matchesPerMatchup * this.matchups.size() ;
+        final List<Future<?>> batches = new ArrayList<>() ;
+
+        try ( ExecutorService workers = Executors.newFixedThreadPool( threads ) )
+            {
+
+            for ( long firstMatch = 0 ; firstMatch < totalMatches ; firstMatch += MATCHES_PER_TASK )
+                {
+                final long batchStart = firstMatch ;
+                final long batchEnd = Math.min( firstMatch + MATCHES_PER_TASK, totalMatches ) ;
+
+                batches.add( workers.submit( () -> playMatches( batchStart,
+                                                                batchEnd,
+                                                                matchesPerMatchup,
+                                                                tournamentRandom,
+                                                                tallies ) ) ) ;
+                }
+
+            for ( final Future<?> batch : batches )
+                {
+                batch.get() ;
+                }
+
+            }
+        catch ( final InterruptedException e )
+            {
+            Thread.currentThread().interrupt() ;
+
+            throw new IllegalStateException( "tournament interrupted", e ) ;
+            }
+        catch ( final ExecutionException e )
+            {
+            throw new IllegalStateException( "tournament match failed", e.getCause() ) ;
+            }
+
+        // all workers have finished - the sums are final
+        final List<Standing> standings = new ArrayList<>( this.entrants.size() ) ;
+
+        for ( int i = 0 ; i < this.entrants.size() ; i++ )
+            {
+            final Tally entrantTally = tallies.get( i ) ;
+
+            standings.add( new Standing( this.entrants.get( i ).name(),
+                                         entrantTally.matches.sum(),
+                                         entrantTally.wins.sum(),
+                                         entrantTally.sharedWins.sum(),
+                                         entrantTally.melds.sum() ) ) ;
+            }
+
+        standings.sort( Comparator.comparingDouble( Standing::winRate )
+                                  .thenComparingDouble( Standing::meldsPerMatch )
+                                  .reversed() ) ;
+
+        return Collections.unmodifiableList( standings ) ;
+
+        }   // end 3-arg run()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * enumerate every combination of {@code k} items chosen from {@code n},
+     * in lexicographic order
+     *
+     * @param n
+     *     the number of items
+     * @param k
+     *     the number chosen
+     *
+     * @return the combinations, each as ascending item indices
+     */
+    private static List<int[]> combinations( final int n,
+                                             final int k )
+        {
+
+        final List<int[]> found = new ArrayList<>() ;
+        final int[] chosen = new int[ k ] ;
+
+        for ( int i = 0 ; i < k ; i++ )
+            {
+            chosen[ i ] = i ;
+            }
+
+        while ( true )
+            {
+            found.add( chosen.clone() ) ;
+
+            // find the rightmost index which can still advance
+            int position = k - 1 ;
+
+            while ( ( position >= 0 ) && ( chosen[ position ] == ( ( n - k ) + position ) ) )
+                {
+                position-- ;
+                }
+
+            if ( position < 0 )
+                {
+                return found ;
+                }
+
+            chosen[ position ]++ ;
+
+            for ( int i = position + 1 ; i < k ; i++ )
+                {
+                chosen[ i ] = chosen[ i - 1 ] + 1 ;
+                }
+            }
+
+        }   // end combinations()
+
+
+    /**
+     * play one match and add its outcome to the tallies
+     *
+     * @param matchNumber
+     *     the match's number within the tournament
+     * @param matchesPerMatchup
+     *     the number of times each matchup is played
+     * @param tournamentRandom
+     *     the source from which the match's randomness is derived
+     * @param tallies
+     *     per-entrant results
+     */
+    private void playMatch( final long matchNumber,
+                            final int matchesPerMatchup,
+                            final GameRandom tournamentRandom,
+                            final List<Tally> tallies )
+        {
+
+        final int[] matchup = this.matchups.get( (int) ( matchNumber / matchesPerMatchup ) ) ;
+        final int seats = matchup.length ;
+
+        // rotate the seating so no entrant always plays first
+        final int rotation = (int) ( ( matchNumber % matchesPerMatchup ) % seats ) ;
+
+        final TopThisEngine engine = new TopThisEngine( CardOrdering.STANDARD,
+                                                        tournamentRandom.derive( matchNumber ) ) ;
+
+        for ( int seat = 0 ; seat < seats ; seat++ )
+            {
+            final Entrant anEntrant = this.entrants.get( matchup[ ( seat + rotation ) % seats ] ) ;
+
+            engine.addPlayer( anEntrant.name(), anEntrant.agents().get() ) ;
+            }
+
+        engine.openDecks( this.format.decks() ) ;
+        engine.dealHands( this.format.cardsPerHand() ) ;
+        engine.playRounds( this.format.rounds() ) ;
+
+        // the most melds wins
+        final List<Player> players = engine.getPlayers() ;
+        int mostMelds = -1 ;
+        int leaders = 0 ;
+
+        for ( final Player aPlayer : players )
+            {
+            final int melds = aPlayer.getMeldCount() ;
+
+            if ( melds > mostMelds )
+                {
+                mostMelds = melds ;
+                leaders = 1 ;
+                }
+            else if ( melds == mostMelds )
+                {
+                leaders++ ;
+                }
+            }
+
+        for ( int seat = 0 ; seat < seats ; seat++ )
+            {
+            final Tally entrantTally = tallies.get( matchup[ ( seat + rotation ) % seats ] ) ;
+            final int melds = players.get( seat ).getMeldCount() ;
+
+            entrantTally.matches.increment() ;
+            entrantTally.melds.add( melds ) ;
+
+            if ( melds == mostMelds )
+                {
+                ( leaders == 1
+                    ? entrantTally.wins
+                    : entrantTally.sharedWins ).increment() ;
+                }
+            }
+
+        }   // end playMatch()
+
+
+    /**
+     * play a batch of matches on the calling thread
+     *
+     * @param firstMatch
+     *     the number of the first match in the batch
+     * @param endMatch
+     *     one past the number of the last match in the batch
+     * @param matchesPerMatchup
+     *     the number of times each matchup is played
+     * @param tournamentRandom
+     *     the source from which each match's randomness is derived
+     * @param tallies
+     *     per-entrant results
+     */
+    private void playMatches( final long firstMatch,
+                              final long endMatch,
+                              final int matchesPerMatchup,
+                              final GameRandom tournamentRandom,
+                              final List<Tally> tallies )
+        {
+
+        for ( long match = firstMatch ; match < endMatch ; match++ )
+            {
+            playMatch( match, matchesPerMatchup, tournamentRandom, tallies ) ;
+            }
+
+        }   // end playMatches()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * a competing strategy
+     *
+     * @param name
+     *     identifies the strategy in the standings and as the player's name
+     * @param agents
+     *     creates the strategy's agent, once per match - possibly from several
+     *     threads at once
+     */
+    public record Entrant( String name,
+                           Supplier<? extends TopThisAgent> agents )
+        {
+
+        /**
+         * validate the fields
+         *
+         * @param name
+         *     identifies the strategy
+         * @param agents
+         *     creates the strategy's agent
+         */
+        public Entrant
+            {
+
+            Objects.requireNonNull( name, "name" ) ;
+            Objects.requireNonNull( agents, "agents" ) ;
+
+            }   // end compact constructor
+
+        }   // end record Entrant
+
+
+    /**
+     * how each match is played
+     *
+     * @param playersPerMatch
+     *     the number of entrants in each match
+     * @param decks
+     *     the number of decks shuffled together
+     * @param cardsPerHand
+     *     the number of cards dealt to each player
+     * @param rounds
+     *     the number of rounds played
+     */
+    public record MatchFormat( int playersPerMatch,
+                               int decks,
+                               int cardsPerHand,
+                               int rounds )
+        {
+
+        /** three players, two decks, ten cards each and ten rounds */
+        public final static MatchFormat STANDARD = new MatchFormat( 3, 2, 10, 10 ) ;
+
+
+        /**
+         * validate the fields
+         *
+         * @param playersPerMatch
+         *     the number of entrants in each match
+         * @param decks
+         *     the number of decks shuffled together
+         * @param cardsPerHand
+         *     the number of cards dealt to each player
+         * @param rounds
+         *     the number of rounds played
+         *
+         * @throws IllegalArgumentException
+         *     if any value is less than 1 or there are more rounds than cards
+         *     in a hand
+         */
+        public MatchFormat
+            {
+
+            if ( ( playersPerMatch < 1 ) || ( decks < 1 ) || ( cardsPerHand < 1 ) || ( rounds < 1 ) ||
+                 ( rounds > cardsPerHand ) )
+                {
+                throw new IllegalArgumentException( String.format( "can't play %,d round(s) with %,d player(s), %,d deck(s) and %,d card(s) per hand",
+                                                                   rounds,
+                                                                   playersPerMatch,
+                                                                   decks,
+                                                                   cardsPerHand ) ) ;
+                }
+
+            }   // end compact constructor
+
+        }   // end record MatchFormat
+
+
+    /**
+     * an entrant's results
+     *
+     * @param name
+     *     the entrant's name
+     * @param matches
+     *     the number of matches played
+     * @param wins
+     *     the number of matches won outright
+     * @param sharedWins
+     *     the number of matches in which the entrant tied for the most melds
+     * @param melds
+     *     the total number of melds collected
+     */
+    public record Standing( String name,
+                            long matches,
+                            long wins,
+                            long sharedWins,
+                            long melds )
+        {
+
+        /**
+         * calculate the average number of melds collected per match
+         *
+         * @return the average, 0.0 if no matches were played
+         */
+        public double meldsPerMatch()
+            {
+
+            return this.matches == 0
+                ? 0.0
+                : (double) this.melds / this.matches ;
+
+            }   // end meldsPerMatch()
+
+
+        /**
+         * calculate the fraction of matches won outright
+         *
+         * @return the fraction, 0.0 if no matches were played
+         */
+        public double winRate()
+            {
+
+            return this.matches == 0
+                ? 0.0
+                : (double) this.wins / this.matches ;
+
+            }   // end winRate()
+
+
+        @Override
+        public String toString()
+            {
+
+            return String.format( "%-10s %,11d matches  won %5.1f%%  shared %5.1f%%  %5.2f melds/match",
+                                  this.name,
+                                  this.matches,
+                                  100 * winRate(),
+                                  this.matches == 0
+                                      ? 0.0
+                                      : ( 100.0 * this.sharedWins ) / this.matches,
+                                  meldsPerMatch() ) ;
+
+            }   // end toString()
+
+        }   // end record Standing
+
+
+    /**
+     * an entrant's running totals - updated concurrently by the workers
+     */
+    private static final class Tally
+        {
+
+        /** matches played */
+        final LongAdder matches = new LongAdder() ;
+
+        /** matches won outright */
+        final LongAdder wins = new LongAdder() ;
+
+        /** matches tied for the most melds */
+        final LongAdder sharedWins = new LongAdder() ;
+
+        /** melds collected */
+        final LongAdder melds = new LongAdder() ;
+
+        }   // end class Tally
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver - plays a tournament between four simple strategies on 1, 2,
+     * 4, ... threads up to the number of available processors, reports the
+     * standings and throughput, and confirms every run had the same standings
+     *
+     * @param args
+     *     [0] optional seed, as {@code seed} or {@code algorithm:seed}<br>
+     *     [1] optional number of matches per matchup, default 25,000
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom tournamentRandom = GameRandom.fromArguments( args ) ;
+        final int matchesPerMatchup = args.length > 1
+            ? Integer.parseInt( args[ 1 ] )
+            : 25_000 ;
+
+        // agents are stateless so one instance of each serves every match
+        final TopThisAgent random = new RandomAgent() ;
+        final TopThisAgent highest = new HighestCardAgent() ;
+        final TopThisAgent lowest = ( game, player ) ->
+            Collections.min( player.getHandCards(), game.getOrdering() ) ;
+        final TopThisAgent middle = ( game, player ) ->
+            {
+            final List<Card> hand = player.getHandCards() ;
+            hand.sort( game.getOrdering() ) ;
+
+            return hand.get( hand.size() / 2 ) ;
+            } ;
+
+        final TopThisTournament tournament =
+                new TopThisTournament( List.of( new Entrant( "Random", () -> random ),
+                                                new Entrant( "Highest", () -> highest ),
+                                                new Entrant( "Lowest", () -> lowest ),
+                                                new Entrant( "Middle", () -> middle ) ),
+                                       MatchFormat.STANDARD ) ;
+
+        final long totalMatches = (long) matchesPerMatchup * tournament.getMatchupCount() ;
+
+        System.out.printf( "Seed: %s%n%,d matchups x %,d matches%n%n",
+                           tournamentRandom.toSpec(),
+                           tournament.getMatchupCount(),
+                           matchesPerMatchup ) ;
+
+        // warm up so the timings compare compiled code
+        tournament.run( Math.min( matchesPerMatchup, 2_000 ), tournamentRandom.derive( -1 ) ) ;
+
+        // 1, 2, 4, ... threads then all processors - at least two runs to check repeatability
+        final int processors = Math.max( 2, Runtime.getRuntime().availableProcessors() ) ;
+        final List<Integer> threadCounts = new ArrayList<>() ;
+
+        for ( int threads = 1 ; threads < processors ; threads *= 2 )
+            {
+            threadCounts.add( threads ) ;
+            }
+
+        threadCounts.add( processors ) ;
+
+        List<Standing> firstStandings = null ;
+
+        for ( final int threads : threadCounts )
+            {
+            final long startTime = System.nanoTime() ;
+            final List<Standing> standings = tournament.run( matchesPerMatchup, tournamentRandom, threads ) ;
+            final long elapsed = System.nanoTime() - startTime ;
+
+            System.out.printf( "%,d thread(s): %,d ms, %,.0f matches/second (%.1f minutes per million)%n",
+                               threads,
+                               elapsed / 1_000_000,
+                               totalMatches * 1e9 / elapsed,
+                               ( elapsed / 60e9 ) * ( 1e6 / totalMatches ) ) ;
+
+            if ( firstStandings == null )
+                {
+                firstStandings = standings ;
+
+                System.out.println() ;
+                standings.forEach( System.out::println ) ;
+                System.out.println() ;
+                }
+            else if ( !firstStandings.equals( standings ) )
+                {
+                throw new IllegalStateException( "standings depend on the number of threads" ) ;
+                }
+            }
+
+        }   // end main()
+
+    }   // end class TopThisTournament
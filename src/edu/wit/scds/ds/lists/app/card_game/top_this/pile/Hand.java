@@ -51,6 +51,8 @@ import java.util.Collections ;
  *     <li>switch {@code remove[Highest,Lowest]Card()} from manual loops to
  *     {@code Collections.[max,min]()}
  *     </ul>
+ * @version 3.1 2026-10-18 find the highest/lowest card using the hand's
+ *     {@code CardOrdering}
  */
 public final class Hand extends Pile
     {
@@ -94,7 +96,7 @@ public final class Hand extends Pile
             throw new NoCardsException() ;
             }
 
-        return removeCard( Collections.max( super.cards ) ) ;
+        return removeCard( Collections.max( super.cards, getCardComparator() ) ) ;
 
         }  // end removeHighestCard()
 
@@ -115,7 +117,7 @@ public final class Hand extends Pile
             throw new NoCardsException() ;
             }
 
-        return removeCard( Collections.min( super.cards ) ) ;
+        return removeCard( Collections.min( super.cards, getCardComparator() ) ) ;
 
         }  // end removeLowestCard()
 
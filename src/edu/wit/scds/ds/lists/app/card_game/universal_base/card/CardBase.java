@@ -65,6 +65,12 @@ import java.util.Objects ;
  *     {@code CardBase} - less of a mouthful
  * @version 3.1 2025-11-11 add {get,set}FaceUpTextLocked()
  * @version 3.2 2025-11-19 add template card support
+ * @version 3.3 2026-10-18 add a constructor which takes all of its settings
+ *     explicitly so cards can be created without touching the static defaults
+ * @version 4.0 2026-10-18 share an interned {@code CardText} among all cards
+ *     with the same text and decoration rather than each card holding its own
+ *     strings and decoration array - {@code toString()} returns pre-rendered
+ *     text
  */
 public abstract class CardBase implements Comparable<CardBase>
     {
@@ -185,15 +191,15 @@ public abstract class CardBase implements Comparable<CardBase>
      */
 
 
-    /** text to display when the card is face up */
-    private String faceUpText ;
+    /**
+     * text to display when the card is face up/down and the decoration applied
+     * to it - shared with all other cards with the same text
+     */
+    private CardText text ;
 
-    /** lock for faceUpText - it's supposed to be immutable */
+    /** lock for the face up text - it's supposed to be immutable */
     private boolean faceUpTextLocked ;
 
-    /** text to display when the card is face down */
-    private String faceDownText ;
-
     /** control display - face up/down */
     protected Orientation orientation ;
 
@@ -203,9 +209,6 @@ public abstract class CardBase implements Comparable<CardBase>
      */
     private final Persistence persistence ;
 
-    /** decoration applied before/after the face text */
-    private final String[] decoration ;
-
     /*
      * constructors
      */
@@ -239,18 +242,13 @@ public abstract class CardBase implements Comparable<CardBase>
 
         validatePersistence( cardPersistence ) ;
 
-        this.faceUpText = defaultFaceUpText ;
+        this.text = CardText.of( defaultFaceUpText, defaultFaceDownText, decorationFor( cardPersistence ) ) ;
         this.faceUpTextLocked = false ;
 
-        this.faceDownText = defaultFaceDownText ;
-
         this.orientation = defaultOrientation ;
 
         this.persistence = cardPersistence ;
 
-        this.decoration = new String[ DEFAULT_UNKNOWN_DECORATION.length ] ;
-        setDecoration() ;
-
         }   // end 1-arg constructor w/ persistence
 
 
@@ -294,21 +292,100 @@ public abstract class CardBase implements Comparable<CardBase>
 
         validatePersistence( cardPersistence ) ;
 
-        this.faceUpText = sourceCard.faceUpText ;
+        this.text = CardText.of( sourceCard.text.getFaceUpText(),
+                                 sourceCard.text.getFaceDownText(),
+                                 decorationFor( cardPersistence ) ) ;
         this.faceUpTextLocked = true ;
 
-        this.faceDownText = sourceCard.faceDownText ;
-
         this.orientation = sourceCard.orientation ;
 
         this.persistence = cardPersistence ;
 
-        this.decoration = new String[ DEFAULT_UNKNOWN_DECORATION.length ] ;
-        setDecoration() ;
-
         }   // end cloning constructor
 
 
+    /**
+     * set initial state entirely from the arguments - none of the static
+     * defaults are consulted so any number of threads can create cards
+     * concurrently with different settings
+     *
+     * @param initialFaceUpText
+     *     text to display when the card is face up - locked
+     * @param initialFaceDownText
+     *     text to display when the card is face down
+     * @param initialOrientation
+     *     {@code FACE_UP} or {@code FACE_DOWN}
+     * @param cardPersistence
+     *     the persistence for this card
+     * @param cardDecoration
+     *     2-element array where [0] is applied immediately before the face text
+     *     and [1] immediately following
+     *
+     * @throws IllegalArgumentException
+     *     if the orientation, persistence, or decoration isn't acceptable for a
+     *     card
+     *
+     * @since 3.3
+     */
+    protected CardBase( final String initialFaceUpText,
+                        final String initialFaceDownText,
+                        final Orientation initialOrientation,
+                        final Persistence cardPersistence,
+                        final String[] cardDecoration )
+        {
+
+        this( CardText.of( initialFaceUpText, initialFaceDownText, cardDecoration ),
+              initialOrientation,
+              cardPersistence ) ;
+
+        }   // end 5-arg constructor w/ explicit settings
+
+
+    /**
+     * set initial state entirely from the arguments, sharing an already
+     * interned {@code CardText} - none of the static defaults are consulted so
+     * any number of threads can create cards concurrently with different
+     * settings
+     *
+     * @param initialText
+     *     text to display and decoration - the face up text is locked
+     * @param initialOrientation
+     *     {@code FACE_UP} or {@code FACE_DOWN}
+     * @param cardPersistence
+     *     the persistence for this card
+     *
+     * @throws IllegalArgumentException
+     *     if the orientation or persistence isn't acceptable for a card
+     *
+     * @since 4.0
+     */
+    protected CardBase( final CardText initialText,
+                        final Orientation initialOrientation,
+                        final Persistence cardPersistence )
+        {
+
+        Objects.requireNonNull( initialText, "initialText" ) ;
+        Objects.requireNonNull( initialOrientation, "initialOrientation" ) ;
+
+        validatePersistence( cardPersistence ) ;
+
+        // only FACE_UP and FACE_DOWN are defined for cards
+        if ( ( initialOrientation != FACE_UP ) && ( initialOrientation != FACE_DOWN ) )
+            {
+            throw new IllegalArgumentException( String.format( "%s is not acceptable for a card",
+                                                               initialOrientation.name() ) ) ;
+            }
+
+        this.text = initialText ;
+        this.faceUpTextLocked = true ;
+
+        this.orientation = initialOrientation ;
+
+        this.persistence = cardPersistence ;
+
+        }   // end 3-arg constructor w/ shared text
+
+
     /*
      * public API methods
      */
@@ -381,7 +458,7 @@ public abstract class CardBase implements Comparable<CardBase>
     public String getFaceUpText()
         {
 
-        return this.faceUpText ;
+        return this.text.getFaceUpText() ;
 
         }  // end getFaceUpText()
 
@@ -395,7 +472,7 @@ public abstract class CardBase implements Comparable<CardBase>
     public String getFaceDownText()
         {
 
-        return this.faceDownText ;
+        return this.text.getFaceDownText() ;
 
         }  // end getFaceDownText()
 
@@ -584,7 +661,7 @@ public abstract class CardBase implements Comparable<CardBase>
     public CardBase resetFaceDownText()
         {
 
-        this.faceDownText = defaultFaceDownText ;
+        this.text = this.text.withFaceDownText( defaultFaceDownText ) ;
 
         return this ;
 
@@ -757,7 +834,8 @@ public abstract class CardBase implements Comparable<CardBase>
 
         Objects.requireNonNull( newFaceDownText, "newFaceDownText" ) ;
 
-        this.faceDownText = newFaceDownText ;
+        // switch to the shared text with the new face down text
+        this.text = this.text.withFaceDownText( newFaceDownText ) ;
 
         return this ;
 
@@ -798,11 +876,11 @@ public abstract class CardBase implements Comparable<CardBase>
         if ( this.faceUpTextLocked )
             {
             throw new IllegalStateException( String.format( "can't change face of card from '%s' to '%s'",
-                                                            this.faceUpText,
+                                                            this.text.getFaceUpText(),
                                                             newFaceUpText ) ) ;
             }
 
-        this.faceUpText = newFaceUpText ;
+        this.text = this.text.withFaceUpText( newFaceUpText ) ;
 
         // prevent subsequent changes
         this.faceUpTextLocked = true ;
@@ -992,16 +1070,8 @@ public abstract class CardBase implements Comparable<CardBase>
     public String toString()
         {
 
-        return String.format( "%s%s%s",
-                              includeDecoration == EnabledDisabled.ENABLED
-                                      ? this.decoration[ 0 ]
-                                      : "",
-                              this.orientation == FACE_UP
-                                      ? this.faceUpText
-                                      : this.faceDownText,
-                              includeDecoration == EnabledDisabled.ENABLED
-                                      ? this.decoration[ 1 ]
-                                      : "" ) ;
+        // the shared text has already rendered each form
+        return this.text.render( this.orientation, includeDecoration == EnabledDisabled.ENABLED ) ;
 
         }   // end toString()
 
@@ -1025,12 +1095,17 @@ public abstract class CardBase implements Comparable<CardBase>
 
 
     /**
-     * set the decoration according to the persistence
+     * retrieve the current default decoration for a persistence
+     *
+     * @param cardPersistence
+     *     the persistence
+     *
+     * @return the decoration - don't modify it
      */
-    private void setDecoration()
+    private static String[] decorationFor( final Persistence cardPersistence )
         {
 
-        System.arraycopy( switch ( this.persistence )
+        return switch ( cardPersistence )
             {
             case Persistence.PERMANENT
                 -> defaultPermanentCardDecoration ;
@@ -1039,10 +1114,10 @@ public abstract class CardBase implements Comparable<CardBase>
             case Persistence.TEMPORARY
                 -> defaultTemporaryCardDecoration ;
             default
-                -> throw new IllegalStateException( this.persistence.toString() ) ;
-            }, 0, this.decoration, 0, this.decoration.length ) ;
+                -> throw new IllegalStateException( cardPersistence.toString() ) ;
+            } ;
 
-        }   // end setDecoration()
+        }   // end decorationFor()
 
 
     /**
@@ -0,0 +1,396 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.card ;
+
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
+
+import java.util.Arrays ;
+import java.util.Map ;
+import java.util.Objects ;
+import java.util.concurrent.ConcurrentHashMap ;
+
+
+/**
+ * The text used to display a card: its face up text, face down text, and
+ * decoration
+ * <p>
+ * instances are immutable and interned so every card with the same text
+ * shares a single instance - a deck's worth of cards with the same
+ * persistence needs one instance per face rather than one set of strings and
+ * one decoration array per card. The decorated forms are rendered once, when
+ * the instance is created, so displaying a card doesn't build a new string.
+ * <p>
+ * Note: interned instances are retained for the life of the JVM - there are
+ * only a handful of distinct combinations in practice
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class CardText
+    {
+
+    /*
+     * static fields
+     */
+
+
+    /** the one shared instance of each distinct combination of text */
+    private final static Map<Key, CardText> interned = new ConcurrentHashMap<>() ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** text to display when the card is face up */
+    private final String faceUpText ;
+
+    /** text to display when the card is face down */
+    private final String faceDownText ;
+
+    /** decoration applied immediately before the face text */
+    private final String leftDecoration ;
+
+    /** decoration applied immediately following the face text */
+    private final String rightDecoration ;
+
+    /** the face up text with decoration */
+    private final String decoratedFaceUpText ;
+
+    /** the face down text with decoration */
+    private final String decoratedFaceDownText ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * render the text
+     *
+     * @param theFaceUpText
+     *     text to display when the card is face up
+     * @param theFaceDownText
+     *     text to display when the card is face down
+     * @param theLeftDecoration
+     *     decoration applied immediately before the face text
+     * @param theRightDecoration
+     *     decoration applied immediately following the face text
+     */
+    private CardText( final String theFaceUpText,
+                      final String theFaceDownText,
+                      final String theLeftDecoration,
+                      final String theRightDecoration )
+        {
+
+        this.faceUpText = theFaceUpText ;
+        this.faceDownText = theFaceDownText ;
+        this.leftDecoration = theLeftDecoration ;
+        this.rightDecoration = theRightDecoration ;
+
+        this.decoratedFaceUpText = theLeftDecoration + theFaceUpText + theRightDecoration ;
+        this.decoratedFaceDownText = theLeftDecoration + theFaceDownText + theRightDecoration ;
+
+        }   // end constructor
+
+
+    /*
+     * factories
+     */
+
+
+    /**
+     * retrieve the shared instance for a combination of text
+     *
+     * @param theFaceUpText
+     *     text to display when the card is face up
+     * @param theFaceDownText
+     *     text to display when the card is face down
+     * @param theDecoration
+     *     2-element array where [0] is applied immediately before the face text
+     *     and [1] immediately following
+     *
+     * @return the shared instance
+     *
+     * @throws IllegalArgumentException
+     *     if the decoration array doesn't have exactly 2 elements
+     */
+    public static CardText of( final String theFaceUpText,
+                               final String theFaceDownText,
+                               final String[] theDecoration )
+        {
+
+        Objects.requireNonNull( theDecoration, "theDecoration" ) ;
+
+        if ( theDecoration.length != 2 )
+            {
+            throw new IllegalArgumentException( String.format( "decoration requires a 2-element array, argument array has %,d element(s)",
+                                                               theDecoration.length ) ) ;
+            }
+
+        return of( theFaceUpText, theFaceDownText, theDecoration[ 0 ], theDecoration[ 1 ] ) ;
+
+        }   // end 3-arg of()
+
+
+    /**
+     * retrieve the shared instance which differs from this one only in face
+     * down text
+     *
+     * @param newFaceDownText
+     *     text to display when the card is face down
+     *
+     * @return the shared instance
+     */
+    public CardText withFaceDownText( final String newFaceDownText )
+        {
+
+        return newFaceDownText.equals( this.faceDownText )
+                ? this
+                : of( this.faceUpText, newFaceDownText, this.leftDecoration, this.rightDecoration ) ;
+
+        }   // end withFaceDownText()
+
+
+    /**
+     * retrieve the shared instance which differs from this one only in face up
+     * text
+     *
+     * @param newFaceUpText
+     *     text to display when the card is face up
+     *
+     * @return the shared instance
+     */
+    public CardText withFaceUpText( final String newFaceUpText )
+        {
+
+        return newFaceUpText.equals( this.faceUpText )
+                ? this
+                : of( newFaceUpText, this.faceDownText, this.leftDecoration, this.rightDecoration ) ;
+
+        }   // end withFaceUpText()
+
+
+    /*
+     * accessors
+     */
+
+
+    /**
+     * retrieve the decoration
+     *
+     * @return 2-element array where [0] is the left decoration and [1] is the
+     *     right
+     */
+    public String[] getDecoration()
+        {
+
+        return new String[] { this.leftDecoration, this.rightDecoration } ;
+
+        }   // end getDecoration()
+
+
+    /**
+     * retrieve the text to display when the card is face down
+     *
+     * @return the face down text
+     */
+    public String getFaceDownText()
+        {
+
+        return this.faceDownText ;
+
+        }   // end getFaceDownText()
+
+
+    /**
+     * retrieve the text to display when the card is face up
+     *
+     * @return the face up text
+     */
+    public String getFaceUpText()
+        {
+
+        return this.faceUpText ;
+
+        }   // end getFaceUpText()
+
+
+    /**
+     * retrieve the displayable form of a card
+     *
+     * @param orientation
+     *     {@code FACE_UP} selects the face up text, anything else the face
+     *     down text
+     * @param decorated
+     *     {@code true} to include the decoration
+     *
+     * @return the pre-rendered text
+     */
+    public String render( final Orientation orientation,
+                          final boolean decorated )
+        {
+
+        if ( orientation == Orientation.FACE_UP )
+            {
+            return decorated
+                    ? this.decoratedFaceUpText
+                    : this.faceUpText ;
+            }
+
+        return decorated
+                ? this.decoratedFaceDownText
+                : this.faceDownText ;
+
+        }   // end render()
+
+
+    /*
+     * general methods
+     */
+
+
+    @Override
+    public boolean equals( final Object otherObject )
+        {
+
+        if ( this == otherObject )
+            {
+            return true ;
+            }
+
+        if ( otherObject instanceof final CardText otherText )
+            {
+            return this.faceUpText.equals( otherText.faceUpText ) &&
+                   this.faceDownText.equals( otherText.faceDownText ) &&
+                   this.leftDecoration.equals( otherText.leftDecoration ) &&
+                   this.rightDecoration.equals( otherText.rightDecoration ) ;
+            }
+
+        return false ;
+
+        }   // end equals()
+
+
+    @Override
+    public int hashCode()
+        {
+
+        return Objects.hash( this.faceUpText, this.faceDownText, this.leftDecoration, this.rightDecoration ) ;
+
+        }   // end hashCode()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "%s[%s, %s, %s]",
+                              this.getClass().getSimpleName(),
+                              this.decoratedFaceUpText,
+                              this.decoratedFaceDownText,
+                              Arrays.toString( getDecoration() ) ) ;
+
+        }   // end toString()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * retrieve the shared instance for a combination of text
+     *
+     * @param theFaceUpText
+     *     text to display when the card is face up
+     * @param theFaceDownText
+     *     text to display when the card is face down
+     * @param theLeftDecoration
+     *     decoration applied immediately before the face text
+     * @param theRightDecoration
+     *     decoration applied immediately following the face text
+     *
+     * @return the shared instance
+     */
+    private static CardText of( final String theFaceUpText,
+                                final String theFaceDownText,
+                                final String theLeftDecoration,
+                                final String theRightDecoration )
+        {
+
+        Objects.requireNonNull( theFaceUpText, "theFaceUpText" ) ;
+        Objects.requireNonNull( theFaceDownText, "theFaceDownText" ) ;
+        Objects.requireNonNull( theLeftDecoration, "theLeftDecoration" ) ;
+        Objects.requireNonNull( theRightDecoration, "theRightDecoration" ) ;
+
+        // the key is cheap to build - only render the text the first time
+        return interned.computeIfAbsent( new Key( theFaceUpText,
+                                                  theFaceDownText,
+                                                  theLeftDecoration,
+                                                  theRightDecoration ),
+                                         key -> new CardText( key.faceUpText(),
+                                                              key.faceDownText(),
+                                                              key.leftDecoration(),
+                                                              key.rightDecoration() ) ) ;
+
+        }   // end 4-arg of()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * identifies a distinct combination of text
+     *
+     * @param faceUpText
+     *     text to display when the card is face up
+     * @param faceDownText
+     *     text to display when the card is face down
+     * @param leftDecoration
+     *     decoration applied immediately before the face text
+     * @param rightDecoration
+     *     decoration applied immediately following the face text
+     */
+    private record Key( String faceUpText,
+                        String faceDownText,
+                        String leftDecoration,
+                        String rightDecoration )
+        {
+        // nothing to add
+        }   // end record Key
+
+    }   // end class CardText
@@ -0,0 +1,708 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.pile ;
+
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.AbstractList ;
+import java.util.Arrays ;
+import java.util.Collection ;
+import java.util.Comparator ;
+import java.util.NoSuchElementException ;
+import java.util.Objects ;
+import java.util.RandomAccess ;
+import java.util.function.Predicate ;
+import java.util.random.RandomGenerator ;
+
+
+/**
+ * circular array storage for the cards in a pile
+ * <p>
+ * position 0 is the top of the pile; cards can be added or removed at either
+ * end in O(1) and any position can be retrieved or replaced in O(1). Inserting
+ * or removing in the middle shifts whichever side of the position is shorter.
+ * <p>
+ * the capacity is always a power of 2 so physical positions can be computed
+ * with a mask rather than a remainder
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add an in-place {@code shuffle()}
+ * @version 1.2 2026-10-18 {@code removeIf()} tests every card before removing
+ *     any, so a filter which throws leaves the buffer unchanged
+ */
+final class CardRingBuffer extends AbstractList<CardBase> implements RandomAccess
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** capacity of a new, empty buffer - enough for a typical hand */
+    private final static int DEFAULT_CAPACITY = 16 ;
+
+    /** largest capacity we'll allocate (largest power of 2 an array can hold) */
+    private final static int MAXIMUM_CAPACITY = 1 << 30 ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the backing array - its length is always a power of 2 */
+    private CardBase[] elements ;
+
+    /** physical position of the top card (logical position 0) */
+    private int head ;
+
+    /** number of cards currently stored */
+    private int size ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * initialize an empty buffer with the default capacity
+     */
+    CardRingBuffer()
+        {
+
+        this( DEFAULT_CAPACITY ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * initialize an empty buffer able to hold at least
+     * {@code initialCapacity} cards before it has to grow
+     *
+     * @param initialCapacity
+     *     the number of cards expected
+     */
+    CardRingBuffer( final int initialCapacity )
+        {
+
+        this.elements = new CardBase[ capacityFor( Math.max( initialCapacity, 1 ) ) ] ;
+        this.head = 0 ;
+        this.size = 0 ;
+
+        }   // end 1-arg constructor
+
+
+    /*
+     * List API - positional access
+     */
+
+
+    @Override
+    public CardBase get( final int index )
+        {
+
+        Objects.checkIndex( index, this.size ) ;
+
+        return this.elements[ physical( index ) ] ;
+
+        }   // end get()
+
+
+    @Override
+    public CardBase set( final int index,
+                         final CardBase newCard )
+        {
+
+        Objects.checkIndex( index, this.size ) ;
+
+        final int slot = physical( index ) ;
+        final CardBase replacedCard = this.elements[ slot ] ;
+
+        this.elements[ slot ] = newCard ;
+
+        return replacedCard ;
+
+        }   // end set()
+
+
+    @Override
+    public int size()
+        {
+
+        return this.size ;
+
+        }   // end size()
+
+
+    /*
+     * List API - both ends
+     */
+
+
+    @Override
+    public boolean add( final CardBase newCard )
+        {
+
+        addLast( newCard ) ;
+
+        return true ;
+
+        }   // end add()
+
+
+    @Override
+    public void addFirst( final CardBase newCard )
+        {
+
+        ensureCapacity( this.size + 1 ) ;
+
+        this.head = ( this.head - 1 ) & mask() ;
+        this.elements[ this.head ] = newCard ;
+        this.size++ ;
+        this.modCount++ ;
+
+        }   // end addFirst()
+
+
+    @Override
+    public void addLast( final CardBase newCard )
+        {
+
+        ensureCapacity( this.size + 1 ) ;
+
+        this.elements[ physical( this.size ) ] = newCard ;
+        this.size++ ;
+        this.modCount++ ;
+
+        }   // end addLast()
+
+
+    @Override
+    public CardBase getFirst()
+        {
+
+        if ( this.size == 0 )
+            {
+            throw new NoSuchElementException() ;
+            }
+
+        return this.elements[ this.head ] ;
+
+        }   // end getFirst()
+
+
+    @Override
+    public CardBase getLast()
+        {
+
+        if ( this.size == 0 )
+            {
+            throw new NoSuchElementException() ;
+            }
+
+        return this.elements[ physical( this.size - 1 ) ] ;
+
+        }   // end getLast()
+
+
+    @Override
+    public CardBase removeFirst()
+        {
+
+        if ( this.size == 0 )
+            {
+            throw new NoSuchElementException() ;
+            }
+
+        final CardBase removedCard = this.elements[ this.head ] ;
+
+        this.elements[ this.head ] = null ;     // don't hang on to it
+        this.head = ( this.head + 1 ) & mask() ;
+        this.size-- ;
+        this.modCount++ ;
+
+        return removedCard ;
+
+        }   // end removeFirst()
+
+
+    @Override
+    public CardBase removeLast()
+        {
+
+        if ( this.size == 0 )
+            {
+            throw new NoSuchElementException() ;
+            }
+
+        final int slot = physical( this.size - 1 ) ;
+        final CardBase removedCard = this.elements[ slot ] ;
+
+        this.elements[ slot ] = null ;          // don't hang on to it
+        this.size-- ;
+        this.modCount++ ;
+
+        return removedCard ;
+
+        }   // end removeLast()
+
+
+    /*
+     * List API - arbitrary positions
+     */
+
+
+    @Override
+    public void add( final int index,
+                     final CardBase newCard )
+        {
+
+        Objects.checkIndex( index, this.size + 1 ) ;
+
+        if ( index == 0 )
+            {
+            addFirst( newCard ) ;
+
+            return ;
+            }
+
+        if ( index == this.size )
+            {
+            addLast( newCard ) ;
+
+            return ;
+            }
+
+        ensureCapacity( this.size + 1 ) ;
+
+        if ( index < ( this.size / 2 ) )
+            {
+            // shift the cards above the position up (toward the top) one slot
+            this.head = ( this.head - 1 ) & mask() ;
+
+            for ( int i = 0 ; i < index ; i++ )
+                {
+                this.elements[ physical( i ) ] = this.elements[ physical( i + 1 ) ] ;
+                }
+
+            }
+        else
+            {
+            // shift the cards below the position down (toward the bottom) one slot
+            for ( int i = this.size ; i > index ; i-- )
+                {
+                this.elements[ physical( i ) ] = this.elements[ physical( i - 1 ) ] ;
+                }
+
+            }
+
+        this.elements[ physical( index ) ] = newCard ;
+        this.size++ ;
+        this.modCount++ ;
+
+        }   // end add() at position
+
+
+    @Override
+    public CardBase remove( final int index )
+        {
+
+        Objects.checkIndex( index, this.size ) ;
+
+        if ( index == 0 )
+            {
+            return removeFirst() ;
+            }
+
+        if ( index == ( this.size - 1 ) )
+            {
+            return removeLast() ;
+            }
+
+        final CardBase removedCard = this.elements[ physical( index ) ] ;
+
+        if ( index < ( this.size / 2 ) )
+            {
+            // close the gap by shifting the cards above it down one slot
+            for ( int i = index ; i > 0 ; i-- )
+                {
+                this.elements[ physical( i ) ] = this.elements[ physical( i - 1 ) ] ;
+                }
+
+            this.elements[ this.head ] = null ;
+            this.head = ( this.head + 1 ) & mask() ;
+            }
+        else
+            {
+            // close the gap by shifting the cards below it up one slot
+            for ( int i = index ; i < ( this.size - 1 ) ; i++ )
+                {
+                this.elements[ physical( i ) ] = this.elements[ physical( i + 1 ) ] ;
+                }
+
+            this.elements[ physical( this.size - 1 ) ] = null ;
+            }
+
+        this.size-- ;
+        this.modCount++ ;
+
+        return removedCard ;
+
+        }   // end remove() at position
+
+
+    /*
+     * List API - bulk operations
+     */
+
+
+    @Override
+    public boolean addAll( final Collection<? extends CardBase> newCards )
+        {
+
+        return addAll( this.size, newCards ) ;
+
+        }   // end addAll()
+
+
+    @Override
+    public boolean addAll( final int index,
+                           final Collection<? extends CardBase> newCards )
+        {
+
+        Objects.checkIndex( index, this.size + 1 ) ;
+
+        // snapshot the source first - it may be this buffer
+        final Object[] source = newCards.toArray() ;
+        final int count = source.length ;
+
+        if ( count == 0 )
+            {
+            return false ;
+            }
+
+        ensureCapacity( this.size + count ) ;
+
+        if ( index < ( this.size - index ) )
+            {
+            // open the gap by moving the cards above the position up
+            this.head = ( this.head - count ) & mask() ;
+
+            for ( int i = 0 ; i < index ; i++ )
+                {
+                this.elements[ physical( i ) ] = this.elements[ physical( i + count ) ] ;
+                }
+
+            }
+        else
+            {
+            // open the gap by moving the cards below the position down
+            for ( int i = ( this.size - 1 ) ; i >= index ; i-- )
+                {
+                this.elements[ physical( i + count ) ] = this.elements[ physical( i ) ] ;
+                }
+
+            }
+
+        for ( int i = 0 ; i < count ; i++ )
+            {
+            this.elements[ physical( index + i ) ] = (CardBase) source[ i ] ;
+            }
+
+        this.size += count ;
+        this.modCount++ ;
+
+        return true ;
+
+        }   // end addAll() at position
+
+
+    @Override
+    public void clear()
+        {
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+            this.elements[ physical( i ) ] = null ;
+            }
+
+        this.head = 0 ;
+        this.size = 0 ;
+        this.modCount++ ;
+
+        }   // end clear()
+
+
+    @Override
+    public int indexOf( final Object target )
+        {
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+
+            if ( Objects.equals( target, this.elements[ physical( i ) ] ) )
+                {
+                return i ;
+                }
+
+            }
+
+        return -1 ;
+
+        }   // end indexOf()
+
+
+    @Override
+    public boolean removeIf( final Predicate<? super CardBase> filter )
+        {
+
+        Objects.requireNonNull( filter, "filter" ) ;
+
+        // find every card to remove before changing anything - if the filter
+        // throws, the buffer is untouched
+        final long[] removals = new long[ ( this.size + 63 ) >>> 6 ] ;
+        int removedCount = 0 ;
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+
+            if ( filter.test( this.elements[ physical( i ) ] ) )
+                {
+                removals[ i >>> 6 ] |= 1L << i ;
+                removedCount++ ;
+                }
+
+            }
+
+        if ( removedCount == 0 )
+            {
+            return false ;
+            }
+
+        // keep the survivors, in order, at the front of the buffer
+        int kept = 0 ;
+
+        for ( int i = 0 ; i < this.size ; i++ )
+            {
+
+            if ( ( removals[ i >>> 6 ] & ( 1L << i ) ) == 0 )
+                {
+                this.elements[ physical( kept++ ) ] = this.elements[ physical( i ) ] ;
+                }
+
+            }
+
+        for ( int i = kept ; i < this.size ; i++ )
+            {
+            this.elements[ physical( i ) ] = null ;
+            }
+
+        this.size = kept ;
+        this.modCount++ ;
+
+        return true ;
+
+        }   // end removeIf()
+
+
+    /**
+     * randomize the order of the cards in place (Fisher-Yates) - unlike
+     * {@code Collections.shuffle()}, no copy of the cards is made
+     *
+     * @param randomGenerator
+     *     the source of randomness
+     */
+    void shuffle( final RandomGenerator randomGenerator )
+        {
+
+        // make the cards contiguous so each position is an array index
+        normalize( this.elements.length ) ;
+
+        for ( int i = this.size - 1 ; i > 0 ; i-- )
+            {
+            final int j = randomGenerator.nextInt( i + 1 ) ;
+
+            final CardBase swap = this.elements[ i ] ;
+            this.elements[ i ] = this.elements[ j ] ;
+            this.elements[ j ] = swap ;
+            }
+
+        }   // end shuffle()
+
+
+    @Override
+    public void sort( final Comparator<? super CardBase> comparator )
+        {
+
+        // make the cards contiguous then sort them in place
+        normalize( this.elements.length ) ;
+
+        Arrays.sort( this.elements, 0, this.size, comparator ) ;
+
+        this.modCount++ ;
+
+        }   // end sort()
+
+
+    @Override
+    public Object[] toArray()
+        {
+
+        final Object[] copy = new Object[ this.size ] ;
+
+        copyTo( copy ) ;
+
+        return copy ;
+
+        }   // end toArray()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * determine the smallest power of 2 which is at least {@code required}
+     *
+     * @param required
+     *     the minimum capacity
+     *
+     * @return the capacity to allocate
+     */
+    private static int capacityFor( final int required )
+        {
+
+        if ( required > MAXIMUM_CAPACITY )
+            {
+            throw new OutOfMemoryError( String.format( "a pile can't hold %,d cards", required ) ) ;
+            }
+
+        return Math.max( DEFAULT_CAPACITY, Integer.highestOneBit( required - 1 ) << 1 ) ;
+
+        }   // end capacityFor()
+
+
+    /**
+     * copy the cards, top to bottom, into the beginning of {@code destination}
+     *
+     * @param destination
+     *     an array with room for at least {@code size} elements
+     */
+    private void copyTo( final Object[] destination )
+        {
+
+        final int firstRun = Math.min( this.size, this.elements.length - this.head ) ;
+
+        System.arraycopy( this.elements, this.head, destination, 0, firstRun ) ;
+        System.arraycopy( this.elements, 0, destination, firstRun, this.size - firstRun ) ;
+
+        }   // end copyTo()
+
+
+    /**
+     * make sure there's room for {@code required} cards, doubling the capacity
+     * as needed
+     *
+     * @param required
+     *     the number of cards we must be able to hold
+     */
+    private void ensureCapacity( final int required )
+        {
+
+        if ( required > this.elements.length )
+            {
+            normalize( capacityFor( required ) ) ;
+            }
+
+        }   // end ensureCapacity()
+
+
+    /**
+     * the mask to convert a logical offset from {@code head} to a physical
+     * position
+     *
+     * @return the mask
+     */
+    private int mask()
+        {
+
+        return this.elements.length - 1 ;
+
+        }   // end mask()
+
+
+    /**
+     * rearrange (and optionally resize) the backing array so the top card is
+     * in physical position 0
+     *
+     * @param capacity
+     *     the capacity of the rearranged array - a power of 2 not less than
+     *     the current size
+     */
+    private void normalize( final int capacity )
+        {
+
+        if ( ( this.head == 0 ) && ( capacity == this.elements.length ) )
+            {
+            return ;    // already in the right shape
+            }
+
+        final CardBase[] rearranged = new CardBase[ capacity ] ;
+
+        copyTo( rearranged ) ;
+
+        this.elements = rearranged ;
+        this.head = 0 ;
+
+        }   // end normalize()
+
+
+    /**
+     * convert a logical position (0 is the top) to a position in the backing
+     * array
+     *
+     * @param index
+     *     the logical position
+     *
+     * @return the physical position
+     */
+    private int physical( final int index )
+        {
+
+        return ( this.head + index ) & mask() ;
+
+        }   // end physical()
+
+    }   // end class CardRingBuffer
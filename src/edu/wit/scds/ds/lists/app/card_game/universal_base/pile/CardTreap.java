@@ -0,0 +1,831 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.pile ;
+
+import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
+
+import java.util.AbstractList ;
+import java.util.Arrays ;
+import java.util.Collection ;
+import java.util.Comparator ;
+import java.util.ConcurrentModificationException ;
+import java.util.Iterator ;
+import java.util.NoSuchElementException ;
+import java.util.Objects ;
+import java.util.function.Consumer ;
+import java.util.function.Predicate ;
+import java.util.random.RandomGenerator ;
+
+
+/**
+ * persistent storage for the cards in a pile - an implicit treap whose nodes
+ * are never changed once built
+ * <p>
+ * position 0 is the top of the pile. Each change builds new nodes only along
+ * the paths it touches and shares every other node with the previous tree, so
+ * adding, removing or replacing a card at any position takes O(log n)
+ * expected time and space, and any earlier tree ({@link #getRoot()}) remains
+ * valid and can be reinstated in O(1) ({@link #setRoot(Node)}). Retrieving a
+ * card by position is O(log n) rather than the O(1) of {@link CardRingBuffer}.
+ * <p>
+ * node priorities come from a fixed sequence, so the shape of the tree - and
+ * therefore the cost of each operation - is the same from run to run
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+final class CardTreap extends AbstractList<CardBase>
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the step between successive priority seeds (the golden ratio in 64 bits) */
+    private final static long PRIORITY_STEP = 0x9E37_79B9_7F4A_7C15L ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** the current tree or {@code null} if there are no cards */
+    private Node root ;
+
+    /** the seed for the next node's priority */
+    private long prioritySeed ;
+
+    /** the left result of {@code split()} - saves allocating a pair */
+    private Node splitLeft ;
+
+    /** the right result of {@code split()} */
+    private Node splitRight ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * initialize an empty treap
+     */
+    CardTreap()
+        {
+
+        this.root = null ;
+        this.prioritySeed = 0 ;
+
+        }   // end no-arg constructor
+
+
+    /*
+     * versions
+     */
+
+
+    /**
+     * retrieve the current tree - it will never change, so it can be
+     * reinstated later with {@link #setRoot(Node)}
+     *
+     * @return the current tree or {@code null} if there are no cards
+     */
+    Node getRoot()
+        {
+
+        return this.root ;
+
+        }   // end getRoot()
+
+
+    /**
+     * reinstate a tree retrieved by {@link #getRoot()}
+     *
+     * @param newRoot
+     *     the tree or {@code null} for no cards
+     */
+    void setRoot( final Node newRoot )
+        {
+
+        this.root = newRoot ;
+        this.modCount++ ;
+
+        }   // end setRoot()
+
+
+    /*
+     * List API - positional access
+     */
+
+
+    @Override
+    public CardBase get( final int index )
+        {
+
+        Objects.checkIndex( index, size() ) ;
+
+        Node current = this.root ;
+        int position = index ;
+
+        while ( true )
+            {
+            final int leftSize = size( current.left ) ;
+
+            if ( position < leftSize )
+                {
+                current = current.left ;
+                }
+            else if ( position == leftSize )
+                {
+                return current.card ;
+                }
+            else
+                {
+                position -= leftSize + 1 ;
+                current = current.right ;
+                }
+            }
+
+        }   // end get()
+
+
+    @Override
+    public CardBase set( final int index,
+                         final CardBase newCard )
+        {
+
+        final CardBase replacedCard = get( index ) ;    // validates the index
+
+        this.root = replace( this.root, index, newCard ) ;
+
+        return replacedCard ;
+
+        }   // end set()
+
+
+    @Override
+    public int size()
+        {
+
+        return size( this.root ) ;
+
+        }   // end size()
+
+
+    /*
+     * List API - insertion and removal
+     */
+
+
+    @Override
+    public void add( final int index,
+                     final CardBase newCard )
+        {
+
+        Objects.checkIndex( index, size() + 1 ) ;
+
+        split( this.root, index ) ;
+        final Node below = this.splitRight ;
+
+        this.root = merge( merge( this.splitLeft, newNode( newCard ) ), below ) ;
+        this.modCount++ ;
+
+        }   // end add() at position
+
+
+    @Override
+    public CardBase remove( final int index )
+        {
+
+        Objects.checkIndex( index, size() ) ;
+
+        split( this.root, index ) ;
+        final Node above = this.splitLeft ;
+
+        split( this.splitRight, 1 ) ;
+        final CardBase removedCard = this.splitLeft.card ;
+
+        this.root = merge( above, this.splitRight ) ;
+        this.modCount++ ;
+
+        return removedCard ;
+
+        }   // end remove() at position
+
+
+    /*
+     * List API - bulk operations
+     */
+
+
+    @Override
+    public boolean addAll( final Collection<? extends CardBase> newCards )
+        {
+
+        return addAll( size(), newCards ) ;
+
+        }   // end addAll()
+
+
+    @Override
+    public boolean addAll( final int index,
+                           final Collection<? extends CardBase> newCards )
+        {
+
+        Objects.checkIndex( index, size() + 1 ) ;
+
+        // snapshot the source first - it may be this treap
+        final Object[] source = newCards.toArray() ;
+
+        if ( source.length == 0 )
+            {
+            return false ;
+            }
+
+        final Node inserted = build( source, source.length ) ;
+
+        split( this.root, index ) ;
+        final Node below = this.splitRight ;
+
+        this.root = merge( merge( this.splitLeft, inserted ), below ) ;
+        this.modCount++ ;
+
+        return true ;
+
+        }   // end addAll() at position
+
+
+    @Override
+    public void clear()
+        {
+
+        this.root = null ;
+        this.modCount++ ;
+
+        }   // end clear()
+
+
+    @Override
+    public void forEach( final Consumer<? super CardBase> action )
+        {
+
+        Objects.requireNonNull( action, "action" ) ;
+
+        forEach( this.root, action ) ;
+
+        }   // end forEach()
+
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * walks the tree in O(n) rather than retrieving each position in
+     * O(log n)
+     */
+    @Override
+    public Iterator<CardBase> iterator()
+        {
+
+        return new CardTreapIterator() ;
+
+        }   // end iterator()
+
+
+    @Override
+    public boolean removeIf( final Predicate<? super CardBase> filter )
+        {
+
+        Objects.requireNonNull( filter, "filter" ) ;
+
+        // single pass: keep the survivors, in order, then rebuild from them
+        final Object[] survivors = toArray() ;
+        int kept = 0 ;
+
+        for ( final Object aCard : survivors )
+            {
+
+            if ( !filter.test( (CardBase) aCard ) )
+                {
+                survivors[ kept++ ] = aCard ;
+                }
+
+            }
+
+        if ( kept == survivors.length )
+            {
+            return false ;
+            }
+
+        this.root = build( survivors, kept ) ;
+        this.modCount++ ;
+
+        return true ;
+
+        }   // end removeIf()
+
+
+    /**
+     * randomize the order of the cards (Fisher-Yates) - the same generator
+     * state produces the same order as {@link CardRingBuffer#shuffle}
+     *
+     * @param randomGenerator
+     *     the source of randomness
+     */
+    void shuffle( final RandomGenerator randomGenerator )
+        {
+
+        final Object[] shuffled = toArray() ;
+
+        for ( int i = shuffled.length - 1 ; i > 0 ; i-- )
+            {
+            final int j = randomGenerator.nextInt( i + 1 ) ;
+
+            final Object swap = shuffled[ i ] ;
+            shuffled[ i ] = shuffled[ j ] ;
+            shuffled[ j ] = swap ;
+            }
+
+        this.root = build( shuffled, shuffled.length ) ;
+        this.modCount++ ;
+
+        }   // end shuffle()
+
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    public void sort( final Comparator<? super CardBase> comparator )
+        {
+
+        final Object[] sorted = toArray() ;
+
+        Arrays.sort( sorted, (Comparator<Object>) comparator ) ;
+
+        this.root = build( sorted, sorted.length ) ;
+        this.modCount++ ;
+
+        }   // end sort()
+
+
+    @Override
+    public Object[] toArray()
+        {
+
+        final Object[] copy = new Object[ size() ] ;
+
+        copyTo( this.root, copy, 0 ) ;
+
+        return copy ;
+
+        }   // end toArray()
+
+
+    /*
+     * private utility methods
+     */
+
+
+    /**
+     * build a tree holding cards, in order
+     *
+     * @param source
+     *     the cards
+     * @param count
+     *     the number of cards, from the beginning of {@code source}, to use
+     *
+     * @return the tree
+     */
+    private Node build( final Object[] source,
+                        final int count )
+        {
+
+        Node tree = null ;
+
+        for ( int i = 0 ; i < count ; i++ )
+            {
+            tree = merge( tree, newNode( (CardBase) source[ i ] ) ) ;
+            }
+
+        return tree ;
+
+        }   // end build()
+
+
+    /**
+     * copy the cards in a tree, in order, into an array
+     *
+     * @param tree
+     *     the tree
+     * @param destination
+     *     receives the cards
+     * @param position
+     *     where the first card goes
+     *
+     * @return the position after the last card copied
+     */
+    private static int copyTo( final Node tree,
+                               final Object[] destination,
+                               final int position )
+        {
+
+        if ( tree == null )
+            {
+            return position ;
+            }
+
+        final int next = copyTo( tree.left, destination, position ) ;
+        destination[ next ] = tree.card ;
+
+        return copyTo( tree.right, destination, next + 1 ) ;
+
+        }   // end copyTo()
+
+
+    /**
+     * perform an action on each card in a tree, in order
+     *
+     * @param tree
+     *     the tree
+     * @param action
+     *     the action
+     */
+    private static void forEach( final Node tree,
+                                 final Consumer<? super CardBase> action )
+        {
+
+        if ( tree != null )
+            {
+            forEach( tree.left, action ) ;
+            action.accept( tree.card ) ;
+            forEach( tree.right, action ) ;
+            }
+
+        }   // end forEach() for a tree
+
+
+    /**
+     * join two trees - every card in {@code above} precedes every card in
+     * {@code below}
+     *
+     * @param above
+     *     the cards nearer the top
+     * @param below
+     *     the cards nearer the bottom
+     *
+     * @return the joined tree - shares all nodes not on the path where the
+     *     trees were joined
+     */
+    private static Node merge( final Node above,
+                               final Node below )
+        {
+
+        if ( above == null )
+            {
+            return below ;
+            }
+
+        if ( below == null )
+            {
+            return above ;
+            }
+
+        return above.priority >= below.priority
+            ? new Node( above.card, above.priority, above.left, merge( above.right, below ) )
+            : new Node( below.card, below.priority, merge( above, below.left ), below.right ) ;
+
+        }   // end merge()
+
+
+    /**
+     * create a single-card tree with the next priority in the sequence
+     *
+     * @param card
+     *     the card
+     *
+     * @return the tree
+     */
+    private Node newNode( final CardBase card )
+        {
+
+        // SplitMix64 finalizer - spreads consecutive seeds across all priorities
+        long mixed = ( this.prioritySeed += PRIORITY_STEP ) ;
+        mixed = ( mixed ^ ( mixed >>> 30 ) ) * 0xBF58_476D_1CE4_E5B9L ;
+        mixed = ( mixed ^ ( mixed >>> 27 ) ) * 0x94D0_49BB_1331_11EBL ;
+
+        return new Node( card, (int) ( mixed ^ ( mixed >>> 31 ) ), null, null ) ;
+
+        }   // end newNode()
+
+
+    /**
+     * copy the path to a position, replacing the card there
+     *
+     * @param tree
+     *     the tree
+     * @param index
+     *     the position, within {@code tree}
+     * @param newCard
+     *     the replacement card
+     *
+     * @return the new tree
+     */
+    private static Node replace( final Node tree,
+                                 final int index,
+                                 final CardBase newCard )
+        {
+
+        final int leftSize = size( tree.left ) ;
+
+        if ( index < leftSize )
+            {
+            return new Node( tree.card, tree.priority, replace( tree.left, index, newCard ), tree.right ) ;
+            }
+
+        if ( index == leftSize )
+            {
+            return new Node( newCard, tree.priority, tree.left, tree.right ) ;
+            }
+
+        return new Node( tree.card,
+                         tree.priority,
+                         tree.left,
+                         replace( tree.right, index - leftSize - 1, newCard ) ) ;
+
+        }   // end replace()
+
+
+    /**
+     * determine the number of cards in a tree
+     *
+     * @param tree
+     *     the tree or {@code null}
+     *
+     * @return the number of cards
+     */
+    static int size( final Node tree )
+        {
+
+        return tree == null
+            ? 0
+            : tree.size ;
+
+        }   // end size() of a tree
+
+
+    /**
+     * divide a tree into the first {@code count} cards ({@code splitLeft})
+     * and the rest ({@code splitRight}) - the original tree is unchanged
+     *
+     * @param tree
+     *     the tree
+     * @param count
+     *     the number of cards for the left tree
+     */
+    private void split( final Node tree,
+                        final int count )
+        {
+
+        if ( tree == null )
+            {
+            this.splitLeft = null ;
+            this.splitRight = null ;
+
+            return ;
+            }
+
+        final int leftSize = size( tree.left ) ;
+
+        if ( count <= leftSize )
+            {
+            split( tree.left, count ) ;
+            this.splitRight = new Node( tree.card, tree.priority, this.splitRight, tree.right ) ;
+            }
+        else
+            {
+            split( tree.right, count - leftSize - 1 ) ;
+            this.splitLeft = new Node( tree.card, tree.priority, tree.left, this.splitLeft ) ;
+            }
+
+        }   // end split()
+
+
+    /*
+     * utility classes
+     */
+
+
+    /**
+     * in-order traversal of the tree as it was when the iterator was created -
+     * since nodes never change, removing a card through the iterator leaves
+     * the rest of the traversal intact
+     */
+    private final class CardTreapIterator implements Iterator<CardBase>
+        {
+
+        /** the nodes whose cards, and right subtrees, are still to be visited */
+        private Node[] pending ;
+
+        /** the number of nodes in {@code pending} */
+        private int depth ;
+
+        /** the position of the next card */
+        private int nextIndex ;
+
+        /** the position of the card last returned or -1 if it can't be removed */
+        private int lastIndex ;
+
+        /** detects changes made other than through this iterator */
+        private int expectedModCount ;
+
+
+        /**
+         * start at the top card
+         */
+        private CardTreapIterator()
+            {
+
+            this.pending = new Node[ 16 ] ;
+            this.depth = 0 ;
+            this.nextIndex = 0 ;
+            this.lastIndex = -1 ;
+            this.expectedModCount = CardTreap.this.modCount ;
+
+            descendLeft( CardTreap.this.root ) ;
+
+            }   // end constructor
+
+
+        @Override
+        public boolean hasNext()
+            {
+
+            return this.depth > 0 ;
+
+            }   // end hasNext()
+
+
+        @Override
+        public CardBase next()
+            {
+
+            checkForComodification() ;
+
+            if ( this.depth == 0 )
+                {
+                throw new NoSuchElementException() ;
+                }
+
+            final Node current = this.pending[ --this.depth ] ;
+            descendLeft( current.right ) ;
+
+            this.lastIndex = this.nextIndex++ ;
+
+            return current.card ;
+
+            }   // end next()
+
+
+        @Override
+        public void remove()
+            {
+
+            if ( this.lastIndex < 0 )
+                {
+                throw new IllegalStateException() ;
+                }
+
+            checkForComodification() ;
+
+            CardTreap.this.remove( this.lastIndex ) ;
+
+            this.nextIndex = this.lastIndex ;
+            this.lastIndex = -1 ;
+            this.expectedModCount = CardTreap.this.modCount ;
+
+            }   // end remove()
+
+
+        /**
+         * make sure the treap hasn't been changed other than by this iterator
+         *
+         * @throws ConcurrentModificationException
+         *     if it has
+         */
+        private void checkForComodification()
+            {
+
+            if ( CardTreap.this.modCount != this.expectedModCount )
+                {
+                throw new ConcurrentModificationException() ;
+                }
+
+            }   // end checkForComodification()
+
+
+        /**
+         * stack a node and its chain of left children
+         *
+         * @param tree
+         *     the node or {@code null}
+         */
+        private void descendLeft( final Node tree )
+            {
+
+            for ( Node current = tree ; current != null ; current = current.left )
+                {
+
+                if ( this.depth == this.pending.length )
+                    {
+                    this.pending = Arrays.copyOf( this.pending, 2 * this.depth ) ;
+                    }
+
+                this.pending[ this.depth++ ] = current ;
+                }
+
+            }   // end descendLeft()
+
+        }   // end class CardTreapIterator
+
+
+    /**
+     * an immutable tree node - a card, its priority, and the subtrees above
+     * (left) and below (right) it in the pile
+     */
+    static final class Node
+        {
+
+        /** the card at this node */
+        final CardBase card ;
+
+        /** heap order - a node's priority is at least that of its children */
+        final int priority ;
+
+        /** the number of cards in this subtree */
+        final int size ;
+
+        /** the cards above this one */
+        final Node left ;
+
+        /** the cards below this one */
+        final Node right ;
+
+
+        /**
+         * configure the instance state
+         *
+         * @param theCard
+         *     the card at this node
+         * @param thePriority
+         *     the node's heap priority
+         * @param theLeft
+         *     the cards above or {@code null}
+         * @param theRight
+         *     the cards below or {@code null}
+         */
+        Node( final CardBase theCard,
+              final int thePriority,
+              final Node theLeft,
+              final Node theRight )
+            {
+
+            this.card = theCard ;
+            this.priority = thePriority ;
+            this.left = theLeft ;
+            this.right = theRight ;
+            this.size = size( theLeft ) + 1 + size( theRight ) ;
+
+            }   // end constructor
+
+        }   // end class Node
+
+    }   // end class CardTreap
@@ -34,17 +34,27 @@ import edu.wit.scds.ds.lists.app.card_game.universal_base.card.CardBase ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.NoCardsException ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation ;
 import edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence ;
+import edu.wit.scds.ds.lists.app.card_game.universal_base.support.PileStorage ;
 
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Orientation.AS_IS ;
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence.PERMANENT ;
 import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.Persistence.UNRESTRICTED ;
+import static edu.wit.scds.ds.lists.app.card_game.universal_base.support.PileStorage.RING_BUFFER ;
 
+import java.util.ArrayList ;
+import java.util.Arrays ;
 import java.util.Collections ;
+import java.util.Comparator ;
+import java.util.IdentityHashMap ;
 import java.util.Iterator ;
 import java.util.LinkedList ;
 import java.util.List ;
 import java.util.ListIterator ;
 import java.util.Objects ;
+import java.util.Set ;
+import java.util.concurrent.ThreadLocalRandom ;
+import java.util.function.Predicate ;
+import java.util.random.RandomGenerator ;
 
 
 /**
@@ -100,6 +110,35 @@ import java.util.Objects ;
  * @version 6.2 2025-11-19 add support for verification of decks that they have
  *     the correct contents, typically at the end of a game to determine if any
  *     cards have been lost
+ * @version 7.0 2026-10-18
+ *     <ul>
+ *     <li>add selectable storage engines - the default is now an array-backed
+ *     ring buffer which retains O(1) add/remove at the top and bottom and adds
+ *     O(1) positional access
+ *     <li>{@code removeAll()} hands over the storage rather than copying it
+ *     </ul>
+ * @version 7.1 2026-10-18 notify subclasses of every card added to or removed
+ *     from the pile so they can maintain derived information such as indexes
+ * @version 7.2 2026-10-18
+ *     <ul>
+ *     <li>{@code removeAllMatchingCards()} makes a single pass over the pile
+ *     <li>add {@code removeCardsIf()} to remove all cards which satisfy a
+ *     condition
+ *     </ul>
+ * @version 7.3 2026-10-18 add {@code mergeCards()} to support subclasses which
+ *     keep their cards in order
+ * @version 7.4 2026-10-18 route all card comparisons through overridable
+ *     methods so subclasses can supply their own comparison rules
+ * @version 7.5 2026-10-18 add {@code shuffle(RandomGenerator)} so games can
+ *     supply a seeded source of randomness - ring buffer storage is shuffled
+ *     in place
+ * @version 7.6 2026-10-18 add persistent storage with {@code saveVersion()} and
+ *     {@code restoreVersion()}, and {@code allCardsReplaced()} so subclasses
+ *     can rebuild derived information when a version is restored - subclasses
+ *     which derive nothing from the cards skip the rebuild by overriding
+ *     {@code tracksCards()}
+ * @version 7.7 2026-10-18 {@code removeCardsIf()} finds every match, and
+ *     checks the receiving pile accepts them, before moving any card
  */
 public abstract class PileBase implements Iterable<CardBase>
     {
@@ -117,6 +156,9 @@ public abstract class PileBase implements Iterable<CardBase>
     /** by default, piles will only accept permanent cards */
     protected final static Persistence DEFAULT_ACCEPTABLE_CARD_PERSISTENCE = PERMANENT ;
 
+    /** by default, piles store their cards in a ring buffer */
+    protected final static PileStorage DEFAULT_STORAGE = RING_BUFFER ;
+
 
     /*
      * data fields
@@ -141,6 +183,9 @@ public abstract class PileBase implements Iterable<CardBase>
      */
     private Persistence acceptablePersistence ;
 
+    /** the storage engine currently holding {@code cards} */
+    private PileStorage storage ;
+
 
     /*
      * constructors
@@ -155,7 +200,8 @@ public abstract class PileBase implements Iterable<CardBase>
     protected PileBase()
         {
 
-        this.cards = new LinkedList<>() ;
+        this.storage = DEFAULT_STORAGE ;
+        this.cards = createStorage( this.storage ) ;
 
         resetDefaultOrientation() ;
 
@@ -277,6 +323,7 @@ public abstract class PileBase implements Iterable<CardBase>
         prepareCardToAdd( newCard ) ;   // checks for null argument
 
         this.cards.add( position, newCard ) ;
+        cardAdded( newCard ) ;
 
         return this ;
 
@@ -299,6 +346,7 @@ public abstract class PileBase implements Iterable<CardBase>
         prepareCardToAdd( newCard ) ;   // checks for null argument
 
         this.cards.addLast( newCard ) ;
+        cardAdded( newCard ) ;
 
         return this ;
 
@@ -321,6 +369,7 @@ public abstract class PileBase implements Iterable<CardBase>
         prepareCardToAdd( newCard ) ;   // checks for null argument
 
         this.cards.addFirst( newCard ) ;
+        cardAdded( newCard ) ;
 
         return this ;
 
@@ -353,6 +402,7 @@ public abstract class PileBase implements Iterable<CardBase>
         {
 
         this.cards.clear() ;
+        allCardsRemoved() ;
 
         return this ;
 
@@ -405,6 +455,41 @@ public abstract class PileBase implements Iterable<CardBase>
         }   // end getDefaultOrientation()
 
 
+    /**
+     * retrieve the storage engine holding the cards in this pile
+     *
+     * @return the storage engine
+     *
+     * @since 7.0
+     */
+    public PileStorage getStorage()
+        {
+
+        return this.storage ;
+
+        }   // end getStorage()
+
+
+    /**
+     * retrieve the order used to compare the cards in this pile, for instance,
+     * by {@code sort()}
+     * <p>
+     * by default, cards are compared using their natural order
+     * ({@code compareTo()})
+     *
+     * @return the comparator
+     *
+     * @since 7.4
+     */
+    @SuppressWarnings( "static-method" )
+    public Comparator<CardBase> getCardComparator()
+        {
+
+        return Comparator.naturalOrder() ;
+
+        }   // end getCardComparator()
+
+
     /**
      * Retrieve the bottom card from the pile - the card is not removed from the
      * pile
@@ -484,7 +569,7 @@ public abstract class PileBase implements Iterable<CardBase>
 
         Objects.requireNonNull( likeCard, "likeCard" ) ;
 
-        final int positionOfCard = this.cards.indexOf( likeCard ) ;
+        final int positionOfCard = positionOf( likeCard ) ;
 
         if ( positionOfCard == -1 )
             {
@@ -601,7 +686,7 @@ public abstract class PileBase implements Iterable<CardBase>
         for ( final CardBase aCard : this.cards )
             {
 
-            if ( aCard.matches( targetCard ) )
+            if ( isMatchingCard( aCard, targetCard ) )
                 {
                 matches++ ;
                 }
@@ -630,6 +715,7 @@ public abstract class PileBase implements Iterable<CardBase>
 
         // add the cards to the bottom of our pile
         this.cards.addAll( nextBottomPosition(), otherCards.cards ) ;
+        otherCards.cards.forEach( this::cardAdded ) ;
 
         // remove all cards from the other pile
         otherCards.clear() ;
@@ -659,6 +745,7 @@ public abstract class PileBase implements Iterable<CardBase>
 
         // add the cards to the top of our pile
         this.cards.addAll( nextTopPosition(), otherCards.cards ) ;
+        otherCards.cards.forEach( this::cardAdded ) ;
 
         // remove all cards from the other pile
         otherCards.clear() ;
@@ -683,14 +770,17 @@ public abstract class PileBase implements Iterable<CardBase>
 
         Objects.requireNonNull( card, "card" ) ;
 
-        final int positionOfCard = this.cards.indexOf( card ) ;
+        final int positionOfCard = positionOf( card ) ;
 
         if ( positionOfCard == -1 )
             {
             return null ;
             }
 
-        return this.cards.remove( positionOfCard ) ;
+        final CardBase removedCard = this.cards.remove( positionOfCard ) ;
+        cardRemoved( removedCard ) ;
+
+        return removedCard ;
 
         }  // end removeCard()
 
@@ -710,10 +800,12 @@ public abstract class PileBase implements Iterable<CardBase>
             { /* temporary collection */ } ;
         allRemovedCards.setAcceptablePersistence( UNRESTRICTED ).setDefaultOrientation( AS_IS ) ;
 
-        // move (copy then delete all) all the cards from our list into the the
-        // temporary pile
-        allRemovedCards.cards.addAll( this.cards ) ;
-        this.cards.clear() ;
+        // hand our storage over to the temporary pile and start over with
+        // fresh, empty storage - no need to copy the cards
+        allRemovedCards.cards = this.cards ;
+        allRemovedCards.storage = this.storage ;
+        this.cards = createStorage( this.storage ) ;
+        allCardsRemoved() ;
 
         return allRemovedCards ;
 
@@ -737,19 +829,78 @@ public abstract class PileBase implements Iterable<CardBase>
         {
 
         Objects.requireNonNull( lookupCard, "lookupCard" ) ;
+
+        // same test removeCard() uses - checks for null removedCards
+        return removeCardsIf( aCard -> isSameCard( lookupCard, aCard ), removedCards ) ;
+
+        }  // end removeAllMatchingCards()
+
+
+    /**
+     * Remove all cards which satisfy a condition from the pile in a single pass
+     * <p>
+     * the removed cards are added to the bottom of {@code removedCards} in the
+     * order they appeared in this pile. The filter is applied to every card,
+     * and {@code removedCards} checked to accept every match, before any card
+     * is moved - if either fails, neither pile is changed.
+     *
+     * @param filter
+     *     the condition - cards for which it returns {@code true} are removed
+     * @param removedCards
+     *     an existing {@code PileBase} to receive the removed cards
+     *
+     * @return this pile (fluent)
+     *
+     * @throws IllegalArgumentException
+     *     if {@code removedCards} won't accept a matching card
+     *
+     * @since 7.2
+     */
+    public PileBase removeCardsIf( final Predicate<? super CardBase> filter,
+                                   final PileBase removedCards )
+        {
+
+        Objects.requireNonNull( filter, "filter" ) ;
         Objects.requireNonNull( removedCards, "removedCards" ) ;
 
-        // pull any matching cards from the pile
-        CardBase foundCard ;
+        // find the matches, in order, without changing anything
+        final List<CardBase> matchingCards = new ArrayList<>() ;
 
-        while ( ( foundCard = removeCard( lookupCard ) ) != null )
+        for ( final CardBase aCard : this.cards )
             {
-            removedCards.addToBottom( foundCard ) ;
+
+            if ( filter.test( aCard ) )
+                {
+                matchingCards.add( aCard ) ;
+                }
+
+            }
+
+        if ( matchingCards.isEmpty() )
+            {
+            return this ;
+            }
+
+        for ( final CardBase aCard : matchingCards )
+            {
+            removedCards.validateCardToAdd( aCard ) ;
+            }
+
+        // partition the pile in a single pass - the survivors stay, in order
+        final Set<CardBase> cardsToRemove = Collections.newSetFromMap( new IdentityHashMap<>() ) ;
+        cardsToRemove.addAll( matchingCards ) ;
+
+        this.cards.removeIf( cardsToRemove::contains ) ;
+
+        for ( final CardBase aCard : matchingCards )
+            {
+            cardRemoved( aCard ) ;
+            removedCards.addToBottom( aCard ) ;
             }
 
         return this ;
 
-        }  // end removeAllMatchingCards()
+        }  // end removeCardsIf()
 
 
     /**
@@ -777,7 +928,10 @@ public abstract class PileBase implements Iterable<CardBase>
 
         // assertion: there is at least one card in the pile
 
-        return this.cards.remove( position ) ;
+        final CardBase removedCard = this.cards.remove( position ) ;
+        cardRemoved( removedCard ) ;
+
+        return removedCard ;
 
         }  // end removeCardAt()
 
@@ -803,7 +957,10 @@ public abstract class PileBase implements Iterable<CardBase>
 
         // assertion: there is at least one card in the pile
 
-        return this.cards.removeFirst() ;
+        final CardBase removedCard = this.cards.removeFirst() ;
+        cardRemoved( removedCard ) ;
+
+        return removedCard ;
 
         }  // end removeTopCard()
 
@@ -840,6 +997,65 @@ public abstract class PileBase implements Iterable<CardBase>
         }   // end resetDefaultOrientation()
 
 
+    /**
+     * put the cards in this pile back as they were when a version was saved -
+     * O(1) plus {@link #allCardsReplaced()}
+     * <p>
+     * cards aren't taken out of other piles - to branch a game and return to
+     * it, save and restore every pile involved together
+     *
+     * @param version
+     *     a version saved by this pile
+     *
+     * @return this pile (fluent)
+     *
+     * @throws IllegalArgumentException
+     *     if {@code version} was saved by another pile
+     * @throws IllegalStateException
+     *     if this pile doesn't use {@link PileStorage#PERSISTENT} storage
+     *
+     * @since 7.6
+     */
+    public PileBase restoreVersion( final PileVersion version )
+        {
+
+        Objects.requireNonNull( version, "version" ) ;
+
+        if ( version.pile != this )
+            {
+            throw new IllegalArgumentException( String.format( "can't restore a version saved by another pile to this %s",
+                                                               getClass().getSimpleName() ) ) ;
+            }
+
+        persistentCards().setRoot( version.cards ) ;
+
+        allCardsReplaced() ;
+
+        return this ;
+
+        }   // end restoreVersion()
+
+
+    /**
+     * save the current cards in this pile, in order, so they can be put back
+     * with {@link #restoreVersion(PileVersion)} - O(1); later changes to the
+     * pile share all but the parts they touch with the saved version
+     *
+     * @return the saved version
+     *
+     * @throws IllegalStateException
+     *     if this pile doesn't use {@link PileStorage#PERSISTENT} storage
+     *
+     * @since 7.6
+     */
+    public PileVersion saveVersion()
+        {
+
+        return new PileVersion( this, persistentCards().getRoot() ) ;
+
+        }   // end saveVersion()
+
+
     /**
      * set the default orientation for cards added to this pile to face down
      *
@@ -897,6 +1113,36 @@ public abstract class PileBase implements Iterable<CardBase>
         }   // end setDefaultOrientation()
 
 
+    /**
+     * select the storage engine for the cards in this pile - any cards already
+     * in the pile are retained, in order
+     *
+     * @param newStorage
+     *     the storage engine to use
+     *
+     * @return this pile (fluent)
+     *
+     * @since 7.0
+     */
+    public PileBase setStorage( final PileStorage newStorage )
+        {
+
+        Objects.requireNonNull( newStorage, "newStorage" ) ;
+
+        if ( newStorage != this.storage )
+            {
+            final List<CardBase> newCards = createStorage( newStorage ) ;
+            newCards.addAll( this.cards ) ;
+
+            this.cards = newCards ;
+            this.storage = newStorage ;
+            }
+
+        return this ;
+
+        }   // end setStorage()
+
+
     /**
      * Randomize (shuffle) the cards in the deck
      *
@@ -907,11 +1153,44 @@ public abstract class PileBase implements Iterable<CardBase>
     public PileBase shuffle()
         {
 
-        Collections.shuffle( this.cards ) ;
+        return shuffle( ThreadLocalRandom.current() ) ;
+
+        }   // end shuffle()
+
+
+    /**
+     * Randomize (shuffle) the cards in the deck using a specified source of
+     * randomness - the same generator state always produces the same order
+     *
+     * @param randomGenerator
+     *     the source of randomness
+     *
+     * @return this pile (fluent)
+     *
+     * @since 7.5
+     */
+    public PileBase shuffle( final RandomGenerator randomGenerator )
+        {
+
+        Objects.requireNonNull( randomGenerator, "randomGenerator" ) ;
+
+        if ( this.cards instanceof final CardRingBuffer ringBuffer )
+            {
+            ringBuffer.shuffle( randomGenerator ) ;
+            }
+        else if ( this.cards instanceof final CardTreap treap )
+            {
+            treap.shuffle( randomGenerator ) ;
+            }
+        else
+            {
+            // linked storage has to be shuffled via an array
+            Collections.shuffle( this.cards, randomGenerator ) ;
+            }
 
         return this ;
 
-        }   // end shuffle()
+        }   // end shuffle() w/ generator
 
 
     /**
@@ -922,7 +1201,7 @@ public abstract class PileBase implements Iterable<CardBase>
     public PileBase sort()
         {
 
-        Collections.sort( this.cards ) ;
+        this.cards.sort( getCardComparator() ) ;
 
         return this ;
 
@@ -943,6 +1222,86 @@ public abstract class PileBase implements Iterable<CardBase>
      */
 
 
+    /**
+     * notification that all cards have been removed from this pile
+     * <p>
+     * subclasses which maintain information derived from the cards in the
+     * pile should override this - the default does nothing
+     *
+     * @since 7.1
+     */
+    protected void allCardsRemoved()
+        {
+
+        // nothing to do
+
+        }   // end allCardsRemoved()
+
+
+    /**
+     * notification that all cards in this pile have been replaced at once, by
+     * {@link #restoreVersion(PileVersion)}, without individual notifications
+     * <p>
+     * if {@link #tracksCards()}, the default reports the change as
+     * {@link #allCardsRemoved()} followed by {@link #cardAdded(CardBase)} for
+     * each card now in the pile, so information derived from those
+     * notifications is rebuilt in O(n); otherwise there's nothing to rebuild
+     * and it does nothing. Subclasses which can rebuild more cheaply may
+     * override this.
+     *
+     * @since 7.6
+     */
+    protected void allCardsReplaced()
+        {
+
+        if ( tracksCards() )
+            {
+            allCardsRemoved() ;
+
+            this.cards.forEach( this::cardAdded ) ;
+            }
+
+        }   // end allCardsReplaced()
+
+
+    /**
+     * notification that a card has been added to this pile
+     * <p>
+     * subclasses which maintain information derived from the cards in the
+     * pile should override this - the default does nothing
+     *
+     * @param addedCard
+     *     the card which was added
+     *
+     * @since 7.1
+     */
+    protected void cardAdded( final CardBase addedCard )
+        {
+
+        // nothing to do
+
+        }   // end cardAdded()
+
+
+    /**
+     * notification that a card has been removed from this pile
+     * <p>
+     * subclasses which maintain information derived from the cards in the
+     * pile should override this - the default does nothing
+     *
+     * @param removedCard
+     *     the card which was removed
+     *
+     * @since 7.1
+     */
+    protected void cardRemoved( final CardBase removedCard )
+        {
+
+        // nothing to do
+
+        }   // end cardRemoved()
+
+
     /**
      * determine the position of the card currently on the bottom of the pile
      *
@@ -974,6 +1333,129 @@ public abstract class PileBase implements Iterable<CardBase>
         }   // end currentTopPosition()
 
 
+    /**
+     * determine whether a card in the pile matches a target card for
+     * {@code matchCount()}
+     * <p>
+     * by default, uses the card's {@code matches()}
+     *
+     * @param candidateCard
+     *     a card in the pile
+     * @param targetCard
+     *     the card being counted
+     *
+     * @return {@code true} if the cards match, {@code false} otherwise
+     *
+     * @since 7.4
+     */
+    @SuppressWarnings( "static-method" )
+    protected boolean isMatchingCard( final CardBase candidateCard,
+                                      final CardBase targetCard )
+        {
+
+        return candidateCard.matches( targetCard ) ;
+
+        }   // end isMatchingCard()
+
+
+    /**
+     * determine whether a card in the pile is the one being looked up by
+     * {@code getCardLike()}, {@code removeCard()}, and
+     * {@code removeAllMatchingCards()}
+     * <p>
+     * by default, uses the lookup card's {@code equals()}
+     *
+     * @param lookupCard
+     *     the card being looked for
+     * @param candidateCard
+     *     a card in the pile
+     *
+     * @return {@code true} if the candidate is the card being looked for,
+     *     {@code false} otherwise
+     *
+     * @since 7.4
+     */
+    @SuppressWarnings( "static-method" )
+    protected boolean isSameCard( final CardBase lookupCard,
+                                  final CardBase candidateCard )
+        {
+
+        return lookupCard.equals( candidateCard ) ;
+
+        }   // end isSameCard()
+
+
+    /**
+     * Move all cards from {@code otherCards} into this pile, merging them into
+     * order
+     * <p>
+     * this pile must already be in order; the result is the same as moving the
+     * cards to the bottom then performing a stable sort, but takes O(n + m)
+     * if {@code otherCards} is also in order
+     *
+     * @param otherCards
+     *     another pile of cards
+     *     <p>
+     *     post-condition: {@code otherCards} will be empty
+     * @param order
+     *     the order of the cards in this pile
+     *
+     * @return this pile (fluent)
+     *
+     * @since 7.3
+     */
+    protected PileBase mergeCards( final PileBase otherCards,
+                                   final Comparator<? super CardBase> order )
+        {
+
+        Objects.requireNonNull( otherCards, "otherCards" ) ;
+        Objects.requireNonNull( order, "order" ) ;
+
+        // put the incoming cards in order - stable, and linear if they already are
+        final CardBase[] incoming = otherCards.cards.toArray( new CardBase[ 0 ] ) ;
+        Arrays.sort( incoming, order ) ;
+
+        final CardBase[] existing = this.cards.toArray( new CardBase[ 0 ] ) ;
+        final CardBase[] merged = new CardBase[ existing.length + incoming.length ] ;
+
+        // on ties, our cards stay ahead of the incoming cards
+        int e = 0 ;
+        int i = 0 ;
+        int m = 0 ;
+
+        while ( ( e < existing.length ) && ( i < incoming.length ) )
+            {
+            merged[ m++ ] = order.compare( incoming[ i ], existing[ e ] ) < 0
+                    ? incoming[ i++ ]
+                    : existing[ e++ ] ;
+            }
+
+        while ( e < existing.length )
+            {
+            merged[ m++ ] = existing[ e++ ] ;
+            }
+
+        while ( i < incoming.length )
+            {
+            merged[ m++ ] = incoming[ i++ ] ;
+            }
+
+        this.cards.clear() ;
+        this.cards.addAll( Arrays.asList( merged ) ) ;
+
+        for ( final CardBase aCard : incoming )
+            {
+            cardAdded( aCard ) ;
+            }
+
+        // remove all cards from the other pile
+        otherCards.clear() ;
+
+        return this ;
+
+        }   // end mergeCards()
+
+
     /**
      * determine the position of a card to be added to the bottom of the pile
      *
@@ -1005,6 +1487,28 @@ public abstract class PileBase implements Iterable<CardBase>
         }   // end nextTopPosition()
 
 
+    /**
+     * does this pile maintain information derived from its cards through
+     * {@link #allCardsRemoved()}, {@link #cardAdded(CardBase)} and
+     * {@link #cardRemoved(CardBase)}? if not, {@link #allCardsReplaced()} has
+     * nothing to rebuild, so restoring a saved version is O(1)
+     * <p>
+     * the default is {@code true} - subclasses which derive nothing from the
+     * cards, or only sometimes, may override this
+     *
+     * @return true if the notifications must be replayed when all the cards are
+     *     replaced at once
+     *
+     * @since 7.6
+     */
+    protected boolean tracksCards()
+        {
+
+        return true ;
+
+        }   // end tracksCards()
+
+
     /**
      * set the persistence requirements for this pile (permanent, template,
      * temporary, unrestricted)
@@ -1033,6 +1537,85 @@ public abstract class PileBase implements Iterable<CardBase>
      */
 
 
+    /**
+     * instantiate an empty list for the specified storage engine
+     *
+     * @param theStorage
+     *     the storage engine
+     *
+     * @return the new, empty list
+     *
+     * @since 7.0
+     */
+    private static List<CardBase> createStorage( final PileStorage theStorage )
+        {
+
+        return switch ( theStorage )
+            {
+            case LINKED_LIST -> new LinkedList<>() ;
+            case RING_BUFFER -> new CardRingBuffer() ;
+            case PERSISTENT -> new CardTreap() ;
+            } ;
+
+        }   // end createStorage()
+
+
+    /**
+     * retrieve our storage as a persistent treap
+     *
+     * @return the storage
+     *
+     * @throws IllegalStateException
+     *     if this pile doesn't use {@link PileStorage#PERSISTENT} storage
+     *
+     * @since 7.6
+     */
+    private CardTreap persistentCards()
+        {
+
+        if ( ! ( this.cards instanceof final CardTreap treap ) )
+            {
+            throw new IllegalStateException( String.format( "%s must use %s storage to save or restore versions, not %s",
+                                                            getClass().getSimpleName(),
+                                                            PileStorage.PERSISTENT,
+                                                            this.storage ) ) ;
+            }
+
+        return treap ;
+
+        }   // end persistentCards()
+
+
+    /**
+     * find the first card in the pile which is the same as a lookup card
+     *
+     * @param lookupCard
+     *     the card being looked for
+     *
+     * @return the position of the first matching card or -1 if there isn't one
+     *
+     * @since 7.4
+     */
+    private int positionOf( final CardBase lookupCard )
+        {
+
+        final ListIterator<CardBase> cardIterator = this.cards.listIterator() ;
+
+        while ( cardIterator.hasNext() )
+            {
+
+            if ( isSameCard( lookupCard, cardIterator.next() ) )
+                {
+                return cardIterator.previousIndex() ;
+                }
+
+            }
+
+        return -1 ;
+
+        }   // end positionOf()
+
+
     /**
      * prepare a card to be added to this pile:
      * <ul>
@@ -1049,6 +1632,32 @@ public abstract class PileBase implements Iterable<CardBase>
     private void prepareCardToAdd( final CardBase newCard )
         {
 
+        validateCardToAdd( newCard ) ;
+
+        // set orientation if necessary
+        if ( this.defaultOrientation != AS_IS )
+            {
+            newCard.setOrientation( this.defaultOrientation ) ;
+            }
+
+        }   // end prepareCardToAdd()
+
+
+    /**
+     * make sure a card can be added to this pile, without changing it:
+     * <ul>
+     * <li>must be provided (non-{@code null})
+     * <li>must have an acceptable persistence
+     * </ul>
+     *
+     * @param newCard
+     *     the card to be added
+     *
+     * @since 7.7
+     */
+    private void validateCardToAdd( final CardBase newCard )
+        {
+
         // new card is required
         Objects.requireNonNull( newCard, "newCard" ) ;
 
@@ -1063,13 +1672,7 @@ public abstract class PileBase implements Iterable<CardBase>
                                                                newCard.getPersistence() ) ) ;
             }
 
-        // set orientation if necessary
-        if ( this.defaultOrientation != AS_IS )
-            {
-            newCard.setOrientation( this.defaultOrientation ) ;
-            }
-
-        }   // end prepareCardToAdd()
+        }   // end validateCardToAdd()
 
 
     /*
@@ -1092,6 +1695,12 @@ public abstract class PileBase implements Iterable<CardBase>
         /** the actual iterator is that of the list of cards */
         private final ListIterator<CardBase> cardIterator ;
 
+        /**
+         * the card most recently returned by {@code next()} or
+         * {@code previous()} - needed to report removals and replacements
+         */
+        private CardBase lastReturned ;
+
 
         /**
          * configure the instance state
@@ -1117,7 +1726,9 @@ public abstract class PileBase implements Iterable<CardBase>
         public CardBase next()
             {
 
-            return this.cardIterator.next() ;
+            this.lastReturned = this.cardIterator.next() ;
+
+            return this.lastReturned ;
 
             }   // end next()
 
@@ -1135,7 +1746,9 @@ public abstract class PileBase implements Iterable<CardBase>
         public CardBase previous()
             {
 
-            return this.cardIterator.previous() ;
+            this.lastReturned = this.cardIterator.previous() ;
+
+            return this.lastReturned ;
 
             }   // end previous()
 
@@ -1162,7 +1775,10 @@ public abstract class PileBase implements Iterable<CardBase>
         public void remove()
             {
 
-            this.cardIterator.remove() ;
+            this.cardIterator.remove() ;    // validates the iterator state
+
+            cardRemoved( this.lastReturned ) ;
+            this.lastReturned = null ;
 
             }   // end remove()
 
@@ -1171,7 +1787,11 @@ public abstract class PileBase implements Iterable<CardBase>
         public void set( final CardBase replacementCard )
             {
 
-            this.cardIterator.set( replacementCard ) ;
+            this.cardIterator.set( replacementCard ) ;  // validates the iterator state
+
+            cardRemoved( this.lastReturned ) ;
+            cardAdded( replacementCard ) ;
+            this.lastReturned = replacementCard ;
 
             }   // end set()
 
@@ -1182,6 +1802,9 @@ public abstract class PileBase implements Iterable<CardBase>
 
             this.cardIterator.add( newCard ) ;
 
+            cardAdded( newCard ) ;
+            this.lastReturned = null ;
+
             }   // end add()
 
         }   // end inner class CardBaseIterator
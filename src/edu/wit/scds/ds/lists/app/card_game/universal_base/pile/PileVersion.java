@@ -0,0 +1,113 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.pile ;
+
+/**
+ * The cards in a pile, in order, at the time {@link PileBase#saveVersion()}
+ * was called - it can be reinstated by {@link PileBase#restoreVersion}
+ * however the pile has changed since
+ * <p>
+ * a version records which cards were in the pile and in what order, not the
+ * cards' orientation. It shares its structure with the pile and with other
+ * versions, so saving one is O(1) and keeping many costs only what changed
+ * between them.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ */
+public final class PileVersion
+    {
+
+    /*
+     * data fields
+     */
+
+
+    /** the pile which saved this version */
+    final PileBase pile ;
+
+    /** the cards - never changed */
+    final CardTreap.Node cards ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * record a version of a pile
+     *
+     * @param thePile
+     *     the pile
+     * @param theCards
+     *     the pile's cards
+     */
+    PileVersion( final PileBase thePile,
+                 final CardTreap.Node theCards )
+        {
+
+        this.pile = thePile ;
+        this.cards = theCards ;
+
+        }   // end 2-arg constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * retrieve the number of cards in this version of the pile
+     *
+     * @return the number of cards
+     */
+    public int cardCount()
+        {
+
+        return CardTreap.size( this.cards ) ;
+
+        }   // end cardCount()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "%s version with %,d cards",
+                              this.pile.getClass().getSimpleName(),
+                              cardCount() ) ;
+
+        }   // end toString()
+
+    }   // end class PileVersion
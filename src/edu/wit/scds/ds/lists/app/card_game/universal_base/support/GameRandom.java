@@ -0,0 +1,359 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.support ;
+
+import java.util.Objects ;
+import java.util.concurrent.ThreadLocalRandom ;
+import java.util.random.RandomGenerator ;
+import java.util.random.RandomGeneratorFactory ;
+
+
+/**
+ * The source of randomness for a game: a named random number generator
+ * algorithm and the seed it started from
+ * <p>
+ * recording the algorithm and seed lets any game be replayed exactly - start
+ * another game with the same {@link #toSpec() specification} and, given the
+ * same player input, it shuffles and plays identically. The generator isn't
+ * thread-safe so each game (each thread) needs its own instance.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add {@code derive()} to seed many independent games
+ *     from one specification
+ */
+public final class GameRandom
+    {
+
+    /*
+     * constants
+     */
+
+
+    /** the algorithm used if none is specified */
+    public final static String DEFAULT_ALGORITHM = "SplittableRandom" ;
+
+    /** separates the algorithm from the seed in a specification */
+    private final static String SPEC_SEPARATOR = ":" ;
+
+    /** odd constant spacing the derived seeds (the 64-bit golden ratio) */
+    private final static long DERIVATION_GAMMA = 0x9E37_79B9_7F4A_7C15L ;
+
+
+    /*
+     * data fields
+     */
+
+
+    /** name of the random number generator algorithm */
+    private final String algorithm ;
+
+    /** the generator's initial seed */
+    private final long seed ;
+
+    /** the generator */
+    private final RandomGenerator generator ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * use the default algorithm with a randomly chosen seed
+     */
+    public GameRandom()
+        {
+
+        this( DEFAULT_ALGORITHM, ThreadLocalRandom.current().nextLong() ) ;
+
+        }   // end no-arg constructor
+
+
+    /**
+     * use the default algorithm with a specified seed
+     *
+     * @param initialSeed
+     *     the generator's initial seed
+     */
+    public GameRandom( final long initialSeed )
+        {
+
+        this( DEFAULT_ALGORITHM, initialSeed ) ;
+
+        }   // end 1-arg constructor
+
+
+    /**
+     * use a specified algorithm and seed
+     *
+     * @param algorithmName
+     *     name of a random number generator algorithm, e.g.
+     *     {@code SplittableRandom} or {@code L64X128MixRandom}
+     * @param initialSeed
+     *     the generator's initial seed
+     *
+     * @throws IllegalArgumentException
+     *     if the algorithm is unknown
+     */
+    public GameRandom( final String algorithmName,
+                       final long initialSeed )
+        {
+
+        Objects.requireNonNull( algorithmName, "algorithmName" ) ;
+
+        this.algorithm = algorithmName ;
+        this.seed = initialSeed ;
+
+        // RandomGeneratorFactory.of() rejects unknown algorithms
+        this.generator = RandomGeneratorFactory.of( algorithmName ).create( initialSeed ) ;
+
+        }   // end 2-arg constructor
+
+
+    /*
+     * factories
+     */
+
+
+    /**
+     * use the specification from the first command line argument, if any,
+     * otherwise the default algorithm with a randomly chosen seed
+     *
+     * @param args
+     *     command line arguments
+     *
+     * @return the source of randomness
+     *
+     * @throws IllegalArgumentException
+     *     if the first argument isn't a valid specification
+     */
+    public static GameRandom fromArguments( final String[] args )
+        {
+
+        return ( ( args != null ) && ( args.length > 0 ) )
+                ? parse( args[ 0 ] )
+                : new GameRandom() ;
+
+        }   // end fromArguments()
+
+
+    /**
+     * interpret a specification in the form produced by {@link #toSpec()}:
+     * {@code algorithm:seed} or just {@code seed} for the default algorithm
+     *
+     * @param spec
+     *     the specification
+     *
+     * @return the source of randomness
+     *
+     * @throws IllegalArgumentException
+     *     if the specification is malformed or the algorithm is unknown
+     */
+    public static GameRandom parse( final String spec )
+        {
+
+        Objects.requireNonNull( spec, "spec" ) ;
+
+        final int separatorPosition = spec.lastIndexOf( SPEC_SEPARATOR ) ;
+
+        final String algorithmName = separatorPosition < 0
+                ? DEFAULT_ALGORITHM
+                : spec.substring( 0, separatorPosition ).strip() ;
+        final String seedText = spec.substring( separatorPosition + 1 ).strip() ;
+
+        try
+            {
+            return new GameRandom( algorithmName, Long.parseLong( seedText ) ) ;
+            }
+        catch ( final NumberFormatException e )
+            {
+            throw new IllegalArgumentException( String.format( "'%s' is not a valid seed in '%s'", seedText, spec ),
+                                                e ) ;
+            }
+
+        }   // end parse()
+
+
+    /**
+     * create an independent source of randomness for one of many games played
+     * from this specification - e.g. game {@code n} of a simulation
+     * <p>
+     * the derived seed depends only on this seed and the index, not on the
+     * order or thread in which games are created, so a parallel run replays
+     * exactly
+     *
+     * @param streamIndex
+     *     identifies the game
+     *
+     * @return the new source of randomness, using the same algorithm
+     *
+     * @since 1.1
+     */
+    public GameRandom derive( final long streamIndex )
+        {
+
+        // SplitMix64 finalizer - neighboring indices yield unrelated seeds
+        long mixed = this.seed + ( ( streamIndex + 1 ) * DERIVATION_GAMMA ) ;
+        mixed = ( mixed ^ ( mixed >>> 30 ) ) * 0xBF58_476D_1CE4_E5B9L ;
+        mixed = ( mixed ^ ( mixed >>> 27 ) ) * 0x94D0_49BB_1331_11EBL ;
+
+        return new GameRandom( this.algorithm, mixed ^ ( mixed >>> 31 ) ) ;
+
+        }   // end derive()
+
+
+    /**
+     * create an identical source of randomness, starting over from the seed
+     *
+     * @return the new source of randomness
+     */
+    public GameRandom replay()
+        {
+
+        return new GameRandom( this.algorithm, this.seed ) ;
+
+        }   // end replay()
+
+
+    /*
+     * accessors
+     */
+
+
+    /**
+     * retrieve the name of the random number generator algorithm
+     *
+     * @return the algorithm name
+     */
+    public String getAlgorithm()
+        {
+
+        return this.algorithm ;
+
+        }   // end getAlgorithm()
+
+
+    /**
+     * retrieve the generator - it isn't thread-safe
+     *
+     * @return the generator
+     */
+    public RandomGenerator getGenerator()
+        {
+
+        return this.generator ;
+
+        }   // end getGenerator()
+
+
+    /**
+     * retrieve the generator's initial seed
+     *
+     * @return the seed
+     */
+    public long getSeed()
+        {
+
+        return this.seed ;
+
+        }   // end getSeed()
+
+
+    /**
+     * produce a specification which {@link #parse(String)} accepts to replay
+     * this source of randomness
+     *
+     * @return the specification
+     */
+    public String toSpec()
+        {
+
+        return this.algorithm + SPEC_SEPARATOR + this.seed ;
+
+        }   // end toSpec()
+
+
+    @Override
+    public String toString()
+        {
+
+        return String.format( "%s seed %d", this.algorithm, this.seed ) ;
+
+        }   // end toString()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( final String[] args )
+        {
+
+        final GameRandom original = new GameRandom() ;
+        final GameRandom replayed = GameRandom.parse( original.toSpec() ) ;
+
+        System.out.printf( "original: %s -> %s%n", original, original.toSpec() ) ;
+
+        for ( int i = 0 ; i < 5 ; i++ )
+            {
+            System.out.printf( "  %,12d  %,12d%n",
+                               original.getGenerator().nextInt( 1_000_000 ),
+                               replayed.getGenerator().nextInt( 1_000_000 ) ) ;
+            }
+
+        System.out.printf( "%ndefault algorithm: %s%n", GameRandom.parse( "42" ) ) ;
+        System.out.printf( "derived: %s, %s%n",
+                           GameRandom.parse( "42" ).derive( 0 ),
+                           GameRandom.parse( "42" ).derive( 1 ) ) ;
+        System.out.printf( "other algorithm: %s%n", GameRandom.parse( "L64X128MixRandom:42" ) ) ;
+
+        try
+            {
+            GameRandom.parse( "NoSuchRandom:42" ) ;
+            }
+        catch ( final IllegalArgumentException e )
+            {
+            System.out.printf( "blew up: %s%n", e.getMessage() ) ;
+            }
+
+        }   // end main()
+
+    }   // end class GameRandom
@@ -0,0 +1,153 @@
+/* @formatter:off
+ *
+ * © David M Rosenberg
+ *
+ * Topic: List App ~ Card Game
+ *
+ * Usage restrictions:
+ *
+ * You may use this code for exploration, experimentation, and furthering your
+ * learning for this course. You may not use this code for any other
+ * assignments, in my course or elsewhere, without explicit permission, in
+ * advance, from myself (and the instructor of any other course).
+ *
+ * Further, you may not post (including in a public repository such as on github)
+ * nor otherwise share this code with anyone other than current students in my
+ * sections of this course.
+ *
+ * Violation of these usage restrictions will be considered a violation of
+ * Wentworth Institute of Technology's Academic Honesty Policy.  Unauthorized posting
+ * or use of this code may also be considered copyright infringement and may subject
+ * the poster and/or the owners/operators of said websites to legal and/or financial
+ * penalties.  My students are permitted to store this code in a private repository
+ * or other private cloud-based storage.
+ *
+ * Do not modify or remove this notice.
+ *
+ * @formatter:on
+ */
+
+
+package edu.wit.scds.ds.lists.app.card_game.universal_base.support ;
+
+/**
+ * Represents the storage engine used by a pile to hold its cards. Each engine
+ * supports the full pile API; they differ in the cost of individual
+ * operations.
+ *
+ * @author David M Rosenberg
+ *
+ * @version 1.0 2026-10-18 Initial implementation
+ * @version 1.1 2026-10-18 add {@code PERSISTENT}
+ */
+public enum PileStorage
+    {
+
+    // @formatter:off
+
+    /**
+     * doubly-linked list - O(1) to add/remove at the top and bottom, O(n) for
+     * positional access
+     */
+    LINKED_LIST ( "linked list" )
+
+    , /**
+     * circular array - O(1) to add/remove at the top and bottom, O(1) for
+     * positional access, contiguous memory
+     */
+    RING_BUFFER ( "ring buffer" )
+
+    , /**
+     * persistent tree - O(log n) to add/remove/access at any position; earlier
+     * versions remain valid and can be restored in O(1)
+     */
+    PERSISTENT ( "persistent" )
+
+    ;
+    // @formatter:on
+
+
+    /*
+     * data fields
+     */
+
+
+    /** 'pretty' form of the storage engine's name */
+    private final String displayName ;
+
+
+    /*
+     * constructors
+     */
+
+
+    /**
+     * configure the instance state
+     *
+     * @param theDisplayName
+     *     the 'pretty' form of the storage engine's name
+     */
+    private PileStorage( final String theDisplayName )
+        {
+
+        this.displayName = theDisplayName ;
+
+        }   // end constructor
+
+
+    /*
+     * public methods
+     */
+
+
+    /**
+     * retrieve the 'pretty' form of the storage engine's name
+     *
+     * @return the 'pretty' name of the storage engine
+     */
+    public String getDisplayName()
+        {
+
+        return this.displayName ;
+
+        }   // end getDisplayName()
+
+
+    @Override
+    public String toString()
+        {
+
+        return getDisplayName() ;
+
+        }   // end toString()
+
+
+    /*
+     * testing/debugging
+     */
+
+
+    /**
+     * Test driver
+     *
+     * @param args
+     *     -unused-
+     */
+    public static void main( final String[] args )
+        {
+
+        // display column headers
+        System.out.printf( "  %-5s %-15s %-15s%n", "#", "Name", "Display Name" ) ;
+
+        // display each element of the enumeration
+        for ( final PileStorage aStorage : PileStorage.values() )
+            {
+            System.out.printf( "  %-5d %-15s %-15s%n",
+                               aStorage.ordinal(),
+                               aStorage.name(),
+                               aStorage.displayName ) ;
+            }   // end for
+
+        }   // end main()
+
+    }   // end enum PileStorage